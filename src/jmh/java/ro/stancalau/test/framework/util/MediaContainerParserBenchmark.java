@@ -0,0 +1,96 @@
+package ro.stancalau.test.framework.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures container parsing over recordings the size of long egress sessions. Fixtures are generated
+ * once per trial: the MP4 media data is sparse, so a multi-GB file costs no disk space, while the
+ * WebM clusters are written out in full because every block header has to be visited.
+ *
+ * <p>Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MediaContainerParserBenchmark {
+
+    /** One hour of 30fps video */
+    @Param("108000")
+    public int frames;
+
+    @Param("4")
+    public int mp4Gigabytes;
+
+    @Param("2048")
+    public int webmBlockBytes;
+
+    private Path directory;
+    private Path mp4;
+    private Path fragmentedMp4;
+    private Path webm;
+    private Path liveWebm;
+
+    @Setup(Level.Trial)
+    public void writeFixtures() throws IOException {
+        directory = Files.createTempDirectory("media-parser-benchmark");
+        mp4 = directory.resolve("recording.mp4");
+        fragmentedMp4 = directory.resolve("recording-fragmented.mp4");
+        webm = directory.resolve("recording.webm");
+        liveWebm = directory.resolve("recording-live.webm");
+
+        MediaFixtures.writeMp4(mp4, frames, 60, 0, mp4Gigabytes * 1024L * 1024 * 1024);
+        MediaFixtures.writeFragmentedMp4(fragmentedMp4, frames / 60, 60);
+        MediaFixtures.writeWebm(webm, frames, 60, webmBlockBytes, false);
+        MediaFixtures.writeWebm(liveWebm, frames, 60, webmBlockBytes, true);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFixtures() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public MediaContainerInfo parseMp4() throws IOException {
+        return MediaContainerParser.parse(mp4);
+    }
+
+    @Benchmark
+    public MediaContainerInfo parseFragmentedMp4() throws IOException {
+        return MediaContainerParser.parse(fragmentedMp4);
+    }
+
+    @Benchmark
+    public MediaContainerInfo parseWebm() throws IOException {
+        return MediaContainerParser.parse(webm);
+    }
+
+    @Benchmark
+    public MediaContainerInfo parseWebmWithUnknownSizes() throws IOException {
+        return MediaContainerParser.parse(liveWebm);
+    }
+}
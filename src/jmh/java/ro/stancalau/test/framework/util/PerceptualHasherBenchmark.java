@@ -0,0 +1,88 @@
+package ro.stancalau.test.framework.util;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures perceptual hashing of 720p frames, both decoded images and raw gray planes, one at a time
+ * on a single hasher and in parallel batches. Scores are frames per second; the batch benchmarks count
+ * every frame of the batch as one operation.
+ *
+ * <p>Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PerceptualHasherBenchmark {
+
+    private static final int WIDTH = 1280;
+    private static final int HEIGHT = 720;
+    private static final int BATCH = 256;
+
+    @Param({"AVERAGE", "DIFFERENCE", "PERCEPTUAL"})
+    public PerceptualHasher.Algorithm algorithm;
+
+    private final PerceptualHasher hasher = new PerceptualHasher();
+    private final List<BufferedImage> images = new ArrayList<>();
+    private final List<byte[]> grayFrames = new ArrayList<>();
+    private int next;
+
+    @Setup(Level.Trial)
+    public void createFrames() {
+        Random random = new Random(42);
+        for (int i = 0; i < BATCH; i++) {
+            BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_3BYTE_BGR);
+            byte[] pixels = new byte[WIDTH * HEIGHT * 3];
+            random.nextBytes(pixels);
+            image.getRaster().setDataElements(0, 0, WIDTH, HEIGHT, pixels);
+            images.add(image);
+
+            byte[] gray = new byte[WIDTH * HEIGHT];
+            random.nextBytes(gray);
+            grayFrames.add(gray);
+        }
+    }
+
+    @Benchmark
+    public long hashImage() {
+        next = (next + 1) % BATCH;
+        return hasher.hash(images.get(next), algorithm);
+    }
+
+    @Benchmark
+    public long hashGray() {
+        next = (next + 1) % BATCH;
+        return hasher.hash(grayFrames.get(next), WIDTH, HEIGHT, algorithm);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public long[] hashAllImages() {
+        return PerceptualHasher.hashAll(images, algorithm);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public long[] hashAllGray() {
+        return PerceptualHasher.hashAll(grayFrames, WIDTH, HEIGHT, algorithm);
+    }
+}
@@ -1,10 +1,12 @@
 package ro.stancalau.test.framework.config;
 
 import java.io.File;
+import java.lang.management.ManagementFactory;
 import java.util.Arrays;
 import java.util.List;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
+import ro.stancalau.test.framework.docker.LogCompression;
 import ro.stancalau.test.framework.util.PathUtils;
 
 @Slf4j
@@ -33,6 +35,51 @@ public class TestConfig {
 
     private static final List<String> VALID_RECORDING_MODES = Arrays.asList("skip", "all", "failed");
 
+    private static final String RESOURCE_GOVERNOR_PROPERTY = "resource.governor.enabled";
+    private static final String RESOURCE_GOVERNOR_ENV = "RESOURCE_GOVERNOR_ENABLED";
+
+    private static final String RESOURCE_CPU_BUDGET_PROPERTY = "resource.cpu.budget";
+    private static final String RESOURCE_CPU_BUDGET_ENV = "RESOURCE_CPU_BUDGET";
+
+    private static final String RESOURCE_MEMORY_BUDGET_PROPERTY = "resource.memory.budget.mb";
+    private static final String RESOURCE_MEMORY_BUDGET_ENV = "RESOURCE_MEMORY_BUDGET_MB";
+
+    private static final String RESOURCE_MAX_WAIT_PROPERTY = "resource.max.wait.seconds";
+    private static final String RESOURCE_MAX_WAIT_ENV = "RESOURCE_MAX_WAIT_SECONDS";
+    private static final long DEFAULT_RESOURCE_MAX_WAIT_SECONDS = 600;
+
+    private static final String CONTAINER_LOG_MAX_SIZE_PROPERTY = "container.log.max.size.mb";
+    private static final String CONTAINER_LOG_MAX_SIZE_ENV = "CONTAINER_LOG_MAX_SIZE_MB";
+    private static final long DEFAULT_CONTAINER_LOG_MAX_SIZE_MB = 256;
+
+    private static final String CONTAINER_LOG_COMPRESSION_PROPERTY = "container.log.compression";
+    private static final String CONTAINER_LOG_COMPRESSION_ENV = "CONTAINER_LOG_COMPRESSION";
+
+    private static final String CONTAINER_STATS_PROPERTY = "container.stats.enabled";
+    private static final String CONTAINER_STATS_ENV = "CONTAINER_STATS_ENABLED";
+
+    private static final String CONTAINER_STATS_INTERVAL_PROPERTY = "container.stats.interval.ms";
+    private static final String CONTAINER_STATS_INTERVAL_ENV = "CONTAINER_STATS_INTERVAL_MS";
+    private static final long DEFAULT_CONTAINER_STATS_INTERVAL_MS = 1000;
+
+    private static final String PROMETHEUS_SCRAPE_INTERVAL_PROPERTY = "prometheus.scrape.interval.ms";
+    private static final String PROMETHEUS_SCRAPE_INTERVAL_ENV = "PROMETHEUS_SCRAPE_INTERVAL_MS";
+    private static final long DEFAULT_PROMETHEUS_SCRAPE_INTERVAL_MS = 1000;
+
+    private static final String S3_TRANSFER_CONCURRENCY_PROPERTY = "s3.transfer.concurrency";
+    private static final String S3_TRANSFER_CONCURRENCY_ENV = "S3_TRANSFER_CONCURRENCY";
+    private static final int DEFAULT_S3_TRANSFER_CONCURRENCY = 16;
+
+    private static final String S3_EVENT_NOTIFICATIONS_PROPERTY = "s3.event.notifications.enabled";
+    private static final String S3_EVENT_NOTIFICATIONS_ENV = "S3_EVENT_NOTIFICATIONS_ENABLED";
+
+    private static final String RECORDING_QUALITY_ANALYSIS_PROPERTY = "recording.quality.analysis.enabled";
+    private static final String RECORDING_QUALITY_ANALYSIS_ENV = "RECORDING_QUALITY_ANALYSIS_ENABLED";
+
+    private static final String VIDEO_QUALITY_HISTORY_PROPERTY = "video.quality.history.file";
+    private static final String VIDEO_QUALITY_HISTORY_ENV = "VIDEO_QUALITY_HISTORY_FILE";
+    private static final String DEFAULT_VIDEO_QUALITY_HISTORY_FILE = ".livekit-testing/video-quality-history.csv";
+
     private static final String CONFIG_BASE_PATH = "src/test/resources/livekit/config";
 
     /**
@@ -206,6 +253,233 @@ public class TestConfig {
         return VALID_RECORDING_MODES;
     }
 
+    /**
+     * Check if container starts should be admitted through the host resource governor. Priority:
+     * System Property > Environment Variable > Default (enabled)
+     *
+     * <p>Usage: - System Property: -Dresource.governor.enabled=false - Environment Variable:
+     * RESOURCE_GOVERNOR_ENABLED=false
+     */
+    public static boolean isResourceGovernorEnabled() {
+        String value = readSetting(RESOURCE_GOVERNOR_PROPERTY, RESOURCE_GOVERNOR_ENV);
+        return value == null || Boolean.parseBoolean(value);
+    }
+
+    /**
+     * Gets the number of host CPU cores that scenario containers may use concurrently. Defaults to the
+     * number of processors available to the JVM.
+     *
+     * <p>Usage: - System Property: -Dresource.cpu.budget=12 - Environment Variable:
+     * RESOURCE_CPU_BUDGET=12
+     */
+    public static double getResourceCpuBudget() {
+        String value = readSetting(RESOURCE_CPU_BUDGET_PROPERTY, RESOURCE_CPU_BUDGET_ENV);
+        if (value != null) {
+            try {
+                return Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                log.warn("Invalid CPU budget '{}', falling back to available processors", value);
+            }
+        }
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Gets the host memory budget in megabytes that scenario containers may use concurrently. Defaults
+     * to 80% of the physical memory reported by the operating system.
+     *
+     * <p>Usage: - System Property: -Dresource.memory.budget.mb=16384 - Environment Variable:
+     * RESOURCE_MEMORY_BUDGET_MB=16384
+     */
+    public static long getResourceMemoryBudgetMb() {
+        String value = readSetting(RESOURCE_MEMORY_BUDGET_PROPERTY, RESOURCE_MEMORY_BUDGET_ENV);
+        if (value != null) {
+            try {
+                return Long.parseLong(value);
+            } catch (NumberFormatException e) {
+                log.warn("Invalid memory budget '{}', falling back to physical memory", value);
+            }
+        }
+        long totalBytes = Runtime.getRuntime().maxMemory();
+        if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean osBean) {
+            totalBytes = osBean.getTotalMemorySize();
+        }
+        return (long) (totalBytes / (1024.0 * 1024.0) * 0.8);
+    }
+
+    /**
+     * Gets the longest time a container start may be queued by the resource governor before it is
+     * admitted anyway, which prevents scenarios holding partial reservations from starving each other.
+     */
+    public static long getResourceMaxWaitSeconds() {
+        String value = readSetting(RESOURCE_MAX_WAIT_PROPERTY, RESOURCE_MAX_WAIT_ENV);
+        if (value != null) {
+            try {
+                return Long.parseLong(value);
+            } catch (NumberFormatException e) {
+                log.warn("Invalid resource max wait '{}', falling back to default", value);
+            }
+        }
+        return DEFAULT_RESOURCE_MAX_WAIT_SECONDS;
+    }
+
+    /**
+     * Gets the size in megabytes at which container log files are rolled over. A value of 0 disables
+     * rollover.
+     *
+     * <p>Usage: - System Property: -Dcontainer.log.max.size.mb=512 - Environment Variable:
+     * CONTAINER_LOG_MAX_SIZE_MB=512 - Default: 256
+     */
+    public static long getContainerLogMaxSizeMb() {
+        String value = readSetting(CONTAINER_LOG_MAX_SIZE_PROPERTY, CONTAINER_LOG_MAX_SIZE_ENV);
+        if (value != null) {
+            try {
+                return Long.parseLong(value);
+            } catch (NumberFormatException e) {
+                log.warn("Invalid container log max size '{}', falling back to default", value);
+            }
+        }
+        return DEFAULT_CONTAINER_LOG_MAX_SIZE_MB;
+    }
+
+    /**
+     * Gets the compression applied to container log files. Compressed logs get a ".gz" suffix and can
+     * be read with CompressedLogReader.
+     *
+     * <p>Valid values: - "none": Plain text logs - "gzip": Gzip members with a seekable sync point
+     * index
+     *
+     * <p>Usage: - System Property: -Dcontainer.log.compression=gzip - Environment Variable:
+     * CONTAINER_LOG_COMPRESSION=gzip - Default: none
+     */
+    public static LogCompression getContainerLogCompression() {
+        return LogCompression.fromName(readSetting(CONTAINER_LOG_COMPRESSION_PROPERTY, CONTAINER_LOG_COMPRESSION_ENV));
+    }
+
+    /**
+     * Check if the CPU, memory, network and block I/O usage of scenario containers should be sampled
+     * from the Docker stats stream. Priority: System Property > Environment Variable > Default
+     * (enabled)
+     *
+     * <p>Usage: - System Property: -Dcontainer.stats.enabled=false - Environment Variable:
+     * CONTAINER_STATS_ENABLED=false
+     */
+    public static boolean isContainerStatsEnabled() {
+        String value = readSetting(CONTAINER_STATS_PROPERTY, CONTAINER_STATS_ENV);
+        return value == null || Boolean.parseBoolean(value);
+    }
+
+    /**
+     * Gets the interval between two container stats samples in milliseconds. Docker reports stats about
+     * once per second, so shorter intervals keep every report.
+     *
+     * <p>Usage: - System Property: -Dcontainer.stats.interval.ms=5000 - Environment Variable:
+     * CONTAINER_STATS_INTERVAL_MS=5000 - Default: 1000
+     */
+    public static long getContainerStatsIntervalMs() {
+        String value = readSetting(CONTAINER_STATS_INTERVAL_PROPERTY, CONTAINER_STATS_INTERVAL_ENV);
+        if (value != null) {
+            try {
+                return Math.max(0, Long.parseLong(value));
+            } catch (NumberFormatException e) {
+                log.warn("Invalid container stats interval '{}', falling back to default", value);
+            }
+        }
+        return DEFAULT_CONTAINER_STATS_INTERVAL_MS;
+    }
+
+    /**
+     * Gets the interval between two scrapes of the LiveKit Prometheus endpoint in milliseconds.
+     *
+     * <p>Usage: - System Property: -Dprometheus.scrape.interval.ms=500 - Environment Variable:
+     * PROMETHEUS_SCRAPE_INTERVAL_MS=500 - Default: 1000
+     */
+    public static long getPrometheusScrapeIntervalMs() {
+        String value = readSetting(PROMETHEUS_SCRAPE_INTERVAL_PROPERTY, PROMETHEUS_SCRAPE_INTERVAL_ENV);
+        if (value != null) {
+            try {
+                return Math.max(100, Long.parseLong(value));
+            } catch (NumberFormatException e) {
+                log.warn("Invalid Prometheus scrape interval '{}', falling back to default", value);
+            }
+        }
+        return DEFAULT_PROMETHEUS_SCRAPE_INTERVAL_MS;
+    }
+
+    /**
+     * Gets the maximum number of concurrent S3 object transfers, used when exporting MinIO buckets.
+     *
+     * <p>Usage: - System Property: -Ds3.transfer.concurrency=32 - Environment Variable:
+     * S3_TRANSFER_CONCURRENCY=32 - Default: 16
+     */
+    public static int getS3TransferConcurrency() {
+        String value = readSetting(S3_TRANSFER_CONCURRENCY_PROPERTY, S3_TRANSFER_CONCURRENCY_ENV);
+        if (value != null) {
+            try {
+                return Math.max(1, Integer.parseInt(value));
+            } catch (NumberFormatException e) {
+                log.warn("Invalid S3 transfer concurrency '{}', falling back to default", value);
+            }
+        }
+        return DEFAULT_S3_TRANSFER_CONCURRENCY;
+    }
+
+    /**
+     * Check if MinIO containers should publish bucket events to a webhook receiver in the test JVM, so
+     * tests can wait for uploaded objects instead of polling bucket listings. Priority: System
+     * Property > Environment Variable > Default (enabled)
+     *
+     * <p>Usage: - System Property: -Ds3.event.notifications.enabled=false - Environment Variable:
+     * S3_EVENT_NOTIFICATIONS_ENABLED=false
+     */
+    public static boolean isS3EventNotificationsEnabled() {
+        String value = readSetting(S3_EVENT_NOTIFICATIONS_PROPERTY, S3_EVENT_NOTIFICATIONS_ENV);
+        return value == null || Boolean.parseBoolean(value);
+    }
+
+    /**
+     * Check if recording content steps should decode recordings in an FFmpeg container and analyze
+     * black frames, freezes and effective frame rate, on top of the container structure checks.
+     * Priority: System Property > Environment Variable > Default (enabled)
+     *
+     * <p>Usage: - System Property: -Drecording.quality.analysis.enabled=false - Environment Variable:
+     * RECORDING_QUALITY_ANALYSIS_ENABLED=false
+     */
+    public static boolean isRecordingQualityAnalysisEnabled() {
+        String value = readSetting(RECORDING_QUALITY_ANALYSIS_PROPERTY, RECORDING_QUALITY_ANALYSIS_ENV);
+        return value == null || Boolean.parseBoolean(value);
+    }
+
+    /**
+     * Gets the CSV file that full-reference video quality results are appended to, so results of
+     * different LiveKit and egress versions can be compared across runs. The default lives in the user's
+     * home directory because {@code ./gradlew clean} deletes the test output. Priority: System Property >
+     * Environment Variable > Default (~/.livekit-testing/video-quality-history.csv)
+     *
+     * <p>Usage: - System Property: -Dvideo.quality.history.file=/data/quality.csv - Environment
+     * Variable: VIDEO_QUALITY_HISTORY_FILE=/data/quality.csv
+     */
+    public static String getVideoQualityHistoryFile() {
+        String value = readSetting(VIDEO_QUALITY_HISTORY_PROPERTY, VIDEO_QUALITY_HISTORY_ENV);
+        return value != null
+                ? value
+                : new File(System.getProperty("user.home"), DEFAULT_VIDEO_QUALITY_HISTORY_FILE).getPath();
+    }
+
+    private static String readSetting(String property, String env) {
+        String value = System.getProperty(property);
+        if (value != null && !value.trim().isEmpty()) {
+            return value.trim();
+        }
+
+        value = System.getenv(env);
+        if (value != null && !value.trim().isEmpty()) {
+            return value.trim();
+        }
+
+        return null;
+    }
+
     /**
      * Resolves the configuration path for a given profile using the current LiveKit version. Falls
      * back to the latest available version if the current version is not found.
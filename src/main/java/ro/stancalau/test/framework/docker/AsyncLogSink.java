@@ -0,0 +1,255 @@
+package ro.stancalau.test.framework.docker;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Asynchronous, buffered writer for container log output. Producers (the Docker log stream
+ * threads) append frames to a bounded lock-free queue and never block; a dedicated writer thread
+ * drains the queue into a buffered file writer. When the queue is full, frames are dropped and
+ * counted rather than stalling the Docker stream.
+ *
+ * <p>With {@link LogCompression#GZIP} the file is written as a series of gzip members with a
+ * sidecar sync point index, see {@link CompressedLogReader} for reading it back.
+ *
+ * <p>Files are rolled over once they reach the configured size: {@code livekit.log} becomes {@code
+ * livekit.log.1}, the previous {@code .1} becomes {@code .2}, and so on. Compressed logs keep their
+ * {@code .gz} suffix last, so {@code livekit.log.gz} becomes {@code livekit.log.1.gz} and is still
+ * recognized by {@link CompressedLogReader}. For compressed logs the limit applies to the compressed
+ * size.
+ */
+@Slf4j
+public class AsyncLogSink implements AutoCloseable {
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 65_536;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_ROLLED_FILES = 5;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long FLUSH_TIMEOUT_MS = 10_000;
+
+    @Getter
+    private final Path path;
+
+    @Getter
+    private final LogCompression compression;
+
+    private final long maxFileBytes;
+    private final int queueCapacity;
+    private final ConcurrentLinkedQueue<byte[]> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queuedFrames = new AtomicInteger();
+    private final AtomicLong droppedFrames = new AtomicLong();
+    private final AtomicLong flushRequested = new AtomicLong();
+    private final AtomicLong flushCompleted = new AtomicLong();
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final Thread writer;
+
+    private volatile boolean closed;
+    private LogFileWriter output;
+
+    public AsyncLogSink(Path path, long maxFileBytes) {
+        this(path, maxFileBytes, LogCompression.NONE, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    public AsyncLogSink(Path path, long maxFileBytes, LogCompression compression) {
+        this(path, maxFileBytes, compression, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    public AsyncLogSink(Path path, long maxFileBytes, LogCompression compression, int queueCapacity) {
+        this.path = path;
+        this.compression = compression;
+        this.maxFileBytes = maxFileBytes;
+        this.queueCapacity = queueCapacity;
+        this.writer = Thread.ofPlatform()
+                .name("log-sink-" + path.getFileName())
+                .daemon(true)
+                .unstarted(this::drainLoop);
+        this.writer.start();
+    }
+
+    /**
+     * Queue bytes for writing. Never blocks: returns false and counts the frame as dropped when the
+     * sink is closed or the queue is full.
+     *
+     * @param bytes The bytes to append to the log file
+     * @return True if the bytes were queued
+     */
+    public boolean offer(byte[] bytes) {
+        if (closed || bytes == null || bytes.length == 0) {
+            return false;
+        }
+        int queued = queuedFrames.incrementAndGet();
+        if (queued > queueCapacity) {
+            queuedFrames.decrementAndGet();
+            droppedFrames.incrementAndGet();
+            return false;
+        }
+        queue.offer(bytes);
+        if (queued == 1) {
+            LockSupport.unpark(writer);
+        }
+        return true;
+    }
+
+    /**
+     * Wait until everything queued before this call has been written and forced to disk.
+     *
+     * @return True if the flush completed within the timeout
+     */
+    public boolean flush() {
+        if (!writer.isAlive()) {
+            return true;
+        }
+        long ticket = flushRequested.incrementAndGet();
+        LockSupport.unpark(writer);
+        long deadline = System.currentTimeMillis() + FLUSH_TIMEOUT_MS;
+        while (flushCompleted.get() < ticket && writer.isAlive()) {
+            if (System.currentTimeMillis() > deadline) {
+                log.warn("Timed out flushing log sink {}", path);
+                return false;
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        return true;
+    }
+
+    public long getDroppedFrames() {
+        return droppedFrames.get();
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(FLUSH_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (droppedFrames.get() > 0) {
+            log.warn("Log sink {} dropped {} frames because the writer fell behind", path, droppedFrames.get());
+        }
+    }
+
+    private void drainLoop() {
+        try {
+            openOutput();
+            while (true) {
+                long requested = flushRequested.get();
+                boolean wroteAny = drainQueue();
+                if (wroteAny || requested > flushCompleted.get()) {
+                    writeBuffer();
+                    if (requested > flushCompleted.get()) {
+                        output.sync();
+                        flushCompleted.set(requested);
+                    }
+                }
+                if (closed && queue.isEmpty()) {
+                    break;
+                }
+                if (queue.isEmpty()) {
+                    output.idle();
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+            }
+            writeBuffer();
+        } catch (IOException e) {
+            log.warn("Log sink {} stopped writing: {}", path, e.getMessage());
+        } finally {
+            closeOutput();
+            flushCompleted.set(Long.MAX_VALUE);
+        }
+    }
+
+    private boolean drainQueue() throws IOException {
+        boolean wroteAny = false;
+        byte[] frame;
+        while ((frame = queue.poll()) != null) {
+            queuedFrames.decrementAndGet();
+            append(frame);
+            wroteAny = true;
+        }
+        return wroteAny;
+    }
+
+    private void append(byte[] frame) throws IOException {
+        long pendingBytes = output.size() + buffer.position();
+        if (maxFileBytes > 0 && pendingBytes > 0 && pendingBytes + frame.length > maxFileBytes) {
+            rollOver();
+        }
+        if (frame.length > buffer.remaining()) {
+            writeBuffer();
+        }
+        if (frame.length > buffer.capacity()) {
+            output.write(ByteBuffer.wrap(frame));
+            return;
+        }
+        buffer.put(frame);
+    }
+
+    private void writeBuffer() throws IOException {
+        buffer.flip();
+        output.write(buffer);
+        buffer.clear();
+    }
+
+    private void rollOver() throws IOException {
+        writeBuffer();
+        closeOutput();
+        for (int i = MAX_ROLLED_FILES - 1; i >= 1; i--) {
+            moveWithIndex(rolledPath(i), rolledPath(i + 1));
+        }
+        moveWithIndex(path, rolledPath(1));
+        log.debug("Rolled over log file {}", path);
+        openOutput();
+    }
+
+    private void moveWithIndex(Path source, Path target) throws IOException {
+        if (Files.exists(source)) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        Path sourceIndex = CompressedLogReader.indexPath(source);
+        if (Files.exists(sourceIndex)) {
+            Files.move(sourceIndex, CompressedLogReader.indexPath(target), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private Path rolledPath(int index) {
+        String fileName = path.getFileName().toString();
+        String suffix = LogCompression.GZIP.getFileSuffix();
+        if (fileName.endsWith(suffix)) {
+            String base = fileName.substring(0, fileName.length() - suffix.length());
+            return path.resolveSibling(base + "." + index + suffix);
+        }
+        return path.resolveSibling(fileName + "." + index);
+    }
+
+    private void openOutput() throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        output = compression == LogCompression.GZIP ? new GzipLogFileWriter(path) : new PlainLogFileWriter(path);
+    }
+
+    private void closeOutput() {
+        if (output != null) {
+            try {
+                output.close();
+            } catch (IOException e) {
+                log.debug("Failed to close log file {}: {}", path, e.getMessage());
+            }
+            output = null;
+        }
+    }
+}
@@ -10,6 +10,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.testcontainers.containers.GenericContainer;
 import org.testcontainers.containers.Network;
 import org.testcontainers.containers.wait.strategy.Wait;
+import ro.stancalau.test.framework.util.LoadTestOutputParser;
 import ro.stancalau.test.framework.util.PathUtils;
 
 @Slf4j
@@ -29,6 +30,11 @@ public class CLIPublisherContainer extends GenericContainer<CLIPublisherContaine
     private final String roomName;
     private final PublisherConfig config;
 
+    /** Parses the result tables of a load test while they are logged, null for join containers */
+    @Getter
+    @Nullable
+    private LoadTestOutputParser loadTestOutput;
+
     @Getter
     public static class PublisherConfig {
         private final PublisherType type;
@@ -41,6 +47,7 @@ public class CLIPublisherContainer extends GenericContainer<CLIPublisherContaine
         private final Integer numPerSecond;
         private final String layout;
         private final boolean simulateSpeakers;
+        private final String idPrefix;
 
         private PublisherConfig(Builder builder) {
             this.type = builder.type;
@@ -53,12 +60,29 @@ public class CLIPublisherContainer extends GenericContainer<CLIPublisherContaine
             this.numPerSecond = builder.numPerSecond;
             this.layout = builder.layout;
             this.simulateSpeakers = builder.simulateSpeakers;
+            this.idPrefix = builder.idPrefix;
         }
 
         public static Builder builder() {
             return new Builder();
         }
 
+        /** A builder starting from this configuration */
+        public Builder toBuilder() {
+            return new Builder()
+                    .type(type)
+                    .videoPublishers(videoPublishers)
+                    .audioPublishers(audioPublishers)
+                    .subscribers(subscribers)
+                    .videoResolution(videoResolution)
+                    .simulcast(simulcast)
+                    .duration(duration)
+                    .numPerSecond(numPerSecond)
+                    .layout(layout)
+                    .simulateSpeakers(simulateSpeakers)
+                    .idPrefix(idPrefix);
+        }
+
         public static class Builder {
             private PublisherType type = PublisherType.LOAD_TEST;
             private int videoPublishers = 0;
@@ -70,6 +94,7 @@ public class CLIPublisherContainer extends GenericContainer<CLIPublisherContaine
             private Integer numPerSecond;
             private String layout;
             private boolean simulateSpeakers = false;
+            private String idPrefix;
 
             public Builder type(PublisherType type) {
                 this.type = type;
@@ -121,6 +146,12 @@ public class CLIPublisherContainer extends GenericContainer<CLIPublisherContaine
                 return this;
             }
 
+            /** The identity prefix of the simulated participants; the CLI picks a random one if unset */
+            public Builder idPrefix(String prefix) {
+                this.idPrefix = prefix;
+                return this;
+            }
+
             public PublisherConfig build() {
                 return new PublisherConfig(this);
             }
@@ -175,6 +206,10 @@ public class CLIPublisherContainer extends GenericContainer<CLIPublisherContaine
 
         container = ContainerLogUtils.withLogCapture(container, logDirRoot, "cli-publisher.log");
 
+        LoadTestOutputParser loadTestOutput = new LoadTestOutputParser();
+        container = container.withLogConsumer(loadTestOutput);
+        container.loadTestOutput = loadTestOutput;
+
         container = container.withNetwork(network).withNetworkAliases(alias);
 
         // Don't wait for specific log messages, just ensure container starts
@@ -290,6 +325,11 @@ public class CLIPublisherContainer extends GenericContainer<CLIPublisherContaine
             command.add("--simulate-speakers");
         }
 
+        if (config.idPrefix != null) {
+            command.add("--id-prefix");
+            command.add(config.idPrefix);
+        }
+
         command.add("--verbose");
 
         return command;
@@ -0,0 +1,216 @@
+package ro.stancalau.test.framework.docker;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import ro.stancalau.test.framework.util.CapacitySearchResult;
+import ro.stancalau.test.framework.util.CapacityStage;
+import ro.stancalau.test.framework.util.LoadTestResults;
+import ro.stancalau.test.framework.util.LoadTestSlo;
+
+/**
+ * Finds the most participants a room sustains by running load tests of growing size. The search ramps
+ * the participant count up in fixed steps until a stage misses its {@link LoadTestSlo}, then bisects
+ * between the last stage that passed and the first that failed. The last ramp stage is cut to the
+ * plan's largest room size, so that size is always tried.
+ *
+ * <p>Every stage scales the participant mix of a template {@link CLIPublisherContainer.PublisherConfig},
+ * so a template of one video publisher and three subscribers keeps that ratio at every size. Stages are
+ * run by a {@link StageRunner}, which may also fail a stage on server side checks by throwing.
+ */
+@Slf4j
+public class CapacitySearch {
+
+    @Getter
+    private final CLIPublisherContainer.PublisherConfig template;
+
+    @Getter
+    private final LoadTestSlo slo;
+
+    private final StageRunner runner;
+
+    public CapacitySearch(CLIPublisherContainer.PublisherConfig template, LoadTestSlo slo, StageRunner runner) {
+        if (participants(template) == 0) {
+            throw new IllegalArgumentException("The capacity search template has no participants");
+        }
+        this.template = template;
+        this.slo = slo;
+        this.runner = runner;
+    }
+
+    /**
+     * Run the search.
+     *
+     * @param plan The ramp and bisection bounds
+     * @return The largest sustained room and every stage that was run
+     */
+    public CapacitySearchResult run(Plan plan) {
+        List<CapacityStage> stages = new ArrayList<>();
+        int lastPassed = 0;
+        Integer firstFailed = null;
+
+        int participants = Math.max(plan.initialParticipants(), minimumParticipants());
+        while (participants <= plan.maxParticipants()) {
+            CapacityStage stage = runStage(stages.size() + 1, participants);
+            stages.add(stage);
+            if (!stage.passed()) {
+                firstFailed = participants;
+                break;
+            }
+            lastPassed = participants;
+            if (participants == plan.maxParticipants()) {
+                break;
+            }
+            participants = Math.min(participants + plan.rampStep(), plan.maxParticipants());
+        }
+
+        if (firstFailed != null) {
+            int low = lastPassed;
+            int high = firstFailed;
+            while (high - low > plan.resolution()) {
+                int middle = low + (high - low) / 2;
+                if (middle < minimumParticipants()) {
+                    break;
+                }
+                CapacityStage stage = runStage(stages.size() + 1, middle);
+                stages.add(stage);
+                if (stage.passed()) {
+                    low = middle;
+                } else {
+                    high = middle;
+                }
+            }
+            lastPassed = low;
+            firstFailed = high;
+        }
+
+        boolean reachedCeiling = firstFailed == null && lastPassed == plan.maxParticipants();
+        CapacitySearchResult result = new CapacitySearchResult(lastPassed, firstFailed, reachedCeiling, stages);
+        log.info("Capacity search finished: {}", result);
+        return result;
+    }
+
+    /** The smallest room that still has every participant kind of the template */
+    public int minimumParticipants() {
+        return (template.getVideoPublishers() > 0 ? 1 : 0)
+                + (template.getAudioPublishers() > 0 ? 1 : 0)
+                + (template.getSubscribers() > 0 ? 1 : 0);
+    }
+
+    /**
+     * Scale the participant mix of a template to a room size. Every participant kind is given its share
+     * of the room, rounded by largest remainder, and at least one participant if the template has any.
+     *
+     * @param template The configuration whose mix to keep
+     * @param participants The room size, at least the number of participant kinds in the template
+     * @return The template with its publisher and subscriber counts replaced
+     */
+    public static CLIPublisherContainer.PublisherConfig scale(
+            CLIPublisherContainer.PublisherConfig template, int participants) {
+        int[] weights = {template.getVideoPublishers(), template.getAudioPublishers(), template.getSubscribers()};
+        int total = participants(template);
+        int[] counts = new int[weights.length];
+        double[] remainders = new double[weights.length];
+        int assigned = 0;
+        for (int i = 0; i < weights.length; i++) {
+            double exact = (double) participants * weights[i] / total;
+            counts[i] = (int) Math.floor(exact);
+            remainders[i] = exact - counts[i];
+            assigned += counts[i];
+        }
+        while (assigned < participants) {
+            int largest = 0;
+            for (int i = 1; i < weights.length; i++) {
+                if (remainders[i] > remainders[largest]) {
+                    largest = i;
+                }
+            }
+            counts[largest]++;
+            remainders[largest] = -1;
+            assigned++;
+        }
+        for (int i = 0; i < weights.length; i++) {
+            if (weights[i] > 0 && counts[i] == 0) {
+                int donor = 0;
+                for (int j = 1; j < weights.length; j++) {
+                    if (counts[j] > counts[donor]) {
+                        donor = j;
+                    }
+                }
+                if (counts[donor] > 1) {
+                    counts[donor]--;
+                    counts[i]++;
+                }
+            }
+        }
+        return template.toBuilder()
+                .videoPublishers(counts[0])
+                .audioPublishers(counts[1])
+                .subscribers(counts[2])
+                .build();
+    }
+
+    private CapacityStage runStage(int stageNumber, int participants) {
+        CLIPublisherContainer.PublisherConfig config = scale(template, participants);
+        log.info(
+                "Capacity search stage {}: {} participants ({} video, {} audio, {} subscribers)",
+                stageNumber,
+                participants,
+                config.getVideoPublishers(),
+                config.getAudioPublishers(),
+                config.getSubscribers());
+        LoadTestResults results = null;
+        List<String> violations;
+        try {
+            results = runner.run(stageNumber, config);
+            violations = slo.violations(results);
+        } catch (RuntimeException | AssertionError e) {
+            violations = List.of("stage failed: " + e.getMessage());
+        }
+        CapacityStage stage = new CapacityStage(
+                participants,
+                config.getVideoPublishers(),
+                config.getAudioPublishers(),
+                config.getSubscribers(),
+                violations,
+                results);
+        log.info("Capacity search stage {}: {}", stageNumber, stage);
+        return stage;
+    }
+
+    private static int participants(CLIPublisherContainer.PublisherConfig config) {
+        return config.getVideoPublishers() + config.getAudioPublishers() + config.getSubscribers();
+    }
+
+    /** Runs one load test stage and returns its parsed results */
+    @FunctionalInterface
+    public interface StageRunner {
+        /**
+         * Run a load test and wait for its results.
+         *
+         * @param stageNumber The 1-based number of the stage, for naming rooms and containers
+         * @param config The scaled configuration
+         * @return The parsed results
+         */
+        LoadTestResults run(int stageNumber, CLIPublisherContainer.PublisherConfig config);
+    }
+
+    /**
+     * The bounds of a capacity search.
+     *
+     * @param initialParticipants The room size of the first stage
+     * @param rampStep How many participants each ramp stage adds
+     * @param maxParticipants The largest room size to try
+     * @param resolution Bisection stops once the last passing and first failing sizes are this close
+     */
+    public record Plan(int initialParticipants, int rampStep, int maxParticipants, int resolution) {
+
+        public Plan {
+            if (initialParticipants < 1 || rampStep < 1 || resolution < 1 || maxParticipants < initialParticipants) {
+                throw new IllegalArgumentException("Invalid capacity search plan: initial " + initialParticipants
+                        + ", step " + rampStep + ", max " + maxParticipants + ", resolution " + resolution);
+            }
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package ro.stancalau.test.framework.docker;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.GZIPInputStream;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Reads container log files written by {@link AsyncLogSink}, decompressing gzip logs on the fly. Logs
+ * are streamed line by line and never loaded into memory as a whole.
+ *
+ * <p>Files that are still being written can be read: a partially written trailing gzip member ends
+ * the stream instead of failing it. Call {@link ContainerLogUtils#flushAll()} first to include
+ * everything the container has logged so far.
+ */
+@UtilityClass
+public class CompressedLogReader {
+
+    private static final String INDEX_SUFFIX = ".idx";
+
+    /** Get the path of the sync point index written next to a compressed log file */
+    public static Path indexPath(Path logPath) {
+        return logPath.resolveSibling(logPath.getFileName() + INDEX_SUFFIX);
+    }
+
+    public static boolean isCompressed(Path logPath) {
+        return logPath.getFileName().toString().endsWith(LogCompression.GZIP.getFileSuffix());
+    }
+
+    /**
+     * Read the sync points of a compressed log file.
+     *
+     * @param logPath The compressed log file
+     * @return The sync points in file order, empty if the file has no index
+     */
+    public static List<SyncPoint> readIndex(Path logPath) throws IOException {
+        Path indexPath = indexPath(logPath);
+        List<SyncPoint> syncPoints = new ArrayList<>();
+        if (!Files.exists(indexPath)) {
+            return syncPoints;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(indexPath, StandardCharsets.US_ASCII)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int separator = line.indexOf(' ');
+                if (separator > 0) {
+                    syncPoints.add(new SyncPoint(
+                            Long.parseLong(line.substring(0, separator)),
+                            Long.parseLong(line.substring(separator + 1).trim())));
+                }
+            }
+        }
+        return syncPoints;
+    }
+
+    /**
+     * Stream all lines of a log file. The stream must be closed to release the file.
+     *
+     * @param logPath The plain or gzip compressed log file
+     * @return The lines of the log
+     */
+    public static Stream<String> lines(Path logPath) throws IOException {
+        return lines(logPath, 0);
+    }
+
+    /**
+     * Stream the lines of a log file starting at an offset into the uncompressed log. For compressed
+     * files, decompression starts at the closest preceding sync point rather than at the beginning of
+     * the file. The stream must be closed to release the file.
+     *
+     * @param logPath The plain or gzip compressed log file
+     * @param uncompressedOffset The offset into the uncompressed log to start reading from
+     * @return The lines of the log from the offset onward
+     */
+    public static Stream<String> lines(Path logPath, long uncompressedOffset) throws IOException {
+        InputStream in = open(logPath, uncompressedOffset);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        Iterator<String> iterator = new TruncationTolerantLineIterator(reader);
+        return StreamSupport.stream(
+                        Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL),
+                        false)
+                .onClose(() -> {
+                    try {
+                        reader.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    /**
+     * Check whether any line of a log file matches a pattern, stopping at the first match.
+     *
+     * @param logPath The plain or gzip compressed log file
+     * @param pattern The pattern to find in a line
+     * @return True if a line matches
+     */
+    public static boolean containsMatch(Path logPath, Pattern pattern) throws IOException {
+        try (Stream<String> lines = lines(logPath)) {
+            return lines.anyMatch(line -> pattern.matcher(line).find());
+        }
+    }
+
+    /**
+     * Get the size of the uncompressed log. For compressed logs this uses the index and the size
+     * recorded in the last member, so only the last eight bytes of the file are read.
+     *
+     * @param logPath The plain or gzip compressed log file
+     * @return The number of bytes of log output, 0 if the file does not exist
+     */
+    public static long uncompressedSize(Path logPath) throws IOException {
+        if (!Files.exists(logPath) || Files.size(logPath) == 0) {
+            return 0;
+        }
+        if (!isCompressed(logPath)) {
+            return Files.size(logPath);
+        }
+        List<SyncPoint> syncPoints = readIndex(logPath);
+        if (syncPoints.isEmpty()) {
+            try (InputStream in = open(logPath, 0)) {
+                return in.transferTo(OutputStream.nullOutputStream());
+            }
+        }
+        try (FileChannel channel = FileChannel.open(logPath, StandardOpenOption.READ)) {
+            ByteBuffer memberSize = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(memberSize, channel.size() - 4);
+            return syncPoints.getLast().uncompressedOffset() + Integer.toUnsignedLong(memberSize.getInt(0));
+        }
+    }
+
+    private static InputStream open(Path logPath, long uncompressedOffset) throws IOException {
+        FileChannel channel = FileChannel.open(logPath, StandardOpenOption.READ);
+        try {
+            if (!isCompressed(logPath)) {
+                channel.position(uncompressedOffset);
+                return new BufferedInputStream(Channels.newInputStream(channel));
+            }
+            SyncPoint start = new SyncPoint(0, 0);
+            for (SyncPoint syncPoint : readIndex(logPath)) {
+                if (syncPoint.uncompressedOffset() > uncompressedOffset) {
+                    break;
+                }
+                start = syncPoint;
+            }
+            channel.position(start.compressedOffset());
+            InputStream in = new GZIPInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            skipTolerant(in, uncompressedOffset - start.uncompressedOffset());
+            return in;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static void skipTolerant(InputStream in, long bytes) throws IOException {
+        try {
+            in.skipNBytes(bytes);
+        } catch (EOFException e) {
+            // Offset is past the end of the readable log, the stream is simply empty
+        }
+    }
+
+    /**
+     * Start of an independently decompressible gzip member.
+     *
+     * @param compressedOffset Byte offset of the member in the compressed file
+     * @param uncompressedOffset Byte offset of the member's first byte in the uncompressed log
+     */
+    public record SyncPoint(long compressedOffset, long uncompressedOffset) {}
+
+    private static final class TruncationTolerantLineIterator implements Iterator<String> {
+
+        private final BufferedReader reader;
+        private String next;
+        private boolean done;
+
+        private TruncationTolerantLineIterator(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && !done) {
+                try {
+                    next = reader.readLine();
+                } catch (EOFException e) {
+                    next = null;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                done = next == null;
+            }
+            return next != null;
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            String line = next;
+            next = null;
+            return line;
+        }
+    }
+}
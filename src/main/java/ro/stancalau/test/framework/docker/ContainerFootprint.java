@@ -0,0 +1,92 @@
+package ro.stancalau.test.framework.docker;
+
+import org.testcontainers.containers.BrowserWebDriverContainer;
+import org.testcontainers.containers.GenericContainer;
+
+/**
+ * Estimated host resources consumed by a running container. Used by {@link ContainerResourceGovernor}
+ * to decide whether a container start fits into the host CPU and memory budget.
+ *
+ * @param cpus Number of host CPU cores the container is expected to keep busy
+ * @param memoryMb Resident memory the container is expected to use, in megabytes
+ */
+public record ContainerFootprint(double cpus, long memoryMb) {
+
+    public static final ContainerFootprint LIVEKIT = new ContainerFootprint(1.0, 512);
+    public static final ContainerFootprint EGRESS = new ContainerFootprint(2.0, 1536);
+    public static final ContainerFootprint INGRESS = new ContainerFootprint(1.5, 768);
+    public static final ContainerFootprint BROWSER = new ContainerFootprint(1.0, 1024);
+    public static final ContainerFootprint FFMPEG = new ContainerFootprint(1.0, 256);
+    public static final ContainerFootprint CLI_PUBLISHER = new ContainerFootprint(0.5, 256);
+    public static final ContainerFootprint MINIO = new ContainerFootprint(0.25, 256);
+    public static final ContainerFootprint MOCK_SERVER = new ContainerFootprint(0.25, 256);
+    public static final ContainerFootprint REDIS = new ContainerFootprint(0.1, 64);
+    public static final ContainerFootprint WEB_SERVER = new ContainerFootprint(0.1, 64);
+    public static final ContainerFootprint DEFAULT = new ContainerFootprint(0.5, 256);
+
+    private static final double CPUS_PER_LOAD_TEST_VIDEO_PUBLISHER = 0.25;
+    private static final double CPUS_PER_LOAD_TEST_PARTICIPANT = 0.05;
+    private static final long MEMORY_MB_PER_LOAD_TEST_PARTICIPANT = 16;
+
+    /**
+     * Estimates the footprint of a container from its type. CLI load test containers are scaled by
+     * the number of simulated participants, since every publisher encodes its own video.
+     *
+     * @param container The container about to be started
+     * @return The estimated footprint
+     */
+    public static ContainerFootprint forContainer(GenericContainer<?> container) {
+        if (container instanceof LiveKitContainer) {
+            return LIVEKIT;
+        }
+        if (container instanceof EgressContainer) {
+            return EGRESS;
+        }
+        if (container instanceof IngressContainer) {
+            return INGRESS;
+        }
+        if (container instanceof BrowserWebDriverContainer<?>) {
+            return BROWSER;
+        }
+        if (container instanceof FFmpegContainer) {
+            return FFMPEG;
+        }
+        if (container instanceof CLIPublisherContainer cliContainer) {
+            return forPublisherConfig(cliContainer.getPublisherConfig());
+        }
+        if (container instanceof MinIOContainer) {
+            return MINIO;
+        }
+        if (container instanceof MockHttpServerContainer) {
+            return MOCK_SERVER;
+        }
+        if (container instanceof RedisContainer) {
+            return REDIS;
+        }
+        if (container instanceof WebServerContainer) {
+            return WEB_SERVER;
+        }
+        return DEFAULT;
+    }
+
+    public static ContainerFootprint forPublisherConfig(CLIPublisherContainer.PublisherConfig config) {
+        if (config == null || config.getType() != CLIPublisherContainer.PublisherType.LOAD_TEST) {
+            return CLI_PUBLISHER;
+        }
+        int participants = config.getVideoPublishers() + config.getAudioPublishers() + config.getSubscribers();
+        double cpus = CLI_PUBLISHER.cpus()
+                + config.getVideoPublishers() * CPUS_PER_LOAD_TEST_VIDEO_PUBLISHER
+                + participants * CPUS_PER_LOAD_TEST_PARTICIPANT;
+        long memoryMb = CLI_PUBLISHER.memoryMb() + participants * MEMORY_MB_PER_LOAD_TEST_PARTICIPANT;
+        return new ContainerFootprint(cpus, memoryMb);
+    }
+
+    public ContainerFootprint plus(ContainerFootprint other) {
+        return new ContainerFootprint(cpus + other.cpus, memoryMb + other.memoryMb);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.2f CPU / %d MB", cpus, memoryMb);
+    }
+}
@@ -0,0 +1,281 @@
+package ro.stancalau.test.framework.docker;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Live, in-memory view of a container's log output, fed by the log consumer created in {@link
+ * ContainerLogUtils}. Keeps a bounded ring of the most recent lines and matches every new line
+ * against the precompiled patterns of active subscriptions, so waiting for a log message never
+ * touches the log file or re-scans output that was already checked.
+ *
+ * <p>Every line gets a sequence number. Use {@link #mark()} before triggering an action and pass the
+ * mark to {@link #awaitMatch(Pattern, long, Duration)} to only match output logged after it.
+ */
+@Slf4j
+public class ContainerLogIndex {
+
+    public static final int DEFAULT_CAPACITY = 10_000;
+
+    private final String name;
+    private final String[] ring;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final StringBuilder partialLine = new StringBuilder();
+
+    private long nextSequence;
+    private volatile boolean ended;
+
+    public ContainerLogIndex(String name) {
+        this(name, DEFAULT_CAPACITY);
+    }
+
+    public ContainerLogIndex(String name, int capacity) {
+        this.name = name;
+        this.ring = new String[capacity];
+    }
+
+    /**
+     * Add raw container output. Frames may hold several lines or end in the middle of a line; an
+     * incomplete trailing line is kept until the rest arrives.
+     *
+     * @param bytes UTF-8 encoded container output
+     */
+    public void append(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return;
+        }
+        String text = new String(bytes, StandardCharsets.UTF_8);
+        List<String> lines = new ArrayList<>();
+        synchronized (partialLine) {
+            int start = 0;
+            int newline;
+            while ((newline = text.indexOf('\n', start)) >= 0) {
+                partialLine.append(text, start, newline);
+                lines.add(stripCarriageReturn(partialLine));
+                partialLine.setLength(0);
+                start = newline + 1;
+            }
+            partialLine.append(text, start, text.length());
+        }
+        for (String line : lines) {
+            addLine(line);
+        }
+    }
+
+    /**
+     * Get the sequence number the next logged line will get.
+     *
+     * @return The current end of the log
+     */
+    public long mark() {
+        lock.lock();
+        try {
+            return nextSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wait for a line matching a pattern, including lines still held in the ring.
+     *
+     * @param regex The regular expression to find in a line
+     * @param timeout How long to wait for a matching line
+     * @return The first matching line, or empty on timeout or when the container log ended
+     */
+    public Optional<String> awaitMatch(String regex, Duration timeout) {
+        return awaitMatch(Pattern.compile(regex), 0, timeout);
+    }
+
+    public Optional<String> awaitMatch(Pattern pattern, Duration timeout) {
+        return awaitMatch(pattern, 0, timeout);
+    }
+
+    /**
+     * Wait for a line matching a pattern that was logged at or after a sequence number. Lines still
+     * held in the ring are checked once; after that only new lines are matched as they arrive.
+     *
+     * @param pattern The pattern to find in a line
+     * @param fromSequence The first sequence number to consider, usually taken from {@link #mark()}
+     * @param timeout How long to wait for a matching line
+     * @return The first matching line, or empty on timeout or when the container log ended
+     */
+    public Optional<String> awaitMatch(Pattern pattern, long fromSequence, Duration timeout) {
+        CompletableFuture<String> match = new CompletableFuture<>();
+        Subscription subscription;
+
+        lock.lock();
+        try {
+            long oldest = Math.max(fromSequence, nextSequence - ring.length);
+            for (long sequence = Math.max(oldest, 0); sequence < nextSequence; sequence++) {
+                String line = ring[slot(sequence)];
+                if (pattern.matcher(line).find()) {
+                    return Optional.of(line);
+                }
+            }
+            if (ended) {
+                return Optional.empty();
+            }
+            subscription = subscribeLocked(pattern, match::complete, () -> match.complete(null));
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            return Optional.ofNullable(match.get(timeout.toMillis(), TimeUnit.MILLISECONDS));
+        } catch (TimeoutException e) {
+            log.warn("No line matching '{}' in {} log after {}ms", pattern.pattern(), name, timeout.toMillis());
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        } catch (ExecutionException e) {
+            return Optional.empty();
+        } finally {
+            subscription.close();
+        }
+    }
+
+    /**
+     * Call a listener for every future line matching a pattern. The listener runs on the Docker log
+     * stream thread and must return quickly.
+     *
+     * @param pattern The pattern to find in a line
+     * @param listener Receives each matching line
+     * @return The subscription, close it to stop receiving lines
+     */
+    public Subscription subscribe(Pattern pattern, Consumer<String> listener) {
+        lock.lock();
+        try {
+            return subscribeLocked(pattern, listener, null);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Get a snapshot of the lines currently held in the ring, oldest first */
+    public List<String> recentLines() {
+        lock.lock();
+        try {
+            long oldest = Math.max(0, nextSequence - ring.length);
+            List<String> lines = new ArrayList<>((int) (nextSequence - oldest));
+            for (long sequence = oldest; sequence < nextSequence; sequence++) {
+                lines.add(ring[slot(sequence)]);
+            }
+            return lines;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Get the total number of lines logged, including lines no longer held in the ring */
+    public long getLineCount() {
+        return mark();
+    }
+
+    public boolean isEnded() {
+        return ended;
+    }
+
+    /** Mark the log as ended. Pending waits return empty and later waits only check the ring. */
+    public void end() {
+        String lastLine = null;
+        synchronized (partialLine) {
+            if (!partialLine.isEmpty()) {
+                lastLine = stripCarriageReturn(partialLine);
+                partialLine.setLength(0);
+            }
+        }
+        if (lastLine != null) {
+            addLine(lastLine);
+        }
+        lock.lock();
+        try {
+            ended = true;
+        } finally {
+            lock.unlock();
+        }
+        for (Subscription subscription : subscriptions) {
+            if (subscription.onEnd != null) {
+                subscription.onEnd.run();
+            }
+        }
+        subscriptions.clear();
+    }
+
+    private void addLine(String line) {
+        List<Subscription> matched = null;
+        lock.lock();
+        try {
+            ring[slot(nextSequence)] = line;
+            nextSequence++;
+            for (Subscription subscription : subscriptions) {
+                if (subscription.pattern.matcher(line).find()) {
+                    if (matched == null) {
+                        matched = new ArrayList<>(1);
+                    }
+                    matched.add(subscription);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (matched != null) {
+            for (Subscription subscription : matched) {
+                subscription.listener.accept(line);
+            }
+        }
+    }
+
+    private Subscription subscribeLocked(Pattern pattern, Consumer<String> listener, Runnable onEnd) {
+        Subscription subscription = new Subscription(this, pattern, listener, onEnd);
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    private int slot(long sequence) {
+        return (int) (sequence % ring.length);
+    }
+
+    private static String stripCarriageReturn(StringBuilder line) {
+        int length = line.length();
+        if (length > 0 && line.charAt(length - 1) == '\r') {
+            return line.substring(0, length - 1);
+        }
+        return line.toString();
+    }
+
+    /** A pattern subscription on a container log */
+    public static final class Subscription implements AutoCloseable {
+
+        private final ContainerLogIndex index;
+        private final Pattern pattern;
+        private final Consumer<String> listener;
+        private final Runnable onEnd;
+
+        private Subscription(ContainerLogIndex index, Pattern pattern, Consumer<String> listener, Runnable onEnd) {
+            this.index = index;
+            this.pattern = pattern;
+            this.listener = listener;
+            this.onEnd = onEnd;
+        }
+
+        @Override
+        public void close() {
+            index.subscriptions.remove(this);
+        }
+    }
+}
@@ -1,36 +1,62 @@
 package ro.stancalau.test.framework.docker;
 
 import java.io.File;
-import java.nio.file.Files;
-import java.nio.file.StandardOpenOption;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
 import org.testcontainers.containers.GenericContainer;
 import org.testcontainers.containers.output.OutputFrame;
+import ro.stancalau.test.framework.config.TestConfig;
 
 @Slf4j
 @UtilityClass
 public class ContainerLogUtils {
 
+    private static final Map<Path, AsyncLogSink> SINKS = new ConcurrentHashMap<>();
+    private static final Map<Path, ContainerLogIndex> INDEXES = new ConcurrentHashMap<>();
+    private static final Map<GenericContainer<?>, Path> CONTAINER_LOGS =
+            Collections.synchronizedMap(new IdentityHashMap<>());
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(ContainerLogUtils::closeAll, "container-log-shutdown"));
+    }
+
     /**
      * Creates a log consumer that writes container output to a specified log file. This method
      * provides a unified approach for capturing stdout/stderr from containers and persisting them to
      * the test artifact directory structure.
      *
+     * <p>Frames are handed to an {@link AsyncLogSink}, so the Docker stream thread never blocks on
+     * disk I/O. The sink is closed when the container's log stream ends. When log compression is
+     * configured the file name gets the compression suffix, see {@link #resolveLogPath}.
+     *
+     * <p>Every frame is also fed to the log's {@link ContainerLogIndex}, so steps can wait for log
+     * messages without reading the file.
+     *
      * @param logDirectory The directory where the log file should be created
      * @param logFileName The name of the log file (e.g., "livekit.log", "egress.log")
      * @return A consumer that can be used with GenericContainer.withLogConsumer()
      */
     public static Consumer<OutputFrame> createLogConsumer(File logDirectory, String logFileName) {
+        Path logPath = resolveLogPath(logDirectory, logFileName);
         return outputFrame -> {
+            if (outputFrame.getType() == OutputFrame.OutputType.END) {
+                closeSink(logPath);
+                ContainerLogIndex index = INDEXES.get(logPath);
+                if (index != null) {
+                    index.end();
+                }
+                return;
+            }
             try {
-                File logFile = new File(logDirectory, logFileName);
-                Files.write(
-                        logFile.toPath(),
-                        outputFrame.getUtf8String().getBytes(),
-                        StandardOpenOption.CREATE,
-                        StandardOpenOption.APPEND);
+                byte[] bytes = outputFrame.getBytes();
+                sinkFor(logPath).offer(bytes);
+                indexFor(logPath).append(bytes);
             } catch (Exception e) {
                 log.warn("Failed to write {} log: {}", logFileName, e.getMessage());
             }
@@ -47,7 +73,93 @@ public class ContainerLogUtils {
      * @param <T> The container type
      * @return The container with log capturing enabled
      */
-    public static <T extends GenericContainer<T>> T withLogCapture(T container, File logDirectory, String logFileName) {
-        return container.withLogConsumer(createLogConsumer(logDirectory, logFileName));
+    public static <T extends GenericContainer<?>> T withLogCapture(T container, File logDirectory, String logFileName) {
+        CONTAINER_LOGS.put(container, resolveLogPath(logDirectory, logFileName));
+        container.withLogConsumer(createLogConsumer(logDirectory, logFileName));
+        return container;
+    }
+
+    /**
+     * Get the live log index of a container whose logs are captured with {@link #withLogCapture}.
+     *
+     * @param container The container
+     * @return The log index, or null if the container's logs are not captured
+     */
+    public static ContainerLogIndex logIndex(GenericContainer<?> container) {
+        Path logPath = CONTAINER_LOGS.get(container);
+        return logPath != null ? indexFor(logPath) : null;
+    }
+
+    /**
+     * Get the live log index of a captured log file.
+     *
+     * @param logDirectory The directory the log is written to
+     * @param logFileName The name of the log file
+     * @return The log index
+     */
+    public static ContainerLogIndex logIndex(File logDirectory, String logFileName) {
+        return indexFor(resolveLogPath(logDirectory, logFileName));
+    }
+
+    /**
+     * Drop the in-memory log index of a container that is no longer used. The log file is kept.
+     *
+     * @param container The container
+     */
+    public static void discardLogIndex(GenericContainer<?> container) {
+        Path logPath = CONTAINER_LOGS.remove(container);
+        if (logPath != null) {
+            INDEXES.remove(logPath);
+        }
+    }
+
+    /**
+     * Resolves the file a container log is written to, including the suffix of the configured
+     * compression.
+     *
+     * @param logDirectory The directory the log is written to
+     * @param logFileName The name of the log file (e.g., "livekit.log")
+     * @return The absolute path of the log file
+     */
+    public static Path resolveLogPath(File logDirectory, String logFileName) {
+        String fileName = logFileName + TestConfig.getContainerLogCompression().getFileSuffix();
+        return new File(logDirectory, fileName).toPath().toAbsolutePath();
+    }
+
+    /**
+     * Writes out everything queued for all open container logs. Called at the end of a scenario so
+     * that the log files are complete before artifacts are collected.
+     */
+    public static void flushAll() {
+        for (AsyncLogSink sink : SINKS.values()) {
+            sink.flush();
+        }
+    }
+
+    /** Flushes and closes all open container logs. */
+    public static void closeAll() {
+        for (Path logPath : SINKS.keySet()) {
+            closeSink(logPath);
+        }
+    }
+
+    private static AsyncLogSink sinkFor(Path logPath) {
+        return SINKS.computeIfAbsent(
+                logPath,
+                path -> new AsyncLogSink(
+                        path,
+                        TestConfig.getContainerLogMaxSizeMb() * 1024 * 1024,
+                        TestConfig.getContainerLogCompression()));
+    }
+
+    private static ContainerLogIndex indexFor(Path logPath) {
+        return INDEXES.computeIfAbsent(logPath, path -> new ContainerLogIndex(path.getFileName().toString()));
+    }
+
+    private static void closeSink(Path logPath) {
+        AsyncLogSink sink = SINKS.remove(logPath);
+        if (sink != null) {
+            sink.close();
+        }
     }
 }
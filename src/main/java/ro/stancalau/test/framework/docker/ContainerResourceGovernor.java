@@ -0,0 +1,222 @@
+package ro.stancalau.test.framework.docker;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import ro.stancalau.test.framework.config.TestConfig;
+
+/**
+ * Admission control for container starts across all scenarios running in the JVM. Every container
+ * start reserves its estimated {@link ContainerFootprint}; starts that do not fit into the host CPU
+ * and memory budget are queued until running containers are stopped and release their reservation.
+ *
+ * <p>Reservations are made on behalf of a tenant, usually a scenario's container manager. A request
+ * is always admitted when no other tenant holds a reservation, so a scenario running alone is never
+ * queued behind its own containers, even when together they exceed the budget. Requests that wait
+ * longer than the configured maximum are admitted with a warning, which keeps scenarios that hold
+ * partial reservations from deadlocking.
+ */
+@Slf4j
+public class ContainerResourceGovernor {
+
+    private static final ContainerResourceGovernor SHARED = new ContainerResourceGovernor(
+            TestConfig.isResourceGovernorEnabled(),
+            TestConfig.getResourceCpuBudget(),
+            TestConfig.getResourceMemoryBudgetMb(),
+            Duration.ofSeconds(TestConfig.getResourceMaxWaitSeconds()));
+
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition released = lock.newCondition();
+
+    @Getter
+    private final boolean enabled;
+
+    @Getter
+    private final double cpuBudget;
+
+    @Getter
+    private final long memoryBudgetMb;
+
+    private final Duration maxWait;
+
+    private double cpusInUse;
+    private long memoryMbInUse;
+    private int activeReservations;
+    private final Map<Object, Integer> reservationsByTenant = new HashMap<>();
+
+    public ContainerResourceGovernor(boolean enabled, double cpuBudget, long memoryBudgetMb, Duration maxWait) {
+        this.enabled = enabled;
+        this.cpuBudget = cpuBudget;
+        this.memoryBudgetMb = memoryBudgetMb;
+        this.maxWait = maxWait;
+        if (enabled) {
+            log.info(
+                    "Container resource governor budget: {} CPU / {} MB (max queue wait {}s)",
+                    cpuBudget,
+                    memoryBudgetMb,
+                    maxWait.toSeconds());
+        }
+    }
+
+    /** Get the governor shared by all scenarios running in this JVM */
+    public static ContainerResourceGovernor shared() {
+        return SHARED;
+    }
+
+    /**
+     * Reserve resources for a container start as a tenant of its own, blocking until the footprint fits
+     * into the budget.
+     *
+     * @param name A descriptive name of the container used for logging
+     * @param footprint The estimated footprint of the container
+     * @return The reservation, which must be released once the container is stopped
+     */
+    public Reservation acquire(String name, ContainerFootprint footprint) {
+        return acquire(new Object(), name, footprint);
+    }
+
+    /**
+     * Reserve resources for a container start, blocking until the footprint fits into the budget or no
+     * other tenant holds a reservation.
+     *
+     * @param tenant The owner of the reservation, e.g. the scenario's container manager
+     * @param name A descriptive name of the container used for logging
+     * @param footprint The estimated footprint of the container
+     * @return The reservation, which must be released once the container is stopped
+     */
+    public Reservation acquire(Object tenant, String name, ContainerFootprint footprint) {
+        if (!enabled) {
+            return new Reservation(this, tenant, name, footprint, false);
+        }
+
+        long startNanos = System.nanoTime();
+        long deadlineNanos = startNanos + maxWait.toNanos();
+        boolean queued = false;
+
+        lock.lock();
+        try {
+            while (!fits(tenant, footprint)) {
+                long remainingNanos = deadlineNanos - System.nanoTime();
+                if (remainingNanos <= 0) {
+                    log.warn(
+                            "Admitting {} ({}) over budget after waiting {}s, in use: {} CPU / {} MB",
+                            name,
+                            footprint,
+                            maxWait.toSeconds(),
+                            String.format("%.2f", cpusInUse),
+                            memoryMbInUse);
+                    break;
+                }
+                if (!queued) {
+                    queued = true;
+                    log.info(
+                            "Queueing start of {} ({}), in use: {} CPU / {} MB of {} CPU / {} MB",
+                            name,
+                            footprint,
+                            String.format("%.2f", cpusInUse),
+                            memoryMbInUse,
+                            cpuBudget,
+                            memoryBudgetMb);
+                }
+                released.awaitNanos(remainingNanos);
+            }
+
+            cpusInUse += footprint.cpus();
+            memoryMbInUse += footprint.memoryMb();
+            activeReservations++;
+            reservationsByTenant.merge(tenant, 1, Integer::sum);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for resources to start " + name, e);
+        } finally {
+            lock.unlock();
+        }
+
+        long waitedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        if (queued) {
+            log.info("Admitted {} ({}) after queueing for {}ms", name, footprint, waitedMs);
+        } else {
+            log.debug("Admitted {} ({}) immediately", name, footprint);
+        }
+        return new Reservation(this, tenant, name, footprint, true);
+    }
+
+    public double getCpusInUse() {
+        lock.lock();
+        try {
+            return cpusInUse;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getMemoryMbInUse() {
+        lock.lock();
+        try {
+            return memoryMbInUse;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean fits(Object tenant, ContainerFootprint footprint) {
+        if (activeReservations == reservationsByTenant.getOrDefault(tenant, 0)) {
+            return true;
+        }
+        return cpusInUse + footprint.cpus() <= cpuBudget && memoryMbInUse + footprint.memoryMb() <= memoryBudgetMb;
+    }
+
+    private void release(Reservation reservation) {
+        lock.lock();
+        try {
+            cpusInUse = Math.max(0, cpusInUse - reservation.footprint.cpus());
+            memoryMbInUse = Math.max(0, memoryMbInUse - reservation.footprint.memoryMb());
+            activeReservations = Math.max(0, activeReservations - 1);
+            reservationsByTenant.computeIfPresent(reservation.tenant, (key, count) -> count > 1 ? count - 1 : null);
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        log.debug("Released resources of {} ({})", reservation.name, reservation.footprint);
+    }
+
+    /** Resources held by a started container. Releasing is idempotent. */
+    public static final class Reservation {
+
+        private final ContainerResourceGovernor governor;
+        private final Object tenant;
+
+        @Getter
+        private final String name;
+
+        @Getter
+        private final ContainerFootprint footprint;
+
+        private boolean held;
+
+        private Reservation(
+                ContainerResourceGovernor governor,
+                Object tenant,
+                String name,
+                ContainerFootprint footprint,
+                boolean held) {
+            this.governor = governor;
+            this.tenant = tenant;
+            this.name = name;
+            this.footprint = footprint;
+            this.held = held;
+        }
+
+        public synchronized void release() {
+            if (held) {
+                held = false;
+                governor.release(this);
+            }
+        }
+    }
+}
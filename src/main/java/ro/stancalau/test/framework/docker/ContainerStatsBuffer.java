@@ -0,0 +1,122 @@
+package ro.stancalau.test.framework.docker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import lombok.Getter;
+
+/**
+ * A fixed size ring buffer of one container's stats samples, kept as primitive columns so an hour of
+ * samples per container stays small. Once full, the oldest samples are overwritten.
+ */
+public class ContainerStatsBuffer {
+
+    static final String CSV_HEADER =
+            "elapsedMs,cpuPercent,memoryBytes,networkRxBytes,networkTxBytes,blockReadBytes,blockWriteBytes";
+
+    @Getter
+    private final int capacity;
+
+    private final long[] elapsedMillis;
+    private final float[] cpuPercent;
+    private final long[] memoryBytes;
+    private final long[] networkRxBytes;
+    private final long[] networkTxBytes;
+    private final long[] blockReadBytes;
+    private final long[] blockWriteBytes;
+
+    private int next;
+    private int size;
+    private long overwritten;
+
+    public ContainerStatsBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive, got " + capacity);
+        }
+        this.capacity = capacity;
+        this.elapsedMillis = new long[capacity];
+        this.cpuPercent = new float[capacity];
+        this.memoryBytes = new long[capacity];
+        this.networkRxBytes = new long[capacity];
+        this.networkTxBytes = new long[capacity];
+        this.blockReadBytes = new long[capacity];
+        this.blockWriteBytes = new long[capacity];
+    }
+
+    public synchronized void add(ContainerStatsSample sample) {
+        elapsedMillis[next] = sample.elapsedMillis();
+        cpuPercent[next] = (float) sample.cpuPercent();
+        memoryBytes[next] = sample.memoryBytes();
+        networkRxBytes[next] = sample.networkRxBytes();
+        networkTxBytes[next] = sample.networkTxBytes();
+        blockReadBytes[next] = sample.blockReadBytes();
+        blockWriteBytes[next] = sample.blockWriteBytes();
+        next = (next + 1) % capacity;
+        if (size < capacity) {
+            size++;
+        } else {
+            overwritten++;
+        }
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /** The number of samples lost because the buffer was full */
+    public synchronized long getOverwritten() {
+        return overwritten;
+    }
+
+    /** All samples still in the buffer, oldest first */
+    public List<ContainerStatsSample> samples() {
+        return samplesSince(Long.MIN_VALUE);
+    }
+
+    /**
+     * The samples taken at or after a point in time, oldest first.
+     *
+     * @param elapsedMillis The time since the sampler started
+     * @return The samples
+     */
+    public synchronized List<ContainerStatsSample> samplesSince(long elapsedMillis) {
+        List<ContainerStatsSample> samples = new ArrayList<>(size);
+        int first = (next - size + capacity) % capacity;
+        for (int i = 0; i < size; i++) {
+            int index = (first + i) % capacity;
+            if (this.elapsedMillis[index] >= elapsedMillis) {
+                samples.add(sampleAt(index));
+            }
+        }
+        return samples;
+    }
+
+    /** The samples as CSV with a header row */
+    public String toCsv() {
+        StringBuilder csv = new StringBuilder(CSV_HEADER).append('\n');
+        for (ContainerStatsSample sample : samples()) {
+            csv.append(String.format(
+                    Locale.ROOT,
+                    "%d,%.2f,%d,%d,%d,%d,%d\n",
+                    sample.elapsedMillis(),
+                    sample.cpuPercent(),
+                    sample.memoryBytes(),
+                    sample.networkRxBytes(),
+                    sample.networkTxBytes(),
+                    sample.blockReadBytes(),
+                    sample.blockWriteBytes()));
+        }
+        return csv.toString();
+    }
+
+    private ContainerStatsSample sampleAt(int index) {
+        return new ContainerStatsSample(
+                elapsedMillis[index],
+                cpuPercent[index],
+                memoryBytes[index],
+                networkRxBytes[index],
+                networkTxBytes[index],
+                blockReadBytes[index],
+                blockWriteBytes[index]);
+    }
+}
@@ -0,0 +1,22 @@
+package ro.stancalau.test.framework.docker;
+
+/**
+ * The resource usage of one container at one point in time, as reported by the Docker stats stream.
+ * Network and block I/O counters are cumulative since the container started.
+ *
+ * @param elapsedMillis The time since the scenario's sampler started
+ * @param cpuPercent The CPU usage since the previous Docker report, where 100 is one fully busy core
+ * @param memoryBytes The memory in use without inactive page cache, as {@code docker stats} shows it
+ * @param networkRxBytes The bytes received on all interfaces
+ * @param networkTxBytes The bytes sent on all interfaces
+ * @param blockReadBytes The bytes read from block devices
+ * @param blockWriteBytes The bytes written to block devices
+ */
+public record ContainerStatsSample(
+        long elapsedMillis,
+        double cpuPercent,
+        long memoryBytes,
+        long networkRxBytes,
+        long networkTxBytes,
+        long blockReadBytes,
+        long blockWriteBytes) {}
@@ -0,0 +1,250 @@
+package ro.stancalau.test.framework.docker;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.dockerjava.api.async.ResultCallback;
+import com.github.dockerjava.api.model.BlkioStatEntry;
+import com.github.dockerjava.api.model.BlkioStatsConfig;
+import com.github.dockerjava.api.model.CpuStatsConfig;
+import com.github.dockerjava.api.model.MemoryStatsConfig;
+import com.github.dockerjava.api.model.StatisticNetworksConfig;
+import com.github.dockerjava.api.model.Statistics;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nullable;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.testcontainers.containers.GenericContainer;
+
+/**
+ * Streams Docker stats of running containers into one {@link ContainerStatsBuffer} per container. All
+ * samples share one timeline starting when the sampler is created, so the usage of different
+ * containers can be compared at the same point of a scenario. Buffers outlive their streams, so the
+ * samples of stopped containers can still be asserted and exported.
+ */
+@Slf4j
+public class ContainerStatsSampler implements AutoCloseable {
+
+    public static final int DEFAULT_CAPACITY = 3600;
+
+    private static final ObjectMapper OBJECT_MAPPER =
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    @Getter
+    private final Duration interval;
+
+    private final int capacity;
+    private final long startNanos = System.nanoTime();
+    private final Map<String, ContainerStatsBuffer> buffers = new ConcurrentHashMap<>();
+    private final Map<String, StatsStream> streams = new ConcurrentHashMap<>();
+
+    public ContainerStatsSampler(Duration interval, int capacity) {
+        this.interval = interval;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Start streaming the stats of a running container. A container that is already sampled under the
+     * same name keeps its buffer.
+     *
+     * @param name The service name of the container
+     * @param container The started container
+     */
+    public void start(String name, GenericContainer<?> container) {
+        String containerId = container.getContainerId();
+        if (containerId == null || !container.isRunning()) {
+            return;
+        }
+        stop(name);
+        ContainerStatsBuffer buffer = buffers.computeIfAbsent(name, key -> new ContainerStatsBuffer(capacity));
+        StatsStream stream = new StatsStream(name, buffer);
+        try {
+            container.getDockerClient().statsCmd(containerId).exec(stream);
+            streams.put(name, stream);
+            log.debug("Sampling Docker stats of {} every {}ms", name, interval.toMillis());
+        } catch (RuntimeException e) {
+            log.warn("Could not stream Docker stats of {}: {}", name, e.getMessage());
+        }
+    }
+
+    /**
+     * Stop streaming the stats of a container, keeping its samples.
+     *
+     * @param name The service name of the container
+     */
+    public void stop(String name) {
+        StatsStream stream = streams.remove(name);
+        if (stream != null) {
+            try {
+                stream.close();
+            } catch (IOException e) {
+                log.debug("Could not close Docker stats stream of {}: {}", name, e.getMessage());
+            }
+        }
+    }
+
+    /** The time since the sampler started, on the timeline of its samples */
+    public long elapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    /**
+     * The samples of a container.
+     *
+     * @param name The service name of the container
+     * @return The buffer, or null if the container was never sampled
+     */
+    @Nullable
+    public ContainerStatsBuffer buffer(String name) {
+        return buffers.get(name);
+    }
+
+    /**
+     * Write one {@code <name>.stats.csv} per container and a {@code container-stats.json} with the
+     * samples of all containers.
+     *
+     * @param directory The directory to write to
+     * @throws IOException If a file cannot be written
+     */
+    public void export(Path directory) throws IOException {
+        if (buffers.isEmpty()) {
+            return;
+        }
+        Files.createDirectories(directory);
+        Map<String, List<ContainerStatsSample>> all = new LinkedHashMap<>();
+        for (Map.Entry<String, ContainerStatsBuffer> entry : new TreeMap<>(buffers).entrySet()) {
+            Files.writeString(directory.resolve(entry.getKey() + ".stats.csv"), entry.getValue().toCsv());
+            all.put(entry.getKey(), entry.getValue().samples());
+        }
+        OBJECT_MAPPER.writeValue(directory.resolve("container-stats.json").toFile(), all);
+    }
+
+    @Override
+    public void close() {
+        for (String name : List.copyOf(streams.keySet())) {
+            stop(name);
+        }
+    }
+
+    /**
+     * Convert a Docker stats report to a sample. CPU usage is computed against the previous report
+     * included in it, as {@code docker stats} does.
+     *
+     * @param elapsedMillis The time of the sample
+     * @param stats The Docker stats report
+     * @return The sample
+     */
+    static ContainerStatsSample toSample(long elapsedMillis, Statistics stats) {
+        return new ContainerStatsSample(
+                elapsedMillis,
+                cpuPercent(stats.getCpuStats(), stats.getPreCpuStats()),
+                memoryBytes(stats.getMemoryStats()),
+                networkBytes(stats.getNetworks(), true),
+                networkBytes(stats.getNetworks(), false),
+                blockBytes(stats.getBlkioStats(), "read"),
+                blockBytes(stats.getBlkioStats(), "write"));
+    }
+
+    private static double cpuPercent(@Nullable CpuStatsConfig cpu, @Nullable CpuStatsConfig previous) {
+        if (cpu == null || previous == null || cpu.getCpuUsage() == null || previous.getCpuUsage() == null) {
+            return 0;
+        }
+        long cpuDelta =
+                value(cpu.getCpuUsage().getTotalUsage()) - value(previous.getCpuUsage().getTotalUsage());
+        long systemDelta = value(cpu.getSystemCpuUsage()) - value(previous.getSystemCpuUsage());
+        if (cpuDelta <= 0 || systemDelta <= 0) {
+            return 0;
+        }
+        long cpus = value(cpu.getOnlineCpus());
+        if (cpus == 0 && cpu.getCpuUsage().getPercpuUsage() != null) {
+            cpus = cpu.getCpuUsage().getPercpuUsage().size();
+        }
+        return (double) cpuDelta / systemDelta * Math.max(1, cpus) * 100;
+    }
+
+    private static long memoryBytes(@Nullable MemoryStatsConfig memory) {
+        if (memory == null) {
+            return 0;
+        }
+        long usage = value(memory.getUsage());
+        if (memory.getStats() == null) {
+            return usage;
+        }
+        Long inactiveFile = memory.getStats().getInactiveFile();
+        long cache = inactiveFile != null ? inactiveFile : value(memory.getStats().getCache());
+        return Math.max(0, usage - cache);
+    }
+
+    private static long networkBytes(@Nullable Map<String, StatisticNetworksConfig> networks, boolean received) {
+        if (networks == null) {
+            return 0;
+        }
+        long bytes = 0;
+        for (StatisticNetworksConfig network : networks.values()) {
+            bytes += value(received ? network.getRxBytes() : network.getTxBytes());
+        }
+        return bytes;
+    }
+
+    private static long blockBytes(@Nullable BlkioStatsConfig blkio, String operation) {
+        if (blkio == null || blkio.getIoServiceBytesRecursive() == null) {
+            return 0;
+        }
+        long bytes = 0;
+        for (BlkioStatEntry entry : blkio.getIoServiceBytesRecursive()) {
+            if (entry.getOp() != null && entry.getOp().toLowerCase(Locale.ROOT).equals(operation)) {
+                bytes += value(entry.getValue());
+            }
+        }
+        return bytes;
+    }
+
+    private static long value(@Nullable Long value) {
+        return value != null ? value : 0;
+    }
+
+    /** Receives the stats reports of one container, keeping one per sampling interval */
+    private class StatsStream extends ResultCallback.Adapter<Statistics> {
+
+        private final String name;
+        private final ContainerStatsBuffer buffer;
+        private long lastSampleMillis = Long.MIN_VALUE;
+
+        StatsStream(String name, ContainerStatsBuffer buffer) {
+            this.name = name;
+            this.buffer = buffer;
+        }
+
+        @Override
+        public void onNext(Statistics stats) {
+            long now = elapsedMillis();
+            if (lastSampleMillis != Long.MIN_VALUE && now - lastSampleMillis < interval.toMillis()) {
+                return;
+            }
+            lastSampleMillis = now;
+            try {
+                buffer.add(toSample(now, stats));
+            } catch (RuntimeException e) {
+                log.debug("Skipping unreadable Docker stats of {}: {}", name, e.getMessage());
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            log.debug("Docker stats stream of {} ended: {}", name, throwable.getMessage());
+            try {
+                close();
+            } catch (IOException e) {
+                log.debug("Could not close Docker stats stream of {}: {}", name, e.getMessage());
+            }
+        }
+    }
+}
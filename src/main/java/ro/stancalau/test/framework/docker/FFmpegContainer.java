@@ -6,6 +6,7 @@ import java.util.List;
 import javax.annotation.Nullable;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.testcontainers.containers.BindMode;
 import org.testcontainers.containers.GenericContainer;
 import org.testcontainers.containers.Network;
 import ro.stancalau.test.framework.util.PathUtils;
@@ -17,6 +18,7 @@ public class FFmpegContainer extends GenericContainer<FFmpegContainer> {
     private static final String DEFAULT_RESOLUTION = "1280x720";
     private static final int DEFAULT_FRAMERATE = 30;
     private static final int DEFAULT_DURATION_SECONDS = 30;
+    private static final String RECORDINGS_MOUNT_PATH = "/out/video-recordings";
 
     @Getter
     private final Network network;
@@ -88,6 +90,172 @@ public class FFmpegContainer extends GenericContainer<FFmpegContainer> {
         return createRtmpStream(alias, network, rtmpUrl, "invalid-stream-key", durationSeconds, logDestinationPath);
     }
 
+    /**
+     * Create a container that decodes a local recording into raw 8-bit grayscale frames of a fixed
+     * size and writes them to a TCP URL, e.g. a {@code ContainerStreamReceiver}. The recording's
+     * directory is bind-mounted read-only like the egress {@code /out} mount.
+     *
+     * @param alias The network alias of the container
+     * @param network The Docker network
+     * @param recordingFile The recording on the host
+     * @param width The width of the output frames
+     * @param height The height of the output frames
+     * @param outputUrl The TCP URL the frames are written to
+     * @param logDestinationPath The log directory, or null for the scenario default
+     * @return The container, not yet started
+     */
+    public static FFmpegContainer createLocalFrameExtractor(
+            String alias,
+            Network network,
+            File recordingFile,
+            int width,
+            int height,
+            String outputUrl,
+            @Nullable String logDestinationPath) {
+        FFmpegContainer container = createFrameExtractor(
+                alias,
+                network,
+                RECORDINGS_MOUNT_PATH + "/" + recordingFile.getName(),
+                width,
+                height,
+                outputUrl,
+                logDestinationPath);
+        return container.withFileSystemBind(
+                recordingFile.getAbsoluteFile().getParent(), RECORDINGS_MOUNT_PATH, BindMode.READ_ONLY);
+    }
+
+    /**
+     * Create a container that decodes a recording served over HTTP, e.g. a presigned MinIO URL on the
+     * Docker network, into raw 8-bit grayscale frames written to a TCP URL.
+     *
+     * @param alias The network alias of the container
+     * @param network The Docker network
+     * @param recordingUrl The URL of the recording, reachable from the container
+     * @param width The width of the output frames
+     * @param height The height of the output frames
+     * @param outputUrl The TCP URL the frames are written to
+     * @param logDestinationPath The log directory, or null for the scenario default
+     * @return The container, not yet started
+     */
+    public static FFmpegContainer createUrlFrameExtractor(
+            String alias,
+            Network network,
+            String recordingUrl,
+            int width,
+            int height,
+            String outputUrl,
+            @Nullable String logDestinationPath) {
+        return createFrameExtractor(alias, network, recordingUrl, width, height, outputUrl, logDestinationPath);
+    }
+
+    /**
+     * Create a container that decodes the first audio track of a local recording into raw signed
+     * 16-bit little-endian mono PCM and writes it to a TCP URL, e.g. a {@code ContainerStreamReceiver}.
+     * The recording's directory is bind-mounted read-only like the egress {@code /out} mount.
+     *
+     * @param alias The network alias of the container
+     * @param network The Docker network
+     * @param recordingFile The recording on the host
+     * @param sampleRate The sample rate of the output
+     * @param outputUrl The TCP URL the samples are written to
+     * @param logDestinationPath The log directory, or null for the scenario default
+     * @return The container, not yet started
+     */
+    public static FFmpegContainer createLocalAudioExtractor(
+            String alias,
+            Network network,
+            File recordingFile,
+            int sampleRate,
+            String outputUrl,
+            @Nullable String logDestinationPath) {
+        FFmpegContainer container = createAudioExtractor(
+                alias,
+                network,
+                RECORDINGS_MOUNT_PATH + "/" + recordingFile.getName(),
+                sampleRate,
+                outputUrl,
+                logDestinationPath);
+        return container.withFileSystemBind(
+                recordingFile.getAbsoluteFile().getParent(), RECORDINGS_MOUNT_PATH, BindMode.READ_ONLY);
+    }
+
+    /**
+     * Create a container that decodes the first audio track of a recording served over HTTP into raw
+     * signed 16-bit little-endian mono PCM written to a TCP URL.
+     *
+     * @param alias The network alias of the container
+     * @param network The Docker network
+     * @param recordingUrl The URL of the recording, reachable from the container
+     * @param sampleRate The sample rate of the output
+     * @param outputUrl The TCP URL the samples are written to
+     * @param logDestinationPath The log directory, or null for the scenario default
+     * @return The container, not yet started
+     */
+    public static FFmpegContainer createUrlAudioExtractor(
+            String alias,
+            Network network,
+            String recordingUrl,
+            int sampleRate,
+            String outputUrl,
+            @Nullable String logDestinationPath) {
+        return createAudioExtractor(alias, network, recordingUrl, sampleRate, outputUrl, logDestinationPath);
+    }
+
+    private static FFmpegContainer createFrameExtractor(
+            String alias,
+            Network network,
+            String input,
+            int width,
+            int height,
+            String outputUrl,
+            @Nullable String logDestinationPath) {
+        FFmpegContainer container = createDecoder(
+                alias, network, buildFrameExtractionCommand(input, width, height, outputUrl), logDestinationPath);
+
+        log.info(
+                "Created FFmpeg container {} decoding {} to {}x{} gray frames at {}",
+                alias,
+                input,
+                width,
+                height,
+                outputUrl);
+
+        return container;
+    }
+
+    private static FFmpegContainer createAudioExtractor(
+            String alias,
+            Network network,
+            String input,
+            int sampleRate,
+            String outputUrl,
+            @Nullable String logDestinationPath) {
+        FFmpegContainer container = createDecoder(
+                alias, network, buildAudioExtractionCommand(input, sampleRate, outputUrl), logDestinationPath);
+
+        log.info(
+                "Created FFmpeg container {} decoding {} to {} Hz mono PCM at {}", alias, input, sampleRate, outputUrl);
+
+        return container;
+    }
+
+    private static FFmpegContainer createDecoder(
+            String alias, Network network, List<String> command, @Nullable String logDestinationPath) {
+
+        String logDirPath = (logDestinationPath != null)
+                ? logDestinationPath
+                : PathUtils.containerLogPath(PathUtils.currentScenarioPath(), "docker", alias);
+
+        File logDirRoot = new File(logDirPath);
+        logDirRoot.mkdirs();
+
+        FFmpegContainer container = new FFmpegContainer(DEFAULT_IMAGE, network);
+
+        container = ContainerLogUtils.withLogCapture(container, logDirRoot, "ffmpeg.log");
+
+        return container.withNetwork(network).withNetworkAliases(alias).withCommand(command.toArray(new String[0]));
+    }
+
     private static List<String> buildRtmpCommand(
             String rtmpUrl, String resolution, int framerate, int durationSeconds) {
         List<String> command = new ArrayList<>();
@@ -128,4 +296,47 @@ public class FFmpegContainer extends GenericContainer<FFmpegContainer> {
 
         return command;
     }
+
+    private static List<String> buildFrameExtractionCommand(String input, int width, int height, String outputUrl) {
+        List<String> command = new ArrayList<>();
+        command.add("-nostdin");
+        command.add("-i");
+        command.add(input);
+        command.add("-map");
+        command.add("0:v:0");
+        command.add("-an");
+        // Keep every decoded frame as is: duplicating or dropping frames would hide or fake freezes
+        command.add("-vsync");
+        command.add("passthrough");
+        command.add("-vf");
+        command.add(String.format("scale=%d:%d,format=gray", width, height));
+        command.add("-f");
+        command.add("rawvideo");
+        command.add("-pix_fmt");
+        command.add("gray");
+        command.add(outputUrl);
+
+        return command;
+    }
+
+    private static List<String> buildAudioExtractionCommand(String input, int sampleRate, String outputUrl) {
+        List<String> command = new ArrayList<>();
+        command.add("-nostdin");
+        command.add("-i");
+        command.add(input);
+        command.add("-map");
+        command.add("0:a:0");
+        command.add("-vn");
+        command.add("-ac");
+        command.add("1");
+        command.add("-ar");
+        command.add(String.valueOf(sampleRate));
+        command.add("-f");
+        command.add("s16le");
+        command.add("-acodec");
+        command.add("pcm_s16le");
+        command.add(outputUrl);
+
+        return command;
+    }
 }
@@ -0,0 +1,148 @@
+package ro.stancalau.test.framework.docker;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes log bytes as a sequence of independent gzip members. Each member holds at most {@link
+ * #SYNC_INTERVAL_BYTES} of log output and is a sync point: it can be decompressed without reading
+ * anything before it. Standard tools ({@code zcat}, {@code gunzip}) read the concatenated members as
+ * one stream.
+ *
+ * <p>The start of every member is recorded in a sidecar index file ({@code <file>.idx}), one
+ * {@code "<compressed offset> <uncompressed offset>"} line per member, which {@link
+ * CompressedLogReader} uses to seek.
+ */
+final class GzipLogFileWriter implements LogFileWriter {
+
+    static final int SYNC_INTERVAL_BYTES = 1024 * 1024;
+
+    private static final long SYNC_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
+    private static final byte[] MEMBER_HEADER = {0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final FileChannel indexChannel;
+    private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+    private final CRC32 crc = new CRC32();
+    private final ByteBuffer out = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final ByteBuffer trailer = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+
+    private long size;
+    private long uncompressedOffset;
+    private int memberBytes;
+    private long memberStartNanos;
+
+    GzipLogFileWriter(Path path) throws IOException {
+        this.uncompressedOffset = CompressedLogReader.uncompressedSize(path);
+        this.channel = open(path);
+        this.indexChannel = open(CompressedLogReader.indexPath(path));
+        this.size = channel.size();
+    }
+
+    @Override
+    public void write(ByteBuffer data) throws IOException {
+        while (data.hasRemaining()) {
+            if (memberBytes == 0) {
+                startMember();
+            }
+            int chunk = Math.min(data.remaining(), SYNC_INTERVAL_BYTES - memberBytes);
+            ByteBuffer input = data.slice(data.position(), chunk);
+            crc.update(input.duplicate());
+            deflater.setInput(input);
+            while (!deflater.needsInput()) {
+                deflate();
+            }
+            data.position(data.position() + chunk);
+            memberBytes += chunk;
+            uncompressedOffset += chunk;
+            if (memberBytes >= SYNC_INTERVAL_BYTES) {
+                finishMember();
+            }
+        }
+    }
+
+    @Override
+    public void sync() throws IOException {
+        if (memberBytes > 0) {
+            finishMember();
+        }
+        channel.force(false);
+        indexChannel.force(false);
+    }
+
+    @Override
+    public void idle() throws IOException {
+        if (memberBytes > 0 && System.nanoTime() - memberStartNanos > SYNC_INTERVAL_NANOS) {
+            finishMember();
+        }
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (memberBytes > 0) {
+                finishMember();
+            }
+        } finally {
+            deflater.end();
+            channel.close();
+            indexChannel.close();
+        }
+    }
+
+    private void startMember() throws IOException {
+        String entry = size + " " + uncompressedOffset + "\n";
+        ByteBuffer indexEntry = ByteBuffer.wrap(entry.getBytes(StandardCharsets.US_ASCII));
+        while (indexEntry.hasRemaining()) {
+            indexChannel.write(indexEntry);
+        }
+        writeFully(ByteBuffer.wrap(MEMBER_HEADER));
+        memberStartNanos = System.nanoTime();
+    }
+
+    private void finishMember() throws IOException {
+        deflater.finish();
+        while (!deflater.finished()) {
+            deflate();
+        }
+        trailer.clear();
+        trailer.putInt((int) crc.getValue());
+        trailer.putInt(memberBytes);
+        trailer.flip();
+        writeFully(trailer);
+        deflater.reset();
+        crc.reset();
+        memberBytes = 0;
+    }
+
+    private void deflate() throws IOException {
+        out.clear();
+        deflater.deflate(out);
+        out.flip();
+        writeFully(out);
+    }
+
+    private void writeFully(ByteBuffer data) throws IOException {
+        while (data.hasRemaining()) {
+            size += channel.write(data);
+        }
+    }
+
+    private static FileChannel open(Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+}
@@ -17,6 +17,7 @@ import ro.stancalau.test.framework.util.PathUtils;
 public class LiveKitContainer extends GenericContainer<LiveKitContainer> {
 
     public static final int HTTP_PORT = 7880;
+    public static final int PROMETHEUS_PORT = 6789;
     public static final String API_KEY = "devkey";
     public static final String SECRET = "secret";
 
@@ -53,7 +54,7 @@ public class LiveKitContainer extends GenericContainer<LiveKitContainer> {
         String liveKitImage = "livekit/livekit-server:" + livekitVersion;
 
         LiveKitContainer container = new LiveKitContainer(liveKitImage, network)
-                .withExposedPorts(HTTP_PORT)
+                .withExposedPorts(HTTP_PORT, PROMETHEUS_PORT)
                 .waitingFor(Wait.forLogMessage(".*starting LiveKit server.*", 1)
                         .withStartupTimeout(Duration.ofSeconds(60)));
 
@@ -104,6 +105,11 @@ public class LiveKitContainer extends GenericContainer<LiveKitContainer> {
         return "ws://" + getContainerIpAddress() + ":" + getMappedPort(HTTP_PORT);
     }
 
+    /** The metrics endpoint, served when the config sets {@code prometheus_port: 6789} */
+    public String getPrometheusUrl() {
+        return "http://" + getContainerIpAddress() + ":" + getMappedPort(PROMETHEUS_PORT) + "/metrics";
+    }
+
     public String getAlias() {
         if (Objects.nonNull(alias)) {
             return alias;
@@ -0,0 +1,44 @@
+package ro.stancalau.test.framework.docker;
+
+import java.util.Locale;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/** Compression applied to container log files written by {@link AsyncLogSink}. */
+@Slf4j
+public enum LogCompression {
+    NONE(""),
+    GZIP(".gz");
+
+    @Getter
+    private final String fileSuffix;
+
+    LogCompression(String fileSuffix) {
+        this.fileSuffix = fileSuffix;
+    }
+
+    /**
+     * Parse a compression name, case-insensitively. "zstd" is accepted as an alias for gzip because
+     * no zstd codec is available on the test classpath.
+     *
+     * @param name The compression name, may be null
+     * @return The matching compression, or NONE when the name is empty or unknown
+     */
+    public static LogCompression fromName(String name) {
+        if (name == null || name.isBlank()) {
+            return NONE;
+        }
+        return switch (name.trim().toLowerCase(Locale.ROOT)) {
+            case "none", "off", "false" -> NONE;
+            case "gzip", "gz", "true" -> GZIP;
+            case "zstd" -> {
+                log.warn("zstd log compression is not available, using gzip instead");
+                yield GZIP;
+            }
+            default -> {
+                log.warn("Unknown log compression '{}', writing uncompressed logs", name);
+                yield NONE;
+            }
+        };
+    }
+}
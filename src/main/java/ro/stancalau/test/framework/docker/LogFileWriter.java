@@ -0,0 +1,21 @@
+package ro.stancalau.test.framework.docker;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/** Destination of the bytes drained by an {@link AsyncLogSink}. Used only from the sink's writer thread. */
+interface LogFileWriter extends Closeable {
+
+    /** Write all remaining bytes of the buffer. */
+    void write(ByteBuffer data) throws IOException;
+
+    /** Make everything written so far readable from the file and force it to disk. */
+    void sync() throws IOException;
+
+    /** Called whenever the writer thread runs out of queued frames. */
+    void idle() throws IOException;
+
+    /** Number of bytes currently in the file on disk. */
+    long size();
+}
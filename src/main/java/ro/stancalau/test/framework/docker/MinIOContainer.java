@@ -3,6 +3,7 @@ package ro.stancalau.test.framework.docker;
 import java.io.File;
 import java.time.Duration;
 import java.time.ZoneId;
+import java.util.UUID;
 import javax.annotation.Nullable;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -10,6 +11,8 @@ import org.testcontainers.containers.GenericContainer;
 import org.testcontainers.containers.Network;
 import org.testcontainers.containers.wait.strategy.HttpWaitStrategy;
 import org.testcontainers.utility.DockerImageName;
+import ro.stancalau.test.framework.config.TestConfig;
+import ro.stancalau.test.framework.util.S3EventReceiver;
 
 @Getter
 @Slf4j
@@ -29,6 +32,10 @@ public class MinIOContainer extends GenericContainer<MinIOContainer> {
     private final String accessKey;
     private final String secretKey;
 
+    /** Path identifying this container's events at the {@link S3EventReceiver}, null if not publishing */
+    @Nullable
+    private final String eventSourceId;
+
     private MinIOContainer(
             Network network, String alias, String accessKey, String secretKey, @Nullable String logDestinationPath) {
         super(DockerImageName.parse(MINIO_IMAGE));
@@ -50,6 +57,18 @@ public class MinIOContainer extends GenericContainer<MinIOContainer> {
         withEnv("MINIO_ROOT_PASSWORD", secretKey);
         withEnv("TZ", ZoneId.systemDefault().toString());
 
+        S3EventReceiver eventReceiver =
+                TestConfig.isS3EventNotificationsEnabled() ? S3EventReceiver.getInstance() : null;
+        if (eventReceiver != null) {
+            eventSourceId = alias + "-" + UUID.randomUUID().toString().substring(0, 8);
+            withEnv("MINIO_NOTIFY_WEBHOOK_ENABLE_" + S3EventReceiver.TARGET_ID, "on");
+            withEnv(
+                    "MINIO_NOTIFY_WEBHOOK_ENDPOINT_" + S3EventReceiver.TARGET_ID,
+                    eventReceiver.getEndpoint(eventSourceId));
+        } else {
+            eventSourceId = null;
+        }
+
         withNetwork(network);
         withNetworkAliases(alias);
         withExtraHost("host.docker.internal", "host-gateway");
@@ -81,6 +100,10 @@ public class MinIOContainer extends GenericContainer<MinIOContainer> {
         return "http://" + getHost() + ":" + getMappedPort(API_PORT);
     }
 
+    public boolean isPublishingEvents() {
+        return eventSourceId != null;
+    }
+
     public String getNetworkS3EndpointUrl() {
         return "http://" + alias + ":" + API_PORT;
     }
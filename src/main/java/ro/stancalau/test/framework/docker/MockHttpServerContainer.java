@@ -4,9 +4,6 @@ import static org.mockserver.model.HttpRequest.request;
 import static org.mockserver.model.HttpResponse.response;
 
 import java.io.File;
-import java.nio.file.Files;
-import java.nio.file.Paths;
-import java.nio.file.StandardOpenOption;
 import java.time.Duration;
 import lombok.extern.slf4j.Slf4j;
 import org.mockserver.client.MockServerClient;
@@ -33,18 +30,7 @@ public class MockHttpServerContainer extends GenericContainer<MockHttpServerCont
         String logPath = scenarioLogPath + "/docker/" + serviceName;
         new File(logPath).mkdirs();
 
-        withLogConsumer(outputFrame -> {
-            try {
-                String logFile = logPath + "/mockserver.log";
-                Files.write(
-                        Paths.get(logFile),
-                        (outputFrame.getUtf8String()).getBytes(),
-                        StandardOpenOption.CREATE,
-                        StandardOpenOption.APPEND);
-            } catch (Exception e) {
-                log.error("Failed to write log", e);
-            }
-        });
+        ContainerLogUtils.withLogCapture(this, new File(logPath), "mockserver.log");
 
         withCommand("-serverPort", String.valueOf(HTTP_PORT));
 
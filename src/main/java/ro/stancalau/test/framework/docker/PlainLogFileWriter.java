@@ -0,0 +1,47 @@
+package ro.stancalau.test.framework.docker;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/** Appends log bytes to a file unchanged. */
+final class PlainLogFileWriter implements LogFileWriter {
+
+    private final FileChannel channel;
+    private long size;
+
+    PlainLogFileWriter(Path path) throws IOException {
+        this.channel =
+                FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.size = channel.size();
+    }
+
+    @Override
+    public void write(ByteBuffer data) throws IOException {
+        while (data.hasRemaining()) {
+            size += channel.write(data);
+        }
+    }
+
+    @Override
+    public void sync() throws IOException {
+        channel.force(false);
+    }
+
+    @Override
+    public void idle() {
+        // Everything is written through immediately
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,222 @@
+package ro.stancalau.test.framework.docker;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.testcontainers.containers.Network;
+import ro.stancalau.test.framework.state.ContainerStateManager;
+import ro.stancalau.test.framework.util.LoadTestOutputParser;
+import ro.stancalau.test.framework.util.LoadTestResults;
+import ro.stancalau.test.framework.util.PathUtils;
+import ro.stancalau.test.framework.util.ShardedLoadTestResults;
+
+/**
+ * Runs one {@code lk perf load-test} split across several CLI containers on the same network, so the
+ * load is not capped by the CPU of a single generator. Publishers, subscribers and the join rate are
+ * divided between the shards, which all join the same room.
+ *
+ * <p>The host resources of all shards are reserved before any of them starts; the containers are then
+ * released together from one virtual thread each, so they begin publishing within the container start
+ * jitter of each other. Since every subscriber receives the tracks of all shards' publishers, a shard's
+ * subscribers may receive more tracks than the shard itself expects.
+ */
+@Slf4j
+public class ShardedLoadTest {
+
+    @Getter
+    private final String roomName;
+
+    private final Map<String, CLIPublisherContainer> shards = new LinkedHashMap<>();
+
+    @Getter
+    private Duration startSkew = Duration.ZERO;
+
+    private ShardedLoadTest(String roomName) {
+        this.roomName = roomName;
+    }
+
+    /**
+     * Create the containers of a sharded load test without starting them.
+     *
+     * @param aliasPrefix The prefix of the shard container aliases, which end in {@code -shard-<n>}
+     * @param network The network shared with the LiveKit server
+     * @param wsUrl The LiveKit URL on that network
+     * @param apiKey The LiveKit API key
+     * @param apiSecret The LiveKit API secret
+     * @param roomName The room all shards join
+     * @param target The configuration of the whole load test
+     * @param shardCount The number of CLI containers to split it across
+     * @param scenarioLogPath The scenario's log directory; each shard logs to its own container directory
+     * @return The sharded load test
+     */
+    public static ShardedLoadTest create(
+            String aliasPrefix,
+            Network network,
+            String wsUrl,
+            String apiKey,
+            String apiSecret,
+            String roomName,
+            CLIPublisherContainer.PublisherConfig target,
+            int shardCount,
+            String scenarioLogPath) {
+        ShardedLoadTest loadTest = new ShardedLoadTest(roomName);
+        List<CLIPublisherContainer.PublisherConfig> configs = split(target, shardCount);
+        for (int i = 0; i < configs.size(); i++) {
+            String alias = aliasPrefix + "-shard-" + (i + 1);
+            CLIPublisherContainer.PublisherConfig config =
+                    configs.get(i).toBuilder().idPrefix("shard" + (i + 1)).build();
+            loadTest.shards.put(
+                    alias,
+                    CLIPublisherContainer.createLoadTestContainer(
+                            alias,
+                            network,
+                            wsUrl,
+                            apiKey,
+                            apiSecret,
+                            roomName,
+                            config,
+                            PathUtils.containerLogPath(scenarioLogPath, "docker", alias)));
+        }
+        return loadTest;
+    }
+
+    /**
+     * Split a load test configuration into shards. Publishers and subscribers are spread as evenly as
+     * possible. The remainders are dealt round robin, each kind of participant continuing at the shard
+     * after the last one the previous kind filled, so no shard is left without participants. The join
+     * rate is divided between the shards with at least one join per second for every shard. There are
+     * never more shards than simulated participants.
+     *
+     * @param target The configuration of the whole load test
+     * @param shardCount The number of shards wanted
+     * @return The configuration of every shard
+     */
+    public static List<CLIPublisherContainer.PublisherConfig> split(
+            CLIPublisherContainer.PublisherConfig target, int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("A load test needs at least one shard, got " + shardCount);
+        }
+        int participants = target.getVideoPublishers() + target.getAudioPublishers() + target.getSubscribers();
+        int shards = Math.max(1, Math.min(shardCount, participants));
+        List<CLIPublisherContainer.PublisherConfig> configs = new ArrayList<>(shards);
+        int audioOffset = target.getVideoPublishers() % shards;
+        int subscriberOffset = (audioOffset + target.getAudioPublishers()) % shards;
+        for (int i = 0; i < shards; i++) {
+            CLIPublisherContainer.PublisherConfig.Builder builder = target.toBuilder()
+                    .videoPublishers(share(target.getVideoPublishers(), shards, i, 0))
+                    .audioPublishers(share(target.getAudioPublishers(), shards, i, audioOffset))
+                    .subscribers(share(target.getSubscribers(), shards, i, subscriberOffset));
+            if (target.getNumPerSecond() != null) {
+                builder.numPerSecond(Math.max(1, share(target.getNumPerSecond(), shards, i, 0)));
+            }
+            configs.add(builder.build());
+        }
+        return configs;
+    }
+
+    /**
+     * Start all shards together and register them with the container manager.
+     *
+     * @param containerManager The scenario's container manager
+     */
+    public void start(ContainerStateManager containerManager) {
+        for (Map.Entry<String, CLIPublisherContainer> shard : shards.entrySet()) {
+            containerManager.reserve(shard.getKey(), ContainerFootprint.forContainer(shard.getValue()));
+        }
+
+        CountDownLatch startGate = new CountDownLatch(1);
+        Map<String, Future<Instant>> starts = new LinkedHashMap<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Map.Entry<String, CLIPublisherContainer> shard : shards.entrySet()) {
+                starts.put(shard.getKey(), executor.submit(() -> {
+                    startGate.await();
+                    shard.getValue().start();
+                    return Instant.now();
+                }));
+            }
+            startGate.countDown();
+        }
+
+        Instant first = null;
+        Instant last = null;
+        RuntimeException failure = null;
+        for (Map.Entry<String, Future<Instant>> start : starts.entrySet()) {
+            String alias = start.getKey();
+            try {
+                Instant startedAt = start.getValue().get();
+                containerManager.registerContainer(alias, shards.get(alias));
+                first = first == null || startedAt.isBefore(first) ? startedAt : first;
+                last = last == null || startedAt.isAfter(last) ? startedAt : last;
+            } catch (ExecutionException e) {
+                containerManager.release(alias);
+                if (failure == null) {
+                    failure = new IllegalStateException("Could not start load test shard " + alias, e.getCause());
+                } else {
+                    failure.addSuppressed(e.getCause());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                containerManager.release(alias);
+                failure = new IllegalStateException("Interrupted while starting load test shard " + alias, e);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        startSkew = Duration.between(first, last);
+        log.info("Started {} load test shards for room {} within {}ms", shards.size(), roomName, startSkew.toMillis());
+    }
+
+    /** The shard containers by alias, in start order */
+    public Map<String, CLIPublisherContainer> getShards() {
+        return Collections.unmodifiableMap(shards);
+    }
+
+    /** Whether any shard is still running */
+    public boolean isRunning() {
+        return shards.values().stream().anyMatch(CLIPublisherContainer::isRunning);
+    }
+
+    /**
+     * Wait for every shard to print its summary and merge the results.
+     *
+     * @param timeout How long to wait for all shards together
+     * @return The merged results, or empty if a shard did not print its summary in time
+     */
+    public Optional<ShardedLoadTestResults> awaitResults(Duration timeout) {
+        Instant deadline = Instant.now().plus(timeout);
+        Map<String, LoadTestResults> results = new LinkedHashMap<>();
+        for (Map.Entry<String, CLIPublisherContainer> shard : shards.entrySet()) {
+            LoadTestOutputParser loadTestOutput = shard.getValue().getLoadTestOutput();
+            Duration remaining = Duration.between(Instant.now(), deadline);
+            Optional<LoadTestResults> shardResults = loadTestOutput != null && !remaining.isNegative()
+                    ? loadTestOutput.awaitResults(remaining)
+                    : Optional.empty();
+            if (shardResults.isEmpty()) {
+                log.warn(
+                        "Load test shard {} did not print its results within {}s",
+                        shard.getKey(),
+                        timeout.toSeconds());
+                return Optional.empty();
+            }
+            results.put(shard.getKey(), shardResults.get());
+        }
+        return Optional.of(ShardedLoadTestResults.merge(results, startSkew));
+    }
+
+    private static int share(int total, int shards, int index, int offset) {
+        return total / shards + ((index - offset + shards) % shards < total % shards ? 1 : 0);
+    }
+}
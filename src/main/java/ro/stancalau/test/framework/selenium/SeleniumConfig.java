@@ -2,6 +2,7 @@ package ro.stancalau.test.framework.selenium;
 
 import java.io.File;
 import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
 import lombok.Getter;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
@@ -90,9 +91,27 @@ public class SeleniumConfig {
     }
 
     public static ChromeOptions getChromeOptions(String allowInsecureUrl) {
+        return getChromeOptions(allowInsecureUrl, null, null);
+    }
+
+    /**
+     * @param allowInsecureUrl Origins to treat as secure, or null
+     * @param fakeVideoCapturePath A Y4M or MJPEG file inside the browser's file system to play as the
+     *     fake camera instead of the built-in test pattern, or null
+     * @param fakeAudioCapturePath A WAV file inside the browser's file system to loop as the fake
+     *     microphone instead of the built-in beep, or null
+     */
+    public static ChromeOptions getChromeOptions(
+            String allowInsecureUrl, @Nullable String fakeVideoCapturePath, @Nullable String fakeAudioCapturePath) {
         ChromeOptions options = new ChromeOptions();
         options.addArguments("use-fake-device-for-media-stream");
         options.addArguments("use-fake-ui-for-media-stream");
+        if (fakeVideoCapturePath != null) {
+            options.addArguments("--use-file-for-fake-video-capture=" + fakeVideoCapturePath);
+        }
+        if (fakeAudioCapturePath != null) {
+            options.addArguments("--use-file-for-fake-audio-capture=" + fakeAudioCapturePath);
+        }
         options.addArguments("--auto-select-desktop-capture-source=Entire screen");
         options.addArguments("--enable-usermedia-screen-capturing");
         options.addArguments("--disable-field-trial-config");
@@ -109,9 +128,25 @@ public class SeleniumConfig {
     }
 
     public static EdgeOptions getEdgeOptions(String allowInsecureUrl) {
+        return getEdgeOptions(allowInsecureUrl, null, null);
+    }
+
+    /**
+     * @param allowInsecureUrl Origins to treat as secure, or null
+     * @param fakeVideoCapturePath The fake camera file, as for {@link #getChromeOptions(String, String, String)}
+     * @param fakeAudioCapturePath The fake microphone file, as for {@link #getChromeOptions(String, String, String)}
+     */
+    public static EdgeOptions getEdgeOptions(
+            String allowInsecureUrl, @Nullable String fakeVideoCapturePath, @Nullable String fakeAudioCapturePath) {
         EdgeOptions options = new EdgeOptions();
         options.addArguments("use-fake-device-for-media-stream");
         options.addArguments("use-fake-ui-for-media-stream");
+        if (fakeVideoCapturePath != null) {
+            options.addArguments("--use-file-for-fake-video-capture=" + fakeVideoCapturePath);
+        }
+        if (fakeAudioCapturePath != null) {
+            options.addArguments("--use-file-for-fake-audio-capture=" + fakeAudioCapturePath);
+        }
         options.addArguments("--auto-select-desktop-capture-source=Entire screen");
         options.addArguments("--enable-usermedia-screen-capturing");
         options.addArguments("--disable-field-trial-config");
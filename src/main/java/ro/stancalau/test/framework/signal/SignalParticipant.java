@@ -0,0 +1,353 @@
+package ro.stancalau.test.framework.signal;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.annotation.Nullable;
+import livekit.LivekitModels;
+import livekit.LivekitRtc;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A participant that only speaks LiveKit's WebSocket signal protocol. It joins, answers the server's
+ * liveness checks with pings, follows who is in the room and can update its metadata, but never
+ * negotiates a peer connection, so it costs a WebSocket and a few objects instead of a browser or a
+ * CLI process.
+ *
+ * <p>Metadata sent with {@link #updateMetadata()} carries a sequence number and the send time on the
+ * JVM's monotonic clock; participants of the same JVM that receive it record the fan-out latency in
+ * the shared {@link SignalStats}. Likewise, learning that another participant joined or left is timed
+ * from when that participant started to join or leave.
+ *
+ * <p>Signal messages are received on the HTTP client's executor, which should run virtual threads, and
+ * sends are serialized with a lock that does not pin them.
+ */
+@Slf4j
+public class SignalParticipant {
+
+    /** The signal protocol version announced to the server */
+    public static final int PROTOCOL_VERSION = 15;
+
+    static final String METADATA_PREFIX = "synthetic:";
+
+    private static final int DEFAULT_PING_INTERVAL_SECONDS = 5;
+    private static final Duration SEND_TIMEOUT = Duration.ofSeconds(10);
+
+    @Getter
+    private final String identity;
+
+    private final SignalStats stats;
+    private final ReentrantLock sendLock = new ReentrantLock();
+    private final CompletableFuture<LivekitRtc.JoinResponse> joined = new CompletableFuture<>();
+    private final Set<String> remoteIdentities = ConcurrentHashMap.newKeySet();
+    private final Map<String, Long> receivedMetadataSequences = new ConcurrentHashMap<>();
+    private final AtomicLong metadataSequence = new AtomicLong();
+    private final ByteArrayOutputStream partialMessage = new ByteArrayOutputStream();
+
+    @Nullable
+    private volatile WebSocket webSocket;
+
+    @Nullable
+    private volatile Thread pinger;
+
+    @Nullable
+    @Getter
+    private volatile String sid;
+
+    private volatile boolean leaving;
+
+    @Getter
+    private volatile boolean connected;
+
+    public SignalParticipant(String identity, SignalStats stats) {
+        this.identity = identity;
+        this.stats = stats;
+    }
+
+    /**
+     * Open the signal connection.
+     *
+     * @param httpClient The client to open the WebSocket with
+     * @param wsUrl The LiveKit URL, e.g. {@code ws://localhost:7880}
+     * @param token A JWT allowing this participant to join its room
+     * @return Completes with the join response, or exceptionally if the server refused or closed first
+     */
+    public CompletableFuture<LivekitRtc.JoinResponse> connect(HttpClient httpClient, String wsUrl, String token) {
+        URI uri = URI.create(wsUrl + "/rtc?access_token=" + URLEncoder.encode(token, StandardCharsets.UTF_8)
+                + "&auto_subscribe=0&sdk=java&protocol=" + PROTOCOL_VERSION);
+        long start = System.nanoTime();
+        stats.joinStarted(identity, start);
+        httpClient
+                .newWebSocketBuilder()
+                .buildAsync(uri, new Listener())
+                .exceptionally(error -> {
+                    joined.completeExceptionally(error);
+                    return null;
+                });
+        return joined.whenComplete((join, error) -> {
+            if (error != null) {
+                stats.joinFailed();
+            } else {
+                stats.getJoinLatency().recordNanos(System.nanoTime() - start);
+            }
+        });
+    }
+
+    /**
+     * Replace this participant's metadata with a new sequence number and the send time. Requires the
+     * {@code canUpdateOwnMetadata} grant.
+     *
+     * @return The sequence number sent
+     */
+    public long updateMetadata() {
+        long sequence = metadataSequence.incrementAndGet();
+        String metadata = METADATA_PREFIX + sequence + ":" + System.nanoTime();
+        send(LivekitRtc.SignalRequest.newBuilder()
+                .setUpdateMetadata(
+                        LivekitRtc.UpdateParticipantMetadata.newBuilder().setMetadata(metadata))
+                .build());
+        return sequence;
+    }
+
+    /** The last metadata sequence number this participant sent */
+    public long getMetadataSequence() {
+        return metadataSequence.get();
+    }
+
+    /**
+     * The last metadata sequence number received from another participant.
+     *
+     * @param remoteIdentity The other participant
+     * @return The sequence number, zero if none was received
+     */
+    public long receivedMetadataSequence(String remoteIdentity) {
+        return receivedMetadataSequences.getOrDefault(remoteIdentity, 0L);
+    }
+
+    /**
+     * Whether the server told this participant that another one is in the room.
+     *
+     * @param remoteIdentity The other participant
+     * @return True from its join until its departure was reported
+     */
+    public boolean knows(String remoteIdentity) {
+        return remoteIdentities.contains(remoteIdentity);
+    }
+
+    /** The identities of the other participants the server reported in the room */
+    public Set<String> getRemoteIdentities() {
+        return Set.copyOf(remoteIdentities);
+    }
+
+    /** Tell the server this participant leaves and close the connection */
+    public void leave() {
+        WebSocket socket = webSocket;
+        if (socket == null || !connected) {
+            close();
+            return;
+        }
+        leaving = true;
+        stats.leaveStarted(identity, System.nanoTime());
+        try {
+            send(LivekitRtc.SignalRequest.newBuilder()
+                    .setLeave(LivekitRtc.LeaveRequest.newBuilder()
+                            .setCanReconnect(false)
+                            .setReason(LivekitModels.DisconnectReason.CLIENT_INITIATED))
+                    .build());
+            socket.sendClose(WebSocket.NORMAL_CLOSURE, "leave")
+                    .get(SEND_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            log.debug("Signal participant {} did not leave cleanly: {}", identity, e.getMessage());
+        } finally {
+            close();
+        }
+    }
+
+    /** Drop the connection without telling the server, as a crashed client would */
+    public void close() {
+        leaving = true;
+        connected = false;
+        Thread ping = pinger;
+        if (ping != null) {
+            ping.interrupt();
+        }
+        WebSocket socket = webSocket;
+        if (socket != null) {
+            socket.abort();
+        }
+        joined.completeExceptionally(new IllegalStateException(identity + " was closed before joining"));
+    }
+
+    private void send(LivekitRtc.SignalRequest request) {
+        WebSocket socket = webSocket;
+        if (socket == null) {
+            throw new IllegalStateException(identity + " is not connected");
+        }
+        sendLock.lock();
+        try {
+            socket.sendBinary(ByteBuffer.wrap(request.toByteArray()), true)
+                    .get(SEND_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(identity + " was interrupted while sending", e);
+        } catch (Exception e) {
+            throw new IllegalStateException(identity + " could not send " + request.getMessageCase(), e);
+        } finally {
+            sendLock.unlock();
+        }
+    }
+
+    private void onResponse(LivekitRtc.SignalResponse response) {
+        stats.received(response.getMessageCase().name());
+        switch (response.getMessageCase()) {
+            case JOIN -> onJoin(response.getJoin());
+            case UPDATE -> onParticipantUpdate(response.getUpdate());
+            case PONG_RESP -> stats.getPingRtt()
+                    .recordNanos(System.nanoTime() - response.getPongResp().getLastPingTimestamp());
+            case LEAVE -> {
+                log.debug("Server asked signal participant {} to leave", identity);
+                if (connected && !leaving) {
+                    stats.disconnectedUnexpectedly();
+                }
+                close();
+            }
+            default -> {
+                // Other signal messages are only counted
+            }
+        }
+    }
+
+    private void onJoin(LivekitRtc.JoinResponse join) {
+        sid = join.getParticipant().getSid();
+        for (LivekitModels.ParticipantInfo other : join.getOtherParticipantsList()) {
+            remoteIdentities.add(other.getIdentity());
+        }
+        connected = true;
+        int interval = join.getPingInterval() > 0 ? join.getPingInterval() : DEFAULT_PING_INTERVAL_SECONDS;
+        pinger = Thread.ofVirtual()
+                .name("signal-ping-" + identity)
+                .start(() -> pingUntilClosed(Duration.ofSeconds(interval)));
+        joined.complete(join);
+    }
+
+    private void onParticipantUpdate(LivekitRtc.ParticipantUpdate update) {
+        long now = System.nanoTime();
+        for (LivekitModels.ParticipantInfo info : update.getParticipantsList()) {
+            String remote = info.getIdentity();
+            if (remote.equals(identity)) {
+                continue;
+            }
+            if (info.getState() == LivekitModels.ParticipantInfo.State.DISCONNECTED) {
+                Long leaveStart = stats.leaveStart(remote);
+                if (remoteIdentities.remove(remote) && leaveStart != null) {
+                    stats.getDepartureLatency().recordNanos(now - leaveStart);
+                }
+                continue;
+            }
+            Long joinStart = stats.joinStart(remote);
+            if (remoteIdentities.add(remote) && joinStart != null) {
+                stats.getPresenceLatency().recordNanos(now - joinStart);
+            }
+            onMetadata(remote, info.getMetadata(), now);
+        }
+    }
+
+    private void onMetadata(String remote, String metadata, long now) {
+        if (!metadata.startsWith(METADATA_PREFIX)) {
+            return;
+        }
+        int separator = metadata.indexOf(':', METADATA_PREFIX.length());
+        if (separator < 0) {
+            return;
+        }
+        try {
+            long sequence = Long.parseLong(metadata.substring(METADATA_PREFIX.length(), separator));
+            long sentNanos = Long.parseLong(metadata.substring(separator + 1));
+            Long previous = receivedMetadataSequences.put(remote, sequence);
+            if (previous == null || previous < sequence) {
+                stats.getMetadataLatency().recordNanos(now - sentNanos);
+            }
+        } catch (NumberFormatException e) {
+            log.debug("Ignoring foreign metadata of {}: {}", remote, metadata);
+        }
+    }
+
+    private void pingUntilClosed(Duration interval) {
+        while (connected) {
+            try {
+                Thread.sleep(interval);
+                send(LivekitRtc.SignalRequest.newBuilder()
+                        .setPingReq(LivekitRtc.Ping.newBuilder().setTimestamp(System.nanoTime()))
+                        .build());
+            } catch (InterruptedException e) {
+                return;
+            } catch (IllegalStateException e) {
+                if (connected) {
+                    log.debug("Signal participant {} could not ping: {}", identity, e.getMessage());
+                }
+            }
+        }
+    }
+
+    /** Reassembles binary frames into signal responses; called by one thread at a time */
+    private class Listener implements WebSocket.Listener {
+
+        @Override
+        public void onOpen(WebSocket socket) {
+            webSocket = socket;
+            socket.request(1);
+        }
+
+        @Override
+        public CompletionStage<?> onBinary(WebSocket socket, ByteBuffer data, boolean last) {
+            byte[] bytes = new byte[data.remaining()];
+            data.get(bytes);
+            partialMessage.writeBytes(bytes);
+            if (last) {
+                try {
+                    onResponse(LivekitRtc.SignalResponse.parseFrom(partialMessage.toByteArray()));
+                } catch (InvalidProtocolBufferException e) {
+                    log.warn("Signal participant {} received an unreadable message: {}", identity, e.getMessage());
+                } finally {
+                    partialMessage.reset();
+                }
+            }
+            socket.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onClose(WebSocket socket, int statusCode, String reason) {
+            if (connected && !leaving) {
+                log.debug("Signal connection of {} closed: {} {}", identity, statusCode, reason);
+                stats.disconnectedUnexpectedly();
+            }
+            close();
+            return null;
+        }
+
+        @Override
+        public void onError(WebSocket socket, Throwable error) {
+            if (connected && !leaving) {
+                log.debug("Signal connection of {} failed: {}", identity, error.getMessage());
+                stats.disconnectedUnexpectedly();
+            }
+            close();
+        }
+    }
+}
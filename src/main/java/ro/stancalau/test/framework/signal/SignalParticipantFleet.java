@@ -0,0 +1,261 @@
+package ro.stancalau.test.framework.signal;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BooleanSupplier;
+import javax.annotation.Nullable;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The {@link SignalParticipant}s of one room. They share an HTTP client whose WebSocket callbacks run on
+ * virtual threads and one {@link SignalStats}, so a single JVM can hold thousands of them. Joins and
+ * leaves run concurrently with a cap on how many are in flight, which makes the difference between a
+ * storm and a steady ramp.
+ *
+ * <p>Participants are added and removed by the calling thread only; instances are not meant to be
+ * driven from several threads.
+ */
+@Slf4j
+public class SignalParticipantFleet implements AutoCloseable {
+
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(100);
+
+    @Getter
+    private final String roomName;
+
+    @Getter
+    private final SignalStats stats = new SignalStats();
+
+    private final String wsUrl;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient httpClient;
+    private final Map<String, SignalParticipant> participants = new LinkedHashMap<>();
+
+    /**
+     * @param wsUrl The LiveKit URL reachable from this JVM, e.g. {@code ws://localhost:32768}
+     * @param roomName The room all participants join
+     */
+    public SignalParticipantFleet(String wsUrl, String roomName) {
+        this.wsUrl = wsUrl;
+        this.roomName = roomName;
+        this.httpClient = HttpClient.newBuilder()
+                .executor(executor)
+                .connectTimeout(CONNECT_TIMEOUT)
+                .build();
+    }
+
+    /**
+     * Join participants concurrently and wait until each has joined or failed.
+     *
+     * @param tokens A JWT for each new participant, by identity
+     * @param maxConcurrentJoins How many joins may be in flight at once
+     * @param timeout How long to wait for all joins
+     * @return How many of the new participants joined
+     */
+    public int join(Map<String, String> tokens, int maxConcurrentJoins, Duration timeout) {
+        Semaphore inFlight = new Semaphore(maxConcurrentJoins);
+        long deadline = System.nanoTime() + timeout.toNanos();
+        List<SignalParticipant> joining = new ArrayList<>();
+        List<Future<?>> joins = new ArrayList<>();
+        for (Map.Entry<String, String> entry : tokens.entrySet()) {
+            if (participants.containsKey(entry.getKey())) {
+                throw new IllegalArgumentException("Participant " + entry.getKey() + " already joined " + roomName);
+            }
+            SignalParticipant participant = new SignalParticipant(entry.getKey(), stats);
+            participants.put(entry.getKey(), participant);
+            joining.add(participant);
+            joins.add(executor.submit(() -> joinOne(participant, entry.getValue(), inFlight, deadline)));
+        }
+        awaitAll(joins, deadline);
+
+        int joined = (int) joining.stream().filter(SignalParticipant::isConnected).count();
+        log.info(
+                "{} of {} signal participants joined {}, join latency {}",
+                joined,
+                joining.size(),
+                roomName,
+                stats.getJoinLatency());
+        return joined;
+    }
+
+    /**
+     * Leave with the earliest joined participants that are still connected, concurrently.
+     *
+     * @param count How many participants leave
+     * @param maxConcurrentLeaves How many leaves may be in flight at once
+     * @param timeout How long to wait for all leaves
+     * @return How many participants left
+     */
+    public int leave(int count, int maxConcurrentLeaves, Duration timeout) {
+        List<SignalParticipant> leaving = participants.values().stream()
+                .filter(SignalParticipant::isConnected)
+                .limit(count)
+                .toList();
+        Semaphore inFlight = new Semaphore(maxConcurrentLeaves);
+        long deadline = System.nanoTime() + timeout.toNanos();
+        List<Future<?>> leaves = new ArrayList<>();
+        for (SignalParticipant participant : leaving) {
+            leaves.add(executor.submit(() -> {
+                inFlight.acquireUninterruptibly();
+                try {
+                    participant.leave();
+                } finally {
+                    inFlight.release();
+                }
+            }));
+        }
+        awaitAll(leaves, deadline);
+        log.info("{} signal participants left {}", leaving.size(), roomName);
+        return leaving.size();
+    }
+
+    /**
+     * Send new metadata from one participant.
+     *
+     * @param identity The sending participant
+     * @return The metadata sequence number sent
+     */
+    public long updateMetadata(String identity) {
+        SignalParticipant participant = participant(identity);
+        if (participant == null) {
+            throw new IllegalArgumentException("No signal participant " + identity + " in " + roomName);
+        }
+        return participant.updateMetadata();
+    }
+
+    /**
+     * Wait until every connected participant sees every other connected participant.
+     *
+     * @param timeout How long to wait
+     * @return Whether the room converged in time
+     */
+    public boolean awaitPresence(Duration timeout) {
+        return await(
+                () -> {
+                    List<SignalParticipant> connected = connected();
+                    for (SignalParticipant participant : connected) {
+                        for (SignalParticipant other : connected) {
+                            if (other != participant && !participant.knows(other.getIdentity())) {
+                                return false;
+                            }
+                        }
+                    }
+                    return true;
+                },
+                timeout);
+    }
+
+    /**
+     * Wait until every other connected participant received the last metadata a participant sent.
+     *
+     * @param identity The sending participant
+     * @param timeout How long to wait
+     * @return Whether all received it in time
+     */
+    public boolean awaitMetadata(String identity, Duration timeout) {
+        SignalParticipant sender = participant(identity);
+        if (sender == null) {
+            throw new IllegalArgumentException("No signal participant " + identity + " in " + roomName);
+        }
+        long sequence = sender.getMetadataSequence();
+        return await(
+                () -> connected().stream()
+                        .allMatch(participant ->
+                                participant == sender || participant.receivedMetadataSequence(identity) >= sequence),
+                timeout);
+    }
+
+    @Nullable
+    public SignalParticipant participant(String identity) {
+        return participants.get(identity);
+    }
+
+    /** Every participant that ever joined, connected or not, in join order */
+    public List<SignalParticipant> getParticipants() {
+        return List.copyOf(participants.values());
+    }
+
+    public int connectedCount() {
+        return connected().size();
+    }
+
+    public String report() {
+        return "Signal participants of room " + roomName + ": " + participants.size() + " joined, " + connectedCount()
+                + " connected\n" + stats.toSummary() + "\n";
+    }
+
+    /** Drop every connection without leaving */
+    @Override
+    public void close() {
+        participants.values().forEach(SignalParticipant::close);
+        executor.shutdownNow();
+        httpClient.close();
+    }
+
+    private void joinOne(SignalParticipant participant, String token, Semaphore inFlight, long deadline) {
+        inFlight.acquireUninterruptibly();
+        try {
+            participant.connect(httpClient, wsUrl, token).get(remainingNanos(deadline), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            participant.close();
+        } catch (ExecutionException | TimeoutException e) {
+            log.debug("Signal participant {} could not join {}: {}", participant.getIdentity(), roomName, e.toString());
+            participant.close();
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    private List<SignalParticipant> connected() {
+        return participants.values().stream()
+                .filter(SignalParticipant::isConnected)
+                .toList();
+    }
+
+    private static boolean await(BooleanSupplier condition, Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (!condition.getAsBoolean()) {
+            if (remainingNanos(deadline) == 0) {
+                return false;
+            }
+            try {
+                Thread.sleep(POLL_INTERVAL);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void awaitAll(List<Future<?>> futures, long deadline) {
+        for (Future<?> future : futures) {
+            try {
+                future.get(remainingNanos(deadline) + POLL_INTERVAL.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException | TimeoutException e) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private static long remainingNanos(long deadline) {
+        return Math.max(0, deadline - System.nanoTime());
+    }
+}
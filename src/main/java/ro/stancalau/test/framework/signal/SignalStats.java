@@ -0,0 +1,98 @@
+package ro.stancalau.test.framework.signal;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nullable;
+import lombok.Getter;
+import ro.stancalau.test.framework.util.LatencyHistogram;
+
+/**
+ * What a group of {@link SignalParticipant}s measured. All participants run in one JVM and share its
+ * monotonic clock, so the time from one participant acting until another one hears of it is measured
+ * directly, without clock synchronization.
+ */
+public class SignalStats {
+
+    /** From opening the WebSocket until the join response arrived */
+    @Getter
+    private final LatencyHistogram joinLatency = new LatencyHistogram();
+
+    /** Round trips of signal pings */
+    @Getter
+    private final LatencyHistogram pingRtt = new LatencyHistogram();
+
+    /** From a participant starting to join until another participant is told it joined */
+    @Getter
+    private final LatencyHistogram presenceLatency = new LatencyHistogram();
+
+    /** From a participant starting to leave until another participant is told it left */
+    @Getter
+    private final LatencyHistogram departureLatency = new LatencyHistogram();
+
+    /** From a participant sending new metadata until another participant receives it */
+    @Getter
+    private final LatencyHistogram metadataLatency = new LatencyHistogram();
+
+    private final Map<String, Long> joinStarts = new ConcurrentHashMap<>();
+    private final Map<String, Long> leaveStarts = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> received = new ConcurrentHashMap<>();
+    private final LongAdder failedJoins = new LongAdder();
+    private final LongAdder unexpectedDisconnects = new LongAdder();
+
+    public long getFailedJoins() {
+        return failedJoins.sum();
+    }
+
+    public long getUnexpectedDisconnects() {
+        return unexpectedDisconnects.sum();
+    }
+
+    /** How many signal responses of each type were received, by type */
+    public Map<String, Long> receivedCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        received.forEach((type, count) -> counts.put(type, count.sum()));
+        return counts;
+    }
+
+    public String toSummary() {
+        return "join " + joinLatency.toSummary()
+                + "\nping rtt " + pingRtt.toSummary()
+                + "\npresence " + presenceLatency.toSummary()
+                + "\ndeparture " + departureLatency.toSummary()
+                + "\nmetadata " + metadataLatency.toSummary()
+                + "\nfailed joins " + getFailedJoins() + ", unexpected disconnects " + getUnexpectedDisconnects()
+                + "\nreceived " + receivedCounts();
+    }
+
+    void joinStarted(String identity, long nanos) {
+        joinStarts.put(identity, nanos);
+    }
+
+    @Nullable
+    Long joinStart(String identity) {
+        return joinStarts.get(identity);
+    }
+
+    void leaveStarted(String identity, long nanos) {
+        leaveStarts.put(identity, nanos);
+    }
+
+    @Nullable
+    Long leaveStart(String identity) {
+        return leaveStarts.get(identity);
+    }
+
+    void joinFailed() {
+        failedJoins.increment();
+    }
+
+    void disconnectedUnexpectedly() {
+        unexpectedDisconnects.increment();
+    }
+
+    void received(String type) {
+        received.computeIfAbsent(type, key -> new LongAdder()).increment();
+    }
+}
@@ -1,10 +1,22 @@
 package ro.stancalau.test.framework.state;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import javax.annotation.Nullable;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.testcontainers.containers.GenericContainer;
 import org.testcontainers.containers.Network;
+import ro.stancalau.test.framework.config.TestConfig;
+import ro.stancalau.test.framework.docker.ContainerFootprint;
+import ro.stancalau.test.framework.docker.ContainerLogIndex;
+import ro.stancalau.test.framework.docker.ContainerLogUtils;
+import ro.stancalau.test.framework.docker.ContainerResourceGovernor;
+import ro.stancalau.test.framework.docker.ContainerStatsBuffer;
+import ro.stancalau.test.framework.docker.ContainerStatsSampler;
 import ro.stancalau.test.framework.docker.MinIOContainer;
 import ro.stancalau.test.framework.docker.WebServerContainer;
 
@@ -13,9 +25,33 @@ public class ContainerStateManager {
 
     private Network network;
     private final Map<String, GenericContainer<?>> containers = new HashMap<>();
+    private final Map<String, ContainerResourceGovernor.Reservation> reservations = new HashMap<>();
+    private final ContainerResourceGovernor resourceGovernor;
+    private ContainerFootprint scenarioFootprint = new ContainerFootprint(0, 0);
+
+    /** Samples the Docker stats of every registered container, null if disabled */
+    @Getter
+    @Nullable
+    private final ContainerStatsSampler statsSampler;
 
     public ContainerStateManager() {
-        // Public constructor for dependency injection
+        this(
+                ContainerResourceGovernor.shared(),
+                TestConfig.isContainerStatsEnabled()
+                        ? new ContainerStatsSampler(
+                                Duration.ofMillis(TestConfig.getContainerStatsIntervalMs()),
+                                ContainerStatsSampler.DEFAULT_CAPACITY)
+                        : null);
+    }
+
+    public ContainerStateManager(ContainerResourceGovernor resourceGovernor) {
+        this(resourceGovernor, null);
+    }
+
+    public ContainerStateManager(
+            ContainerResourceGovernor resourceGovernor, @Nullable ContainerStatsSampler statsSampler) {
+        this.resourceGovernor = resourceGovernor;
+        this.statsSampler = statsSampler;
     }
 
     public Network getOrCreateNetwork() {
@@ -29,6 +65,57 @@ public class ContainerStateManager {
     public void registerContainer(String serviceName, GenericContainer<?> container) {
         log.info("Registering container for service: {}", serviceName);
         containers.put(serviceName, container);
+        if (statsSampler != null) {
+            statsSampler.start(serviceName, container);
+        }
+    }
+
+    /**
+     * Start a container once the host resource budget allows it and register it for the service.
+     *
+     * @param serviceName The service name to register the container under
+     * @param container The container to start
+     * @return The started container
+     */
+    public <T extends GenericContainer<?>> T startContainer(String serviceName, T container) {
+        reserve(serviceName, ContainerFootprint.forContainer(container));
+        try {
+            container.start();
+        } catch (RuntimeException e) {
+            release(serviceName);
+            throw e;
+        }
+        registerContainer(serviceName, container);
+        return container;
+    }
+
+    /**
+     * Reserve host resources for a container that is started outside of this manager, such as
+     * browser containers. Blocks until the footprint fits into the host budget, unless no other
+     * scenario holds a reservation.
+     *
+     * @param owner A unique name for the reservation
+     * @param footprint The estimated footprint of the container
+     */
+    public void reserve(String owner, ContainerFootprint footprint) {
+        ContainerResourceGovernor.Reservation reservation = resourceGovernor.acquire(this, owner, footprint);
+        ContainerResourceGovernor.Reservation previous = reservations.put(owner, reservation);
+        if (previous != null) {
+            previous.release();
+        }
+        scenarioFootprint = scenarioFootprint.plus(footprint);
+    }
+
+    /**
+     * Release the host resources reserved under the given name, if any.
+     *
+     * @param owner The reservation name used when reserving
+     */
+    public void release(String owner) {
+        ContainerResourceGovernor.Reservation reservation = reservations.remove(owner);
+        if (reservation != null) {
+            reservation.release();
+        }
     }
 
     public GenericContainer<?> getContainer(String serviceName) {
@@ -44,6 +131,44 @@ public class ContainerStateManager {
         return null;
     }
 
+    /**
+     * Get the live log index of a registered container.
+     *
+     * @param serviceName The service name of the container
+     * @return The log index, or null if there is no such container or its logs are not captured
+     */
+    public ContainerLogIndex getLogIndex(String serviceName) {
+        GenericContainer<?> container = containers.get(serviceName);
+        return container != null ? ContainerLogUtils.logIndex(container) : null;
+    }
+
+    /**
+     * Get the Docker stats samples of a container, including containers that have been stopped.
+     *
+     * @param serviceName The service name of the container
+     * @return The samples, or null if stats are disabled or the container was never sampled
+     */
+    @Nullable
+    public ContainerStatsBuffer getStats(String serviceName) {
+        return statsSampler != null ? statsSampler.buffer(serviceName) : null;
+    }
+
+    /**
+     * Export the Docker stats samples of all containers of the scenario as CSV and JSON.
+     *
+     * @param directory The directory to write to
+     */
+    public void exportStats(Path directory) {
+        if (statsSampler == null) {
+            return;
+        }
+        try {
+            statsSampler.export(directory);
+        } catch (IOException e) {
+            log.warn("Could not export container stats to {}: {}", directory, e.getMessage());
+        }
+    }
+
     public boolean hasContainer(String serviceName) {
         return containers.containsKey(serviceName);
     }
@@ -64,15 +189,20 @@ public class ContainerStateManager {
     }
 
     public void stopContainer(String serviceName) {
+        stopStats(serviceName);
         GenericContainer<?> container = containers.get(serviceName);
         if (container != null && container.isRunning()) {
             log.info("Stopping container for service: {}", serviceName);
             container.stop();
         }
+        release(serviceName);
     }
 
     public void stopAllContainers() {
         log.info("Stopping all containers");
+        if (statsSampler != null) {
+            statsSampler.close();
+        }
         for (Map.Entry<String, GenericContainer<?>> entry : containers.entrySet()) {
             String serviceName = entry.getKey();
             GenericContainer<?> container = entry.getValue();
@@ -80,8 +210,20 @@ public class ContainerStateManager {
                 log.info("Stopping container for service: {}", serviceName);
                 container.stop();
             }
+            ContainerLogUtils.discardLogIndex(container);
         }
         containers.clear();
+        ContainerLogUtils.flushAll();
+
+        for (ContainerResourceGovernor.Reservation reservation : reservations.values()) {
+            reservation.release();
+        }
+        reservations.clear();
+
+        if (scenarioFootprint.cpus() > 0) {
+            log.info("Scenario container footprint estimate: {}", scenarioFootprint);
+            scenarioFootprint = new ContainerFootprint(0, 0);
+        }
     }
 
     public void closeNetwork() {
@@ -101,6 +243,7 @@ public class ContainerStateManager {
             String serviceName = entry.getKey();
             GenericContainer<?> container = entry.getValue();
             if (clazz.isInstance(container)) {
+                stopStats(serviceName);
                 if (container.isRunning()) {
                     log.info("Stopping container for service: {}", serviceName);
                     container.stop();
@@ -110,8 +253,11 @@ public class ContainerStateManager {
         }
 
         // Second pass: remove only the stopped containers of the specified type
-        for (String serviceName : toRemove.keySet()) {
+        for (Map.Entry<String, GenericContainer<?>> entry : toRemove.entrySet()) {
+            String serviceName = entry.getKey();
             containers.remove(serviceName);
+            ContainerLogUtils.discardLogIndex(entry.getValue());
+            release(serviceName);
             log.info("Removed container from registry: {}", serviceName);
         }
     }
@@ -127,9 +273,15 @@ public class ContainerStateManager {
 
         if (webServer == null) {
             log.info("Creating new WebServerContainer for service: {}", serviceName);
-            webServer = new WebServerContainer()
-                    .withLiveKitMeetFiles()
-                    .withNetworkAliasAndStart(getOrCreateNetwork(), serviceName);
+            reserve(serviceName, ContainerFootprint.WEB_SERVER);
+            try {
+                webServer = new WebServerContainer()
+                        .withLiveKitMeetFiles()
+                        .withNetworkAliasAndStart(getOrCreateNetwork(), serviceName);
+            } catch (RuntimeException e) {
+                release(serviceName);
+                throw e;
+            }
 
             registerContainer(serviceName, webServer);
         }
@@ -149,9 +301,7 @@ public class ContainerStateManager {
         if (minio == null) {
             log.info("Creating new MinIOContainer for service: {}", serviceName);
             minio = MinIOContainer.createContainer(serviceName, getOrCreateNetwork());
-            minio.start();
-
-            registerContainer(serviceName, minio);
+            startContainer(serviceName, minio);
         }
 
         return minio;
@@ -171,11 +321,15 @@ public class ContainerStateManager {
         if (minio == null) {
             log.info("Creating new MinIOContainer for service: {} with custom credentials", serviceName);
             minio = MinIOContainer.createContainer(serviceName, getOrCreateNetwork(), accessKey, secretKey);
-            minio.start();
-
-            registerContainer(serviceName, minio);
+            startContainer(serviceName, minio);
         }
 
         return minio;
     }
+
+    private void stopStats(String serviceName) {
+        if (statsSampler != null) {
+            statsSampler.stop(serviceName);
+        }
+    }
 }
@@ -4,6 +4,7 @@ import java.util.HashMap;
 import java.util.Map;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import ro.stancalau.test.framework.webhook.EgressInfo;
 
 @Slf4j
 @Getter
@@ -11,6 +12,7 @@ public class EgressStateManager {
 
     private final Map<String, Map<String, String>> participantTrackIds = new HashMap<>();
     private final Map<String, String> activeRecordings = new HashMap<>();
+    private final Map<String, EgressInfo> completedRecordings = new HashMap<>();
 
     public EgressStateManager() {}
 
@@ -37,9 +39,19 @@ public class EgressStateManager {
         log.debug("Removed active recording for {}", key);
     }
 
+    public void storeCompletedRecording(String key, EgressInfo egressInfo) {
+        completedRecordings.put(key, egressInfo);
+        log.debug("Stored completed recording for {}: {}", key, egressInfo.getFileResults());
+    }
+
+    public EgressInfo getCompletedRecording(String key) {
+        return completedRecordings.get(key);
+    }
+
     public void clearAll() {
         participantTrackIds.clear();
         activeRecordings.clear();
+        completedRecordings.clear();
         log.debug("Cleared all egress state");
     }
 }
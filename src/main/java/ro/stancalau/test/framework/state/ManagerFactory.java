@@ -22,6 +22,7 @@ public class ManagerFactory {
 
         WebDriverStateManager webDriverManager = new WebDriverStateManager(containerManager);
         RoomClientStateManager roomClientManager = new RoomClientStateManager(containerManager);
+        S3ClientStateManager s3ClientManager = new S3ClientStateManager(containerManager);
 
         AccessTokenStateManager accessTokenManager = new AccessTokenStateManager();
         EgressStateManager egressStateManager = new EgressStateManager();
@@ -45,7 +46,8 @@ public class ManagerFactory {
                 meetSessionStateManager,
                 videoQualityStateManager,
                 dataChannelStateManager,
-                metadataStateManager);
+                metadataStateManager,
+                s3ClientManager);
     }
 
     public record ManagerSet(
@@ -59,7 +61,8 @@ public class ManagerFactory {
             MeetSessionStateManager meetSessionStateManager,
             VideoQualityStateManager videoQualityStateManager,
             DataChannelStateManager dataChannelStateManager,
-            MetadataStateManager metadataStateManager) {
+            MetadataStateManager metadataStateManager,
+            S3ClientStateManager s3ClientManager) {
 
         public void cleanup() {
             log.debug("Cleaning up manager set");
@@ -124,6 +127,12 @@ public class ManagerFactory {
                 log.warn("Error cleaning up ImageSnapshotStateManager", e);
             }
 
+            try {
+                s3ClientManager.clearAll();
+            } catch (Exception e) {
+                log.warn("Error cleaning up S3ClientStateManager", e);
+            }
+
             try {
                 containerManager.stopAllContainers();
                 containerManager.closeNetwork();
@@ -0,0 +1,139 @@
+package ro.stancalau.test.framework.state;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import ro.stancalau.test.framework.config.TestConfig;
+import ro.stancalau.test.framework.docker.MinIOContainer;
+import ro.stancalau.test.framework.util.MinioS3Client;
+import ro.stancalau.test.framework.util.S3TransferEngine;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Client;
+
+/**
+ * Scenario-scoped registry of S3 clients. One AWS {@link S3Client}, and so one HTTP connection pool,
+ * is created per endpoint and credentials and shared by all bucket clients for the lifetime of the
+ * scenario. Async clients backing {@link S3TransferEngine}s are shared the same way.
+ */
+@Slf4j
+public class S3ClientStateManager {
+
+    private final ContainerStateManager containerStateManager;
+    private final Map<ClientKey, S3Client> s3Clients = new HashMap<>();
+    private final Map<BucketKey, MinioS3Client> bucketClients = new LinkedHashMap<>();
+    private final Map<ClientKey, S3AsyncClient> s3AsyncClients = new HashMap<>();
+    private final Map<BucketKey, S3TransferEngine> transferEngines = new HashMap<>();
+
+    public S3ClientStateManager(ContainerStateManager containerStateManager) {
+        this.containerStateManager = containerStateManager;
+    }
+
+    /**
+     * Get the client for a bucket on a MinIO service, reusing the connection pool of the service.
+     *
+     * @param minioServiceName The service name of the MinIO container
+     * @param bucketName The bucket to operate on
+     * @return The bucket client, valid until the scenario ends
+     */
+    public MinioS3Client getBucketClient(String minioServiceName, String bucketName) {
+        MinIOContainer minio = requireMinio(minioServiceName);
+        ClientKey clientKey = new ClientKey(minio.getS3EndpointUrl(), minio.getAccessKey(), minio.getSecretKey());
+        return getBucketClient(clientKey, bucketName, minio.getEventSourceId());
+    }
+
+    public MinioS3Client getBucketClient(String endpoint, String accessKey, String secretKey, String bucketName) {
+        return getBucketClient(new ClientKey(endpoint, accessKey, secretKey), bucketName, null);
+    }
+
+    private MinioS3Client getBucketClient(ClientKey clientKey, String bucketName, @Nullable String eventSourceId) {
+        return bucketClients.computeIfAbsent(new BucketKey(clientKey, bucketName), k -> {
+            S3Client s3Client = s3Clients.computeIfAbsent(clientKey, key -> {
+                log.info("Creating shared S3 client for endpoint: {}", key.endpoint());
+                return MinioS3Client.createS3Client(key.endpoint(), key.accessKey(), key.secretKey());
+            });
+            return new MinioS3Client(s3Client, bucketName, eventSourceId);
+        });
+    }
+
+    /**
+     * Get the transfer engine for a bucket on a MinIO service, for multipart uploads, parallel
+     * downloads and ranged reads of large objects.
+     *
+     * @param minioServiceName The service name of the MinIO container
+     * @param bucketName The bucket to transfer to and from
+     * @return The transfer engine, valid until the scenario ends
+     */
+    public S3TransferEngine getTransferEngine(String minioServiceName, String bucketName) {
+        MinIOContainer minio = requireMinio(minioServiceName);
+        ClientKey clientKey = new ClientKey(minio.getS3EndpointUrl(), minio.getAccessKey(), minio.getSecretKey());
+        return transferEngines.computeIfAbsent(new BucketKey(clientKey, bucketName), k -> {
+            S3AsyncClient s3AsyncClient = s3AsyncClients.computeIfAbsent(clientKey, key -> {
+                log.info("Creating shared async S3 client for endpoint: {}", key.endpoint());
+                return S3TransferEngine.createS3AsyncClient(key.endpoint(), key.accessKey(), key.secretKey());
+            });
+            return new S3TransferEngine(
+                    s3AsyncClient,
+                    bucketName,
+                    S3TransferEngine.DEFAULT_PART_SIZE,
+                    TestConfig.getS3TransferConcurrency());
+        });
+    }
+
+    /** Get all bucket clients used in the scenario, in the order they were first requested */
+    public List<MinioS3Client> getBucketClients() {
+        return new ArrayList<>(bucketClients.values());
+    }
+
+    /**
+     * Export the contents of every bucket used in the scenario.
+     *
+     * @param exportDirectory The directory to export into, one subdirectory per bucket
+     */
+    public void exportAll(String exportDirectory) {
+        for (MinioS3Client client : bucketClients.values()) {
+            try {
+                client.exportBucketContents(exportDirectory);
+            } catch (Exception e) {
+                log.error("Failed to export S3 bucket {}", client.getBucketName(), e);
+            }
+        }
+    }
+
+    public void clearAll() {
+        log.info("Closing {} shared S3 clients", s3Clients.size());
+        for (S3Client s3Client : s3Clients.values()) {
+            try {
+                s3Client.close();
+            } catch (Exception e) {
+                log.warn("Failed to close S3 client", e);
+            }
+        }
+        for (S3AsyncClient s3AsyncClient : s3AsyncClients.values()) {
+            try {
+                s3AsyncClient.close();
+            } catch (Exception e) {
+                log.warn("Failed to close async S3 client", e);
+            }
+        }
+        s3Clients.clear();
+        bucketClients.clear();
+        s3AsyncClients.clear();
+        transferEngines.clear();
+    }
+
+    private MinIOContainer requireMinio(String minioServiceName) {
+        MinIOContainer minio = containerStateManager.getContainer(minioServiceName, MinIOContainer.class);
+        if (minio == null) {
+            throw new IllegalArgumentException("No MinIO container found for service: " + minioServiceName);
+        }
+        return minio;
+    }
+
+    private record ClientKey(String endpoint, String accessKey, String secretKey) {}
+
+    private record BucketKey(ClientKey clientKey, String bucketName) {}
+}
@@ -8,6 +8,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
 import lombok.extern.slf4j.Slf4j;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chromium.HasCdp;
@@ -17,7 +18,9 @@ import org.testcontainers.containers.BrowserWebDriverContainer;
 import org.testcontainers.containers.Network;
 import org.testcontainers.containers.VncRecordingContainer;
 import org.testcontainers.lifecycle.TestDescription;
+import org.testcontainers.utility.MountableFile;
 import ro.stancalau.test.framework.config.TestConfig;
+import ro.stancalau.test.framework.docker.ContainerFootprint;
 import ro.stancalau.test.framework.docker.ContainerLogUtils;
 import ro.stancalau.test.framework.selenium.SeleniumConfig;
 import ro.stancalau.test.framework.util.BrowserPollingHelper;
@@ -33,6 +36,8 @@ public class WebDriverStateManager {
     private static final long WEBDRIVER_RETRY_TIMEOUT_MS = 180_000;
     private static final long WEBDRIVER_RETRY_DELAY_MS = 5_000;
     private static final long DRIVER_QUIT_TIMEOUT_SECONDS = 10;
+    private static final String FAKE_VIDEO_CLIP_CONTAINER_PATH = "/tmp/fake-video.y4m";
+    private static final String FAKE_AUDIO_CLIP_CONTAINER_PATH = "/tmp/fake-audio.wav";
 
     private final Map<String, WebDriver> webDrivers = new HashMap<>();
     private final Map<String, BrowserWebDriverContainer<?>> browserContainers = new HashMap<>();
@@ -42,6 +47,12 @@ public class WebDriverStateManager {
     private String currentScenarioRecordingPath;
     private String currentScenarioBasePath;
 
+    @Nullable
+    private File fakeVideoClip;
+
+    @Nullable
+    private File fakeAudioClip;
+
     public WebDriverStateManager(ContainerStateManager containerStateManager) {
         this.containerStateManager = containerStateManager;
     }
@@ -53,6 +64,28 @@ public class WebDriverStateManager {
         log.info("Set scenario recording path to: {}", this.currentScenarioRecordingPath);
     }
 
+    /**
+     * Play a Y4M clip as the fake camera of all subsequent Chrome and Edge WebDriver creations, instead
+     * of the browser's built-in test pattern
+     *
+     * @param clip The clip on the host, copied into each browser container, or null for the test pattern
+     */
+    public void setFakeVideoClip(@Nullable File clip) {
+        this.fakeVideoClip = clip;
+        log.info("Set fake video clip to: {}", clip != null ? clip.getAbsolutePath() : "browser test pattern");
+    }
+
+    /**
+     * Loop a WAV file as the fake microphone of all subsequent Chrome and Edge WebDriver creations,
+     * instead of the browser's built-in beep
+     *
+     * @param clip The WAV file on the host, copied into each browser container, or null for the beep
+     */
+    public void setFakeAudioClip(@Nullable File clip) {
+        this.fakeAudioClip = clip;
+        log.info("Set fake audio clip to: {}", clip != null ? clip.getAbsolutePath() : "browser beep");
+    }
+
     /** Get the current recording directory (scenario-specific), creating it lazily if needed */
     private File getCurrentRecordingDir() {
         if (currentScenarioRecordingPath == null) {
@@ -93,6 +126,7 @@ public class WebDriverStateManager {
 
         try {
             log.info("Starting browser container for key: {}", key);
+            containerStateManager.reserve(reservationName(key), ContainerFootprint.BROWSER);
             browserContainer.start();
             browserContainer.setNetworkAliases(List.of(key));
             log.info("Started browser container with alias: {} - VNC URL: {}", key, browserContainer.getVncAddress());
@@ -144,6 +178,8 @@ public class WebDriverStateManager {
             } catch (Exception e) {
                 log.warn("Error stopping failed container {}: {}", key, e.getMessage());
             }
+            containerStateManager.release(reservationName(key));
+            ContainerLogUtils.discardLogIndex(container);
             browserContainers.remove(key);
             testDescriptions.remove(key);
             testResults.remove(key);
@@ -195,6 +231,12 @@ public class WebDriverStateManager {
         Network network = containerStateManager.getOrCreateNetwork();
         String insecureUrl = "http://host.docker.internal:*,http://webserver";
 
+        String fakeVideoPath = fakeVideoClip != null ? FAKE_VIDEO_CLIP_CONTAINER_PATH : null;
+        String fakeAudioPath = fakeAudioClip != null ? FAKE_AUDIO_CLIP_CONTAINER_PATH : null;
+        if ((fakeVideoPath != null || fakeAudioPath != null) && browser.equalsIgnoreCase("firefox")) {
+            throw new IllegalStateException("Firefox cannot play fake media clips as its camera or microphone");
+        }
+
         BrowserWebDriverContainer<?> browserContainer =
                 switch (browser.toLowerCase()) {
                     case "firefox" -> new BrowserWebDriverContainer<>()
@@ -204,17 +246,27 @@ public class WebDriverStateManager {
                             .withEnv("SE_NODE_SESSION_TIMEOUT", SESSION_TIMEOUT_SECONDS)
                             .withStartupTimeout(CONTAINER_STARTUP_TIMEOUT);
                     case "edge" -> new BrowserWebDriverContainer<>()
-                            .withCapabilities(SeleniumConfig.getEdgeOptions(insecureUrl))
+                            .withCapabilities(SeleniumConfig.getEdgeOptions(insecureUrl, fakeVideoPath, fakeAudioPath))
                             .withNetwork(network)
                             .withEnv("SE_NODE_SESSION_TIMEOUT", SESSION_TIMEOUT_SECONDS)
                             .withStartupTimeout(CONTAINER_STARTUP_TIMEOUT);
                     default -> new BrowserWebDriverContainer<>()
-                            .withCapabilities(SeleniumConfig.getChromeOptions(insecureUrl))
+                            .withCapabilities(
+                                    SeleniumConfig.getChromeOptions(insecureUrl, fakeVideoPath, fakeAudioPath))
                             .withNetwork(network)
                             .withEnv("SE_NODE_SESSION_TIMEOUT", SESSION_TIMEOUT_SECONDS)
                             .withStartupTimeout(CONTAINER_STARTUP_TIMEOUT);
                 };
 
+        if (fakeVideoClip != null) {
+            browserContainer = browserContainer.withCopyFileToContainer(
+                    MountableFile.forHostPath(fakeVideoClip.getAbsolutePath(), 0644), FAKE_VIDEO_CLIP_CONTAINER_PATH);
+        }
+        if (fakeAudioClip != null) {
+            browserContainer = browserContainer.withCopyFileToContainer(
+                    MountableFile.forHostPath(fakeAudioClip.getAbsolutePath(), 0644), FAKE_AUDIO_CLIP_CONTAINER_PATH);
+        }
+
         String recordingMode = TestConfig.getRecordingMode();
         if (TestConfig.isRecordingEnabled()) {
             log.info("Creating browser container with VNC recording enabled (mode: {})", recordingMode);
@@ -239,7 +291,7 @@ public class WebDriverStateManager {
         File logDir = new File(logDirPath);
         logDir.mkdirs();
         String logFileName = browser.toLowerCase() + "-container.log";
-        browserContainer.withLogConsumer(ContainerLogUtils.createLogConsumer(logDir, logFileName));
+        ContainerLogUtils.withLogCapture(browserContainer, logDir, logFileName);
         log.info("Browser container logs will be saved to: {}/{}", logDirPath, logFileName);
 
         return browserContainer;
@@ -370,6 +422,8 @@ public class WebDriverStateManager {
                 } catch (Exception e) {
                     log.warn("Error stopping browser container with key: {}: {}", key, e.getMessage());
                 }
+                containerStateManager.release(reservationName(key));
+                ContainerLogUtils.discardLogIndex(container);
             }
         } else {
             log.warn("No WebDriver or container found to close for key: {}", key);
@@ -402,11 +456,12 @@ public class WebDriverStateManager {
                     BrowserPollingHelper.safeSleep(1000);
                     container.stop();
                     log.debug("Stopped browser container with key: {}", key);
-                    return true;
                 } catch (Exception e) {
                     log.warn("Error stopping browser container with key: {}: {}", key, e.getMessage());
-                    return true;
                 }
+                containerStateManager.release(reservationName(key));
+                ContainerLogUtils.discardLogIndex(container);
+                return true;
             }
             return false;
         });
@@ -441,11 +496,12 @@ public class WebDriverStateManager {
                     BrowserPollingHelper.safeSleep(1000);
                     container.stop();
                     log.debug("Stopped browser container with key: {}", key);
-                    return true;
                 } catch (Exception e) {
                     log.warn("Error stopping browser container with key: {}: {}", key, e.getMessage());
-                    return true;
                 }
+                containerStateManager.release(reservationName(key));
+                ContainerLogUtils.discardLogIndex(container);
+                return true;
             }
             return false;
         });
@@ -486,6 +542,8 @@ public class WebDriverStateManager {
             } catch (Exception e) {
                 log.warn("Error stopping browser container with key: {}: {}", key, e.getMessage());
             }
+            containerStateManager.release(reservationName(key));
+            ContainerLogUtils.discardLogIndex(container);
         }
         browserContainers.clear();
         testDescriptions.clear();
@@ -550,6 +608,11 @@ public class WebDriverStateManager {
         waitForRecordingFile(testDescription, true); // Default to PASSED for backward compatibility
     }
 
+    /** The name under which a browser reserves its host resources with the container manager */
+    private String reservationName(String key) {
+        return "browser:" + key;
+    }
+
     /** Generate a unique key for WebDriver identification Format: purpose:actor */
     private String generateKey(String purpose, String actor) {
         return purpose + ":" + actor;
@@ -0,0 +1,174 @@
+package ro.stancalau.test.framework.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+
+/**
+ * Measures level, silence, clipping and gaps of a recording's audio from raw signed 16-bit
+ * little-endian mono PCM, e.g. the {@code -f s16le} output of {@code FFmpegContainer}. Samples are
+ * analyzed as they arrive in fixed-size chunks, so memory stays constant however long the recording is.
+ *
+ * <p>Silence is measured on 10 ms windows whose RMS level is below a threshold, which includes quiet
+ * passages as well as dropped audio. Gaps are runs of exact digital zeros: decoders fill missing or
+ * concealed packets with them, while a live or looped source and the codec's own noise never produce
+ * them for long.
+ *
+ * <p>Instances are not thread-safe.
+ */
+public class AudioQualityAnalyzer {
+
+    /** Windows with an RMS level below this are silent */
+    public static final double SILENCE_THRESHOLD_DBFS = -60.0;
+
+    /** Silent runs shorter than this are counted in the silence ratio but not as silences */
+    public static final Duration MIN_SILENCE = Duration.ofMillis(200);
+
+    /** Runs of digital zeros shorter than this are not counted as gaps */
+    public static final Duration MIN_GAP = Duration.ofMillis(20);
+
+    /** Reported for digital silence, whose level is minus infinity */
+    public static final double MIN_DBFS = -120.0;
+
+    private static final double FULL_SCALE = 32768.0;
+    private static final int WINDOW_MILLIS = 10;
+    private static final int READ_BUFFER_BYTES = 8192;
+
+    private final int sampleRate;
+    private final int windowSamples;
+    private final long minSilenceWindows;
+    private final long minGapSamples;
+    private final double silenceMeanSquare;
+    private final byte[] buffer = new byte[READ_BUFFER_BYTES];
+
+    private long sampleCount;
+    private double sumSquares;
+    private int peak;
+    private long clippedSamples;
+
+    private double windowSquares;
+    private int windowFill;
+    private long windowCount;
+    private long silentWindows;
+    private long currentSilenceWindows;
+    private long longestSilenceWindows;
+    private int silenceCount;
+
+    private long currentZeroRun;
+    private long longestZeroRun;
+    private int gapCount;
+
+    public AudioQualityAnalyzer(int sampleRate) {
+        if (sampleRate < 1000 / WINDOW_MILLIS) {
+            throw new IllegalArgumentException("Invalid sample rate " + sampleRate);
+        }
+        this.sampleRate = sampleRate;
+        this.windowSamples = sampleRate * WINDOW_MILLIS / 1000;
+        this.minSilenceWindows = MIN_SILENCE.toMillis() / WINDOW_MILLIS;
+        this.minGapSamples = MIN_GAP.toMillis() * sampleRate / 1000;
+        double silenceAmplitude = FULL_SCALE * Math.pow(10, SILENCE_THRESHOLD_DBFS / 20);
+        this.silenceMeanSquare = silenceAmplitude * silenceAmplitude;
+    }
+
+    /**
+     * Read and analyze every sample of a raw PCM stream until it ends. A trailing odd byte, left when
+     * the decoder is stopped mid-sample, is ignored.
+     *
+     * @param input The raw samples
+     * @param sampleRate The sample rate of the stream
+     * @return The quality report
+     * @throws IOException If the stream cannot be read
+     */
+    public static AudioQualityReport analyze(InputStream input, int sampleRate) throws IOException {
+        AudioQualityAnalyzer analyzer = new AudioQualityAnalyzer(sampleRate);
+        while (analyzer.readSamples(input)) {
+            // Each chunk is analyzed as it is read
+        }
+        return analyzer.report();
+    }
+
+    /**
+     * Read the next chunk of a raw PCM stream and analyze its samples.
+     *
+     * @param input The raw samples
+     * @return True if samples were read, false at the end of the stream
+     * @throws IOException If the stream cannot be read
+     */
+    public boolean readSamples(InputStream input) throws IOException {
+        int read = input.readNBytes(buffer, 0, buffer.length);
+        for (int i = 0; i + 1 < read; i += 2) {
+            accept((short) ((buffer[i] & 0xFF) | (buffer[i + 1] << 8)));
+        }
+        return read == buffer.length;
+    }
+
+    /**
+     * Analyze one sample.
+     *
+     * @param sample The signed 16-bit sample
+     */
+    public void accept(short sample) {
+        int magnitude = Math.abs((int) sample);
+        sampleCount++;
+        sumSquares += (double) sample * sample;
+        peak = Math.max(peak, magnitude);
+        if (magnitude >= Short.MAX_VALUE) {
+            clippedSamples++;
+        }
+
+        if (sample == 0) {
+            currentZeroRun++;
+            longestZeroRun = Math.max(longestZeroRun, currentZeroRun);
+            if (currentZeroRun == minGapSamples) {
+                gapCount++;
+            }
+        } else {
+            currentZeroRun = 0;
+        }
+
+        windowSquares += (double) sample * sample;
+        if (++windowFill == windowSamples) {
+            completeWindow();
+        }
+    }
+
+    /** Summarize the samples analyzed so far; a trailing partial window is left out of silence metrics */
+    public AudioQualityReport report() {
+        return new AudioQualityReport(
+                sampleRate,
+                sampleCount,
+                samplesToDuration(sampleCount),
+                sampleCount == 0 ? MIN_DBFS : dbfs(Math.sqrt(sumSquares / sampleCount)),
+                dbfs(peak),
+                windowCount == 0 ? 0 : (double) silentWindows / windowCount,
+                silenceCount,
+                samplesToDuration(longestSilenceWindows * windowSamples),
+                sampleCount == 0 ? 0 : (double) clippedSamples / sampleCount,
+                gapCount,
+                samplesToDuration(longestZeroRun));
+    }
+
+    private void completeWindow() {
+        windowCount++;
+        if (windowSquares / windowSamples < silenceMeanSquare) {
+            silentWindows++;
+            currentSilenceWindows++;
+            longestSilenceWindows = Math.max(longestSilenceWindows, currentSilenceWindows);
+            if (currentSilenceWindows == minSilenceWindows) {
+                silenceCount++;
+            }
+        } else {
+            currentSilenceWindows = 0;
+        }
+        windowSquares = 0;
+        windowFill = 0;
+    }
+
+    private Duration samplesToDuration(long samples) {
+        return Duration.ofNanos(samples * 1_000_000_000L / sampleRate);
+    }
+
+    private static double dbfs(double amplitude) {
+        return amplitude == 0 ? MIN_DBFS : Math.max(MIN_DBFS, 20 * Math.log10(amplitude / FULL_SCALE));
+    }
+}
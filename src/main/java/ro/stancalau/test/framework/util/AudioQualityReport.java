@@ -0,0 +1,80 @@
+package ro.stancalau.test.framework.util;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Per-recording audio quality measured by {@link AudioQualityAnalyzer} on decoded mono PCM.
+ *
+ * @param sampleRate The sample rate of the analyzed PCM
+ * @param sampleCount The number of decoded samples
+ * @param duration The decoded audio duration
+ * @param rmsDbfs The RMS level of the whole recording in dBFS
+ * @param peakDbfs The peak sample level in dBFS
+ * @param silenceRatio The fraction of the recording below {@link AudioQualityAnalyzer#SILENCE_THRESHOLD_DBFS}
+ * @param silenceCount The number of silences of at least {@link AudioQualityAnalyzer#MIN_SILENCE}
+ * @param longestSilence The duration of the longest silence
+ * @param clippedSampleRatio The fraction of samples at full scale
+ * @param gapCount The number of runs of digital zeros of at least {@link AudioQualityAnalyzer#MIN_GAP}
+ * @param longestGap The duration of the longest run of digital zeros
+ */
+public record AudioQualityReport(
+        int sampleRate,
+        long sampleCount,
+        Duration duration,
+        double rmsDbfs,
+        double peakDbfs,
+        double silenceRatio,
+        int silenceCount,
+        Duration longestSilence,
+        double clippedSampleRatio,
+        int gapCount,
+        Duration longestGap) {
+
+    /** One line per metric, as written next to the analyzed recording */
+    public String toSummary() {
+        return String.format(
+                Locale.ROOT,
+                """
+                samples=%d
+                sampleRate=%d
+                durationMs=%d
+                rmsDbfs=%.2f
+                peakDbfs=%.2f
+                silenceRatio=%.4f
+                silenceCount=%d
+                longestSilenceMs=%d
+                clippedSampleRatio=%.6f
+                gapCount=%d
+                longestGapMs=%d
+                """,
+                sampleCount,
+                sampleRate,
+                duration.toMillis(),
+                rmsDbfs,
+                peakDbfs,
+                silenceRatio,
+                silenceCount,
+                longestSilence.toMillis(),
+                clippedSampleRatio,
+                gapCount,
+                longestGap.toMillis());
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                Locale.ROOT,
+                "%dms of audio, %.1f dBFS RMS, %.1f dBFS peak, %.1f%% silent, %d silences (longest %dms),"
+                        + " %.3f%% clipped, %d gaps (longest %dms)",
+                duration.toMillis(),
+                rmsDbfs,
+                peakDbfs,
+                silenceRatio * 100,
+                silenceCount,
+                longestSilence.toMillis(),
+                clippedSampleRatio * 100,
+                gapCount,
+                longestGap.toMillis());
+    }
+}
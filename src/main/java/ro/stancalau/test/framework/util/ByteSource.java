@@ -0,0 +1,28 @@
+package ro.stancalau.test.framework.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Random access to the bytes of a file or object, used by {@link MediaContainerParser} to read
+ * container structures without loading the whole recording.
+ */
+public interface ByteSource extends Closeable {
+
+    /** Get the total number of bytes */
+    long size() throws IOException;
+
+    /**
+     * Read bytes starting at an offset. The returned buffer is big-endian, positioned at zero and
+     * holds fewer than {@code length} bytes only when the source ends first.
+     *
+     * @param offset The offset of the first byte
+     * @param length The number of bytes to read
+     * @return The bytes read
+     */
+    ByteBuffer read(long offset, int length) throws IOException;
+
+    @Override
+    default void close() throws IOException {}
+}
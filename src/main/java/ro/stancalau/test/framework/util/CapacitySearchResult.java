@@ -0,0 +1,68 @@
+package ro.stancalau.test.framework.util;
+
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * The outcome of a capacity search: the largest room that met its objectives and every stage that was
+ * run to find it.
+ *
+ * @param maxSustainableParticipants The most participants a stage sustained, 0 if none did
+ * @param firstFailingParticipants The fewest participants a stage failed with, or null if the search
+ *     reached its upper bound without failing
+ * @param reachedCeiling Whether every stage up to the search's largest room size passed, so the room may
+ *     sustain more than was tried
+ * @param stages Every stage in the order it was run
+ */
+public record CapacitySearchResult(
+        int maxSustainableParticipants,
+        @Nullable Integer firstFailingParticipants,
+        boolean reachedCeiling,
+        List<CapacityStage> stages) {
+
+    public CapacitySearchResult {
+        stages = List.copyOf(stages);
+    }
+
+    /** Whether the search found the breaking point rather than stopping at its upper bound */
+    public boolean foundBreakingPoint() {
+        return firstFailingParticipants != null;
+    }
+
+    /**
+     * One line per metric and one per stage, as written to the scenario's capacity report.
+     *
+     * @param livekitVersion The LiveKit server version the search ran against
+     * @param profile The configuration profile whose participant mix was scaled
+     * @return The report
+     */
+    public String toSummary(String livekitVersion, String profile) {
+        StringBuilder summary = new StringBuilder();
+        summary.append("livekitVersion=").append(livekitVersion).append('\n');
+        summary.append("profile=").append(profile).append('\n');
+        summary.append("maxSustainableParticipants=")
+                .append(maxSustainableParticipants)
+                .append('\n');
+        summary.append("firstFailingParticipants=")
+                .append(firstFailingParticipants != null ? firstFailingParticipants : "-")
+                .append('\n');
+        summary.append("reachedCeiling=").append(reachedCeiling).append('\n');
+        for (int i = 0; i < stages.size(); i++) {
+            summary.append("stage ").append(i + 1).append(": ").append(stages.get(i)).append('\n');
+        }
+        return summary.toString();
+    }
+
+    @Override
+    public String toString() {
+        String outcome;
+        if (foundBreakingPoint()) {
+            outcome = ", failed at " + firstFailingParticipants;
+        } else if (reachedCeiling) {
+            outcome = ", the search's ceiling, so the capacity may be higher";
+        } else {
+            outcome = ", no stage could run";
+        }
+        return maxSustainableParticipants + " participants sustained" + outcome + " after " + stages.size() + " stages";
+    }
+}
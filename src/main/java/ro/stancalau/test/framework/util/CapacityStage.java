@@ -0,0 +1,40 @@
+package ro.stancalau.test.framework.util;
+
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * One stage of a capacity search: a load test with a fixed number of participants and whether it met
+ * its objectives.
+ *
+ * @param participants The simulated participants in the room
+ * @param videoPublishers The video publishers among them
+ * @param audioPublishers The audio publishers among them
+ * @param subscribers The subscribers among them
+ * @param violations The objectives that were missed, or why the stage could not be run; empty if it passed
+ * @param results The parsed load test results, or null if the stage did not produce any
+ */
+public record CapacityStage(
+        int participants,
+        int videoPublishers,
+        int audioPublishers,
+        int subscribers,
+        List<String> violations,
+        @Nullable LoadTestResults results) {
+
+    public CapacityStage {
+        violations = List.copyOf(violations);
+    }
+
+    public boolean passed() {
+        return violations.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return participants + " participants (" + videoPublishers + " video, " + audioPublishers + " audio, "
+                + subscribers + " subscribers): "
+                + (passed() ? "passed" : "failed, " + String.join("; ", violations))
+                + (results != null ? " [" + results + "]" : "");
+    }
+}
@@ -0,0 +1,76 @@
+package ro.stancalau.test.framework.util;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.CompletableFuture;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.testcontainers.Testcontainers;
+
+/**
+ * Receives a byte stream that a container writes to a TCP socket on the test host, e.g. FFmpeg
+ * decoding to {@code tcp://host.testcontainers.internal:<port>}. The stream is consumed on a virtual
+ * thread as it arrives, so nothing is buffered on disk.
+ *
+ * <p>The port is exposed to containers started after the receiver; start the receiver first.
+ */
+@Slf4j
+public class ContainerStreamReceiver implements AutoCloseable {
+
+    private static final String CONTAINER_HOST = "host.testcontainers.internal";
+    private static final int READ_BUFFER_BYTES = 1 << 16;
+
+    private final ServerSocket serverSocket;
+
+    @Getter
+    private final int port;
+
+    public ContainerStreamReceiver() throws IOException {
+        this.serverSocket = new ServerSocket(0);
+        this.port = serverSocket.getLocalPort();
+        Testcontainers.exposeHostPorts(port);
+        log.info("Container stream receiver listening on port {}", port);
+    }
+
+    /** The URL containers write to, e.g. as FFmpeg output */
+    public String getContainerUrl() {
+        return "tcp://" + CONTAINER_HOST + ":" + port;
+    }
+
+    /**
+     * Accept one connection and consume its stream on a virtual thread.
+     *
+     * @param reader Reads the stream until it ends
+     * @return The result of the reader, completed exceptionally if the connection or the reader fails
+     */
+    public <T> CompletableFuture<T> receive(StreamReader<T> reader) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Thread.ofVirtual().name("container-stream-" + port).start(() -> {
+            try (Socket socket = serverSocket.accept();
+                    InputStream input = new BufferedInputStream(socket.getInputStream(), READ_BUFFER_BYTES)) {
+                log.debug("Container stream connected from {}", socket.getRemoteSocketAddress());
+                result.complete(reader.read(input));
+            } catch (Exception e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public void close() {
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            log.warn("Failed to close container stream receiver on port {}: {}", port, e.getMessage());
+        }
+    }
+
+    @FunctionalInterface
+    public interface StreamReader<T> {
+        T read(InputStream input) throws IOException;
+    }
+}
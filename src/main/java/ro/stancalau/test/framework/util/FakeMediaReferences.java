@@ -0,0 +1,174 @@
+package ro.stancalau.test.framework.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reference pHashes of the deterministic fake media that browsers publish, by source name, e.g.
+ * {@value #REFERENCE_CLIP_SOURCE} for the generated {@link ReferenceClip}. A frame shows a source when
+ * its hash is within a small Hamming distance of one of the source's references.
+ *
+ * <p>The shared instance is loaded from {@value #RESOURCE} on the classpath, a properties file mapping
+ * each source to a comma-separated list of 16-digit hex hashes.
+ */
+@Slf4j
+public class FakeMediaReferences {
+
+    public static final String RESOURCE = "fake-media/reference-hashes.properties";
+
+    /** The source name of the generated {@link ReferenceClip} that browsers can publish as their camera */
+    public static final String REFERENCE_CLIP_SOURCE = "reference-clip";
+
+    private static volatile FakeMediaReferences shared;
+
+    private final Map<String, List<Long>> references = new ConcurrentHashMap<>();
+
+    public static FakeMediaReferences getShared() {
+        FakeMediaReferences instance = shared;
+        if (instance == null) {
+            synchronized (FakeMediaReferences.class) {
+                instance = shared;
+                if (instance == null) {
+                    instance = loadResource();
+                    shared = instance;
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * The pHashes of the distinct frames of the {@link ReferenceClip}, the references stored for {@link
+     * #REFERENCE_CLIP_SOURCE}. The clip is generated, so they can be recomputed whenever the clip or the
+     * hash changes.
+     *
+     * @return The hashes, in frame order
+     */
+    public static List<Long> referenceClipHashes() {
+        byte[] luma = new byte[ReferenceClip.WIDTH * ReferenceClip.HEIGHT];
+        byte[] cb = new byte[luma.length / 4];
+        byte[] cr = new byte[luma.length / 4];
+        PerceptualHasher hasher = new PerceptualHasher();
+        Set<Long> hashes = new LinkedHashSet<>();
+        for (int frame = 0; frame < ReferenceClip.FRAME_COUNT; frame++) {
+            ReferenceClip.renderFrame(frame, luma, cb, cr);
+            hashes.add(hasher.hash(
+                    luma, ReferenceClip.WIDTH, ReferenceClip.HEIGHT, PerceptualHasher.Algorithm.PERCEPTUAL));
+        }
+        return List.copyOf(hashes);
+    }
+
+    /**
+     * Read references from a properties stream.
+     *
+     * @param input The properties, mapping source names to comma-separated hex hashes
+     * @return The references
+     * @throws IOException If the stream cannot be read
+     * @throws NumberFormatException If a hash is not valid hex
+     */
+    public static FakeMediaReferences load(InputStream input) throws IOException {
+        Properties properties = new Properties();
+        properties.load(new InputStreamReader(input, StandardCharsets.UTF_8));
+
+        FakeMediaReferences loaded = new FakeMediaReferences();
+        for (String source : properties.stringPropertyNames()) {
+            for (String hex : properties.getProperty(source).split(",")) {
+                if (!hex.isBlank()) {
+                    loaded.register(source, PerceptualHasher.fromHex(hex));
+                }
+            }
+        }
+        return loaded;
+    }
+
+    public void register(String source, long hash) {
+        references.computeIfAbsent(source, key -> new CopyOnWriteArrayList<>()).add(hash);
+    }
+
+    public Set<String> getSources() {
+        return new TreeSet<>(references.keySet());
+    }
+
+    public List<Long> getReferences(String source) {
+        return List.copyOf(references.getOrDefault(source, List.of()));
+    }
+
+    /**
+     * The smallest distance between a hash and the references of one source.
+     *
+     * @param source The source name
+     * @param hash The pHash of the frame
+     * @return The distance, or empty if the source has no references
+     */
+    public Optional<Integer> distanceTo(String source, long hash) {
+        int best = Integer.MAX_VALUE;
+        for (long reference : references.getOrDefault(source, List.of())) {
+            best = Math.min(best, PerceptualHasher.distance(reference, hash));
+        }
+        return best == Integer.MAX_VALUE ? Optional.empty() : Optional.of(best);
+    }
+
+    /**
+     * Find the source whose references are closest to a hash.
+     *
+     * @param hash The pHash of the frame
+     * @return The closest source, or empty if there are no references
+     */
+    public Optional<Match> closestMatch(long hash) {
+        Match best = null;
+        for (String source : getSources()) {
+            int distance = distanceTo(source, hash).orElse(Integer.MAX_VALUE);
+            if (best == null || distance < best.distance()) {
+                best = new Match(source, distance);
+            }
+        }
+        return Optional.ofNullable(best);
+    }
+
+    public boolean matches(String source, long hash, int maxDistance) {
+        return distanceTo(source, hash).map(distance -> distance <= maxDistance).orElse(false);
+    }
+
+    /** The references in the properties format read by {@link #load(InputStream)} */
+    public String toProperties() {
+        StringBuilder properties = new StringBuilder();
+        new TreeMap<>(references).forEach((source, hashes) -> {
+            properties.append(source).append('=');
+            for (int i = 0; i < hashes.size(); i++) {
+                properties.append(i == 0 ? "" : ",").append(PerceptualHasher.toHex(hashes.get(i)));
+            }
+            properties.append(System.lineSeparator());
+        });
+        return properties.toString();
+    }
+
+    private static FakeMediaReferences loadResource() {
+        try (InputStream input = FakeMediaReferences.class.getClassLoader().getResourceAsStream(RESOURCE)) {
+            if (input == null) {
+                log.info("No fake media reference hashes found at {}", RESOURCE);
+                return new FakeMediaReferences();
+            }
+            FakeMediaReferences loaded = load(input);
+            log.info("Loaded fake media reference hashes for sources {}", loaded.getSources());
+            return loaded;
+        } catch (IOException | NumberFormatException e) {
+            log.warn("Failed to load fake media reference hashes from {}: {}", RESOURCE, e.getMessage());
+            return new FakeMediaReferences();
+        }
+    }
+
+    public record Match(String source, int distance) {}
+}
@@ -0,0 +1,11 @@
+package ro.stancalau.test.framework.util;
+
+/**
+ * Full-reference quality of one decoded frame against its source frame, computed by {@link
+ * FullReferenceMetrics}.
+ *
+ * @param psnr The luma peak signal-to-noise ratio in dB, {@link FullReferenceMetrics#MAX_PSNR} for
+ *     identical frames
+ * @param ssim The mean luma structural similarity, 1 for identical frames
+ */
+public record FrameQuality(double psnr, double ssim) {}
@@ -0,0 +1,161 @@
+package ro.stancalau.test.framework.util;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Computes luma PSNR and SSIM between a source frame and its decoded copy, both 8-bit planes of the
+ * same size. The frame is split into horizontal tiles that are measured in parallel on a fork-join
+ * pool and summed, so one comparison uses every core without allocating per-pixel buffers.
+ *
+ * <p>SSIM uses 8x8 windows with a stride of 4 pixels and the standard constants for 8-bit video; it
+ * tracks FFmpeg's {@code ssim} filter closely enough to compare runs, not to reproduce its numbers.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class FullReferenceMetrics {
+
+    /** Reported for identical frames, whose mean squared error is zero */
+    public static final double MAX_PSNR = 100.0;
+
+    private static final int SSIM_WINDOW = 8;
+    private static final int SSIM_STRIDE = 4;
+    private static final double SSIM_C1 = (0.01 * 255) * (0.01 * 255);
+    private static final double SSIM_C2 = (0.03 * 255) * (0.03 * 255);
+
+    /** Rows measured by one leaf task; a multiple of the SSIM stride so windows are not split */
+    private static final int TILE_ROWS = 32;
+
+    /**
+     * Compare two luma planes on the common fork-join pool.
+     *
+     * @param reference The source plane, row by row without padding
+     * @param distorted The decoded plane, same size as the source
+     * @param width The frame width
+     * @param height The frame height
+     * @return The PSNR and SSIM of the decoded frame
+     */
+    public static FrameQuality compare(byte[] reference, byte[] distorted, int width, int height) {
+        return compare(reference, distorted, width, height, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Compare two luma planes on the given fork-join pool.
+     *
+     * @param reference The source plane, row by row without padding
+     * @param distorted The decoded plane, same size as the source
+     * @param width The frame width
+     * @param height The frame height
+     * @param pool The pool measuring the tiles
+     * @return The PSNR and SSIM of the decoded frame
+     */
+    public static FrameQuality compare(
+            byte[] reference, byte[] distorted, int width, int height, ForkJoinPool pool) {
+        int size = width * height;
+        if (width <= 0 || height <= 0 || reference.length < size || distorted.length < size) {
+            throw new IllegalArgumentException("Planes do not hold a " + width + "x" + height + " frame");
+        }
+
+        TileSums sums = pool.invoke(new TileTask(reference, distorted, width, height, 0, height));
+
+        double meanSquaredError = (double) sums.squaredError() / size;
+        double psnr = meanSquaredError == 0
+                ? MAX_PSNR
+                : Math.min(MAX_PSNR, 10 * Math.log10(255.0 * 255.0 / meanSquaredError));
+        double ssim = sums.ssimWindows() == 0 ? 1.0 : sums.ssimSum() / sums.ssimWindows();
+        return new FrameQuality(psnr, ssim);
+    }
+
+    /** Measure rows {@code [rowStart, rowEnd)} and the SSIM windows whose top row is among them */
+    private static TileSums measure(
+            byte[] reference, byte[] distorted, int width, int height, int rowStart, int rowEnd) {
+        long squaredError = 0;
+        for (int i = rowStart * width; i < rowEnd * width; i++) {
+            int difference = (reference[i] & 0xFF) - (distorted[i] & 0xFF);
+            squaredError += difference * difference;
+        }
+
+        double ssimSum = 0;
+        int ssimWindows = 0;
+        int firstWindowRow = (rowStart + SSIM_STRIDE - 1) / SSIM_STRIDE * SSIM_STRIDE;
+        for (int y = firstWindowRow; y < rowEnd && y + SSIM_WINDOW <= height; y += SSIM_STRIDE) {
+            for (int x = 0; x + SSIM_WINDOW <= width; x += SSIM_STRIDE) {
+                ssimSum += windowSsim(reference, distorted, width, x, y);
+                ssimWindows++;
+            }
+        }
+        return new TileSums(squaredError, ssimSum, ssimWindows);
+    }
+
+    private static double windowSsim(byte[] reference, byte[] distorted, int width, int x, int y) {
+        int sumX = 0;
+        int sumY = 0;
+        int sumXX = 0;
+        int sumYY = 0;
+        int sumXY = 0;
+        for (int row = y; row < y + SSIM_WINDOW; row++) {
+            int offset = row * width + x;
+            for (int i = offset; i < offset + SSIM_WINDOW; i++) {
+                int a = reference[i] & 0xFF;
+                int b = distorted[i] & 0xFF;
+                sumX += a;
+                sumY += b;
+                sumXX += a * a;
+                sumYY += b * b;
+                sumXY += a * b;
+            }
+        }
+
+        double count = SSIM_WINDOW * SSIM_WINDOW;
+        double meanX = sumX / count;
+        double meanY = sumY / count;
+        double varianceX = sumXX / count - meanX * meanX;
+        double varianceY = sumYY / count - meanY * meanY;
+        double covariance = sumXY / count - meanX * meanY;
+        return ((2 * meanX * meanY + SSIM_C1) * (2 * covariance + SSIM_C2))
+                / ((meanX * meanX + meanY * meanY + SSIM_C1) * (varianceX + varianceY + SSIM_C2));
+    }
+
+    private record TileSums(long squaredError, double ssimSum, int ssimWindows) {
+        TileSums plus(TileSums other) {
+            return new TileSums(
+                    squaredError + other.squaredError, ssimSum + other.ssimSum, ssimWindows + other.ssimWindows);
+        }
+    }
+
+    private static final class TileTask extends RecursiveTask<TileSums> {
+
+        private final byte[] reference;
+        private final byte[] distorted;
+        private final int width;
+        private final int height;
+        private final int rowStart;
+        private final int rowEnd;
+
+        TileTask(byte[] reference, byte[] distorted, int width, int height, int rowStart, int rowEnd) {
+            this.reference = reference;
+            this.distorted = distorted;
+            this.width = width;
+            this.height = height;
+            this.rowStart = rowStart;
+            this.rowEnd = rowEnd;
+        }
+
+        @Override
+        protected TileSums compute() {
+            if (rowEnd - rowStart <= TILE_ROWS) {
+                return measure(reference, distorted, width, height, rowStart, rowEnd);
+            }
+            int middle = rowStart + (rowEnd - rowStart) / 2 / TILE_ROWS * TILE_ROWS;
+            if (middle == rowStart) {
+                middle += TILE_ROWS;
+            }
+            TileTask top = new TileTask(reference, distorted, width, height, rowStart, middle);
+            TileTask bottom = new TileTask(reference, distorted, width, height, middle, rowEnd);
+            top.fork();
+            TileSums bottomSums = bottom.compute();
+            return top.join().plus(bottomSums);
+        }
+    }
+}
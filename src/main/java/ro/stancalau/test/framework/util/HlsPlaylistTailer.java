@@ -0,0 +1,352 @@
+package ro.stancalau.test.framework.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+/**
+ * Follows an HLS media playlist while egress is still writing it. Each {@link #poll()} reads only the
+ * bytes appended since the previous poll and parses only the complete lines among them, so a tick costs
+ * O(new segments) however long the stream has been running.
+ *
+ * <p>New segments are checked as they appear: media sequence numbers and the numbers in segment names
+ * must increase by one, and every {@code #EXTINF} rounded to whole seconds must not exceed the target
+ * duration. The first poll that finds segments anchors media time to the wall clock, so egress startup
+ * is not counted: those segments have zero latency. Every later segment's arrival latency is how much
+ * later than its media end, counted from that anchor, the poll that first saw it ran, so it includes up
+ * to one poll interval.
+ *
+ * <p>Egress rewrites event playlists in place with the old lines as prefix. Each poll re-reads the last
+ * few bytes already parsed along with the new ones; a playlist that is shorter than what was already
+ * read, or whose bytes there changed, is read again from the start, skipping the segments already seen.
+ *
+ * <p>Instances are not thread-safe.
+ */
+@Slf4j
+public class HlsPlaylistTailer {
+
+    /** Violations beyond this many are counted but not kept */
+    public static final int MAX_REPORTED_VIOLATIONS = 20;
+
+    private static final Pattern SEGMENT_NUMBER = Pattern.compile("(\\d+)\\.\\w+$");
+
+    /** Bytes before the read offset compared on every poll to notice a rewritten playlist */
+    private static final int REREAD_BYTES = 64;
+
+    private final PlaylistSource source;
+    private final Clock clock;
+    private final ByteArrayOutputStream partialLine = new ByteArrayOutputStream();
+    private final List<String> violations = new ArrayList<>();
+
+    private long offset;
+    private byte[] readTail = new byte[0];
+    private int rewrites;
+    private long nextSequence;
+    private long lastSequence = -1;
+    private long lastSegmentNumber = -1;
+
+    @Nullable
+    private Duration pendingDuration;
+
+    private boolean pendingDiscontinuity;
+    private Duration targetDuration = Duration.ZERO;
+    private boolean ended;
+
+    private long segmentCount;
+    private Duration mediaDuration = Duration.ZERO;
+
+    /** The wall clock time of media time zero, known once the first segments were seen */
+    @Nullable
+    private Instant mediaOrigin;
+
+    private Instant polledAt;
+    private long measuredSegments;
+    private Duration maxArrivalLatency = Duration.ZERO;
+    private Duration arrivalLatencySum = Duration.ZERO;
+    private long violationCount;
+
+    /** @param source Reads the playlist */
+    public HlsPlaylistTailer(PlaylistSource source) {
+        this(source, Clock.systemUTC());
+    }
+
+    public HlsPlaylistTailer(PlaylistSource source, Clock clock) {
+        this.source = source;
+        this.clock = clock;
+    }
+
+    /**
+     * Read a playlist from a file, e.g. on the egress {@code /out} mount. A missing file is empty.
+     *
+     * @param playlist The playlist file
+     * @return The source
+     */
+    public static PlaylistSource fileSource(Path playlist) {
+        return new PlaylistSource() {
+            @Override
+            public long size() throws IOException {
+                try {
+                    return Files.size(playlist);
+                } catch (NoSuchFileException e) {
+                    return 0;
+                }
+            }
+
+            @Override
+            public byte[] read(long offset, int length) throws IOException {
+                try (FileChannel channel = FileChannel.open(playlist, StandardOpenOption.READ)) {
+                    ByteBuffer buffer = ByteBuffer.allocate(length);
+                    while (buffer.hasRemaining() && channel.read(buffer, offset + buffer.position()) > 0) {
+                        // Read until the buffer is full or the file ends
+                    }
+                    return Arrays.copyOf(buffer.array(), buffer.position());
+                }
+            }
+        };
+    }
+
+    /**
+     * Read a playlist from an S3 object with a HEAD request and a ranged GET per poll. A missing object
+     * is empty.
+     *
+     * @param transferEngine The transfer engine of the bucket
+     * @param key The playlist key
+     * @return The source
+     */
+    public static PlaylistSource s3Source(S3TransferEngine transferEngine, String key) {
+        return new PlaylistSource() {
+            @Override
+            public long size() throws IOException {
+                try {
+                    return transferEngine.head(key).join().contentLength();
+                } catch (CompletionException e) {
+                    if (e.getCause() instanceof S3Exception s3Exception && s3Exception.statusCode() == 404) {
+                        return 0;
+                    }
+                    throw new IOException("Could not read size of playlist " + key, e.getCause());
+                }
+            }
+
+            @Override
+            public byte[] read(long offset, int length) throws IOException {
+                return join(transferEngine.readRange(key, offset, length), key);
+            }
+        };
+    }
+
+    /**
+     * Read what was appended to the playlist since the last poll and check the new segments.
+     *
+     * @return The segments that appeared since the last poll, in playlist order
+     * @throws IOException If the playlist cannot be read
+     */
+    public List<HlsSegment> poll() throws IOException {
+        polledAt = clock.instant();
+        long size = source.size();
+        byte[] appended = size < offset ? null : readAppended(size);
+        if (appended == null) {
+            log.debug("Playlist was rewritten, reading all {} bytes again", size);
+            rewrites++;
+            offset = 0;
+            readTail = new byte[0];
+            nextSequence = 0;
+            partialLine.reset();
+            pendingDuration = null;
+            pendingDiscontinuity = false;
+            ended = false;
+            appended = readAppended(size);
+        }
+        if (appended.length == 0) {
+            return List.of();
+        }
+        offset += appended.length;
+        updateReadTail(appended);
+
+        List<HlsSegment> segments = new ArrayList<>();
+        for (byte b : appended) {
+            if (b == '\n') {
+                parseLine(partialLine.toString(StandardCharsets.UTF_8).strip(), segments);
+                partialLine.reset();
+            } else {
+                partialLine.write(b);
+            }
+        }
+        if (mediaOrigin == null && !segments.isEmpty()) {
+            mediaOrigin = polledAt.minus(mediaDuration);
+        }
+        return segments;
+    }
+
+    /** Whether the playlist has an {@code #EXT-X-ENDLIST} tag, i.e. egress finished writing it */
+    public boolean isEnded() {
+        return ended;
+    }
+
+    /** Summarize the segments seen so far */
+    public HlsTailReport report() {
+        return new HlsTailReport(
+                segmentCount,
+                mediaDuration,
+                targetDuration,
+                ended,
+                rewrites,
+                maxArrivalLatency,
+                measuredSegments == 0 ? Duration.ZERO : arrivalLatencySum.dividedBy(measuredSegments),
+                violationCount,
+                List.copyOf(violations));
+    }
+
+    /** Read from the offset to the given size, or return null if the bytes before the offset changed */
+    @Nullable
+    private byte[] readAppended(long size) throws IOException {
+        int overlap = readTail.length;
+        long length = size - offset + overlap;
+        if (length == 0) {
+            return new byte[0];
+        }
+        byte[] bytes = source.read(offset - overlap, (int) Math.min(length, Integer.MAX_VALUE));
+        if (bytes.length < overlap || !Arrays.equals(bytes, 0, overlap, readTail, 0, overlap)) {
+            return null;
+        }
+        return Arrays.copyOfRange(bytes, overlap, bytes.length);
+    }
+
+    private void updateReadTail(byte[] appended) {
+        if (appended.length >= REREAD_BYTES) {
+            readTail = Arrays.copyOfRange(appended, appended.length - REREAD_BYTES, appended.length);
+            return;
+        }
+        int keep = Math.min(readTail.length, REREAD_BYTES - appended.length);
+        byte[] tail = Arrays.copyOfRange(readTail, readTail.length - keep, readTail.length + appended.length);
+        System.arraycopy(appended, 0, tail, keep, appended.length);
+        readTail = tail;
+    }
+
+    private void parseLine(String line, List<HlsSegment> segments) {
+        if (line.isEmpty()) {
+            return;
+        }
+        if (line.startsWith("#EXT-X-TARGETDURATION:")) {
+            targetDuration = Duration.ofSeconds(Long.parseLong(tagValue(line)));
+        } else if (line.startsWith("#EXT-X-MEDIA-SEQUENCE:")) {
+            nextSequence = Long.parseLong(tagValue(line));
+        } else if (line.startsWith("#EXTINF:")) {
+            String value = tagValue(line);
+            int comma = value.indexOf(',');
+            double seconds = Double.parseDouble(comma < 0 ? value : value.substring(0, comma));
+            pendingDuration = Duration.ofNanos(Math.round(seconds * 1_000_000_000L));
+        } else if (line.equals("#EXT-X-DISCONTINUITY")) {
+            pendingDiscontinuity = true;
+        } else if (line.equals("#EXT-X-ENDLIST")) {
+            ended = true;
+        } else if (!line.startsWith("#")) {
+            HlsSegment segment = acceptSegment(line);
+            if (segment != null) {
+                segments.add(segment);
+            }
+        }
+    }
+
+    @Nullable
+    private HlsSegment acceptSegment(String uri) {
+        long sequence = nextSequence++;
+        Duration duration = pendingDuration;
+        boolean discontinuity = pendingDiscontinuity;
+        pendingDuration = null;
+        pendingDiscontinuity = false;
+        if (sequence <= lastSequence) {
+            return null;
+        }
+
+        if (duration == null) {
+            violation("Segment " + uri + " has no #EXTINF duration");
+            duration = Duration.ZERO;
+        }
+        if (lastSequence >= 0 && sequence != lastSequence + 1) {
+            violation("Segment " + uri + " has media sequence " + sequence + " after " + lastSequence);
+        }
+        long roundedSeconds = Math.round(duration.toMillis() / 1000.0);
+        if (!targetDuration.isZero() && roundedSeconds > targetDuration.toSeconds()) {
+            violation("Segment " + uri + " lasts " + duration.toMillis() + "ms, longer than the target duration of "
+                    + targetDuration.toSeconds() + "s");
+        }
+        Matcher number = SEGMENT_NUMBER.matcher(uri);
+        if (number.find()) {
+            long segmentNumber = Long.parseLong(number.group(1));
+            if (lastSegmentNumber >= 0 && !discontinuity && segmentNumber != lastSegmentNumber + 1) {
+                violation("Segment " + uri + " follows segment number " + lastSegmentNumber);
+            }
+            lastSegmentNumber = segmentNumber;
+        }
+
+        mediaDuration = mediaDuration.plus(duration);
+        Instant observedAt = polledAt;
+        Duration arrivalLatency = Duration.ZERO;
+        if (mediaOrigin != null) {
+            arrivalLatency = Duration.between(mediaOrigin.plus(mediaDuration), observedAt);
+            if (arrivalLatency.compareTo(maxArrivalLatency) > 0) {
+                maxArrivalLatency = arrivalLatency;
+            }
+            arrivalLatencySum = arrivalLatencySum.plus(arrivalLatency);
+            measuredSegments++;
+        }
+        segmentCount++;
+        lastSequence = sequence;
+        return new HlsSegment(sequence, uri, duration, mediaDuration, observedAt, arrivalLatency, discontinuity);
+    }
+
+    private void violation(String message) {
+        violationCount++;
+        if (violations.size() < MAX_REPORTED_VIOLATIONS) {
+            violations.add(message);
+        }
+        log.warn("HLS playlist violation: {}", message);
+    }
+
+    private static String tagValue(String line) {
+        return line.substring(line.indexOf(':') + 1).strip();
+    }
+
+    private static byte[] join(CompletableFuture<byte[]> future, String key) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw new IOException("Could not read playlist " + key, e.getCause());
+        }
+    }
+
+    /** Reads a playlist that may grow or be rewritten between calls */
+    public interface PlaylistSource {
+
+        /** Get the current size in bytes, zero if the playlist does not exist yet */
+        long size() throws IOException;
+
+        /**
+         * Read bytes starting at an offset.
+         *
+         * @param offset The offset of the first byte
+         * @param length The number of bytes to read
+         * @return The bytes read, fewer than {@code length} if the playlist ends first
+         */
+        byte[] read(long offset, int length) throws IOException;
+    }
+}
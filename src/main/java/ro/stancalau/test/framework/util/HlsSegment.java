@@ -0,0 +1,25 @@
+package ro.stancalau.test.framework.util;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * A media segment that appeared in a playlist tailed by {@link HlsPlaylistTailer}.
+ *
+ * @param sequence The media sequence number of the segment
+ * @param uri The segment URI as written in the playlist
+ * @param duration The {@code #EXTINF} duration
+ * @param mediaEnd The end of the segment in stream time, the sum of all durations up to it
+ * @param observedAt When the segment was first seen in the playlist
+ * @param arrivalLatency How long after its media end, counted from the wall clock time the first segments
+ *     were seen at, it was seen; zero for those first segments
+ * @param discontinuity Whether the segment follows an {@code #EXT-X-DISCONTINUITY} tag
+ */
+public record HlsSegment(
+        long sequence,
+        String uri,
+        Duration duration,
+        Duration mediaEnd,
+        Instant observedAt,
+        Duration arrivalLatency,
+        boolean discontinuity) {}
@@ -0,0 +1,72 @@
+package ro.stancalau.test.framework.util;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The state of a playlist tailed by {@link HlsPlaylistTailer}.
+ *
+ * @param segmentCount The number of segments seen
+ * @param mediaDuration The sum of all segment durations
+ * @param targetDuration The {@code #EXT-X-TARGETDURATION}, or zero if not seen yet
+ * @param ended Whether the playlist has an {@code #EXT-X-ENDLIST} tag
+ * @param rewrites How often the playlist was found shorter than already read and was read again
+ * @param maxArrivalLatency The longest delay between a segment's media end and it being seen, not counting
+ *     the first segments seen, which anchor media time
+ * @param meanArrivalLatency The mean of the same delays
+ * @param violationCount The number of continuity and duration violations
+ * @param violations The first violations, at most {@link HlsPlaylistTailer#MAX_REPORTED_VIOLATIONS}
+ */
+public record HlsTailReport(
+        long segmentCount,
+        Duration mediaDuration,
+        Duration targetDuration,
+        boolean ended,
+        int rewrites,
+        Duration maxArrivalLatency,
+        Duration meanArrivalLatency,
+        long violationCount,
+        List<String> violations) {
+
+    /** One line per metric followed by the violations, as written next to the recording */
+    public String toSummary() {
+        StringBuilder summary = new StringBuilder(String.format(
+                Locale.ROOT,
+                """
+                segments=%d
+                mediaDurationMs=%d
+                targetDurationS=%d
+                ended=%b
+                rewrites=%d
+                maxArrivalLatencyMs=%d
+                meanArrivalLatencyMs=%d
+                violations=%d
+                """,
+                segmentCount,
+                mediaDuration.toMillis(),
+                targetDuration.toSeconds(),
+                ended,
+                rewrites,
+                maxArrivalLatency.toMillis(),
+                meanArrivalLatency.toMillis(),
+                violationCount));
+        violations.forEach(violation -> summary.append(violation).append('\n'));
+        return summary.toString();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                Locale.ROOT,
+                "%d segments (%dms, target %ds)%s, arrival latency max %dms mean %dms, %d violations%s",
+                segmentCount,
+                mediaDuration.toMillis(),
+                targetDuration.toSeconds(),
+                ended ? ", ended" : "",
+                maxArrivalLatency.toMillis(),
+                meanArrivalLatency.toMillis(),
+                violationCount,
+                violations.isEmpty() ? "" : " " + violations);
+    }
+}
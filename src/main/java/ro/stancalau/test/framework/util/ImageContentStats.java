@@ -0,0 +1,64 @@
+package ro.stancalau.test.framework.util;
+
+/**
+ * Luminance statistics of an image, computed on a subsampled pixel grid by {@link
+ * ImageValidationUtils#analyzeContent(java.awt.image.BufferedImage)}.
+ *
+ * @param width The image width
+ * @param height The image height
+ * @param sampledPixels The number of grid pixels the statistics are computed from
+ * @param meanLuma The mean luma, 0-255
+ * @param lumaVariance The luma variance
+ * @param histogram The luma histogram in {@link #HISTOGRAM_BINS} equal bins
+ * @param edgeEnergy The mean absolute luma difference between horizontally and vertically adjacent
+ *     grid pixels
+ */
+public record ImageContentStats(
+        int width,
+        int height,
+        int sampledPixels,
+        double meanLuma,
+        double lumaVariance,
+        int[] histogram,
+        double edgeEnergy) {
+
+    public static final int HISTOGRAM_BINS = 32;
+
+    /** Limited-range video black is luma 16; JPEG noise keeps black frames slightly above it */
+    public static final double BLACK_MAX_MEAN_LUMA = 24.0;
+
+    public static final double BLACK_MAX_STD_DEV = 8.0;
+    public static final double UNIFORM_MAX_STD_DEV = 5.0;
+    public static final double UNIFORM_MAX_EDGE_ENERGY = 2.0;
+
+    public double lumaStdDev() {
+        return Math.sqrt(lumaVariance);
+    }
+
+    /** The fraction of sampled pixels in the most populated histogram bin */
+    public double dominantBinFraction() {
+        int max = 0;
+        for (int count : histogram) {
+            max = Math.max(max, count);
+        }
+        return sampledPixels == 0 ? 1.0 : (double) max / sampledPixels;
+    }
+
+    public boolean isBlack() {
+        return meanLuma <= BLACK_MAX_MEAN_LUMA && lumaStdDev() <= BLACK_MAX_STD_DEV;
+    }
+
+    /** A flat frame of any colour, e.g. a paused or placeholder video */
+    public boolean isUniform() {
+        return lumaStdDev() <= UNIFORM_MAX_STD_DEV && edgeEnergy <= UNIFORM_MAX_EDGE_ENERGY;
+    }
+
+    public boolean hasContent() {
+        return !isBlack() && !isUniform();
+    }
+
+    /** Ranks frames by detail; higher scores have more contrast and more edges */
+    public double contentScore() {
+        return lumaStdDev() + edgeEnergy;
+    }
+}
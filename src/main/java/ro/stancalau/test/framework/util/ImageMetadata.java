@@ -0,0 +1,10 @@
+package ro.stancalau.test.framework.util;
+
+/**
+ * Image properties read from the file header, without decoding pixels.
+ *
+ * @param format The lower-case format name reported by the image reader, e.g. {@code jpeg}
+ * @param width The image width
+ * @param height The image height
+ */
+public record ImageMetadata(String format, int width, int height) {}
@@ -1,9 +1,19 @@
 package ro.stancalau.test.framework.util;
 
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -12,6 +22,15 @@ import lombok.extern.slf4j.Slf4j;
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class ImageValidationUtils {
 
+    /** Target number of sampled pixels along each image axis for content analysis */
+    private static final int SAMPLE_GRID_SIZE = 160;
+
+    /** Cached results are dropped wholesale past this size; snapshot suites stay far below it */
+    private static final int MAX_CACHE_ENTRIES = 10_000;
+
+    private static final Map<FileKey, Optional<ImageMetadata>> METADATA_CACHE = new ConcurrentHashMap<>();
+    private static final Map<FileKey, ImageContentStats> CONTENT_CACHE = new ConcurrentHashMap<>();
+
     public static boolean isValidImage(File imageFile) {
         if (!imageFile.exists()) {
             log.error("Image file does not exist: {}", imageFile.getAbsolutePath());
@@ -23,34 +42,29 @@ public class ImageValidationUtils {
             return false;
         }
 
-        try {
-            BufferedImage image = ImageIO.read(imageFile);
-            if (image == null) {
-                log.error("Cannot read image file as valid image: {}", imageFile.getAbsolutePath());
-                return false;
-            }
-
-            if (image.getWidth() <= 0 || image.getHeight() <= 0) {
-                log.error(
-                        "Image has invalid dimensions: {}x{} for file: {}",
-                        image.getWidth(),
-                        image.getHeight(),
-                        imageFile.getAbsolutePath());
-                return false;
-            }
-
-            log.debug(
-                    "Valid image found: {} ({}x{}, {} bytes)",
-                    imageFile.getName(),
-                    image.getWidth(),
-                    image.getHeight(),
-                    imageFile.length());
-            return true;
+        ImageMetadata metadata = inspect(imageFile).orElse(null);
+        if (metadata == null) {
+            log.error("Cannot read image file as valid image: {}", imageFile.getAbsolutePath());
+            return false;
+        }
 
-        } catch (IOException e) {
-            log.error("Failed to read image file: {}", imageFile.getAbsolutePath(), e);
+        if (metadata.width() <= 0 || metadata.height() <= 0) {
+            log.error(
+                    "Image has invalid dimensions: {}x{} for file: {}",
+                    metadata.width(),
+                    metadata.height(),
+                    imageFile.getAbsolutePath());
             return false;
         }
+
+        log.debug(
+                "Valid {} image found: {} ({}x{}, {} bytes)",
+                metadata.format(),
+                imageFile.getName(),
+                metadata.width(),
+                metadata.height(),
+                imageFile.length());
+        return true;
     }
 
     public static boolean hasMinimumSize(File imageFile, long minimumBytes) {
@@ -77,30 +91,223 @@ public class ImageValidationUtils {
             return false;
         }
 
-        try {
-            BufferedImage image = ImageIO.read(imageFile);
-            if (image == null) {
-                return false;
+        ImageMetadata metadata = inspect(imageFile).orElse(null);
+        if (metadata == null) {
+            return false;
+        }
+
+        boolean validWidth = metadata.width() >= minWidth;
+        boolean validHeight = metadata.height() >= minHeight;
+
+        if (!validWidth || !validHeight) {
+            log.warn(
+                    "Image {} dimensions {}x{} are smaller than minimum {}x{}",
+                    imageFile.getName(),
+                    metadata.width(),
+                    metadata.height(),
+                    minWidth,
+                    minHeight);
+        }
+
+        return validWidth && validHeight;
+    }
+
+    /**
+     * Read the format and dimensions of an image from its header without decoding pixels. Results are
+     * cached by path, modification time and size, so repeated checks of an unchanged file are free.
+     *
+     * @param imageFile The image file
+     * @return The image metadata, or empty if the file does not exist or is not a readable image
+     */
+    public static Optional<ImageMetadata> inspect(File imageFile) {
+        if (!imageFile.isFile()) {
+            return Optional.empty();
+        }
+        FileKey key = FileKey.of(imageFile);
+        Optional<ImageMetadata> metadata = METADATA_CACHE.get(key);
+        if (metadata == null) {
+            metadata = readHeader(imageFile);
+            store(METADATA_CACHE, key, metadata);
+        }
+        return metadata;
+    }
+
+    /** Drop all cached inspection and content analysis results */
+    public static void clearCache() {
+        METADATA_CACHE.clear();
+        CONTENT_CACHE.clear();
+    }
+
+    /**
+     * Compute luminance mean and variance, a histogram and edge energy on a subsampled pixel grid.
+     * Common 8-bit rasters are read directly from their data buffer.
+     *
+     * @param image The decoded image
+     * @return The content statistics
+     */
+    public static ImageContentStats analyzeContent(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int stepX = Math.max(1, width / SAMPLE_GRID_SIZE);
+        int stepY = Math.max(1, height / SAMPLE_GRID_SIZE);
+        int gridWidth = (width + stepX - 1) / stepX;
+        int gridHeight = (height + stepY - 1) / stepY;
+
+        int[] columns = new int[gridWidth];
+        for (int i = 0; i < gridWidth; i++) {
+            columns[i] = i * stepX;
+        }
+        int[] rows = new int[gridHeight];
+        for (int i = 0; i < gridHeight; i++) {
+            rows[i] = i * stepY;
+        }
+        int[] luma = new int[gridWidth * gridHeight];
+        LumaSampler.sample(image.getRaster(), columns, gridWidth, rows, gridHeight, luma);
+        return computeStats(width, height, luma, gridWidth);
+    }
+
+    /**
+     * Decode an image file and analyze its content. Results are cached like {@link #inspect(File)}.
+     *
+     * @param imageFile The image file
+     * @return The content statistics
+     * @throws IOException If the file cannot be decoded
+     */
+    public static ImageContentStats analyzeContent(File imageFile) throws IOException {
+        FileKey key = FileKey.of(imageFile);
+        ImageContentStats stats = CONTENT_CACHE.get(key);
+        if (stats != null) {
+            return stats;
+        }
+
+        BufferedImage image = ImageIO.read(imageFile);
+        if (image == null) {
+            throw new IOException("Cannot decode image: " + imageFile.getAbsolutePath());
+        }
+        stats = analyzeContent(image);
+        store(CONTENT_CACHE, key, stats);
+        return stats;
+    }
+
+    public static ImageContentStats analyzeContent(byte[] encodedImage) throws IOException {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(encodedImage));
+        if (image == null) {
+            throw new IOException("Cannot decode image of " + encodedImage.length + " bytes");
+        }
+        return analyzeContent(image);
+    }
+
+    /**
+     * Analyze many image files in parallel on the common fork-join pool. Files that cannot be decoded
+     * are left out of the result.
+     *
+     * @param imageFiles The files to analyze
+     * @return The content statistics by file
+     */
+    public static Map<File, ImageContentStats> analyzeContent(Collection<File> imageFiles) {
+        Map<File, ImageContentStats> results = new ConcurrentHashMap<>();
+        imageFiles.parallelStream().forEach(file -> {
+            try {
+                results.put(file, analyzeContent(file));
+            } catch (IOException e) {
+                log.warn("Cannot analyze image {}: {}", file.getName(), e.getMessage());
             }
+        });
+        return results;
+    }
 
-            boolean validWidth = image.getWidth() >= minWidth;
-            boolean validHeight = image.getHeight() >= minHeight;
-
-            if (!validWidth || !validHeight) {
-                log.warn(
-                        "Image {} dimensions {}x{} are smaller than minimum {}x{}",
-                        imageFile.getName(),
-                        image.getWidth(),
-                        image.getHeight(),
-                        minWidth,
-                        minHeight);
+    /**
+     * Analyze many encoded images in parallel on the common fork-join pool, e.g. snapshots downloaded
+     * from S3. Images that cannot be decoded are left out of the result.
+     *
+     * @param encodedImages The encoded images by name
+     * @return The content statistics by name
+     */
+    public static Map<String, ImageContentStats> analyzeEncodedContent(Map<String, byte[]> encodedImages) {
+        Map<String, ImageContentStats> results = new ConcurrentHashMap<>();
+        encodedImages.entrySet().parallelStream().forEach(entry -> {
+            try {
+                results.put(entry.getKey(), analyzeContent(entry.getValue()));
+            } catch (IOException e) {
+                log.warn("Cannot analyze image {}: {}", entry.getKey(), e.getMessage());
             }
+        });
+        return results;
+    }
 
-            return validWidth && validHeight;
+    /**
+     * Pick the frame with the most detail, ignoring black and uniform frames.
+     *
+     * @param stats The content statistics by frame
+     * @return The most detailed frame, or empty if no frame has content
+     */
+    public static <K> Optional<K> selectMostDetailed(Map<K, ImageContentStats> stats) {
+        return stats.entrySet().stream()
+                .filter(entry -> entry.getValue().hasContent())
+                .max(Comparator.comparingDouble(entry -> entry.getValue().contentScore()))
+                .map(Map.Entry::getKey);
+    }
 
+    private static Optional<ImageMetadata> readHeader(File imageFile) {
+        try (ImageInputStream input = ImageIO.createImageInputStream(imageFile)) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                return Optional.empty();
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                return Optional.of(new ImageMetadata(
+                        reader.getFormatName().toLowerCase(Locale.ROOT), reader.getWidth(0), reader.getHeight(0)));
+            } finally {
+                reader.dispose();
+            }
         } catch (IOException e) {
-            log.error("Failed to read image dimensions: {}", imageFile.getAbsolutePath(), e);
-            return false;
+            log.debug("Cannot read image header of {}: {}", imageFile.getAbsolutePath(), e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static <V> void store(Map<FileKey, V> cache, FileKey key, V value) {
+        if (cache.size() >= MAX_CACHE_ENTRIES) {
+            cache.clear();
+        }
+        cache.put(key, value);
+    }
+
+    private static ImageContentStats computeStats(int width, int height, int[] luma, int gridWidth) {
+        int[] histogram = new int[ImageContentStats.HISTOGRAM_BINS];
+        long sum = 0;
+        long sumOfSquares = 0;
+        long edgeSum = 0;
+        long edgeCount = 0;
+
+        for (int i = 0; i < luma.length; i++) {
+            int value = luma[i];
+            sum += value;
+            sumOfSquares += (long) value * value;
+            histogram[value * ImageContentStats.HISTOGRAM_BINS / 256]++;
+            if (i % gridWidth > 0) {
+                edgeSum += Math.abs(value - luma[i - 1]);
+                edgeCount++;
+            }
+            if (i >= gridWidth) {
+                edgeSum += Math.abs(value - luma[i - gridWidth]);
+                edgeCount++;
+            }
+        }
+
+        int count = luma.length;
+        double mean = count == 0 ? 0 : (double) sum / count;
+        double variance = count == 0 ? 0 : Math.max(0, (double) sumOfSquares / count - mean * mean);
+        double edgeEnergy = edgeCount == 0 ? 0 : (double) edgeSum / edgeCount;
+        return new ImageContentStats(width, height, count, mean, variance, histogram, edgeEnergy);
+    }
+
+    /** Identifies one version of a file; a rewritten file gets a new modification time or size */
+    private record FileKey(String path, long lastModified, long size) {
+        static FileKey of(File file) {
+            return new FileKey(file.getAbsolutePath(), file.lastModified(), file.length());
         }
     }
 }
@@ -0,0 +1,152 @@
+package ro.stancalau.test.framework.util;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts latencies in log-linear buckets of whole microseconds: exact below 128 µs, then 64 buckets per
+ * power of two, so every percentile is within 1.6% of the recorded value. Recording takes no lock, so
+ * thousands of virtual threads can share one histogram, and its size does not depend on the number of
+ * samples.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_LIMIT = 2 * SUB_BUCKETS;
+    private static final int BUCKETS = (Long.SIZE - 1 - SUB_BUCKET_BITS) * SUB_BUCKETS + LINEAR_LIMIT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder totalMicros = new LongAdder();
+    private final AtomicLong minMicros = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    public void record(Duration latency) {
+        recordNanos(latency.toNanos());
+    }
+
+    /**
+     * Record one latency. Negative latencies, e.g. from clocks of different hosts, count as zero.
+     *
+     * @param nanos The latency in nanoseconds
+     */
+    public void recordNanos(long nanos) {
+        long micros = Math.max(0, nanos / 1000);
+        counts.incrementAndGet(bucket(micros));
+        totalMicros.add(micros);
+        minMicros.accumulateAndGet(micros, Math::min);
+        maxMicros.accumulateAndGet(micros, Math::max);
+    }
+
+    public long count() {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    public Duration mean() {
+        long count = count();
+        return count == 0 ? Duration.ZERO : micros(totalMicros.sum() / count);
+    }
+
+    public Duration min() {
+        long min = minMicros.get();
+        return min == Long.MAX_VALUE ? Duration.ZERO : micros(min);
+    }
+
+    public Duration max() {
+        return micros(maxMicros.get());
+    }
+
+    /**
+     * The latency at or below which a share of the recorded latencies fall, as the upper end of its
+     * bucket.
+     *
+     * @param percent The percentile, e.g. 99.9
+     * @return The latency, zero if nothing was recorded
+     */
+    public Duration percentile(double percent) {
+        if (percent < 0 || percent > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100, got " + percent);
+        }
+        long[] snapshot = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+        if (count == 0) {
+            return Duration.ZERO;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percent / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return micros(Math.min(upperBound(i), maxMicros.get()));
+            }
+        }
+        return max();
+    }
+
+    /** Add the latencies recorded by another histogram to this one */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long count = other.counts.get(i);
+            if (count > 0) {
+                counts.addAndGet(i, count);
+            }
+        }
+        totalMicros.add(other.totalMicros.sum());
+        minMicros.accumulateAndGet(other.minMicros.get(), Math::min);
+        maxMicros.accumulateAndGet(other.maxMicros.get(), Math::max);
+    }
+
+    /** e.g. {@code n=1200, mean 4.21 ms, p50 3.90 ms, p95 9.15 ms, p99 14.02 ms, max 21.30 ms} */
+    public String toSummary() {
+        return String.format(
+                Locale.ROOT,
+                "n=%d, mean %s, p50 %s, p95 %s, p99 %s, max %s",
+                count(),
+                millis(mean()),
+                millis(percentile(50)),
+                millis(percentile(95)),
+                millis(percentile(99)),
+                millis(max()));
+    }
+
+    @Override
+    public String toString() {
+        return toSummary();
+    }
+
+    static int bucket(long micros) {
+        if (micros < LINEAR_LIMIT) {
+            return (int) micros;
+        }
+        int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(micros) - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKETS + (int) (micros >>> shift);
+    }
+
+    static long upperBound(int bucket) {
+        if (bucket < LINEAR_LIMIT) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long subBucket = bucket % SUB_BUCKETS + SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    private static Duration micros(long micros) {
+        return Duration.ofNanos(micros * 1000);
+    }
+
+    private static String millis(Duration duration) {
+        return String.format(Locale.ROOT, "%.2f ms", duration.toNanos() / 1_000_000.0);
+    }
+}
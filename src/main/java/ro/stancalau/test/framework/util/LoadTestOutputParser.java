@@ -0,0 +1,335 @@
+package ro.stancalau.test.framework.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import org.testcontainers.containers.output.OutputFrame;
+
+/**
+ * Parses the result tables of {@code lk perf load-test} from the container's log stream while it is
+ * logged. The CLI prints one table of per-track statistics for every subscriber, each under a line
+ * naming the subscriber, followed by a summary table with one row per subscriber and a total.
+ *
+ * <p>Tables are recognized by their header row, with ASCII or box drawing borders, so the columns may
+ * move between CLI versions. All other output is ignored. The results are complete when the summary
+ * table has been closed, by its bottom border or the next line of other output, or the log ends.
+ */
+@Slf4j
+public class LoadTestOutputParser implements Consumer<OutputFrame> {
+
+    private static final Pattern BORDER_LINE = Pattern.compile("^[\\s+\\-=:|─━═│┃╭╮╰╯┌┐└┘├┤┬┴┼]+$");
+    private static final Pattern CELL_SEPARATOR = Pattern.compile("[|│┃]");
+    private static final Pattern BITRATE = Pattern.compile("(?i)^([0-9.]+)\\s*([kmg]?)bps$");
+    private static final Pattern DROPPED = Pattern.compile("^(\\d+)(?:\\s*\\(\\s*([0-9.]+)\\s*%\\s*\\))?$");
+    private static final Pattern TRACK_COUNT = Pattern.compile("^(\\d+)\\s*/\\s*(\\d+)$");
+    private static final Pattern DURATION_PART = Pattern.compile("([0-9.]+)(ns|us|µs|μs|ms|s|m|h)");
+
+    private final StringBuilder partialLine = new StringBuilder();
+    private final List<LoadTestTrackStats> trackStats = new ArrayList<>();
+    private final List<LoadTestTesterSummary> testerSummaries = new ArrayList<>();
+    private final CompletableFuture<LoadTestResults> results = new CompletableFuture<>();
+
+    private String lastTitle = "";
+    private Table table = Table.NONE;
+    private String tableTitle = "";
+    private Map<String, Integer> columns = Map.of();
+
+    @Nullable
+    private LoadTestTesterSummary total;
+
+    @Override
+    public void accept(OutputFrame frame) {
+        if (frame.getType() == OutputFrame.OutputType.END) {
+            end();
+            return;
+        }
+        byte[] bytes = frame.getBytes();
+        if (bytes == null || bytes.length == 0) {
+            return;
+        }
+        String text = new String(bytes, StandardCharsets.UTF_8);
+        List<String> lines = new ArrayList<>();
+        synchronized (partialLine) {
+            int start = 0;
+            int newline;
+            while ((newline = text.indexOf('\n', start)) >= 0) {
+                partialLine.append(text, start, newline);
+                lines.add(partialLine.toString());
+                partialLine.setLength(0);
+                start = newline + 1;
+            }
+            partialLine.append(text, start, text.length());
+        }
+        for (String line : lines) {
+            acceptLine(line);
+        }
+    }
+
+    /**
+     * Parse one line of CLI output.
+     *
+     * @param line The line, without its line break
+     */
+    public synchronized void acceptLine(String line) {
+        String trimmed = line.strip();
+        if (trimmed.isEmpty()) {
+            closeTable();
+            return;
+        }
+        if (BORDER_LINE.matcher(trimmed).matches()) {
+            if (trimmed.charAt(0) == '╰' || trimmed.charAt(0) == '└') {
+                closeTable();
+            }
+            return;
+        }
+        if (!CELL_SEPARATOR.matcher(trimmed).find()) {
+            closeTable();
+            lastTitle = trimmed;
+            return;
+        }
+
+        List<String> cells = splitCells(trimmed);
+        Table header = headerOf(cells);
+        if (header != Table.NONE) {
+            table = header;
+            tableTitle = lastTitle;
+            columns = columnsOf(cells);
+            return;
+        }
+        try {
+            switch (table) {
+                case TRACKS -> trackStats.add(parseTrackRow(cells));
+                case SUMMARY -> addSummaryRow(parseSummaryRow(cells));
+                case NONE -> {
+                    // A table this parser does not know
+                }
+            }
+        } catch (RuntimeException e) {
+            log.debug("Skipping unparseable load test row '{}': {}", trimmed, e.getMessage());
+        }
+    }
+
+    /** Mark the output as ended, completing the results with whatever was parsed */
+    public void end() {
+        String lastLine;
+        synchronized (partialLine) {
+            lastLine = partialLine.toString();
+            partialLine.setLength(0);
+        }
+        if (!lastLine.isEmpty()) {
+            acceptLine(lastLine);
+        }
+        synchronized (this) {
+            closeTable();
+            results.complete(snapshot());
+        }
+    }
+
+    /**
+     * Wait for the load test to print its summary.
+     *
+     * @param timeout How long to wait
+     * @return The results, or empty if the summary was not printed in time
+     */
+    public Optional<LoadTestResults> awaitResults(Duration timeout) {
+        try {
+            return Optional.of(results.get(timeout.toMillis(), TimeUnit.MILLISECONDS));
+        } catch (TimeoutException e) {
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Load test output parsing failed", e.getCause());
+        }
+    }
+
+    /** The results parsed so far */
+    public synchronized LoadTestResults snapshot() {
+        return new LoadTestResults(trackStats, testerSummaries, total);
+    }
+
+    private void closeTable() {
+        if (table == Table.SUMMARY) {
+            results.complete(snapshot());
+        }
+        table = Table.NONE;
+        columns = Map.of();
+    }
+
+    private void addSummaryRow(LoadTestTesterSummary row) {
+        if (row.isTotal()) {
+            total = row;
+        } else {
+            testerSummaries.add(row);
+        }
+    }
+
+    private LoadTestTrackStats parseTrackRow(List<String> cells) {
+        Dropped dropped = parseDropped(cell(cells, "dropped"));
+        return new LoadTestTrackStats(
+                tableTitle,
+                cell(cells, "track"),
+                cell(cells, "kind").toLowerCase(Locale.ROOT),
+                Long.parseLong(cell(cells, "pkts")),
+                parseBitrateKbps(cell(cells, "bitrate")),
+                parseLatency(cell(cells, "latency")),
+                dropped.count(),
+                dropped.percent());
+    }
+
+    private LoadTestTesterSummary parseSummaryRow(List<String> cells) {
+        Matcher trackCount = TRACK_COUNT.matcher(cell(cells, "tracks"));
+        if (!trackCount.matches()) {
+            throw new IllegalArgumentException("Unexpected track count " + cell(cells, "tracks"));
+        }
+        Dropped dropped = parseDropped(cell(cells, "total dropped"));
+        String error = columns.containsKey("error") ? cell(cells, "error") : "";
+        return new LoadTestTesterSummary(
+                cell(cells, "tester"),
+                Integer.parseInt(trackCount.group(1)),
+                Integer.parseInt(trackCount.group(2)),
+                parseBitrateKbps(cell(cells, "bitrate")),
+                parseLatency(cell(cells, "latency")),
+                dropped.count(),
+                dropped.percent(),
+                isEmpty(error) ? null : error);
+    }
+
+    private String cell(List<String> cells, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= cells.size()) {
+            throw new IllegalArgumentException("Missing column " + column);
+        }
+        return cells.get(index);
+    }
+
+    private static Table headerOf(List<String> cells) {
+        List<String> names =
+                cells.stream().map(cell -> cell.toLowerCase(Locale.ROOT)).toList();
+        if (names.contains("track") && names.contains("kind")) {
+            return Table.TRACKS;
+        }
+        if (names.contains("tester") && names.contains("tracks")) {
+            return Table.SUMMARY;
+        }
+        return Table.NONE;
+    }
+
+    private static Map<String, Integer> columnsOf(List<String> cells) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < cells.size(); i++) {
+            columns.put(cells.get(i).toLowerCase(Locale.ROOT), i);
+        }
+        return columns;
+    }
+
+    private static List<String> splitCells(String row) {
+        String[] parts = CELL_SEPARATOR.split(row, -1);
+        List<String> cells = new ArrayList<>(parts.length);
+        for (int i = 0; i < parts.length; i++) {
+            boolean outerEdge = (i == 0 || i == parts.length - 1) && parts[i].isBlank();
+            if (!outerEdge) {
+                cells.add(parts[i].strip());
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Parse a bitrate as the CLI formats it, e.g. {@code 850bps}, {@code 96.3kbps} or {@code 1.2mbps}.
+     *
+     * @param value The formatted bitrate
+     * @return The bitrate in kbps
+     */
+    static double parseBitrateKbps(String value) {
+        Matcher matcher = BITRATE.matcher(value.strip());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Unexpected bitrate " + value);
+        }
+        double amount = Double.parseDouble(matcher.group(1));
+        return switch (matcher.group(2).toLowerCase(Locale.ROOT)) {
+            case "k" -> amount;
+            case "m" -> amount * 1000;
+            case "g" -> amount * 1_000_000;
+            default -> amount / 1000;
+        };
+    }
+
+    /**
+     * Parse a Go duration as the CLI prints latencies, e.g. {@code 35.2ms} or {@code 1m2.5s}.
+     *
+     * @param value The formatted duration
+     * @return The duration, or null for a missing value such as {@code -}
+     */
+    @Nullable
+    static Duration parseLatency(String value) {
+        String trimmed = value.strip();
+        if (isEmpty(trimmed)) {
+            return null;
+        }
+        Matcher matcher = DURATION_PART.matcher(trimmed);
+        double nanos = 0;
+        int end = 0;
+        while (matcher.find()) {
+            if (matcher.start() != end) {
+                throw new IllegalArgumentException("Unexpected duration " + value);
+            }
+            double amount = Double.parseDouble(matcher.group(1));
+            nanos += switch (matcher.group(2)) {
+                case "ns" -> amount;
+                case "us", "µs", "μs" -> amount * 1e3;
+                case "ms" -> amount * 1e6;
+                case "s" -> amount * 1e9;
+                case "m" -> amount * 60e9;
+                default -> amount * 3600e9;
+            };
+            end = matcher.end();
+        }
+        if (end == 0 || end != trimmed.length()) {
+            throw new IllegalArgumentException("Unexpected duration " + value);
+        }
+        return Duration.ofNanos(Math.round(nanos));
+    }
+
+    /** Parse a loss count with its optional percentage, e.g. {@code 3 (0.05%)} */
+    private static Dropped parseDropped(String value) {
+        String trimmed = value.strip();
+        if (isEmpty(trimmed)) {
+            return new Dropped(0, 0);
+        }
+        Matcher matcher = DROPPED.matcher(trimmed);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Unexpected packet loss " + value);
+        }
+        long count = Long.parseLong(matcher.group(1));
+        double percent = matcher.group(2) != null ? Double.parseDouble(matcher.group(2)) : count == 0 ? 0 : Double.NaN;
+        return new Dropped(count, percent);
+    }
+
+    private static boolean isEmpty(String value) {
+        return value.isBlank() || value.equals("-");
+    }
+
+    private enum Table {
+        NONE,
+        TRACKS,
+        SUMMARY
+    }
+
+    private record Dropped(long count, double percent) {}
+}
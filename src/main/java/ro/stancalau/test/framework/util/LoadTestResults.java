@@ -0,0 +1,90 @@
+package ro.stancalau.test.framework.util;
+
+import java.util.List;
+import java.util.Locale;
+import javax.annotation.Nullable;
+
+/**
+ * The metrics of one {@code lk perf load-test} run, parsed from its output by {@link
+ * LoadTestOutputParser}.
+ *
+ * @param tracks The per-track statistics of every subscriber
+ * @param testers The summary row of every subscriber
+ * @param total The summary row over all subscribers, or null if the CLI did not print one
+ */
+public record LoadTestResults(
+        List<LoadTestTrackStats> tracks, List<LoadTestTesterSummary> testers, @Nullable LoadTestTesterSummary total) {
+
+    public LoadTestResults {
+        tracks = List.copyOf(tracks);
+        testers = List.copyOf(testers);
+    }
+
+    /** The number of errors, as counted in the total row or else by the subscribers that reported one */
+    public int errorCount() {
+        if (total != null && total.error() != null) {
+            try {
+                return Integer.parseInt(total.error());
+            } catch (NumberFormatException e) {
+                return 1;
+            }
+        }
+        return (int) testers.stream().filter(tester -> tester.error() != null).count();
+    }
+
+    /** The highest packet loss of any subscriber or track, in percent */
+    public double maxDroppedPercent() {
+        double max = total != null ? total.droppedPercent() : 0;
+        for (LoadTestTesterSummary tester : testers) {
+            max = Math.max(max, tester.droppedPercent());
+        }
+        for (LoadTestTrackStats track : tracks) {
+            max = Math.max(max, track.droppedPercent());
+        }
+        return max;
+    }
+
+    /** One line per summary row, as written to the scenario's load test report */
+    public String toSummary() {
+        StringBuilder summary = new StringBuilder();
+        for (LoadTestTesterSummary tester : testers) {
+            appendRow(summary, tester);
+        }
+        if (total != null) {
+            appendRow(summary, total);
+        }
+        summary.append("trackStats=").append(tracks.size()).append('\n');
+        return summary.toString();
+    }
+
+    @Override
+    public String toString() {
+        if (total == null) {
+            return testers.size() + " subscribers, no total";
+        }
+        return String.format(
+                Locale.ROOT,
+                "%d/%d tracks, %.1f kbps, latency %s, %d dropped (%.2f%%), %d errors",
+                total.tracks(),
+                total.expectedTracks(),
+                total.bitrateKbps(),
+                total.latency() != null ? total.latency().toMillis() + "ms" : "-",
+                total.dropped(),
+                total.droppedPercent(),
+                errorCount());
+    }
+
+    private static void appendRow(StringBuilder summary, LoadTestTesterSummary row) {
+        summary.append(String.format(
+                Locale.ROOT,
+                "%s: tracks=%d/%d bitrateKbps=%.1f latencyMs=%d dropped=%d droppedPercent=%.2f error=%s%n",
+                row.tester(),
+                row.tracks(),
+                row.expectedTracks(),
+                row.bitrateKbps(),
+                row.latency() != null ? row.latency().toMillis() : -1,
+                row.dropped(),
+                row.droppedPercent(),
+                row.error() != null ? row.error() : "-"));
+    }
+}
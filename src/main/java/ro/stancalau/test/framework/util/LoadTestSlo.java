@@ -0,0 +1,81 @@
+package ro.stancalau.test.framework.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Service level objectives a load test stage must meet, evaluated against the metrics parsed from
+ * {@code lk perf load-test}.
+ *
+ * @param maxDroppedPercent The highest packet loss of any subscriber or track, in percent
+ * @param minBitrateKbpsPerTrack The lowest mean received bitrate per received track
+ * @param minJoinSuccessPercent The lowest share of subscribers that joined, without an error and with all
+ *     expected tracks, in percent
+ */
+public record LoadTestSlo(double maxDroppedPercent, double minBitrateKbpsPerTrack, double minJoinSuccessPercent) {
+
+    /** Loss below 2%, at least 100 kbps per track and every subscriber joined */
+    public static final LoadTestSlo DEFAULT = new LoadTestSlo(2.0, 100, 100);
+
+    /**
+     * Check load test results against the objectives.
+     *
+     * @param results The parsed load test results
+     * @return A description of every objective that was missed, empty if all were met
+     */
+    public List<String> violations(LoadTestResults results) {
+        List<String> violations = new ArrayList<>();
+        LoadTestTesterSummary total = results.total();
+        if (total == null) {
+            violations.add("no summary was printed");
+            return violations;
+        }
+
+        double droppedPercent = results.maxDroppedPercent();
+        if (droppedPercent > maxDroppedPercent) {
+            violations.add(String.format(
+                    Locale.ROOT, "packet loss %.2f%% above %.2f%%", droppedPercent, maxDroppedPercent));
+        }
+
+        double bitratePerTrack = total.tracks() > 0 ? total.bitrateKbps() / total.tracks() : 0;
+        if (bitratePerTrack < minBitrateKbpsPerTrack) {
+            violations.add(String.format(
+                    Locale.ROOT,
+                    "bitrate %.1f kbps per track below %.1f kbps",
+                    bitratePerTrack,
+                    minBitrateKbpsPerTrack));
+        }
+
+        double joinSuccess = joinSuccessPercent(results);
+        if (joinSuccess < minJoinSuccessPercent) {
+            violations.add(String.format(
+                    Locale.ROOT, "join success %.1f%% below %.1f%%", joinSuccess, minJoinSuccessPercent));
+        }
+        return violations;
+    }
+
+    /**
+     * The share of subscribers that joined without an error and received all the tracks they expected.
+     * Subscribers of a sharded load test may receive more tracks than their shard expects.
+     */
+    public static double joinSuccessPercent(LoadTestResults results) {
+        if (results.testers().isEmpty()) {
+            return results.errorCount() == 0 ? 100 : 0;
+        }
+        long joined = results.testers().stream()
+                .filter(tester -> tester.error() == null && tester.tracks() >= tester.expectedTracks())
+                .count();
+        return joined * 100.0 / results.testers().size();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                Locale.ROOT,
+                "loss <= %.2f%%, bitrate >= %.1f kbps per track, join success >= %.1f%%",
+                maxDroppedPercent,
+                minBitrateKbpsPerTrack,
+                minJoinSuccessPercent);
+    }
+}
@@ -0,0 +1,34 @@
+package ro.stancalau.test.framework.util;
+
+import java.time.Duration;
+import javax.annotation.Nullable;
+
+/**
+ * One row of the summary table {@code lk perf load-test} prints when it ends: one subscriber, or the
+ * {@code Total} of all of them.
+ *
+ * @param tester The subscriber, or {@code Total}
+ * @param tracks The tracks received
+ * @param expectedTracks The tracks that should have been received
+ * @param bitrateKbps The received bitrate
+ * @param latency The mean latency, or null if the CLI could not measure it
+ * @param dropped The packets lost
+ * @param droppedPercent The share of packets lost, in percent
+ * @param error The subscriber's error, or for the total the number of errors; null if there was none
+ */
+public record LoadTestTesterSummary(
+        String tester,
+        int tracks,
+        int expectedTracks,
+        double bitrateKbps,
+        @Nullable Duration latency,
+        long dropped,
+        double droppedPercent,
+        @Nullable String error) {
+
+    public static final String TOTAL = "Total";
+
+    public boolean isTotal() {
+        return TOTAL.equalsIgnoreCase(tester);
+    }
+}
@@ -0,0 +1,26 @@
+package ro.stancalau.test.framework.util;
+
+import java.time.Duration;
+import javax.annotation.Nullable;
+
+/**
+ * The statistics {@code lk perf load-test} prints for one track received by one subscriber.
+ *
+ * @param tester The subscriber that received the track, e.g. {@code Sub 0 in LoadTestRoom}
+ * @param track The track name
+ * @param kind {@code audio} or {@code video}
+ * @param packets The packets received
+ * @param bitrateKbps The received bitrate
+ * @param latency The mean latency, or null if the CLI could not measure it
+ * @param dropped The packets lost
+ * @param droppedPercent The share of packets lost, in percent
+ */
+public record LoadTestTrackStats(
+        String tester,
+        String track,
+        String kind,
+        long packets,
+        double bitrateKbps,
+        @Nullable Duration latency,
+        long dropped,
+        double droppedPercent) {}
@@ -0,0 +1,107 @@
+package ro.stancalau.test.framework.util;
+
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.Raster;
+import java.awt.image.SampleModel;
+import java.awt.image.SinglePixelPackedSampleModel;
+
+/**
+ * Reads 8-bit luma at a grid of pixel positions. Interleaved byte rasters (3BYTE_BGR, BYTE_GRAY) and
+ * packed int rasters (INT_RGB, INT_ARGB) are read straight from their data buffer; other rasters go
+ * through {@link Raster#getPixel(int, int, int[])} with a reused sample array.
+ */
+final class LumaSampler {
+
+    private LumaSampler() {}
+
+    /**
+     * Sample luma at every combination of the given columns and rows, row by row.
+     *
+     * @param raster The image raster
+     * @param columns The x positions, relative to the raster origin
+     * @param columnCount The number of x positions to use
+     * @param rows The y positions, relative to the raster origin
+     * @param rowCount The number of y positions to use
+     * @param luma Receives {@code columnCount * rowCount} values, 0-255
+     */
+    static void sample(Raster raster, int[] columns, int columnCount, int[] rows, int rowCount, int[] luma) {
+        SampleModel sampleModel = raster.getSampleModel();
+        DataBuffer dataBuffer = raster.getDataBuffer();
+        int bands = raster.getNumBands();
+        int originX = raster.getMinX() - raster.getSampleModelTranslateX();
+        int originY = raster.getMinY() - raster.getSampleModelTranslateY();
+
+        if (dataBuffer instanceof DataBufferByte byteBuffer
+                && sampleModel instanceof ComponentSampleModel component
+                && dataBuffer.getNumBanks() == 1
+                && bands != 2) {
+            byte[] data = byteBuffer.getData();
+            int pixelStride = component.getPixelStride();
+            int scanlineStride = component.getScanlineStride();
+            int[] bandOffsets = component.getBandOffsets();
+            int base = dataBuffer.getOffset() + originY * scanlineStride + originX * pixelStride;
+            int index = 0;
+            for (int r = 0; r < rowCount; r++) {
+                int row = base + rows[r] * scanlineStride;
+                for (int c = 0; c < columnCount; c++) {
+                    int pixel = row + columns[c] * pixelStride;
+                    luma[index++] = bands == 1
+                            ? data[pixel + bandOffsets[0]] & 0xFF
+                            : luma(
+                                    data[pixel + bandOffsets[0]] & 0xFF,
+                                    data[pixel + bandOffsets[1]] & 0xFF,
+                                    data[pixel + bandOffsets[2]] & 0xFF);
+                }
+            }
+        } else if (dataBuffer instanceof DataBufferInt intBuffer
+                && sampleModel instanceof SinglePixelPackedSampleModel packed
+                && bands >= 3) {
+            int[] data = intBuffer.getData();
+            int scanlineStride = packed.getScanlineStride();
+            int[] masks = packed.getBitMasks();
+            int[] offsets = packed.getBitOffsets();
+            int base = dataBuffer.getOffset() + originY * scanlineStride + originX;
+            int index = 0;
+            for (int r = 0; r < rowCount; r++) {
+                int row = base + rows[r] * scanlineStride;
+                for (int c = 0; c < columnCount; c++) {
+                    int pixel = data[row + columns[c]];
+                    luma[index++] = luma(
+                            (pixel & masks[0]) >>> offsets[0],
+                            (pixel & masks[1]) >>> offsets[1],
+                            (pixel & masks[2]) >>> offsets[2]);
+                }
+            }
+        } else {
+            int shift = Math.max(0, sampleModel.getSampleSize(0) - 8);
+            int[] pixel = new int[bands];
+            int index = 0;
+            for (int r = 0; r < rowCount; r++) {
+                for (int c = 0; c < columnCount; c++) {
+                    raster.getPixel(raster.getMinX() + columns[c], raster.getMinY() + rows[r], pixel);
+                    luma[index++] = bands >= 3
+                            ? luma(pixel[0] >> shift, pixel[1] >> shift, pixel[2] >> shift)
+                            : pixel[0] >> shift;
+                }
+            }
+        }
+    }
+
+    /**
+     * Fill {@code positions} with the centres of {@code count} equal cells spanning {@code length}
+     * pixels.
+     */
+    static void cellCentres(int length, int count, int[] positions) {
+        for (int i = 0; i < count; i++) {
+            positions[i] = (int) (((2L * i + 1) * length) / (2L * count));
+        }
+    }
+
+    static int luma(int red, int green, int blue) {
+        // BT.601 weights in 8-bit fixed point
+        return (77 * red + 150 * green + 29 * blue) >> 8;
+    }
+}
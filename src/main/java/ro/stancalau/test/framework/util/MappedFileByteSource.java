@@ -0,0 +1,72 @@
+package ro.stancalau.test.framework.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A {@link ByteSource} over a memory-mapped local file. Files larger than 2GB are mapped as several
+ * windows; reads within a window return a slice of the mapping without copying.
+ */
+public class MappedFileByteSource implements ByteSource {
+
+    private static final long WINDOW_SIZE = 1L << 30;
+
+    private final FileChannel channel;
+    private final long size;
+    private final MappedByteBuffer[] windows;
+
+    public MappedFileByteSource(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.windows = new MappedByteBuffer[(int) ((size + WINDOW_SIZE - 1) / WINDOW_SIZE)];
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public ByteBuffer read(long offset, int length) throws IOException {
+        int available = (int) Math.max(0, Math.min(length, size - offset));
+        int windowIndex = (int) (offset / WINDOW_SIZE);
+        int windowOffset = (int) (offset % WINDOW_SIZE);
+        if (available == 0) {
+            return ByteBuffer.allocate(0);
+        }
+        MappedByteBuffer window = window(windowIndex);
+        if (windowOffset + available <= window.capacity()) {
+            return window.slice(windowOffset, available);
+        }
+
+        ByteBuffer copy = ByteBuffer.allocate(available);
+        long position = offset;
+        while (copy.hasRemaining()) {
+            MappedByteBuffer current = window((int) (position / WINDOW_SIZE));
+            int start = (int) (position % WINDOW_SIZE);
+            int count = Math.min(copy.remaining(), current.capacity() - start);
+            copy.put(current.slice(start, count));
+            position += count;
+        }
+        return copy.flip();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private MappedByteBuffer window(int index) throws IOException {
+        MappedByteBuffer window = windows[index];
+        if (window == null) {
+            long start = index * WINDOW_SIZE;
+            window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW_SIZE, size - start));
+            windows[index] = window;
+        }
+        return window;
+    }
+}
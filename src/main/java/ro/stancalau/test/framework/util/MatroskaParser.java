@@ -0,0 +1,394 @@
+package ro.stancalau.test.framework.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Walks the EBML element tree of a Matroska or WebM file. Header elements ({@code Info}, {@code
+ * Tracks}) are read whole; clusters are walked element by element and only the first bytes of each
+ * block are read to get its track, timestamp and keyframe flag, so frame payloads are never loaded.
+ *
+ * <p>Live recordings may use an unknown size for the segment and its clusters; such a cluster ends
+ * where the next top-level element starts.
+ */
+final class MatroskaParser {
+
+    static final int EBML_MAGIC = 0x1A45DFA3;
+
+    private static final int DOC_TYPE = 0x4282;
+    private static final int SEGMENT = 0x18538067;
+    private static final int SEEK_HEAD = 0x114D9B74;
+    private static final int INFO = 0x1549A966;
+    private static final int TIMESTAMP_SCALE = 0x2AD7B1;
+    private static final int DURATION = 0x4489;
+    private static final int TRACKS = 0x1654AE6B;
+    private static final int TRACK_ENTRY = 0xAE;
+    private static final int TRACK_NUMBER = 0xD7;
+    private static final int TRACK_TYPE = 0x83;
+    private static final int CODEC_ID = 0x86;
+    private static final int VIDEO = 0xE0;
+    private static final int PIXEL_WIDTH = 0xB0;
+    private static final int PIXEL_HEIGHT = 0xBA;
+    private static final int CLUSTER = 0x1F43B675;
+    private static final int CLUSTER_TIMESTAMP = 0xE7;
+    private static final int SIMPLE_BLOCK = 0xA3;
+    private static final int BLOCK_GROUP = 0xA0;
+    private static final int BLOCK = 0xA1;
+    private static final int REFERENCE_BLOCK = 0xFB;
+    private static final int CUES = 0x1C53BB6B;
+    private static final int CHAPTERS = 0x1043A770;
+    private static final int TAGS = 0x1254C367;
+    private static final int ATTACHMENTS = 0x1941A469;
+
+    private static final int TRACK_TYPE_VIDEO = 1;
+    private static final int TRACK_TYPE_AUDIO = 2;
+    private static final int KEYFRAME_FLAG = 0x80;
+    private static final int LACING_MASK = 0x06;
+
+    /** Enough for a 4-byte ID and an 8-byte size */
+    private static final int MAX_HEADER_SIZE = 12;
+
+    /** Enough for an 8-byte track number, the relative timestamp, the flags and the lace count */
+    private static final int MAX_BLOCK_HEADER_SIZE = 12;
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final ByteSource source;
+    private final Map<Long, MediaTrackStats> tracks = new LinkedHashMap<>();
+
+    private MediaContainerInfo.Format format = MediaContainerInfo.Format.MATROSKA;
+    private long timestampScale = 1_000_000;
+    private double declaredDuration;
+    private long clusterTimestamp;
+
+    private MatroskaParser(ByteSource source) {
+        this.source = source;
+    }
+
+    static boolean matches(ByteBuffer header) {
+        return header.limit() >= 4 && header.getInt(0) == EBML_MAGIC;
+    }
+
+    static MediaContainerInfo parse(ByteSource source) throws IOException {
+        MatroskaParser parser = new MatroskaParser(source);
+        parser.walk();
+        return parser.toInfo();
+    }
+
+    private void walk() throws IOException {
+        long size = source.size();
+        long offset = 0;
+        while (offset < size) {
+            ElementHeader element = readHeader(offset, size);
+            if (element == null) {
+                return;
+            }
+            if (element.id() == EBML_MAGIC) {
+                parseEbmlHeader(readData(element));
+            } else if (element.id() == SEGMENT) {
+                parseSegment(element.dataOffset(), element.end(size));
+            }
+            offset = element.end(size);
+        }
+    }
+
+    private void parseEbmlHeader(ByteBuffer header) {
+        forEachChild(header, (id, data) -> {
+            if (id == DOC_TYPE && "webm".equals(readString(data))) {
+                format = MediaContainerInfo.Format.WEBM;
+            }
+        });
+    }
+
+    private void parseSegment(long start, long end) throws IOException {
+        long offset = start;
+        while (offset < end) {
+            ElementHeader element = readHeader(offset, end);
+            if (element == null) {
+                return;
+            }
+            switch (element.id()) {
+                case INFO -> parseInfo(readData(element));
+                case TRACKS -> parseTracks(readData(element));
+                case CLUSTER -> {
+                    offset = parseCluster(element, end);
+                    continue;
+                }
+                default -> {}
+            }
+            offset = element.end(end);
+        }
+    }
+
+    private void parseInfo(ByteBuffer info) {
+        forEachChild(info, (id, data) -> {
+            if (id == TIMESTAMP_SCALE) {
+                timestampScale = readUnsigned(data);
+            } else if (id == DURATION) {
+                declaredDuration = data.limit() == 4 ? data.getFloat(0) : data.getDouble(0);
+            }
+        });
+    }
+
+    private void parseTracks(ByteBuffer tracksElement) {
+        forEachChild(tracksElement, (id, entry) -> {
+            if (id != TRACK_ENTRY) {
+                return;
+            }
+            long[] number = {0};
+            int[] type = {0};
+            String[] codec = {""};
+            int[] dimensions = {0, 0};
+            forEachChild(entry, (childId, data) -> {
+                switch (childId) {
+                    case TRACK_NUMBER -> number[0] = readUnsigned(data);
+                    case TRACK_TYPE -> type[0] = (int) readUnsigned(data);
+                    case CODEC_ID -> codec[0] = readString(data);
+                    case VIDEO -> forEachChild(data, (videoId, value) -> {
+                        if (videoId == PIXEL_WIDTH) {
+                            dimensions[0] = (int) readUnsigned(value);
+                        } else if (videoId == PIXEL_HEIGHT) {
+                            dimensions[1] = (int) readUnsigned(value);
+                        }
+                    });
+                    default -> {}
+                }
+            });
+
+            MediaTrackStats track = track(number[0]);
+            track.kind = switch (type[0]) {
+                case TRACK_TYPE_VIDEO -> MediaTrackInfo.Kind.VIDEO;
+                case TRACK_TYPE_AUDIO -> MediaTrackInfo.Kind.AUDIO;
+                default -> MediaTrackInfo.Kind.OTHER;
+            };
+            track.codec = codec[0];
+            track.width = dimensions[0];
+            track.height = dimensions[1];
+        });
+    }
+
+    /**
+     * Walk the blocks of a cluster.
+     *
+     * @return The offset after the cluster
+     */
+    private long parseCluster(ElementHeader cluster, long segmentEnd) throws IOException {
+        long end = cluster.end(segmentEnd);
+        long offset = cluster.dataOffset();
+        while (offset < end) {
+            ElementHeader element = readHeader(offset, end);
+            if (element == null) {
+                return end;
+            }
+            if (cluster.unknownSize() && isTopLevel(element.id())) {
+                return offset;
+            }
+            switch (element.id()) {
+                case CLUSTER_TIMESTAMP -> clusterTimestamp = readUnsigned(readData(element));
+                case SIMPLE_BLOCK -> addBlock(source.read(element.dataOffset(), MAX_BLOCK_HEADER_SIZE), true, false);
+                case BLOCK_GROUP -> parseBlockGroup(element);
+                default -> {}
+            }
+            offset = element.end(end);
+        }
+        return end;
+    }
+
+    private void parseBlockGroup(ElementHeader group) throws IOException {
+        long end = group.end(Long.MAX_VALUE);
+        long offset = group.dataOffset();
+        ByteBuffer blockHeader = null;
+        boolean referencesOtherFrames = false;
+        while (offset < end) {
+            ElementHeader element = readHeader(offset, end);
+            if (element == null) {
+                break;
+            }
+            if (element.id() == BLOCK) {
+                blockHeader = source.read(element.dataOffset(), MAX_BLOCK_HEADER_SIZE);
+            } else if (element.id() == REFERENCE_BLOCK) {
+                referencesOtherFrames = true;
+            }
+            offset = element.end(end);
+        }
+        if (blockHeader != null) {
+            addBlock(blockHeader, false, referencesOtherFrames);
+        }
+    }
+
+    /**
+     * Record a block from its header. A SimpleBlock carries its own keyframe flag; a Block in a
+     * BlockGroup is a keyframe unless the group references other frames.
+     */
+    private void addBlock(ByteBuffer header, boolean simpleBlock, boolean referencesOtherFrames) {
+        if (header.limit() == 0) {
+            return;
+        }
+        int trackNumberLength = vintLength(header.get(0));
+        if (trackNumberLength == 0 || header.limit() < trackNumberLength + 3) {
+            return;
+        }
+        long trackNumber = readVint(header, 0, trackNumberLength, false);
+        long timestamp = (clusterTimestamp + header.getShort(trackNumberLength)) * timestampScale;
+        int flags = header.get(trackNumberLength + 2) & 0xFF;
+        boolean keyframe = simpleBlock ? (flags & KEYFRAME_FLAG) != 0 : !referencesOtherFrames;
+        int frames = 1;
+        if ((flags & LACING_MASK) != 0 && header.limit() > trackNumberLength + 3) {
+            frames = (header.get(trackNumberLength + 3) & 0xFF) + 1;
+        }
+
+        MediaTrackStats track = track(trackNumber);
+        track.addSample(timestamp, 0, keyframe);
+        for (int i = 1; i < frames; i++) {
+            track.addSample(timestamp, 0, false);
+        }
+    }
+
+    private MediaTrackStats track(long number) {
+        return tracks.computeIfAbsent(number, n -> {
+            MediaTrackStats track = new MediaTrackStats(n);
+            track.timescale = NANOS_PER_SECOND;
+            return track;
+        });
+    }
+
+    private MediaContainerInfo toInfo() {
+        List<MediaTrackInfo> trackInfos = new ArrayList<>(tracks.size());
+        for (MediaTrackStats track : tracks.values()) {
+            trackInfos.add(track.toInfo());
+        }
+        Duration duration = Duration.ofNanos((long) (declaredDuration * timestampScale));
+        if (duration.isZero()) {
+            duration = trackInfos.stream()
+                    .map(MediaTrackInfo::duration)
+                    .max(Duration::compareTo)
+                    .orElse(Duration.ZERO);
+        }
+        return new MediaContainerInfo(format, duration, trackInfos);
+    }
+
+    private ByteBuffer readData(ElementHeader element) throws IOException {
+        if (element.unknownSize()) {
+            throw new IOException("Matroska element 0x" + Integer.toHexString(element.id()) + " has an unknown size");
+        }
+        return source.read(element.dataOffset(), (int) element.dataSize());
+    }
+
+    private ElementHeader readHeader(long offset, long end) throws IOException {
+        ByteBuffer header = source.read(offset, (int) Math.min(MAX_HEADER_SIZE, end - offset));
+        if (header.limit() < 2) {
+            return null;
+        }
+        int idLength = vintLength(header.get(0));
+        if (idLength == 0 || idLength > 4 || header.limit() <= idLength) {
+            return null;
+        }
+        int sizeLength = vintLength(header.get(idLength));
+        if (sizeLength == 0 || header.limit() < idLength + sizeLength) {
+            return null;
+        }
+        int id = (int) readVint(header, 0, idLength, true);
+        long dataSize = readVint(header, idLength, sizeLength, false);
+        boolean unknownSize = dataSize == (1L << (7 * sizeLength)) - 1;
+        return new ElementHeader(id, offset + idLength + sizeLength, unknownSize ? -1 : dataSize);
+    }
+
+    private static boolean isTopLevel(int id) {
+        return id == CLUSTER
+                || id == CUES
+                || id == TAGS
+                || id == INFO
+                || id == TRACKS
+                || id == SEEK_HEAD
+                || id == CHAPTERS
+                || id == ATTACHMENTS;
+    }
+
+    private static void forEachChild(ByteBuffer parent, ElementHandler handler) {
+        int position = 0;
+        int limit = parent.limit();
+        while (position + 2 <= limit) {
+            int idLength = vintLength(parent.get(position));
+            if (idLength == 0 || idLength > 4 || position + idLength >= limit) {
+                return;
+            }
+            int sizeLength = vintLength(parent.get(position + idLength));
+            if (sizeLength == 0 || position + idLength + sizeLength > limit) {
+                return;
+            }
+            int id = (int) readVint(parent, position, idLength, true);
+            long dataSize = readVint(parent, position + idLength, sizeLength, false);
+            int dataOffset = position + idLength + sizeLength;
+            if (dataOffset + dataSize > limit) {
+                return;
+            }
+            handler.handle(id, parent.slice(dataOffset, (int) dataSize));
+            position = dataOffset + (int) dataSize;
+        }
+    }
+
+    /** Get the length of a variable-length integer from its first byte, 0 if invalid */
+    private static int vintLength(byte first) {
+        int leadingZeros = Integer.numberOfLeadingZeros(first & 0xFF) - 24;
+        return leadingZeros < 8 ? leadingZeros + 1 : 0;
+    }
+
+    private static long readVint(ByteBuffer buffer, int index, int length, boolean keepMarker) {
+        long value = buffer.get(index) & 0xFF;
+        if (!keepMarker) {
+            value &= 0xFF >> length;
+        }
+        for (int i = 1; i < length; i++) {
+            value = (value << 8) | (buffer.get(index + i) & 0xFF);
+        }
+        return value;
+    }
+
+    private static long readUnsigned(ByteBuffer data) {
+        long value = 0;
+        for (int i = 0; i < data.limit(); i++) {
+            value = (value << 8) | (data.get(i) & 0xFF);
+        }
+        return value;
+    }
+
+    private static String readString(ByteBuffer data) {
+        byte[] bytes = new byte[data.limit()];
+        data.get(0, bytes);
+        int length = bytes.length;
+        while (length > 0 && bytes[length - 1] == 0) {
+            length--;
+        }
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    @FunctionalInterface
+    private interface ElementHandler {
+        void handle(int id, ByteBuffer data);
+    }
+
+    /**
+     * Position of an element in the file.
+     *
+     * @param id The element ID, including its length marker
+     * @param dataOffset The offset of the element's data
+     * @param dataSize The size of the data, -1 if unknown
+     */
+    private record ElementHeader(int id, long dataOffset, long dataSize) {
+
+        boolean unknownSize() {
+            return dataSize < 0;
+        }
+
+        /** Get the offset after the element; an element of unknown size extends to its parent's end */
+        long end(long parentEnd) {
+            return unknownSize() ? parentEnd : Math.min(parentEnd, dataOffset + dataSize);
+        }
+    }
+}
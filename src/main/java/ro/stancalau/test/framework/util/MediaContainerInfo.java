@@ -0,0 +1,41 @@
+package ro.stancalau.test.framework.util;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Structure of a recording read by {@link MediaContainerParser}.
+ *
+ * @param format The container format
+ * @param duration The duration of the recording
+ * @param tracks The tracks in the order they are declared
+ */
+public record MediaContainerInfo(Format format, Duration duration, List<MediaTrackInfo> tracks) {
+
+    public List<MediaTrackInfo> videoTracks() {
+        return tracks.stream().filter(MediaTrackInfo::isVideo).toList();
+    }
+
+    public List<MediaTrackInfo> audioTracks() {
+        return tracks.stream().filter(MediaTrackInfo::isAudio).toList();
+    }
+
+    public Optional<MediaTrackInfo> firstVideoTrack() {
+        return tracks.stream().filter(MediaTrackInfo::isVideo).findFirst();
+    }
+
+    /** Get the largest timestamp step between consecutive samples of any track */
+    public Duration maxSampleGap() {
+        return tracks.stream()
+                .map(MediaTrackInfo::maxSampleGap)
+                .max(Duration::compareTo)
+                .orElse(Duration.ZERO);
+    }
+
+    public enum Format {
+        MP4,
+        WEBM,
+        MATROSKA
+    }
+}
@@ -0,0 +1,76 @@
+package ro.stancalau.test.framework.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reads the structure of MP4, WebM and MKV recordings without decoding media: duration, tracks,
+ * codecs, resolution, sample and keyframe counts and timestamp gaps. Only container metadata and
+ * block headers are read, so parsing stays cheap for multi-GB recordings and for recordings that are
+ * still in S3.
+ *
+ * <p>Use {@link #parse(Path)} for local files, which are memory-mapped, and {@link
+ * #parse(ByteSource)} with an {@link S3RangeByteSource} for objects in S3.
+ */
+@Slf4j
+@UtilityClass
+public class MediaContainerParser {
+
+    private static final int SIGNATURE_BYTES = 16;
+
+    /**
+     * Parse a local recording.
+     *
+     * @param file The MP4, WebM or MKV file
+     * @return The container structure
+     * @throws IOException If the file cannot be read or is not a supported container
+     */
+    public static MediaContainerInfo parse(Path file) throws IOException {
+        try (MappedFileByteSource source = new MappedFileByteSource(file)) {
+            return parse(source);
+        }
+    }
+
+    /**
+     * Parse a recording from any byte source. The source is not closed.
+     *
+     * @param source The recording bytes
+     * @return The container structure
+     * @throws IOException If the source cannot be read or is not a supported container
+     */
+    public static MediaContainerInfo parse(ByteSource source) throws IOException {
+        long startNanos = System.nanoTime();
+        ByteBuffer signature = source.read(0, SIGNATURE_BYTES);
+
+        MediaContainerInfo info;
+        if (MatroskaParser.matches(signature)) {
+            info = MatroskaParser.parse(source);
+        } else if (Mp4Parser.matches(signature)) {
+            info = Mp4Parser.parse(source);
+        } else {
+            throw new IOException("Not an MP4 or Matroska container");
+        }
+
+        log.debug(
+                "Parsed {} container with {} tracks, duration {}ms, in {}ms",
+                info.format(),
+                info.tracks().size(),
+                info.duration().toMillis(),
+                (System.nanoTime() - startNanos) / 1_000_000);
+        return info;
+    }
+
+    /**
+     * Check whether the first bytes of a file look like a supported container.
+     *
+     * @param header The first bytes of the file, at least 8
+     * @return True for MP4 and Matroska signatures
+     */
+    public static boolean isSupportedContainer(byte[] header) {
+        ByteBuffer buffer = ByteBuffer.wrap(header);
+        return MatroskaParser.matches(buffer) || Mp4Parser.matches(buffer);
+    }
+}
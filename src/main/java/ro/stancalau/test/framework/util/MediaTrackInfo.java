@@ -0,0 +1,47 @@
+package ro.stancalau.test.framework.util;
+
+import java.time.Duration;
+
+/**
+ * A track of a recording as described by its container, read without decoding any media.
+ *
+ * @param trackId The track ID (MP4) or track number (Matroska)
+ * @param kind Whether the track carries video, audio or something else
+ * @param codec The sample entry type (MP4, e.g. "avc1") or codec ID (Matroska, e.g. "V_VP8")
+ * @param width The video width in pixels, 0 for non-video tracks
+ * @param height The video height in pixels, 0 for non-video tracks
+ * @param sampleCount The number of samples (frames) in the track
+ * @param keyframeCount The number of sync samples
+ * @param duration The duration of the track
+ * @param maxSampleGap The largest step between the timestamps of consecutive samples
+ */
+public record MediaTrackInfo(
+        long trackId,
+        Kind kind,
+        String codec,
+        int width,
+        int height,
+        long sampleCount,
+        long keyframeCount,
+        Duration duration,
+        Duration maxSampleGap) {
+
+    public boolean isVideo() {
+        return kind == Kind.VIDEO;
+    }
+
+    public boolean isAudio() {
+        return kind == Kind.AUDIO;
+    }
+
+    /** Get the average number of samples per second, 0 if the duration is unknown */
+    public double getSampleRate() {
+        return duration.isZero() ? 0 : sampleCount * 1_000_000_000.0 / duration.toNanos();
+    }
+
+    public enum Kind {
+        VIDEO,
+        AUDIO,
+        OTHER
+    }
+}
@@ -0,0 +1,97 @@
+package ro.stancalau.test.framework.util;
+
+import java.time.Duration;
+
+/** Per-track counters collected while walking a container, in the track's own timescale */
+final class MediaTrackStats {
+
+    final long trackId;
+
+    MediaTrackInfo.Kind kind = MediaTrackInfo.Kind.OTHER;
+    String codec = "";
+    int width;
+    int height;
+    long timescale = 1;
+    long declaredDuration;
+
+    private long sampleCount;
+    private long keyframeCount = -1;
+    private long firstTimestamp = Long.MAX_VALUE;
+    private long maxTimestamp = Long.MIN_VALUE;
+    private long endTimestamp = Long.MIN_VALUE;
+    private long maxGap;
+
+    MediaTrackStats(long trackId) {
+        this.trackId = trackId;
+    }
+
+    /**
+     * Record a sample.
+     *
+     * @param timestamp The decode or presentation timestamp of the sample
+     * @param sampleDuration The duration of the sample, 0 if unknown
+     * @param keyframe Whether the sample is a sync sample
+     */
+    void addSample(long timestamp, long sampleDuration, boolean keyframe) {
+        addSamples(timestamp, 1, sampleDuration, keyframe ? 1 : 0);
+    }
+
+    /**
+     * Record a run of samples that all have the same duration, e.g. one entry of an MP4 stts table.
+     *
+     * @param timestamp The timestamp of the first sample of the run
+     * @param count The number of samples
+     * @param sampleDuration The duration of each sample
+     * @param keyframes The number of sync samples in the run
+     */
+    void addSamples(long timestamp, long count, long sampleDuration, long keyframes) {
+        if (count <= 0) {
+            return;
+        }
+        if (maxTimestamp != Long.MIN_VALUE && timestamp > maxTimestamp) {
+            maxGap = Math.max(maxGap, timestamp - maxTimestamp);
+        }
+        if (count > 1) {
+            maxGap = Math.max(maxGap, sampleDuration);
+        }
+        long lastTimestamp = timestamp + (count - 1) * sampleDuration;
+        firstTimestamp = Math.min(firstTimestamp, timestamp);
+        maxTimestamp = Math.max(maxTimestamp, lastTimestamp);
+        endTimestamp = Math.max(endTimestamp, lastTimestamp + sampleDuration);
+        sampleCount += count;
+        keyframeCount = Math.max(keyframeCount, 0) + keyframes;
+    }
+
+    /** Override the sync sample count, e.g. from an MP4 stss table */
+    void setKeyframeCount(long keyframeCount) {
+        this.keyframeCount = keyframeCount;
+    }
+
+    /** Get the timestamp following the last sample, where an unanchored next run continues */
+    long nextTimestamp() {
+        return endTimestamp == Long.MIN_VALUE ? 0 : endTimestamp;
+    }
+
+    MediaTrackInfo toInfo() {
+        long durationUnits = declaredDuration > 0
+                ? declaredDuration
+                : (sampleCount > 0 ? endTimestamp - firstTimestamp : 0);
+        return new MediaTrackInfo(
+                trackId,
+                kind,
+                codec,
+                width,
+                height,
+                sampleCount,
+                Math.max(keyframeCount, 0),
+                toDuration(durationUnits, timescale),
+                toDuration(maxGap, timescale));
+    }
+
+    static Duration toDuration(long units, long timescale) {
+        if (units <= 0 || timescale <= 0) {
+            return Duration.ZERO;
+        }
+        return Duration.ofSeconds(units / timescale, (units % timescale) * 1_000_000_000L / timescale);
+    }
+}
@@ -6,27 +6,69 @@ import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import javax.annotation.Nullable;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import ro.stancalau.test.framework.config.TestConfig;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.core.ResponseInputStream;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
 import software.amazon.awssdk.services.s3.model.*;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 
 /**
  * S3 client wrapper specifically designed for MinIO integration testing. Provides S3-compatible
  * operations for bucket management, object operations, and content validation in test environments.
+ *
+ * <p>A client created from a shared {@link S3Client} does not own it: {@link #close()} leaves the
+ * shared client and its connection pool open for other buckets.
+ *
+ * <p>When the MinIO server publishes events to the {@link S3EventReceiver}, {@link #awaitObject}
+ * waits for the {@code s3:ObjectCreated} notification instead of repeatedly listing the bucket.
  */
 @Slf4j
 public class MinioS3Client {
 
+    /** Maximum number of keys S3 accepts in a single DeleteObjects request */
+    public static final int MAX_DELETE_BATCH_SIZE = 1000;
+
+    private static final int DOWNLOAD_MAX_ATTEMPTS = 3;
+    private static final long DOWNLOAD_RETRY_BACKOFF_MS = 250;
+    private static final long POLL_INTERVAL_MS = 1000;
+
     private final S3Client s3Client;
+
+    @Getter
     private final String bucketName;
 
+    private final boolean ownsClient;
+
+    @Nullable
+    private final String eventSourceId;
+
+    private volatile boolean eventNotificationsConfigured;
+
     /**
      * Creates a MinIO S3 client for testing operations.
      *
@@ -36,18 +78,93 @@ public class MinioS3Client {
      * @param bucketName The bucket name to operate on
      */
     public MinioS3Client(String endpoint, String accessKey, String secretKey, String bucketName) {
+        this(createS3Client(endpoint, accessKey, secretKey), bucketName, null, true);
+        log.info("Created S3 client for endpoint: {} with bucket: {}", endpoint, bucketName);
+    }
+
+    /**
+     * Creates a bucket client on top of a shared S3 client. The shared client is not closed by
+     * {@link #close()}.
+     *
+     * @param s3Client The shared S3 client
+     * @param bucketName The bucket name to operate on
+     */
+    public MinioS3Client(S3Client s3Client, String bucketName) {
+        this(s3Client, bucketName, null, false);
+    }
+
+    /**
+     * Creates a bucket client on top of a shared S3 client for a MinIO server that publishes bucket
+     * events to the {@link S3EventReceiver}.
+     *
+     * @param s3Client The shared S3 client
+     * @param bucketName The bucket name to operate on
+     * @param eventSourceId The event source of the MinIO server, null if it does not publish events
+     */
+    public MinioS3Client(S3Client s3Client, String bucketName, @Nullable String eventSourceId) {
+        this(s3Client, bucketName, eventSourceId, false);
+    }
+
+    private MinioS3Client(S3Client s3Client, String bucketName, @Nullable String eventSourceId, boolean ownsClient) {
+        this.s3Client = s3Client;
         this.bucketName = bucketName;
+        this.eventSourceId = eventSourceId;
+        this.ownsClient = ownsClient;
+    }
 
+    /**
+     * Creates an S3 client configured for MinIO: path-style addressing and a fixed region.
+     *
+     * @param endpoint The MinIO server endpoint URL
+     * @param accessKey The access key for authentication
+     * @param secretKey The secret key for authentication
+     * @return A new S3 client, to be closed by the caller
+     */
+    public static S3Client createS3Client(String endpoint, String accessKey, String secretKey) {
         AwsBasicCredentials credentials = AwsBasicCredentials.create(accessKey, secretKey);
 
-        this.s3Client = S3Client.builder()
+        return S3Client.builder()
                 .endpointOverride(URI.create(endpoint))
                 .credentialsProvider(StaticCredentialsProvider.create(credentials))
                 .region(Region.US_EAST_1)
                 .forcePathStyle(true)
                 .build();
+    }
 
-        log.info("Created S3 client for endpoint: {} with bucket: {}", endpoint, bucketName);
+    /**
+     * Create a presigned GET URL for an object, e.g. for a container that reads a recording from MinIO
+     * over the Docker network. The URL is signed for the given endpoint, so it must be the endpoint the
+     * reader connects to.
+     *
+     * @param endpoint The MinIO server endpoint URL as seen by the reader
+     * @param accessKey The access key for authentication
+     * @param secretKey The secret key for authentication
+     * @param bucketName The bucket of the object
+     * @param key The object key
+     * @param validity How long the URL stays valid
+     * @return The presigned URL
+     */
+    public static String presignGetUrl(
+            String endpoint, String accessKey, String secretKey, String bucketName, String key, Duration validity) {
+        AwsBasicCredentials credentials = AwsBasicCredentials.create(accessKey, secretKey);
+
+        try (S3Presigner presigner = S3Presigner.builder()
+                .endpointOverride(URI.create(endpoint))
+                .credentialsProvider(StaticCredentialsProvider.create(credentials))
+                .region(Region.US_EAST_1)
+                .serviceConfiguration(S3Configuration.builder()
+                        .pathStyleAccessEnabled(true)
+                        .build())
+                .build()) {
+            return presigner
+                    .presignGetObject(request -> request.signatureDuration(validity)
+                            .getObjectRequest(GetObjectRequest.builder()
+                                    .bucket(bucketName)
+                                    .key(key)
+                                    .build()))
+                    .url()
+                    .toString();
+        }
     }
 
     public void createBucket() {
@@ -59,15 +176,93 @@ public class MinioS3Client {
                     CreateBucketRequest.builder().bucket(bucketName).build());
             log.info("Created bucket: {}", bucketName);
         }
+        configureEventNotifications();
     }
 
+    /**
+     * Wait for an object with a prefix that matches a predicate. Existing objects are listed once;
+     * after that the client waits for {@code s3:ObjectCreated} events, falling back to listing once a
+     * second when the server does not publish events.
+     *
+     * @param prefix The key prefix, empty for the whole bucket
+     * @param predicate The condition the object must meet, e.g. a key pattern or a minimum size
+     * @param timeout How long to wait for a matching object
+     * @return The first matching object, or empty on timeout
+     */
+    public Optional<S3ObjectSummary> awaitObject(
+            String prefix, Predicate<S3ObjectSummary> predicate, Duration timeout) {
+        Predicate<S3ObjectSummary> matcher = object -> object.key().startsWith(prefix) && predicate.test(object);
+        S3EventReceiver receiver = configureEventNotifications() ? S3EventReceiver.getInstance() : null;
+        if (receiver == null) {
+            return pollForObject(prefix, matcher, timeout);
+        }
+
+        CompletableFuture<S3ObjectSummary> created = new CompletableFuture<>();
+        try (S3EventReceiver.Subscription ignored = receiver.subscribe(eventSourceId, bucketName, object -> {
+            if (matcher.test(object)) {
+                created.complete(object);
+            }
+        })) {
+            Optional<S3ObjectSummary> existing = findObject(prefix, matcher);
+            if (existing.isPresent()) {
+                return existing;
+            }
+            try {
+                return Optional.of(created.get(timeout.toMillis(), TimeUnit.MILLISECONDS));
+            } catch (TimeoutException e) {
+                log.warn(
+                        "No object created with prefix '{}' in bucket {} after {}ms, listing once more",
+                        prefix,
+                        bucketName,
+                        timeout.toMillis());
+                return findObject(prefix, matcher);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Optional.empty();
+            } catch (ExecutionException e) {
+                return Optional.empty();
+            }
+        }
+    }
+
+    /**
+     * List the keys of all objects with a prefix, following pagination past 1000 keys.
+     *
+     * @param prefix The key prefix, empty for the whole bucket
+     * @return The object keys
+     */
     public List<String> listObjects(String prefix) {
+        try (Stream<S3ObjectSummary> objects = streamObjects(prefix)) {
+            return objects.map(S3ObjectSummary::key).toList();
+        }
+    }
+
+    /**
+     * List all objects with a prefix together with the size, ETag and last-modified time returned by
+     * the listing.
+     *
+     * @param prefix The key prefix, empty for the whole bucket
+     * @return The object summaries
+     */
+    public List<S3ObjectSummary> listObjectSummaries(String prefix) {
+        try (Stream<S3ObjectSummary> objects = streamObjects(prefix)) {
+            return objects.toList();
+        }
+    }
+
+    /**
+     * Lazily stream all objects with a prefix. Pages of up to 1000 objects are requested from S3 only
+     * as the stream is consumed, so short-circuiting operations such as {@code findFirst} stop
+     * listing early.
+     *
+     * @param prefix The key prefix, empty for the whole bucket
+     * @return The object summaries, in key order
+     */
+    public Stream<S3ObjectSummary> streamObjects(String prefix) {
         ListObjectsV2Request request =
                 ListObjectsV2Request.builder().bucket(bucketName).prefix(prefix).build();
 
-        ListObjectsV2Response response = s3Client.listObjectsV2(request);
-
-        return response.contents().stream().map(S3Object::key).collect(Collectors.toList());
+        return s3Client.listObjectsV2Paginator(request).contents().stream().map(S3ObjectSummary::from);
     }
 
     public boolean objectExists(String key) {
@@ -116,31 +311,249 @@ public class MinioS3Client {
         log.info("Deleted object {} from bucket {}", key, bucketName);
     }
 
+    /**
+     * Delete objects using batched DeleteObjects requests of up to {@link #MAX_DELETE_BATCH_SIZE}
+     * keys each. Keys that fail to delete are logged.
+     *
+     * @param keys The keys of the objects to delete
+     * @return The number of objects deleted
+     */
+    public int deleteObjects(Collection<String> keys) {
+        int deleted = 0;
+        List<ObjectIdentifier> batch = new ArrayList<>(Math.min(keys.size(), MAX_DELETE_BATCH_SIZE));
+        for (String key : keys) {
+            batch.add(ObjectIdentifier.builder().key(key).build());
+            if (batch.size() == MAX_DELETE_BATCH_SIZE) {
+                deleted += deleteBatch(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            deleted += deleteBatch(batch);
+        }
+        log.info("Deleted {} of {} objects from bucket {}", deleted, keys.size(), bucketName);
+        return deleted;
+    }
+
+    /**
+     * Delete all objects with a prefix, listing and deleting one page at a time. A listing page holds at
+     * most {@link #MAX_DELETE_BATCH_SIZE} keys, so each page is removed with a single DeleteObjects
+     * request and the keys of the whole prefix are never held in memory at once.
+     *
+     * @param prefix The key prefix, empty for the whole bucket
+     * @return The number of objects deleted
+     */
+    public int deleteObjectsWithPrefix(String prefix) {
+        ListObjectsV2Request request = ListObjectsV2Request.builder()
+                .bucket(bucketName)
+                .prefix(prefix)
+                .maxKeys(MAX_DELETE_BATCH_SIZE)
+                .build();
+
+        int deleted = 0;
+        int listed = 0;
+        for (ListObjectsV2Response page : s3Client.listObjectsV2Paginator(request)) {
+            List<ObjectIdentifier> batch = page.contents().stream()
+                    .map(object -> ObjectIdentifier.builder().key(object.key()).build())
+                    .toList();
+            if (!batch.isEmpty()) {
+                deleted += deleteBatch(batch);
+                listed += batch.size();
+            }
+        }
+        log.info("Deleted {} of {} objects with prefix '{}' from bucket {}", deleted, listed, prefix, bucketName);
+        return deleted;
+    }
+
     public void close() {
-        if (s3Client != null) {
+        if (ownsClient && s3Client != null) {
             s3Client.close();
         }
     }
 
-    public void exportBucketContents(String exportDirectory) {
-        try {
-            List<String> objects = listObjects("");
-            File exportDir = new File(exportDirectory, bucketName);
-            exportDir.mkdirs();
-
-            for (String key : objects) {
-                String localPath = new File(exportDir, key).getAbsolutePath();
-                downloadObject(key, localPath);
-                log.info("Exported {} from bucket {} to {}", key, bucketName, localPath);
-            }
+    public DownloadResult exportBucketContents(String exportDirectory) {
+        return exportBucketContents(exportDirectory, TestConfig.getS3TransferConcurrency());
+    }
 
+    /**
+     * Download every object of the bucket into {@code <exportDirectory>/<bucket>}, keeping the key
+     * structure.
+     *
+     * @param exportDirectory The directory to export into
+     * @param concurrency The maximum number of concurrent downloads
+     * @return The outcome of the export
+     */
+    public DownloadResult exportBucketContents(String exportDirectory, int concurrency) {
+        File exportDir = new File(exportDirectory, bucketName);
+        try {
+            List<S3ObjectSummary> objects = listObjectSummaries("");
+            DownloadResult result = downloadObjects(objects, exportDir.toPath(), concurrency);
             log.info(
-                    "Exported {} objects from bucket {} to {}",
-                    objects.size(),
+                    "Exported {} objects ({} bytes) from bucket {} to {} in {}ms, {} failed",
+                    result.downloaded(),
+                    result.bytes(),
                     bucketName,
-                    exportDir.getAbsolutePath());
+                    exportDir.getAbsolutePath(),
+                    result.elapsed().toMillis(),
+                    result.failed());
+            return result;
         } catch (Exception e) {
             log.error("Failed to export bucket contents for bucket {}: {}", bucketName, e.getMessage());
+            return new DownloadResult(0, 0, 0, Duration.ZERO);
         }
     }
+
+    /**
+     * Download objects in parallel on virtual threads, at most {@code concurrency} at a time. Each
+     * object is retried with backoff before being counted as failed; one failing object does not
+     * stop the others.
+     *
+     * @param objects The objects to download
+     * @param targetDirectory The directory to download into, object keys become relative paths
+     * @param concurrency The maximum number of concurrent downloads
+     * @return The outcome of the downloads
+     */
+    public DownloadResult downloadObjects(
+            Collection<S3ObjectSummary> objects, Path targetDirectory, int concurrency) {
+        long startNanos = System.nanoTime();
+        Semaphore permits = new Semaphore(Math.max(1, concurrency));
+        AtomicInteger downloaded = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicLong bytes = new AtomicLong();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (S3ObjectSummary object : objects) {
+                if (object.key().endsWith("/")) {
+                    continue;
+                }
+                executor.submit(() -> {
+                    permits.acquireUninterruptibly();
+                    try {
+                        Path target = targetDirectory.resolve(object.key());
+                        if (downloadWithRetry(object.key(), target)) {
+                            downloaded.incrementAndGet();
+                            bytes.addAndGet(object.size());
+                        } else {
+                            failed.incrementAndGet();
+                        }
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+
+        return new DownloadResult(
+                downloaded.get(), failed.get(), bytes.get(), Duration.ofNanos(System.nanoTime() - startNanos));
+    }
+
+    private boolean downloadWithRetry(String key, Path target) {
+        for (int attempt = 1; attempt <= DOWNLOAD_MAX_ATTEMPTS; attempt++) {
+            try {
+                Files.createDirectories(target.getParent());
+                GetObjectRequest request =
+                        GetObjectRequest.builder().bucket(bucketName).key(key).build();
+                try (ResponseInputStream<GetObjectResponse> response = s3Client.getObject(request)) {
+                    Files.copy(response, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+                log.debug("Downloaded object {} to {}", key, target);
+                return true;
+            } catch (Exception e) {
+                if (attempt == DOWNLOAD_MAX_ATTEMPTS) {
+                    log.warn(
+                            "Failed to download object {} from bucket {} after {} attempts: {}",
+                            key,
+                            bucketName,
+                            attempt,
+                            e.getMessage());
+                    return false;
+                }
+                log.debug("Retrying download of {} (attempt {} failed: {})", key, attempt, e.getMessage());
+                try {
+                    TimeUnit.MILLISECONDS.sleep(DOWNLOAD_RETRY_BACKOFF_MS * attempt);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Route object creation events of the bucket to the webhook target of the MinIO server. The bucket
+     * must exist; configuration is attempted until it succeeds once.
+     *
+     * @return True if the bucket publishes events to the {@link S3EventReceiver}
+     */
+    private boolean configureEventNotifications() {
+        if (eventSourceId == null) {
+            return false;
+        }
+        if (eventNotificationsConfigured) {
+            return true;
+        }
+        try {
+            QueueConfiguration queue = QueueConfiguration.builder()
+                    .queueArn(S3EventReceiver.QUEUE_ARN)
+                    .events(Event.S3_OBJECT_CREATED)
+                    .build();
+            s3Client.putBucketNotificationConfiguration(PutBucketNotificationConfigurationRequest.builder()
+                    .bucket(bucketName)
+                    .notificationConfiguration(
+                            NotificationConfiguration.builder().queueConfigurations(queue).build())
+                    .build());
+            eventNotificationsConfigured = true;
+            log.info("Bucket {} publishes object events to {}", bucketName, eventSourceId);
+        } catch (Exception e) {
+            log.warn("Could not configure event notifications for bucket {}: {}", bucketName, e.getMessage());
+        }
+        return eventNotificationsConfigured;
+    }
+
+    private Optional<S3ObjectSummary> findObject(String prefix, Predicate<S3ObjectSummary> matcher) {
+        try (Stream<S3ObjectSummary> objects = streamObjects(prefix)) {
+            return objects.filter(matcher).findFirst();
+        }
+    }
+
+    private Optional<S3ObjectSummary> pollForObject(
+            String prefix, Predicate<S3ObjectSummary> matcher, Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (true) {
+            Optional<S3ObjectSummary> object = findObject(prefix, matcher);
+            if (object.isPresent() || System.nanoTime() >= deadline) {
+                return object;
+            }
+            try {
+                TimeUnit.MILLISECONDS.sleep(POLL_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Optional.empty();
+            }
+        }
+    }
+
+    private int deleteBatch(List<ObjectIdentifier> batch) {
+        DeleteObjectsRequest request = DeleteObjectsRequest.builder()
+                .bucket(bucketName)
+                .delete(Delete.builder().objects(batch).quiet(true).build())
+                .build();
+
+        DeleteObjectsResponse response = s3Client.deleteObjects(request);
+        for (S3Error error : response.errors()) {
+            log.warn("Failed to delete object {} from bucket {}: {}", error.key(), bucketName, error.message());
+        }
+        return batch.size() - response.errors().size();
+    }
+
+    /**
+     * Outcome of a batch of downloads.
+     *
+     * @param downloaded Number of objects downloaded
+     * @param failed Number of objects that could not be downloaded after retrying
+     * @param bytes Total size of the downloaded objects
+     * @param elapsed Wall-clock time of the batch
+     */
+    public record DownloadResult(int downloaded, int failed, long bytes, Duration elapsed) {}
 }
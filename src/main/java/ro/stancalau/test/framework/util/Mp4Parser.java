@@ -0,0 +1,347 @@
+package ro.stancalau.test.framework.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Walks the box structure of an ISO BMFF (MP4) file. Top-level boxes are visited by reading their
+ * headers only, so {@code mdat} payloads are skipped; {@code moov} and {@code moof} boxes are read
+ * whole. Both regular files, with sample tables in {@code moov}, and fragmented files, with samples
+ * described by {@code moof}/{@code trun}, are supported.
+ */
+final class Mp4Parser {
+
+    private static final int SAMPLE_IS_NON_SYNC = 0x10000;
+
+    private static final int TFHD_BASE_DATA_OFFSET = 0x01;
+    private static final int TFHD_SAMPLE_DESCRIPTION_INDEX = 0x02;
+    private static final int TFHD_DEFAULT_DURATION = 0x08;
+    private static final int TFHD_DEFAULT_SIZE = 0x10;
+    private static final int TFHD_DEFAULT_FLAGS = 0x20;
+
+    private static final int TRUN_DATA_OFFSET = 0x01;
+    private static final int TRUN_FIRST_SAMPLE_FLAGS = 0x04;
+    private static final int TRUN_SAMPLE_DURATION = 0x100;
+    private static final int TRUN_SAMPLE_SIZE = 0x200;
+    private static final int TRUN_SAMPLE_FLAGS = 0x400;
+    private static final int TRUN_SAMPLE_CTO = 0x800;
+
+    private final Map<Long, MediaTrackStats> tracks = new LinkedHashMap<>();
+    private final Map<Long, SampleDefaults> trackDefaults = new HashMap<>();
+
+    private long movieTimescale;
+    private long movieDuration;
+
+    private Mp4Parser() {}
+
+    /**
+     * Check whether a file starts like an MP4: a box whose type is one of the usual first boxes.
+     *
+     * @param header At least the first 8 bytes of the file
+     * @return True for an MP4 file
+     */
+    static boolean matches(ByteBuffer header) {
+        if (header.limit() < 8) {
+            return false;
+        }
+        String type = fourcc(header, 4);
+        return type.equals("ftyp") || type.equals("styp") || type.equals("moov") || type.equals("free");
+    }
+
+    static MediaContainerInfo parse(ByteSource source) throws IOException {
+        Mp4Parser parser = new Mp4Parser();
+        parser.walk(source);
+        return parser.toInfo();
+    }
+
+    private void walk(ByteSource source) throws IOException {
+        long size = source.size();
+        long offset = 0;
+        while (offset + 8 <= size) {
+            ByteBuffer header = source.read(offset, 16);
+            long boxSize = Integer.toUnsignedLong(header.getInt(0));
+            String type = fourcc(header, 4);
+            int headerSize = 8;
+            if (boxSize == 1 && header.limit() >= 16) {
+                boxSize = header.getLong(8);
+                headerSize = 16;
+            } else if (boxSize == 0) {
+                boxSize = size - offset;
+            }
+            if (boxSize < headerSize) {
+                throw new IOException("Invalid size " + boxSize + " of MP4 box '" + type + "' at offset " + offset);
+            }
+            if (offset + boxSize > size) {
+                // Truncated recording, e.g. an egress that is still writing; keep what was read so far
+                break;
+            }
+            if (type.equals("moov")) {
+                parseMoov(source.read(offset + headerSize, (int) (boxSize - headerSize)));
+            } else if (type.equals("moof")) {
+                parseMoof(source.read(offset + headerSize, (int) (boxSize - headerSize)));
+            }
+            offset += boxSize;
+        }
+    }
+
+    private void parseMoov(ByteBuffer moov) {
+        forEachChild(moov, (type, box) -> {
+            switch (type) {
+                case "mvhd" -> {
+                    boolean v1 = box.get(0) == 1;
+                    movieTimescale = Integer.toUnsignedLong(box.getInt(v1 ? 20 : 12));
+                    movieDuration = v1 ? box.getLong(24) : Integer.toUnsignedLong(box.getInt(16));
+                }
+                case "trak" -> parseTrak(box);
+                case "mvex" -> forEachChild(box, (childType, child) -> {
+                    if (childType.equals("trex")) {
+                        long trackId = Integer.toUnsignedLong(child.getInt(4));
+                        trackDefaults.put(
+                                trackId,
+                                new SampleDefaults(
+                                        Integer.toUnsignedLong(child.getInt(12)),
+                                        child.getInt(20)));
+                    }
+                });
+                default -> {}
+            }
+        });
+    }
+
+    private void parseTrak(ByteBuffer trak) {
+        long[] trackId = {0};
+        int[] dimensions = {0, 0};
+        forEachChild(trak, (type, box) -> {
+            if (type.equals("tkhd")) {
+                boolean v1 = box.get(0) == 1;
+                trackId[0] = Integer.toUnsignedLong(box.getInt(v1 ? 20 : 12));
+                dimensions[0] = box.getInt(box.limit() - 8) >>> 16;
+                dimensions[1] = box.getInt(box.limit() - 4) >>> 16;
+            }
+        });
+
+        MediaTrackStats track = tracks.computeIfAbsent(trackId[0], MediaTrackStats::new);
+        track.width = dimensions[0];
+        track.height = dimensions[1];
+        forEachChild(trak, (type, box) -> {
+            if (type.equals("mdia")) {
+                parseMdia(box, track);
+            }
+        });
+    }
+
+    private void parseMdia(ByteBuffer mdia, MediaTrackStats track) {
+        forEachChild(mdia, (type, box) -> {
+            switch (type) {
+                case "mdhd" -> {
+                    boolean v1 = box.get(0) == 1;
+                    track.timescale = Integer.toUnsignedLong(box.getInt(v1 ? 20 : 12));
+                    track.declaredDuration = v1 ? box.getLong(24) : Integer.toUnsignedLong(box.getInt(16));
+                }
+                case "hdlr" -> track.kind = switch (fourcc(box, 8)) {
+                    case "vide" -> MediaTrackInfo.Kind.VIDEO;
+                    case "soun" -> MediaTrackInfo.Kind.AUDIO;
+                    default -> MediaTrackInfo.Kind.OTHER;
+                };
+                case "minf" -> forEachChild(box, (childType, child) -> {
+                    if (childType.equals("stbl")) {
+                        parseStbl(child, track);
+                    }
+                });
+                default -> {}
+            }
+        });
+    }
+
+    private void parseStbl(ByteBuffer stbl, MediaTrackStats track) {
+        long[] syncSamples = {-1};
+        forEachChild(stbl, (type, box) -> {
+            switch (type) {
+                case "stsd" -> {
+                    if (box.getInt(4) > 0 && box.limit() >= 16) {
+                        track.codec = fourcc(box, 12);
+                        if (track.kind == MediaTrackInfo.Kind.VIDEO && box.limit() >= 8 + 8 + 28) {
+                            track.width = Short.toUnsignedInt(box.getShort(8 + 8 + 24));
+                            track.height = Short.toUnsignedInt(box.getShort(8 + 8 + 26));
+                        }
+                    }
+                }
+                case "stts" -> {
+                    int entries = box.getInt(4);
+                    long timestamp = 0;
+                    for (int i = 0; i < entries; i++) {
+                        long count = Integer.toUnsignedLong(box.getInt(8 + i * 8));
+                        long delta = Integer.toUnsignedLong(box.getInt(12 + i * 8));
+                        track.addSamples(timestamp, count, delta, count);
+                        timestamp += count * delta;
+                    }
+                }
+                case "stss" -> syncSamples[0] = Integer.toUnsignedLong(box.getInt(4));
+                default -> {}
+            }
+        });
+        if (syncSamples[0] >= 0) {
+            track.setKeyframeCount(syncSamples[0]);
+        }
+    }
+
+    private void parseMoof(ByteBuffer moof) {
+        forEachChild(moof, (type, box) -> {
+            if (type.equals("traf")) {
+                parseTraf(box);
+            }
+        });
+    }
+
+    private void parseTraf(ByteBuffer traf) {
+        Fragment fragment = new Fragment();
+        List<ByteBuffer> runs = new ArrayList<>();
+        forEachChild(traf, (type, box) -> {
+            switch (type) {
+                case "tfhd" -> {
+                    int flags = box.getInt(0) & 0xFFFFFF;
+                    fragment.trackId = Integer.toUnsignedLong(box.getInt(4));
+                    SampleDefaults defaults = trackDefaults.getOrDefault(fragment.trackId, SampleDefaults.NONE);
+                    fragment.defaultDuration = defaults.duration();
+                    fragment.defaultFlags = defaults.flags();
+                    int position = 8;
+                    position += (flags & TFHD_BASE_DATA_OFFSET) != 0 ? 8 : 0;
+                    position += (flags & TFHD_SAMPLE_DESCRIPTION_INDEX) != 0 ? 4 : 0;
+                    if ((flags & TFHD_DEFAULT_DURATION) != 0) {
+                        fragment.defaultDuration = Integer.toUnsignedLong(box.getInt(position));
+                        position += 4;
+                    }
+                    position += (flags & TFHD_DEFAULT_SIZE) != 0 ? 4 : 0;
+                    if ((flags & TFHD_DEFAULT_FLAGS) != 0) {
+                        fragment.defaultFlags = box.getInt(position);
+                    }
+                }
+                case "tfdt" -> fragment.baseDecodeTime =
+                        box.get(0) == 1 ? box.getLong(4) : Integer.toUnsignedLong(box.getInt(4));
+                case "trun" -> runs.add(box);
+                default -> {}
+            }
+        });
+
+        MediaTrackStats track = tracks.computeIfAbsent(fragment.trackId, MediaTrackStats::new);
+        long timestamp = fragment.baseDecodeTime >= 0 ? fragment.baseDecodeTime : track.nextTimestamp();
+        for (ByteBuffer run : runs) {
+            timestamp = parseTrun(run, fragment, track, timestamp);
+        }
+    }
+
+    private static long parseTrun(ByteBuffer trun, Fragment fragment, MediaTrackStats track, long timestamp) {
+        int flags = trun.getInt(0) & 0xFFFFFF;
+        long sampleCount = Integer.toUnsignedLong(trun.getInt(4));
+        int position = 8;
+        position += (flags & TRUN_DATA_OFFSET) != 0 ? 4 : 0;
+        int firstSampleFlags = fragment.defaultFlags;
+        boolean hasFirstSampleFlags = (flags & TRUN_FIRST_SAMPLE_FLAGS) != 0;
+        if (hasFirstSampleFlags) {
+            firstSampleFlags = trun.getInt(position);
+            position += 4;
+        }
+
+        boolean perSampleDuration = (flags & TRUN_SAMPLE_DURATION) != 0;
+        boolean perSampleFlags = (flags & TRUN_SAMPLE_FLAGS) != 0;
+        int sampleRecordBytes = Integer.bitCount(
+                        flags & (TRUN_SAMPLE_DURATION | TRUN_SAMPLE_SIZE | TRUN_SAMPLE_FLAGS | TRUN_SAMPLE_CTO))
+                * 4;
+        if (sampleRecordBytes == 0) {
+            // Every sample uses the defaults, so the run is described by its count alone
+            long remaining = sampleCount;
+            if (hasFirstSampleFlags && remaining > 0) {
+                track.addSample(timestamp, fragment.defaultDuration, (firstSampleFlags & SAMPLE_IS_NON_SYNC) == 0);
+                timestamp += fragment.defaultDuration;
+                remaining--;
+            }
+            long keyframes = (fragment.defaultFlags & SAMPLE_IS_NON_SYNC) == 0 ? remaining : 0;
+            track.addSamples(timestamp, remaining, fragment.defaultDuration, keyframes);
+            return timestamp + remaining * fragment.defaultDuration;
+        }
+
+        for (long i = 0; i < sampleCount && position + sampleRecordBytes <= trun.limit(); i++) {
+            long duration = fragment.defaultDuration;
+            int sampleFlags = i == 0 ? firstSampleFlags : fragment.defaultFlags;
+            if (perSampleDuration) {
+                duration = Integer.toUnsignedLong(trun.getInt(position));
+                position += 4;
+            }
+            position += (flags & TRUN_SAMPLE_SIZE) != 0 ? 4 : 0;
+            if (perSampleFlags) {
+                sampleFlags = trun.getInt(position);
+                position += 4;
+            }
+            position += (flags & TRUN_SAMPLE_CTO) != 0 ? 4 : 0;
+            track.addSample(timestamp, duration, (sampleFlags & SAMPLE_IS_NON_SYNC) == 0);
+            timestamp += duration;
+        }
+        return timestamp;
+    }
+
+    private MediaContainerInfo toInfo() {
+        List<MediaTrackInfo> trackInfos = new ArrayList<>(tracks.size());
+        for (MediaTrackStats track : tracks.values()) {
+            trackInfos.add(track.toInfo());
+        }
+
+        Duration duration = MediaTrackStats.toDuration(movieDuration, movieTimescale);
+        if (duration.isZero()) {
+            duration = trackInfos.stream()
+                    .map(MediaTrackInfo::duration)
+                    .max(Duration::compareTo)
+                    .orElse(Duration.ZERO);
+        }
+        return new MediaContainerInfo(MediaContainerInfo.Format.MP4, duration, trackInfos);
+    }
+
+    private static void forEachChild(ByteBuffer parent, BoxHandler handler) {
+        int position = 0;
+        int limit = parent.limit();
+        while (position + 8 <= limit) {
+            long boxSize = Integer.toUnsignedLong(parent.getInt(position));
+            String type = fourcc(parent, position + 4);
+            int headerSize = 8;
+            if (boxSize == 1 && position + 16 <= limit) {
+                boxSize = parent.getLong(position + 8);
+                headerSize = 16;
+            } else if (boxSize == 0) {
+                boxSize = limit - position;
+            }
+            if (boxSize < headerSize || position + boxSize > limit) {
+                return;
+            }
+            handler.handle(type, parent.slice(position + headerSize, (int) boxSize - headerSize));
+            position += (int) boxSize;
+        }
+    }
+
+    private static String fourcc(ByteBuffer buffer, int index) {
+        byte[] chars = new byte[4];
+        buffer.get(index, chars);
+        return new String(chars, StandardCharsets.ISO_8859_1);
+    }
+
+    @FunctionalInterface
+    private interface BoxHandler {
+        void handle(String type, ByteBuffer payload);
+    }
+
+    private record SampleDefaults(long duration, int flags) {
+        static final SampleDefaults NONE = new SampleDefaults(0, 0);
+    }
+
+    private static final class Fragment {
+        long trackId;
+        long baseDecodeTime = -1;
+        long defaultDuration;
+        int defaultFlags;
+    }
+}
@@ -24,6 +24,11 @@ public final class PathUtils {
         return join(SCENARIOS_BASE, featureName, scenarioName, timestamp);
     }
 
+    /** A path under the BDD output directory shared by all scenarios and runs */
+    public static String bddOutputPath(String fileName) {
+        return join(BDD_BASE, fileName);
+    }
+
     public static String currentScenarioPath() {
         return join(SCENARIOS_BASE, "current");
     }
@@ -0,0 +1,254 @@
+package ro.stancalau.test.framework.util;
+
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Computes 64-bit perceptual hashes of video frames: aHash, dHash and pHash over a downscaled
+ * grayscale thumbnail. Frames that look alike have hashes a small Hamming distance apart, regardless
+ * of resolution and compression.
+ *
+ * <p>A hasher keeps its sample positions, thumbnail and DCT buffers between calls, so hashing a run
+ * of same-sized frames allocates nothing. Instances are not thread-safe; the batch methods use one
+ * hasher per fork-join worker.
+ */
+public final class PerceptualHasher {
+
+    /** Hashes of the same frame after re-encoding stay below this distance */
+    public static final int DEFAULT_MATCH_DISTANCE = 10;
+
+    private static final int DCT_SIZE = 32;
+    private static final int DCT_KEEP = 8;
+    private static final double[] DCT_COSINES = dctCosines();
+
+    private static final ThreadLocal<PerceptualHasher> WORKER_HASHERS = ThreadLocal.withInitial(PerceptualHasher::new);
+
+    private final int[] columnPositions = new int[DCT_SIZE * Algorithm.PERCEPTUAL.samplesPerCell];
+    private final int[] rowPositions = new int[DCT_SIZE * Algorithm.PERCEPTUAL.samplesPerCell];
+    private final int[] samples = new int[columnPositions.length * rowPositions.length];
+    private final int[] thumbnail = new int[DCT_SIZE * DCT_SIZE];
+    private final double[] rowCoefficients = new double[DCT_SIZE * DCT_KEEP];
+    private final double[] coefficients = new double[DCT_KEEP * DCT_KEEP];
+    private final double[] sortedCoefficients = new double[DCT_KEEP * DCT_KEEP];
+
+    private int positionsWidth = -1;
+    private int positionsHeight = -1;
+    private Algorithm positionsAlgorithm;
+
+    /**
+     * Hash a decoded image.
+     *
+     * @param image The frame
+     * @param algorithm The hash to compute
+     * @return The 64-bit hash
+     */
+    public long hash(BufferedImage image, Algorithm algorithm) {
+        preparePositions(image.getWidth(), image.getHeight(), algorithm);
+        int sampleColumns = algorithm.columns * algorithm.samplesPerCell;
+        int sampleRows = algorithm.rows * algorithm.samplesPerCell;
+        LumaSampler.sample(image.getRaster(), columnPositions, sampleColumns, rowPositions, sampleRows, samples);
+        return hashSamples(algorithm);
+    }
+
+    /**
+     * Hash a raw 8-bit grayscale frame, e.g. one decoded by FFmpeg with {@code -pix_fmt gray}.
+     *
+     * @param gray The luma plane, row by row without padding
+     * @param width The frame width
+     * @param height The frame height
+     * @param algorithm The hash to compute
+     * @return The 64-bit hash
+     */
+    public long hash(byte[] gray, int width, int height, Algorithm algorithm) {
+        preparePositions(width, height, algorithm);
+        int sampleColumns = algorithm.columns * algorithm.samplesPerCell;
+        int sampleRows = algorithm.rows * algorithm.samplesPerCell;
+        int index = 0;
+        for (int r = 0; r < sampleRows; r++) {
+            int row = rowPositions[r] * width;
+            for (int c = 0; c < sampleColumns; c++) {
+                samples[index++] = gray[row + columnPositions[c]] & 0xFF;
+            }
+        }
+        return hashSamples(algorithm);
+    }
+
+    /**
+     * Hash many decoded frames in parallel on the common fork-join pool.
+     *
+     * @param frames The frames
+     * @param algorithm The hash to compute
+     * @return The hashes, in frame order
+     */
+    public static long[] hashAll(List<BufferedImage> frames, Algorithm algorithm) {
+        long[] hashes = new long[frames.size()];
+        IntStream.range(0, hashes.length)
+                .parallel()
+                .forEach(i -> hashes[i] = WORKER_HASHERS.get().hash(frames.get(i), algorithm));
+        return hashes;
+    }
+
+    /**
+     * Hash many raw 8-bit grayscale frames of the same size in parallel on the common fork-join pool.
+     *
+     * @param frames The luma planes
+     * @param width The frame width
+     * @param height The frame height
+     * @param algorithm The hash to compute
+     * @return The hashes, in frame order
+     */
+    public static long[] hashAll(List<byte[]> frames, int width, int height, Algorithm algorithm) {
+        long[] hashes = new long[frames.size()];
+        IntStream.range(0, hashes.length)
+                .parallel()
+                .forEach(i -> hashes[i] = WORKER_HASHERS.get().hash(frames.get(i), width, height, algorithm));
+        return hashes;
+    }
+
+    /**
+     * The number of differing bits between two hashes, 0 for identical frames and around 32 for
+     * unrelated ones.
+     */
+    public static int distance(long first, long second) {
+        return Long.bitCount(first ^ second);
+    }
+
+    public static String toHex(long hash) {
+        return String.format("%016x", hash);
+    }
+
+    public static long fromHex(String hex) {
+        return Long.parseUnsignedLong(hex.trim(), 16);
+    }
+
+    private void preparePositions(int width, int height, Algorithm algorithm) {
+        if (width == positionsWidth && height == positionsHeight && algorithm == positionsAlgorithm) {
+            return;
+        }
+        LumaSampler.cellCentres(width, algorithm.columns * algorithm.samplesPerCell, columnPositions);
+        LumaSampler.cellCentres(height, algorithm.rows * algorithm.samplesPerCell, rowPositions);
+        positionsWidth = width;
+        positionsHeight = height;
+        positionsAlgorithm = algorithm;
+    }
+
+    private long hashSamples(Algorithm algorithm) {
+        int columns = algorithm.columns;
+        int rows = algorithm.rows;
+        int perCell = algorithm.samplesPerCell;
+        int sampleColumns = columns * perCell;
+
+        // Box-filter the samples of each cell into one thumbnail pixel; sums keep full precision
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                int sum = 0;
+                for (int sr = 0; sr < perCell; sr++) {
+                    int offset = (r * perCell + sr) * sampleColumns + c * perCell;
+                    for (int sc = 0; sc < perCell; sc++) {
+                        sum += samples[offset + sc];
+                    }
+                }
+                thumbnail[r * columns + c] = sum;
+            }
+        }
+
+        return switch (algorithm) {
+            case AVERAGE -> averageHash();
+            case DIFFERENCE -> differenceHash();
+            case PERCEPTUAL -> perceptualHash();
+        };
+    }
+
+    private long averageHash() {
+        long total = 0;
+        for (int i = 0; i < 64; i++) {
+            total += thumbnail[i];
+        }
+        long hash = 0;
+        for (int i = 0; i < 64; i++) {
+            if ((long) thumbnail[i] * 64 > total) {
+                hash |= 1L << i;
+            }
+        }
+        return hash;
+    }
+
+    private long differenceHash() {
+        long hash = 0;
+        int bit = 0;
+        for (int r = 0; r < 8; r++) {
+            for (int c = 0; c < 8; c++) {
+                if (thumbnail[r * 9 + c + 1] > thumbnail[r * 9 + c]) {
+                    hash |= 1L << bit;
+                }
+                bit++;
+            }
+        }
+        return hash;
+    }
+
+    private long perceptualHash() {
+        // Separable DCT-II, keeping only the 8 lowest frequencies in each direction
+        for (int y = 0; y < DCT_SIZE; y++) {
+            for (int u = 0; u < DCT_KEEP; u++) {
+                double sum = 0;
+                for (int x = 0; x < DCT_SIZE; x++) {
+                    sum += thumbnail[y * DCT_SIZE + x] * DCT_COSINES[u * DCT_SIZE + x];
+                }
+                rowCoefficients[y * DCT_KEEP + u] = sum;
+            }
+        }
+        for (int v = 0; v < DCT_KEEP; v++) {
+            for (int u = 0; u < DCT_KEEP; u++) {
+                double sum = 0;
+                for (int y = 0; y < DCT_SIZE; y++) {
+                    sum += rowCoefficients[y * DCT_KEEP + u] * DCT_COSINES[v * DCT_SIZE + y];
+                }
+                coefficients[v * DCT_KEEP + u] = sum;
+            }
+        }
+
+        System.arraycopy(coefficients, 0, sortedCoefficients, 0, coefficients.length);
+        Arrays.sort(sortedCoefficients);
+        double median = (sortedCoefficients[31] + sortedCoefficients[32]) / 2;
+
+        long hash = 0;
+        for (int i = 0; i < 64; i++) {
+            if (coefficients[i] > median) {
+                hash |= 1L << i;
+            }
+        }
+        return hash;
+    }
+
+    private static double[] dctCosines() {
+        double[] cosines = new double[DCT_KEEP * DCT_SIZE];
+        for (int u = 0; u < DCT_KEEP; u++) {
+            for (int x = 0; x < DCT_SIZE; x++) {
+                cosines[u * DCT_SIZE + x] = Math.cos((2 * x + 1) * u * Math.PI / (2 * DCT_SIZE));
+            }
+        }
+        return cosines;
+    }
+
+    public enum Algorithm {
+        /** Thumbnail pixels compared to their mean */
+        AVERAGE(8, 8, 4),
+        /** Horizontally adjacent thumbnail pixels compared to each other */
+        DIFFERENCE(9, 8, 4),
+        /** Low-frequency DCT coefficients of the thumbnail compared to their median */
+        PERCEPTUAL(32, 32, 4);
+
+        private final int columns;
+        private final int rows;
+        private final int samplesPerCell;
+
+        Algorithm(int columns, int rows, int samplesPerCell) {
+            this.columns = columns;
+            this.rows = rows;
+            this.samplesPerCell = samplesPerCell;
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package ro.stancalau.test.framework.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The time series of every Prometheus series one scraper has seen. Each scrape starts with {@link
+ * #beginScrape}, after which a {@link PrometheusTextParser} reports the scraped types and samples to the
+ * store. Queries aggregate all series of a name whose labels include a filter, like a PromQL {@code
+ * sum(...)}, over a window of the scrape timeline.
+ *
+ * <p>A counter, histogram or summary series that first appears after the first scrape is given a zero
+ * sample at the previous scrape, so what it counted before it was first scraped is part of its increase.
+ */
+public class PrometheusMetricStore implements PrometheusTextParser.Listener {
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final String[] FAMILY_SUFFIXES = {"_bucket", "_count", "_sum"};
+
+    private final Map<String, PrometheusSeries> series = new LinkedHashMap<>();
+    private final Map<String, PrometheusMetricType> types = new HashMap<>();
+    private long[] scrapeMillis = new long[INITIAL_CAPACITY];
+    private int scrapeCount;
+
+    /**
+     * Start recording a scrape. The samples reported until the next scrape begins are taken at this time.
+     *
+     * @param elapsedMillis The scrape time, not before the previous one
+     */
+    public synchronized void beginScrape(long elapsedMillis) {
+        if (scrapeCount > 0 && elapsedMillis < scrapeMillis[scrapeCount - 1]) {
+            throw new IllegalArgumentException("Scrape at " + elapsedMillis + "ms is before the previous one");
+        }
+        if (scrapeCount == scrapeMillis.length) {
+            scrapeMillis = Arrays.copyOf(scrapeMillis, scrapeCount * 2);
+        }
+        scrapeMillis[scrapeCount++] = elapsedMillis;
+    }
+
+    @Override
+    public synchronized void type(String family, PrometheusMetricType type) {
+        types.put(family, type);
+    }
+
+    @Override
+    public synchronized void sample(String name, Map<String, String> labels, double value) {
+        if (scrapeCount == 0) {
+            throw new IllegalStateException("Sample " + name + " reported before a scrape began");
+        }
+        String key = PrometheusSeries.key(name, labels);
+        PrometheusSeries samples = series.get(key);
+        if (samples == null) {
+            samples = new PrometheusSeries(name, labels);
+            series.put(key, samples);
+            if (scrapeCount > 1 && isCumulative(name, labels)) {
+                samples.add(scrapeMillis[scrapeCount - 2], 0);
+            }
+        }
+        samples.add(scrapeMillis[scrapeCount - 1], value);
+    }
+
+    public synchronized int getScrapeCount() {
+        return scrapeCount;
+    }
+
+    /** The time of the last scrape, or -1 before the first one */
+    public synchronized long lastScrapeMillis() {
+        return scrapeCount == 0 ? -1 : scrapeMillis[scrapeCount - 1];
+    }
+
+    /**
+     * The type of the family a sample name belongs to, e.g. {@code HISTOGRAM} for a {@code _bucket}
+     * sample of a histogram.
+     *
+     * @param name The sample name
+     * @return The declared type, or {@code UNTYPED} if none was declared
+     */
+    public synchronized PrometheusMetricType typeOf(String name) {
+        PrometheusMetricType type = types.get(name);
+        if (type != null) {
+            return type;
+        }
+        String family = family(name);
+        return family.equals(name) ? PrometheusMetricType.UNTYPED : types.get(family);
+    }
+
+    /**
+     * The family a sample name belongs to, which is the name itself unless it is a histogram or summary
+     * component.
+     *
+     * @param name The sample name
+     * @return The family name
+     */
+    public synchronized String family(String name) {
+        for (String suffix : FAMILY_SUFFIXES) {
+            if (name.endsWith(suffix)) {
+                String family = name.substring(0, name.length() - suffix.length());
+                PrometheusMetricType type = types.get(family);
+                if (type == PrometheusMetricType.HISTOGRAM || type == PrometheusMetricType.SUMMARY) {
+                    return family;
+                }
+            }
+        }
+        return name;
+    }
+
+    /** Every series seen so far, in the order they first appeared */
+    public synchronized List<PrometheusSeries> series() {
+        return List.copyOf(series.values());
+    }
+
+    /**
+     * The series of a name whose labels include a filter.
+     *
+     * @param name The sample name
+     * @param labelFilter The labels a series must have, empty for all series of the name
+     * @return The matching series
+     */
+    public synchronized List<PrometheusSeries> series(String name, Map<String, String> labelFilter) {
+        List<PrometheusSeries> matching = new ArrayList<>();
+        for (PrometheusSeries candidate : series.values()) {
+            if (candidate.getName().equals(name)
+                    && candidate.getLabels().entrySet().containsAll(labelFilter.entrySet())) {
+                matching.add(candidate);
+            }
+        }
+        return matching;
+    }
+
+    /**
+     * How much the matching counters grew together in a window.
+     *
+     * @param name The counter name
+     * @param labelFilter The labels a series must have
+     * @param fromMillis The window start
+     * @param toMillis The window end
+     * @return The summed increase
+     */
+    public double increase(String name, Map<String, String> labelFilter, long fromMillis, long toMillis) {
+        double increase = 0;
+        for (PrometheusSeries counter : series(name, labelFilter)) {
+            increase += counter.increase(fromMillis, toMillis);
+        }
+        return increase;
+    }
+
+    /**
+     * The largest sum of the matching gauges at any scrape in a window.
+     *
+     * @param name The gauge name
+     * @param labelFilter The labels a series must have
+     * @param fromMillis The window start
+     * @param toMillis The window end
+     * @return The maximum, or NaN if no matching series was scraped in the window
+     */
+    public double maxTotal(String name, Map<String, String> labelFilter, long fromMillis, long toMillis) {
+        return extremeTotal(name, labelFilter, fromMillis, toMillis, true);
+    }
+
+    /**
+     * The smallest sum of the matching gauges at any scrape in a window.
+     *
+     * @param name The gauge name
+     * @param labelFilter The labels a series must have
+     * @param fromMillis The window start
+     * @param toMillis The window end
+     * @return The minimum, or NaN if no matching series was scraped in the window
+     */
+    public double minTotal(String name, Map<String, String> labelFilter, long fromMillis, long toMillis) {
+        return extremeTotal(name, labelFilter, fromMillis, toMillis, false);
+    }
+
+    /**
+     * Estimate a quantile of the observations a histogram made in a window, interpolating linearly within
+     * the bucket the quantile falls in, as PromQL {@code histogram_quantile} does.
+     *
+     * @param family The histogram family, without the {@code _bucket} suffix
+     * @param labelFilter The labels a bucket series must have besides {@code le}
+     * @param quantile The quantile, between 0 and 1
+     * @param fromMillis The window start
+     * @param toMillis The window end
+     * @return The estimate, or NaN if the histogram observed nothing in the window
+     */
+    public double histogramQuantile(
+            String family, Map<String, String> labelFilter, double quantile, long fromMillis, long toMillis) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1, got " + quantile);
+        }
+        TreeMap<Double, Double> buckets = new TreeMap<>();
+        for (PrometheusSeries bucket : series(family + "_bucket", labelFilter)) {
+            String upperBound = bucket.getLabels().get("le");
+            if (upperBound != null) {
+                double increase = bucket.increase(fromMillis, toMillis);
+                buckets.merge(parseUpperBound(upperBound), increase, Double::sum);
+            }
+        }
+        if (buckets.isEmpty() || buckets.lastEntry().getValue() <= 0) {
+            return Double.NaN;
+        }
+
+        double rank = quantile * buckets.lastEntry().getValue();
+        double lowerBound = 0;
+        double lowerCount = 0;
+        for (Map.Entry<Double, Double> bucket : buckets.entrySet()) {
+            double upperBound = bucket.getKey();
+            double count = bucket.getValue();
+            if (count >= rank) {
+                if (Double.isInfinite(upperBound)) {
+                    return lowerBound;
+                }
+                if (count == lowerCount || (lowerCount == 0 && upperBound <= 0)) {
+                    return upperBound;
+                }
+                return lowerBound + (upperBound - lowerBound) * (rank - lowerCount) / (count - lowerCount);
+            }
+            lowerBound = upperBound;
+            lowerCount = count;
+        }
+        return lowerBound;
+    }
+
+    /** Every sample as CSV rows of time, series and value, grouped by series */
+    public synchronized String toCsv() {
+        StringBuilder csv = new StringBuilder("elapsedMs,series,value\n");
+        for (Map.Entry<String, PrometheusSeries> entry : new TreeMap<>(series).entrySet()) {
+            String quotedKey = "\"" + entry.getKey().replace("\"", "\"\"") + "\"";
+            PrometheusSeries samples = entry.getValue();
+            for (int i = 0; i < samples.size(); i++) {
+                csv.append(samples.timeAt(i))
+                        .append(',')
+                        .append(quotedKey)
+                        .append(',')
+                        .append(formatValue(samples.valueAt(i)))
+                        .append('\n');
+            }
+        }
+        return csv.toString();
+    }
+
+    /**
+     * Format a metric value without a fraction when it is a whole number.
+     *
+     * @param value The value
+     * @return e.g. {@code 1024}, {@code 0.25} or {@code NaN}
+     */
+    public static String formatValue(double value) {
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+
+    private double extremeTotal(
+            String name, Map<String, String> labelFilter, long fromMillis, long toMillis, boolean max) {
+        List<PrometheusSeries> gauges = series(name, labelFilter);
+        long[] times;
+        synchronized (this) {
+            times = Arrays.copyOf(scrapeMillis, scrapeCount);
+        }
+        double extreme = Double.NaN;
+        for (long time : times) {
+            if (time < fromMillis || time > toMillis) {
+                continue;
+            }
+            double total = Double.NaN;
+            for (PrometheusSeries gauge : gauges) {
+                double value = gauge.scrapedValue(time);
+                if (!Double.isNaN(value)) {
+                    total = Double.isNaN(total) ? value : total + value;
+                }
+            }
+            if (!Double.isNaN(total)) {
+                extreme = Double.isNaN(extreme) ? total : max ? Math.max(extreme, total) : Math.min(extreme, total);
+            }
+        }
+        return extreme;
+    }
+
+    private boolean isCumulative(String name, Map<String, String> labels) {
+        return switch (typeOf(name)) {
+            case COUNTER, HISTOGRAM -> true;
+            case SUMMARY -> !labels.containsKey("quantile");
+            default -> false;
+        };
+    }
+
+    private static double parseUpperBound(String upperBound) {
+        return switch (upperBound) {
+            case "+Inf", "Inf" -> Double.POSITIVE_INFINITY;
+            default -> Double.parseDouble(upperBound);
+        };
+    }
+}
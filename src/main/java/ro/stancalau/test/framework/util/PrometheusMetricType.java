@@ -0,0 +1,28 @@
+package ro.stancalau.test.framework.util;
+
+import java.util.Locale;
+
+/** The type of a metric family, as declared by a {@code # TYPE} line of the text exposition format */
+public enum PrometheusMetricType {
+    COUNTER,
+    GAUGE,
+    HISTOGRAM,
+    SUMMARY,
+    UNTYPED;
+
+    /**
+     * Parse the type of a {@code # TYPE} line. Types this framework does not know are untyped.
+     *
+     * @param type The type as written, e.g. {@code counter}
+     * @return The type
+     */
+    public static PrometheusMetricType parse(String type) {
+        return switch (type.toLowerCase(Locale.ROOT)) {
+            case "counter" -> COUNTER;
+            case "gauge" -> GAUGE;
+            case "histogram" -> HISTOGRAM;
+            case "summary" -> SUMMARY;
+            default -> UNTYPED;
+        };
+    }
+}
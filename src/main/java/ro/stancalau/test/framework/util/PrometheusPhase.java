@@ -0,0 +1,16 @@
+package ro.stancalau.test.framework.util;
+
+/**
+ * A named window of a scenario on a {@link PrometheusScraper}'s timeline, over which rates and deltas
+ * are computed.
+ *
+ * @param name The phase name, e.g. {@code load}
+ * @param fromMillis The scrape that started the phase
+ * @param toMillis The scrape that ended it, or the latest scrape while it is still running
+ */
+public record PrometheusPhase(String name, long fromMillis, long toMillis) {
+
+    public double seconds() {
+        return (toMillis - fromMillis) / 1000.0;
+    }
+}
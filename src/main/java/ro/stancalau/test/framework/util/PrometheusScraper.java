@@ -0,0 +1,293 @@
+package ro.stancalau.test.framework.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.annotation.Nullable;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Scrapes a Prometheus endpoint into a {@link PrometheusMetricStore}. A virtual thread scrapes at a fixed
+ * interval and each response body is parsed as it streams in, so a scrape never holds the whole
+ * exposition in memory.
+ *
+ * <p>A scenario is split into phases with {@link #markPhase}: each mark scrapes right away and starts a
+ * phase that lasts until the next mark, so phase boundaries fall on samples. The whole run is the
+ * phase {@link #WHOLE_RUN}, from the first scrape to the latest.
+ */
+@Slf4j
+public class PrometheusScraper implements AutoCloseable {
+
+    public static final String WHOLE_RUN = "all";
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(5);
+    private static final double[] REPORTED_QUANTILES = {0.5, 0.95, 0.99};
+
+    @Getter
+    private final String name;
+
+    @Getter
+    private final URI endpoint;
+
+    @Getter
+    private final PrometheusMetricStore store = new PrometheusMetricStore();
+
+    private final HttpClient httpClient;
+    private final long startNanos = System.nanoTime();
+    private final Map<String, Long> phaseStarts = new LinkedHashMap<>();
+
+    @Getter
+    private int failedScrapes;
+
+    @Nullable
+    private String lastFailure;
+
+    @Nullable
+    private Thread poller;
+
+    private volatile boolean stopped;
+
+    /**
+     * Create a scraper that only scrapes when asked to; use {@link #start} to scrape in the background.
+     *
+     * @param name The scraped service, for logging and file names
+     * @param endpoint The metrics URL, e.g. {@code http://localhost:32768/metrics}
+     */
+    public PrometheusScraper(String name, URI endpoint) {
+        this.name = name;
+        this.endpoint = endpoint;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(REQUEST_TIMEOUT).build();
+    }
+
+    /**
+     * Scrape an endpoint on a virtual thread until {@link #close()}.
+     *
+     * @param name The scraped service, for logging and file names
+     * @param endpoint The metrics URL
+     * @param interval The time between two scrapes
+     * @return The running scraper
+     */
+    public static PrometheusScraper start(String name, URI endpoint, Duration interval) {
+        PrometheusScraper scraper = new PrometheusScraper(name, endpoint);
+        scraper.poller = Thread.ofVirtual()
+                .name("prometheus-scraper-" + name)
+                .start(() -> scraper.scrapeUntilStopped(interval));
+        log.info("Scraping Prometheus metrics of {} from {} every {}ms", name, endpoint, interval.toMillis());
+        return scraper;
+    }
+
+    /** The time since the scraper was created, on the timeline of its samples */
+    public long elapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    /**
+     * Scrape the endpoint once.
+     *
+     * @return Whether the scrape was recorded
+     */
+    public synchronized boolean scrape() {
+        long elapsed = elapsedMillis();
+        HttpRequest request = HttpRequest.newBuilder(endpoint).timeout(REQUEST_TIMEOUT).GET().build();
+        try {
+            HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            try (Reader body = new InputStreamReader(response.body(), StandardCharsets.UTF_8)) {
+                if (response.statusCode() != 200) {
+                    return failed("HTTP " + response.statusCode());
+                }
+                store.beginScrape(elapsed);
+                PrometheusTextParser parser = PrometheusTextParser.parse(body, store);
+                if (parser.getMalformedLines() > 0) {
+                    log.debug("Skipped {} malformed metrics lines of {}", parser.getMalformedLines(), name);
+                }
+                return true;
+            }
+        } catch (IOException e) {
+            return failed(e.getClass().getSimpleName() + ": " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Start a phase, ending the previous one. The endpoint is scraped first so the phase starts on a
+     * sample.
+     *
+     * @param phaseName The phase name, unique within the scenario
+     */
+    public synchronized void markPhase(String phaseName) {
+        if (WHOLE_RUN.equals(phaseName) || phaseStarts.containsKey(phaseName)) {
+            throw new IllegalArgumentException("Phase " + phaseName + " was already started");
+        }
+        long start = scrape() ? store.lastScrapeMillis() : elapsedMillis();
+        phaseStarts.put(phaseName, start);
+        log.info("Metrics phase '{}' of {} started at {}ms", phaseName, name, start);
+    }
+
+    /**
+     * A phase of the scenario.
+     *
+     * @param phaseName A name passed to {@link #markPhase}, or {@link #WHOLE_RUN}
+     * @return The phase, or null if it was never started
+     */
+    @Nullable
+    public synchronized PrometheusPhase phase(String phaseName) {
+        return phases().stream()
+                .filter(phase -> phase.name().equals(phaseName))
+                .findFirst()
+                .orElse(null);
+    }
+
+    /** The whole run followed by the marked phases in the order they started */
+    public synchronized List<PrometheusPhase> phases() {
+        long end = Math.max(0, store.lastScrapeMillis());
+        List<PrometheusPhase> phases = new ArrayList<>();
+        phases.add(new PrometheusPhase(WHOLE_RUN, 0, end));
+        List<Map.Entry<String, Long>> starts = new ArrayList<>(phaseStarts.entrySet());
+        for (int i = 0; i < starts.size(); i++) {
+            long from = starts.get(i).getValue();
+            long to = i + 1 < starts.size() ? starts.get(i + 1).getValue() : Math.max(from, end);
+            phases.add(new PrometheusPhase(starts.get(i).getKey(), from, to));
+        }
+        return phases;
+    }
+
+    /**
+     * Summarize every metric per phase: the increase and rate of counters, the range of gauges and the
+     * observation count and quantiles of histograms.
+     *
+     * @return The report, one block per phase
+     */
+    public synchronized String report() {
+        StringBuilder report = new StringBuilder(String.format(
+                Locale.ROOT,
+                "Prometheus metrics of %s from %s: %d scrapes, %d failed%s\n",
+                name,
+                endpoint,
+                store.getScrapeCount(),
+                failedScrapes,
+                lastFailure != null ? " (last failure: " + lastFailure + ")" : ""));
+
+        Map<String, List<PrometheusSeries>> families = new TreeMap<>();
+        for (PrometheusSeries series : store.series()) {
+            families.computeIfAbsent(store.family(series.getName()), key -> new ArrayList<>()).add(series);
+        }
+        for (PrometheusPhase phase : phases()) {
+            report.append(String.format(
+                    Locale.ROOT,
+                    "\nPhase %s (%dms to %dms, %.1f s)\n",
+                    phase.name(),
+                    phase.fromMillis(),
+                    phase.toMillis(),
+                    phase.seconds()));
+            for (Map.Entry<String, List<PrometheusSeries>> family : families.entrySet()) {
+                appendFamily(report, family.getKey(), family.getValue(), phase);
+            }
+        }
+        return report.toString();
+    }
+
+    /**
+     * Write {@code <name>.metrics.csv} with every sample and {@code <name>.metrics.txt} with the {@link
+     * #report()}.
+     *
+     * @param directory The directory to write to
+     * @throws IOException If a file cannot be written
+     */
+    public void export(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Files.writeString(directory.resolve(name + ".metrics.csv"), store.toCsv());
+        Files.writeString(directory.resolve(name + ".metrics.txt"), report());
+    }
+
+    /** Stop scraping after a last scrape, which ends the last phase */
+    @Override
+    public void close() {
+        stopped = true;
+        if (poller != null) {
+            poller.interrupt();
+            try {
+                poller.join(REQUEST_TIMEOUT.plusSeconds(1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        scrape();
+    }
+
+    private void scrapeUntilStopped(Duration interval) {
+        while (!stopped) {
+            scrape();
+            try {
+                Thread.sleep(interval);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private boolean failed(String reason) {
+        failedScrapes++;
+        lastFailure = reason;
+        log.debug("Scraping Prometheus metrics of {} failed: {}", name, reason);
+        return false;
+    }
+
+    private void appendFamily(
+            StringBuilder report, String family, List<PrometheusSeries> members, PrometheusPhase phase) {
+        long from = phase.fromMillis();
+        long to = phase.toMillis();
+        PrometheusMetricType type = store.typeOf(family);
+        if (type == PrometheusMetricType.HISTOGRAM) {
+            double count = store.increase(family + "_count", Map.of(), from, to);
+            report.append(String.format(
+                    Locale.ROOT, "  %s histogram: %s observations", family, PrometheusMetricStore.formatValue(count)));
+            for (double quantile : REPORTED_QUANTILES) {
+                double estimate = store.histogramQuantile(family, Map.of(), quantile, from, to);
+                report.append(String.format(
+                        Locale.ROOT, ", p%.0f %s", quantile * 100, PrometheusMetricStore.formatValue(estimate)));
+            }
+            report.append('\n');
+            return;
+        }
+        for (PrometheusSeries series : members) {
+            boolean cumulative = type == PrometheusMetricType.COUNTER
+                    || (type == PrometheusMetricType.SUMMARY && !series.getLabels().containsKey("quantile"));
+            if (cumulative) {
+                double increase = series.increase(from, to);
+                report.append(String.format(
+                        Locale.ROOT,
+                        "  %s counter: +%s, %.3f/s\n",
+                        series.key(),
+                        PrometheusMetricStore.formatValue(increase),
+                        phase.seconds() > 0 ? increase / phase.seconds() : 0));
+            } else {
+                report.append(String.format(
+                        Locale.ROOT,
+                        "  %s %s: min %s, max %s, last %s\n",
+                        series.key(),
+                        type.name().toLowerCase(Locale.ROOT),
+                        PrometheusMetricStore.formatValue(series.min(from, to)),
+                        PrometheusMetricStore.formatValue(series.max(from, to)),
+                        PrometheusMetricStore.formatValue(series.valueAtTime(to))));
+            }
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package ro.stancalau.test.framework.util;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.stream.Collectors;
+import lombok.Getter;
+
+/**
+ * The scraped values of one Prometheus series, kept as primitive columns that grow as scrapes arrive.
+ * Windows are given as times on the scraper's timeline; a window starts at the last sample at or
+ * before its start, so consecutive windows share their boundary samples and their increases add up.
+ */
+public class PrometheusSeries {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    @Getter
+    private final String name;
+
+    @Getter
+    private final Map<String, String> labels;
+
+    private long[] elapsedMillis = new long[INITIAL_CAPACITY];
+    private double[] values = new double[INITIAL_CAPACITY];
+    private int size;
+
+    public PrometheusSeries(String name, Map<String, String> labels) {
+        this.name = name;
+        this.labels = labels;
+    }
+
+    /**
+     * The identity of a series, written as in the exposition format.
+     *
+     * @param name The sample name
+     * @param labels The labels sorted by name
+     * @return e.g. {@code livekit_packet_total{direction="incoming",type="video"}}
+     */
+    public static String key(String name, Map<String, String> labels) {
+        if (labels.isEmpty()) {
+            return name;
+        }
+        return labels.entrySet().stream()
+                .map(label -> label.getKey() + "=\"" + escape(label.getValue()) + "\"")
+                .collect(Collectors.joining(",", name + "{", "}"));
+    }
+
+    public String key() {
+        return key(name, labels);
+    }
+
+    /**
+     * Append a sample. Samples must be added in time order.
+     *
+     * @param elapsedMillis The scrape time
+     * @param value The scraped value
+     */
+    public synchronized void add(long elapsedMillis, double value) {
+        if (size == this.elapsedMillis.length) {
+            this.elapsedMillis = Arrays.copyOf(this.elapsedMillis, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        this.elapsedMillis[size] = elapsedMillis;
+        values[size] = value;
+        size++;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized long timeAt(int index) {
+        return elapsedMillis[checkIndex(index)];
+    }
+
+    public synchronized double valueAt(int index) {
+        return values[checkIndex(index)];
+    }
+
+    /**
+     * The value a gauge had at a point in time.
+     *
+     * @param elapsedMillis The time on the scraper's timeline
+     * @return The last value scraped at or before it, or NaN if there is none
+     */
+    public synchronized double valueAtTime(long elapsedMillis) {
+        int index = indexAtOrBefore(elapsedMillis);
+        return index < 0 ? Double.NaN : values[index];
+    }
+
+    /**
+     * The value scraped at exactly a point in time.
+     *
+     * @param elapsedMillis The scrape time
+     * @return The value, or NaN if the series was not part of that scrape
+     */
+    public synchronized double scrapedValue(long elapsedMillis) {
+        int index = indexAtOrBefore(elapsedMillis);
+        return index >= 0 && this.elapsedMillis[index] == elapsedMillis ? values[index] : Double.NaN;
+    }
+
+    /**
+     * How much a counter grew in a window. A value lower than the previous one is a counter reset, after
+     * which the counter counted up from zero.
+     *
+     * @param fromMillis The window start
+     * @param toMillis The window end
+     * @return The increase, zero if the window holds fewer than two samples
+     */
+    public synchronized double increase(long fromMillis, long toMillis) {
+        int first = Math.max(0, indexAtOrBefore(fromMillis));
+        int last = indexAtOrBefore(toMillis);
+        double increase = 0;
+        for (int i = first + 1; i <= last; i++) {
+            double delta = values[i] - values[i - 1];
+            increase += delta >= 0 ? delta : values[i];
+        }
+        return increase;
+    }
+
+    /**
+     * The largest value scraped in a window.
+     *
+     * @param fromMillis The window start
+     * @param toMillis The window end
+     * @return The maximum, or NaN if no sample falls in the window
+     */
+    public synchronized double max(long fromMillis, long toMillis) {
+        double max = Double.NaN;
+        for (int i = firstIndexAtOrAfter(fromMillis); i < size && elapsedMillis[i] <= toMillis; i++) {
+            max = Double.isNaN(max) ? values[i] : Math.max(max, values[i]);
+        }
+        return max;
+    }
+
+    /**
+     * The smallest value scraped in a window.
+     *
+     * @param fromMillis The window start
+     * @param toMillis The window end
+     * @return The minimum, or NaN if no sample falls in the window
+     */
+    public synchronized double min(long fromMillis, long toMillis) {
+        double min = Double.NaN;
+        for (int i = firstIndexAtOrAfter(fromMillis); i < size && elapsedMillis[i] <= toMillis; i++) {
+            min = Double.isNaN(min) ? values[i] : Math.min(min, values[i]);
+        }
+        return min;
+    }
+
+    private static String escape(String labelValue) {
+        return labelValue.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    /** Index of the last sample at or before a time, or -1 */
+    private int indexAtOrBefore(long time) {
+        int index = Arrays.binarySearch(elapsedMillis, 0, size, time);
+        if (index >= 0) {
+            while (index + 1 < size && elapsedMillis[index + 1] == time) {
+                index++;
+            }
+            return index;
+        }
+        return -index - 2;
+    }
+
+    private int firstIndexAtOrAfter(long time) {
+        int index = Arrays.binarySearch(elapsedMillis, 0, size, time);
+        if (index >= 0) {
+            while (index > 0 && elapsedMillis[index - 1] == time) {
+                index--;
+            }
+            return index;
+        }
+        return -index - 1;
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Sample " + index + " of " + size);
+        }
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        return key() + " (" + size() + " samples)";
+    }
+}
@@ -0,0 +1,255 @@
+package ro.stancalau.test.framework.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Parses the Prometheus text exposition format as it arrives. Chunks passed to {@link #feed} may end
+ * anywhere, including inside a line; only complete lines are parsed and the rest is kept for the next
+ * chunk. Lines are scanned once with a cursor instead of being matched against patterns.
+ *
+ * <p>Samples are reported with their labels sorted by name, so the same series always has the same
+ * labels whatever order the server writes them in. Timestamps on sample lines are ignored, the caller
+ * knows when it scraped. Malformed lines are counted and skipped.
+ *
+ * <p>Instances are not thread-safe.
+ */
+@Slf4j
+public class PrometheusTextParser {
+
+    private static final int READ_BUFFER_CHARS = 8192;
+
+    private final Listener listener;
+    private final StringBuilder line = new StringBuilder(256);
+    private final StringBuilder labelValue = new StringBuilder(64);
+
+    @Getter
+    private long samples;
+
+    @Getter
+    private long malformedLines;
+
+    public PrometheusTextParser(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Parse a complete exposition.
+     *
+     * @param reader The exposition, e.g. the body of a {@code /metrics} response
+     * @param listener Receives the types and samples
+     * @return The parser, for its counts
+     * @throws IOException If the exposition cannot be read
+     */
+    public static PrometheusTextParser parse(Reader reader, Listener listener) throws IOException {
+        PrometheusTextParser parser = new PrometheusTextParser(listener);
+        char[] buffer = new char[READ_BUFFER_CHARS];
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            parser.feed(buffer, 0, read);
+        }
+        parser.finish();
+        return parser;
+    }
+
+    /**
+     * Parse the complete lines of a chunk, keeping a trailing partial line for the next chunk.
+     *
+     * @param chars The chunk
+     * @param offset The first character to parse
+     * @param length The number of characters to parse
+     */
+    public void feed(char[] chars, int offset, int length) {
+        int lineStart = offset;
+        int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            if (chars[i] == '\n') {
+                line.append(chars, lineStart, i - lineStart);
+                parseLine();
+                line.setLength(0);
+                lineStart = i + 1;
+            }
+        }
+        line.append(chars, lineStart, end - lineStart);
+    }
+
+    /** Parse the last line if the exposition did not end with a line break */
+    public void finish() {
+        if (!line.isEmpty()) {
+            parseLine();
+            line.setLength(0);
+        }
+    }
+
+    private void parseLine() {
+        int end = line.length();
+        if (end > 0 && line.charAt(end - 1) == '\r') {
+            end--;
+        }
+        int pos = skipBlanks(0, end);
+        if (pos == end) {
+            return;
+        }
+        try {
+            if (line.charAt(pos) == '#') {
+                parseComment(pos + 1, end);
+            } else {
+                parseSample(pos, end);
+            }
+        } catch (IllegalArgumentException e) {
+            malformedLines++;
+            log.debug("Skipping malformed metrics line '{}': {}", line, e.getMessage());
+        }
+    }
+
+    private void parseComment(int pos, int end) {
+        pos = skipBlanks(pos, end);
+        int keywordEnd = tokenEnd(pos, end);
+        if (keywordEnd - pos != 4 || !"TYPE".contentEquals(line.subSequence(pos, keywordEnd))) {
+            return;
+        }
+        pos = skipBlanks(keywordEnd, end);
+        int nameEnd = tokenEnd(pos, end);
+        if (nameEnd == pos) {
+            throw new IllegalArgumentException("TYPE without a metric name");
+        }
+        String family = line.substring(pos, nameEnd);
+        pos = skipBlanks(nameEnd, end);
+        listener.type(family, PrometheusMetricType.parse(line.substring(pos, tokenEnd(pos, end))));
+    }
+
+    private void parseSample(int pos, int end) {
+        int nameEnd = pos;
+        while (nameEnd < end && isNameChar(line.charAt(nameEnd), nameEnd == pos)) {
+            nameEnd++;
+        }
+        if (nameEnd == pos) {
+            throw new IllegalArgumentException("no metric name");
+        }
+        String name = line.substring(pos, nameEnd);
+        pos = skipBlanks(nameEnd, end);
+
+        Map<String, String> labels = Map.of();
+        if (pos < end && line.charAt(pos) == '{') {
+            Map<String, String> parsed = new TreeMap<>();
+            pos = skipBlanks(parseLabels(pos + 1, end, parsed), end);
+            labels = Collections.unmodifiableMap(parsed);
+        }
+
+        int valueEnd = tokenEnd(pos, end);
+        if (valueEnd == pos) {
+            throw new IllegalArgumentException("no value for " + name);
+        }
+        double value = parseValue(line.substring(pos, valueEnd));
+        samples++;
+        listener.sample(name, labels, value);
+    }
+
+    /** Parse label pairs up to and including the closing brace, returning the position after it */
+    private int parseLabels(int pos, int end, Map<String, String> labels) {
+        while (true) {
+            pos = skipBlanks(pos, end);
+            if (pos < end && line.charAt(pos) == '}') {
+                return pos + 1;
+            }
+            int nameEnd = pos;
+            while (nameEnd < end && isNameChar(line.charAt(nameEnd), nameEnd == pos)) {
+                nameEnd++;
+            }
+            if (nameEnd == pos) {
+                throw new IllegalArgumentException("no label name at column " + pos);
+            }
+            String labelName = line.substring(pos, nameEnd);
+            pos = expect(skipBlanks(nameEnd, end), end, '=');
+            pos = expect(skipBlanks(pos, end), end, '"');
+
+            labelValue.setLength(0);
+            while (true) {
+                if (pos >= end) {
+                    throw new IllegalArgumentException("unterminated value of label " + labelName);
+                }
+                char c = line.charAt(pos++);
+                if (c == '"') {
+                    break;
+                }
+                if (c == '\\' && pos < end) {
+                    char escaped = line.charAt(pos++);
+                    labelValue.append(escaped == 'n' ? '\n' : escaped);
+                } else {
+                    labelValue.append(c);
+                }
+            }
+            labels.put(labelName, labelValue.toString());
+
+            pos = skipBlanks(pos, end);
+            if (pos < end && line.charAt(pos) == ',') {
+                pos++;
+            } else if (pos >= end || line.charAt(pos) != '}') {
+                throw new IllegalArgumentException("expected ',' or '}' after label " + labelName);
+            }
+        }
+    }
+
+    private int expect(int pos, int end, char expected) {
+        if (pos >= end || line.charAt(pos) != expected) {
+            throw new IllegalArgumentException("expected '" + expected + "' at column " + pos);
+        }
+        return pos + 1;
+    }
+
+    private int skipBlanks(int pos, int end) {
+        while (pos < end && (line.charAt(pos) == ' ' || line.charAt(pos) == '\t')) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private int tokenEnd(int pos, int end) {
+        while (pos < end && line.charAt(pos) != ' ' && line.charAt(pos) != '\t') {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static boolean isNameChar(char c, boolean first) {
+        return (c >= 'a' && c <= 'z')
+                || (c >= 'A' && c <= 'Z')
+                || c == '_'
+                || c == ':'
+                || (!first && c >= '0' && c <= '9');
+    }
+
+    private static double parseValue(String value) {
+        return switch (value) {
+            case "NaN" -> Double.NaN;
+            case "+Inf", "Inf" -> Double.POSITIVE_INFINITY;
+            case "-Inf" -> Double.NEGATIVE_INFINITY;
+            default -> Double.parseDouble(value);
+        };
+    }
+
+    /** Receives what the parser finds, in the order it appears */
+    public interface Listener {
+        /**
+         * A {@code # TYPE} line.
+         *
+         * @param family The metric family, e.g. {@code livekit_packet_total}
+         * @param type The declared type
+         */
+        void type(String family, PrometheusMetricType type);
+
+        /**
+         * A sample line.
+         *
+         * @param name The sample name, e.g. a histogram family with its {@code _bucket} suffix
+         * @param labels The labels sorted by name, empty if there are none
+         * @param value The value
+         */
+        void sample(String name, Map<String, String> labels, double value);
+    }
+}
@@ -0,0 +1,283 @@
+package ro.stancalau.test.framework.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Watches a recording grow while egress writes it. A virtual thread samples the size at a fixed
+ * interval and, for local files, also right after the file system reports a change in the recording's
+ * directory. Each sample is appended to a CSV time series, so only the running totals are kept in
+ * memory.
+ *
+ * <p>The recording stalls when it has not grown for the stall threshold after its first bytes; waiting
+ * for the first bytes is reported separately, since egress needs a while to start its pipeline.
+ */
+@Slf4j
+public class RecordingGrowthMonitor implements AutoCloseable {
+
+    public static final Duration DEFAULT_SAMPLE_INTERVAL = Duration.ofMillis(500);
+
+    static final String TIME_SERIES_HEADER = "elapsedMs,bytes,bitrateKbps";
+
+    /** File system events closer together than this are served by one sample */
+    private static final Duration MIN_SAMPLE_SPACING = Duration.ofMillis(100);
+
+    @Getter
+    private final String name;
+    private final Duration stallThreshold;
+
+    @Nullable
+    private final Writer timeSeries;
+
+    private long sampleCount;
+    private Duration lastElapsed = Duration.ZERO;
+    private long lastBytes;
+
+    @Nullable
+    private Duration firstGrowthAt;
+
+    private long firstGrowthBytes;
+    private Duration lastGrowthAt = Duration.ZERO;
+    private double peakBitrateKbps;
+    private int stallCount;
+    private boolean stallCounted;
+    private Duration longestStall = Duration.ZERO;
+
+    @Nullable
+    private Thread sampler;
+
+    private volatile boolean stopped;
+
+    /**
+     * Create a monitor fed by {@link #record}; use {@link #start} to sample a recording in the background.
+     *
+     * @param name The recording name, for logging
+     * @param stallThreshold How long the recording may not grow before it counts as a stall
+     * @param timeSeries Receives one CSV row per sample, or null
+     */
+    public RecordingGrowthMonitor(String name, Duration stallThreshold, @Nullable Writer timeSeries)
+            throws IOException {
+        this.name = name;
+        this.stallThreshold = stallThreshold;
+        this.timeSeries = timeSeries;
+        if (timeSeries != null) {
+            timeSeries.write(TIME_SERIES_HEADER + "\n");
+        }
+    }
+
+    /**
+     * Start sampling a recording on a virtual thread until {@link #close()}.
+     *
+     * @param name The recording name, for logging
+     * @param probe Reads the current size of the recording
+     * @param watchDirectory A local directory whose changes trigger extra samples, or null
+     * @param sampleInterval The time between regular samples
+     * @param stallThreshold How long the recording may not grow before it counts as a stall
+     * @param timeSeriesFile The CSV file to write the samples to, or null
+     * @return The running monitor
+     * @throws IOException If the time series file cannot be created
+     */
+    public static RecordingGrowthMonitor start(
+            String name,
+            SizeProbe probe,
+            @Nullable Path watchDirectory,
+            Duration sampleInterval,
+            Duration stallThreshold,
+            @Nullable Path timeSeriesFile)
+            throws IOException {
+        Writer timeSeries = null;
+        if (timeSeriesFile != null) {
+            Files.createDirectories(timeSeriesFile.toAbsolutePath().getParent());
+            timeSeries = Files.newBufferedWriter(timeSeriesFile);
+        }
+        RecordingGrowthMonitor monitor = new RecordingGrowthMonitor(name, stallThreshold, timeSeries);
+        monitor.sampler = Thread.ofVirtual()
+                .name("recording-growth-" + name)
+                .start(() -> monitor.sampleUntilStopped(probe, watchDirectory, sampleInterval));
+        return monitor;
+    }
+
+    /**
+     * A probe reading a local file, zero while it does not exist.
+     *
+     * @param file The recording
+     * @return The probe
+     */
+    public static SizeProbe localFile(Path file) {
+        return () -> {
+            try {
+                return Files.size(file);
+            } catch (NoSuchFileException e) {
+                return 0;
+            }
+        };
+    }
+
+    /**
+     * Record one size sample.
+     *
+     * @param elapsed The time since monitoring started
+     * @param bytes The size of the recording
+     */
+    public synchronized void record(Duration elapsed, long bytes) {
+        Duration interval = elapsed.minus(lastElapsed);
+        double bitrateKbps = 0;
+        if (bytes > lastBytes) {
+            if (!interval.isZero() && sampleCount > 0) {
+                bitrateKbps = (bytes - lastBytes) * 8.0 / interval.toNanos() * 1_000_000;
+                peakBitrateKbps = Math.max(peakBitrateKbps, bitrateKbps);
+            }
+            if (firstGrowthAt == null) {
+                firstGrowthAt = elapsed;
+                firstGrowthBytes = bytes;
+                log.info("Recording {} got its first bytes after {}ms", name, elapsed.toMillis());
+            }
+            lastGrowthAt = elapsed;
+            stallCounted = false;
+        } else if (bytes < lastBytes) {
+            log.warn("Recording {} shrank from {} to {} bytes", name, lastBytes, bytes);
+            firstGrowthBytes = Math.min(firstGrowthBytes, bytes);
+            lastGrowthAt = elapsed;
+            stallCounted = false;
+        } else if (firstGrowthAt != null) {
+            Duration stall = elapsed.minus(lastGrowthAt);
+            if (stall.compareTo(longestStall) > 0) {
+                longestStall = stall;
+            }
+            if (!stallCounted && stall.compareTo(stallThreshold) >= 0) {
+                stallCounted = true;
+                stallCount++;
+                log.warn("Recording {} has not grown for {}ms at {} bytes", name, stall.toMillis(), bytes);
+            }
+        }
+
+        sampleCount++;
+        lastElapsed = elapsed;
+        lastBytes = bytes;
+        writeSample(elapsed, bytes, bitrateKbps);
+    }
+
+    /** Summarize the samples recorded so far */
+    public synchronized RecordingGrowthReport report() {
+        double meanBitrateKbps = 0;
+        if (firstGrowthAt != null && lastElapsed.compareTo(firstGrowthAt) > 0) {
+            long grownBytes = lastBytes - firstGrowthBytes;
+            meanBitrateKbps = grownBytes * 8.0 / lastElapsed.minus(firstGrowthAt).toNanos() * 1_000_000;
+        }
+        return new RecordingGrowthReport(
+                sampleCount,
+                lastElapsed,
+                lastBytes,
+                firstGrowthAt,
+                meanBitrateKbps,
+                peakBitrateKbps,
+                stallCount,
+                longestStall);
+    }
+
+    /** Stop sampling after a last sample and close the time series */
+    @Override
+    public void close() throws IOException {
+        stopped = true;
+        if (sampler != null) {
+            sampler.interrupt();
+            try {
+                sampler.join(Duration.ofSeconds(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (this) {
+            if (timeSeries != null) {
+                timeSeries.close();
+            }
+        }
+    }
+
+    private void sampleUntilStopped(SizeProbe probe, @Nullable Path watchDirectory, Duration sampleInterval) {
+        long startNanos = System.nanoTime();
+        WatchService watchService = null;
+        try {
+            if (watchDirectory != null && Files.isDirectory(watchDirectory)) {
+                watchService = FileSystems.getDefault().newWatchService();
+                watchDirectory.register(
+                        watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            }
+            while (!stopped) {
+                record(Duration.ofNanos(System.nanoTime() - startNanos), probe.size());
+                awaitNextSample(watchService, sampleInterval);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Stopped monitoring recording {}: {}", name, e.getMessage());
+        } finally {
+            sampleFinalSize(probe, startNanos);
+            closeQuietly(watchService);
+        }
+    }
+
+    private void awaitNextSample(@Nullable WatchService watchService, Duration sampleInterval)
+            throws InterruptedException {
+        if (watchService == null) {
+            TimeUnit.NANOSECONDS.sleep(sampleInterval.toNanos());
+            return;
+        }
+        WatchKey key = watchService.poll(sampleInterval.toNanos(), TimeUnit.NANOSECONDS);
+        if (key != null) {
+            key.pollEvents();
+            key.reset();
+            TimeUnit.NANOSECONDS.sleep(MIN_SAMPLE_SPACING.toNanos());
+        }
+    }
+
+    private void sampleFinalSize(SizeProbe probe, long startNanos) {
+        try {
+            record(Duration.ofNanos(System.nanoTime() - startNanos), probe.size());
+        } catch (IOException | RuntimeException e) {
+            log.debug("Could not take the final sample of recording {}: {}", name, e.getMessage());
+        }
+    }
+
+    private void writeSample(Duration elapsed, long bytes, double bitrateKbps) {
+        if (timeSeries == null) {
+            return;
+        }
+        try {
+            timeSeries.write(String.format(Locale.ROOT, "%d,%d,%.1f%n", elapsed.toMillis(), bytes, bitrateKbps));
+            timeSeries.flush();
+        } catch (IOException e) {
+            log.debug("Could not write growth sample of recording {}: {}", name, e.getMessage());
+        }
+    }
+
+    private static void closeQuietly(@Nullable WatchService watchService) {
+        if (watchService == null) {
+            return;
+        }
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            log.debug("Could not close watch service: {}", e.getMessage());
+        }
+    }
+
+    /** Reads the current size of a recording that is being written */
+    @FunctionalInterface
+    public interface SizeProbe {
+        long size() throws IOException;
+    }
+}
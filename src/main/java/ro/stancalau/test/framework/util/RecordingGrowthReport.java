@@ -0,0 +1,66 @@
+package ro.stancalau.test.framework.util;
+
+import java.time.Duration;
+import java.util.Locale;
+import javax.annotation.Nullable;
+
+/**
+ * How a recording grew while egress wrote it, measured by {@link RecordingGrowthMonitor}.
+ *
+ * @param sampleCount The number of size samples
+ * @param duration How long the recording was monitored
+ * @param finalBytes The size at the last sample
+ * @param firstGrowthAfter How long after the start of monitoring the first bytes appeared, or null if none did
+ * @param meanBitrateKbps The mean write bitrate from the first growth to the last sample
+ * @param peakBitrateKbps The highest write bitrate between two samples
+ * @param stallCount The number of times the recording stopped growing for at least the stall threshold
+ * @param longestStall The longest time the recording did not grow after its first bytes
+ */
+public record RecordingGrowthReport(
+        long sampleCount,
+        Duration duration,
+        long finalBytes,
+        @Nullable Duration firstGrowthAfter,
+        double meanBitrateKbps,
+        double peakBitrateKbps,
+        int stallCount,
+        Duration longestStall) {
+
+    /** One line per metric, as written next to the monitored recording */
+    public String toSummary() {
+        return String.format(
+                Locale.ROOT,
+                """
+                samples=%d
+                durationMs=%d
+                finalBytes=%d
+                firstGrowthAfterMs=%d
+                meanBitrateKbps=%.1f
+                peakBitrateKbps=%.1f
+                stallCount=%d
+                longestStallMs=%d
+                """,
+                sampleCount,
+                duration.toMillis(),
+                finalBytes,
+                firstGrowthAfter != null ? firstGrowthAfter.toMillis() : -1,
+                meanBitrateKbps,
+                peakBitrateKbps,
+                stallCount,
+                longestStall.toMillis());
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                Locale.ROOT,
+                "%d bytes in %dms (first bytes after %s), %.0f kbps mean, %.0f kbps peak, %d stalls (longest %dms)",
+                finalBytes,
+                duration.toMillis(),
+                firstGrowthAfter != null ? firstGrowthAfter.toMillis() + "ms" : "never",
+                meanBitrateKbps,
+                peakBitrateKbps,
+                stallCount,
+                longestStall.toMillis());
+    }
+}
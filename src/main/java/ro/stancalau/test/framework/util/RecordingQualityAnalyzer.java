@@ -0,0 +1,175 @@
+package ro.stancalau.test.framework.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+
+/**
+ * Measures black frames, freezes and effective frame rate of a recording from its raw 8-bit grayscale
+ * frames, e.g. the {@code -f rawvideo -pix_fmt gray} output of {@code FFmpegContainer}. Frames are
+ * analyzed as they arrive and only the previous frame is kept, so memory stays bounded by two frames
+ * however long the recording is.
+ *
+ * <p>A frame is frozen when almost none of its pixels differ from the previous frame by more than
+ * encoder noise. Counting pixels instead of averaging differences keeps small moving details, like a
+ * frame counter on a static background, from being mistaken for a freeze.
+ *
+ * <p>Instances are not thread-safe.
+ */
+public class RecordingQualityAnalyzer {
+
+    /** Luma differences up to this value are treated as compression noise */
+    public static final int PIXEL_NOISE_THRESHOLD = 10;
+
+    /** A frame with at most this fraction of changed pixels repeats the frame before it */
+    public static final double FROZEN_MAX_CHANGED_FRACTION = 0.001;
+
+    /** Runs of repeated frames shorter than this are counted as frozen frames but not as freezes */
+    public static final int MIN_FREEZE_FRAMES = 15;
+
+    private final int width;
+    private final int height;
+    private final int frozenMaxChangedPixels;
+
+    private byte[] previous;
+    private byte[] current;
+    private boolean hasPrevious;
+
+    private long frameCount;
+    private long blackFrames;
+    private long frozenFrames;
+    private int freezeCount;
+    private long currentFreezeFrames;
+    private long longestFreezeFrames;
+
+    public RecordingQualityAnalyzer(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Invalid frame size " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        this.frozenMaxChangedPixels = (int) (width * height * FROZEN_MAX_CHANGED_FRACTION);
+        this.previous = new byte[width * height];
+        this.current = new byte[width * height];
+    }
+
+    /**
+     * Read and analyze every frame of a raw grayscale stream until it ends. A trailing partial frame,
+     * left when the decoder is stopped mid-frame, is ignored.
+     *
+     * @param input The raw frames, each {@code width * height} bytes
+     * @param width The frame width
+     * @param height The frame height
+     * @param duration The duration of the recording, used to turn frame counts into rates
+     * @return The quality report
+     * @throws IOException If the stream cannot be read
+     */
+    public static RecordingQualityReport analyze(InputStream input, int width, int height, Duration duration)
+            throws IOException {
+        RecordingQualityAnalyzer analyzer = new RecordingQualityAnalyzer(width, height);
+        while (analyzer.readFrame(input)) {
+            // Each frame is analyzed as it is read
+        }
+        return analyzer.report(duration);
+    }
+
+    /**
+     * Read the next frame from a raw grayscale stream and analyze it.
+     *
+     * @param input The raw frames
+     * @return True if a whole frame was read, false at the end of the stream
+     * @throws IOException If the stream cannot be read
+     */
+    public boolean readFrame(InputStream input) throws IOException {
+        if (input.readNBytes(current, 0, current.length) < current.length) {
+            return false;
+        }
+        analyzeCurrent();
+        return true;
+    }
+
+    /**
+     * Analyze one frame. The frame is copied, so the caller may reuse the array.
+     *
+     * @param frame The luma plane, row by row without padding
+     */
+    public void accept(byte[] frame) {
+        if (frame.length != current.length) {
+            throw new IllegalArgumentException("Expected a " + width + "x" + height + " frame of " + current.length
+                    + " bytes, got " + frame.length);
+        }
+        System.arraycopy(frame, 0, current, 0, current.length);
+        analyzeCurrent();
+    }
+
+    /**
+     * Summarize the frames analyzed so far.
+     *
+     * @param duration The duration of the recording; frame rates are zero when it is unknown
+     * @return The quality report
+     */
+    public RecordingQualityReport report(Duration duration) {
+        double seconds = duration.toNanos() / 1e9;
+        long changedFrames = frameCount - frozenFrames;
+        long longestRun = Math.max(longestFreezeFrames, currentFreezeFrames);
+        Duration longestFreeze =
+                frameCount == 0 ? Duration.ZERO : duration.multipliedBy(longestRun).dividedBy(frameCount);
+
+        return new RecordingQualityReport(
+                width,
+                height,
+                frameCount,
+                duration,
+                seconds > 0 ? frameCount / seconds : 0,
+                seconds > 0 ? changedFrames / seconds : 0,
+                ratio(blackFrames),
+                ratio(frozenFrames),
+                freezeCount + (currentFreezeFrames >= MIN_FREEZE_FRAMES ? 1 : 0),
+                longestFreeze);
+    }
+
+    private void analyzeCurrent() {
+        long sum = 0;
+        long sumOfSquares = 0;
+        int changedPixels = 0;
+        for (int i = 0; i < current.length; i++) {
+            int value = current[i] & 0xFF;
+            sum += value;
+            sumOfSquares += value * value;
+            if (hasPrevious && Math.abs(value - (previous[i] & 0xFF)) > PIXEL_NOISE_THRESHOLD) {
+                changedPixels++;
+            }
+        }
+
+        double mean = (double) sum / current.length;
+        double stdDev = Math.sqrt(Math.max(0, (double) sumOfSquares / current.length - mean * mean));
+        if (mean <= ImageContentStats.BLACK_MAX_MEAN_LUMA && stdDev <= ImageContentStats.BLACK_MAX_STD_DEV) {
+            blackFrames++;
+        }
+
+        if (hasPrevious && changedPixels <= frozenMaxChangedPixels) {
+            frozenFrames++;
+            currentFreezeFrames++;
+        } else {
+            endFreeze();
+        }
+
+        frameCount++;
+        hasPrevious = true;
+        byte[] swap = previous;
+        previous = current;
+        current = swap;
+    }
+
+    private void endFreeze() {
+        if (currentFreezeFrames >= MIN_FREEZE_FRAMES) {
+            freezeCount++;
+        }
+        longestFreezeFrames = Math.max(longestFreezeFrames, currentFreezeFrames);
+        currentFreezeFrames = 0;
+    }
+
+    private double ratio(long frames) {
+        return frameCount == 0 ? 0 : (double) frames / frameCount;
+    }
+}
@@ -0,0 +1,76 @@
+package ro.stancalau.test.framework.util;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Per-recording video quality measured by {@link RecordingQualityAnalyzer} on a decoded, downscaled
+ * grayscale frame stream.
+ *
+ * @param width The width of the analyzed frames
+ * @param height The height of the analyzed frames
+ * @param frameCount The number of decoded frames
+ * @param duration The duration of the recording
+ * @param decodedFps The decoded frames per second of recording
+ * @param effectiveFps The frames per second that differ visibly from the frame before them
+ * @param blackFrameRatio The fraction of frames that are black
+ * @param frozenFrameRatio The fraction of frames that repeat the frame before them
+ * @param freezeCount The number of freezes of at least {@link RecordingQualityAnalyzer#MIN_FREEZE_FRAMES}
+ *     frames
+ * @param longestFreeze The duration of the longest run of repeated frames
+ */
+public record RecordingQualityReport(
+        int width,
+        int height,
+        long frameCount,
+        Duration duration,
+        double decodedFps,
+        double effectiveFps,
+        double blackFrameRatio,
+        double frozenFrameRatio,
+        int freezeCount,
+        Duration longestFreeze) {
+
+    /** One line per metric, as written next to the analyzed recording */
+    public String toSummary() {
+        return String.format(
+                Locale.ROOT,
+                """
+                frames=%d
+                resolution=%dx%d
+                durationMs=%d
+                decodedFps=%.2f
+                effectiveFps=%.2f
+                blackFrameRatio=%.4f
+                frozenFrameRatio=%.4f
+                freezeCount=%d
+                longestFreezeMs=%d
+                """,
+                frameCount,
+                width,
+                height,
+                duration.toMillis(),
+                decodedFps,
+                effectiveFps,
+                blackFrameRatio,
+                frozenFrameRatio,
+                freezeCount,
+                longestFreeze.toMillis());
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                Locale.ROOT,
+                "%d frames in %dms, %.1f fps decoded, %.1f fps effective, %.1f%% black, %.1f%% frozen,"
+                        + " %d freezes (longest %dms)",
+                frameCount,
+                duration.toMillis(),
+                decodedFps,
+                effectiveFps,
+                blackFrameRatio * 100,
+                frozenFrameRatio * 100,
+                freezeCount,
+                longestFreeze.toMillis());
+    }
+}
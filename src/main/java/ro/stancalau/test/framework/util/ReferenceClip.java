@@ -0,0 +1,164 @@
+package ro.stancalau.test.framework.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * A generated Y4M clip for full-reference quality checks. Every frame carries its index as a barcode
+ * along the top edge, so decoded frames can be matched to their source frame after the browser has
+ * looped the clip and egress has re-timed, scaled and re-encoded it. Below the barcode is a moving
+ * pattern with both smooth gradients and fine detail, which compression degrades measurably.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ReferenceClip {
+
+    public static final int WIDTH = 640;
+    public static final int HEIGHT = 360;
+    public static final int FRAME_RATE = 30;
+    public static final int FRAME_COUNT = 60;
+
+    /** Height of the barcode band at the top of each frame */
+    public static final int BARCODE_HEIGHT = 24;
+
+    private static final int BARCODE_CELLS = 16;
+    private static final int BARCODE_BITS = BARCODE_CELLS - 2;
+    private static final int LUMA_BLACK = 16;
+    private static final int LUMA_WHITE = 235;
+    private static final int CHROMA_NEUTRAL = 128;
+
+    /** Markers closer than this in luma are treated as an unreadable barcode, e.g. a black frame */
+    private static final int MIN_MARKER_CONTRAST = 64;
+
+    /**
+     * Write the clip for use as a browser's fake camera.
+     *
+     * @param file The Y4M file to create
+     * @throws IOException If the file cannot be written
+     */
+    public static void write(Path file) throws IOException {
+        byte[] luma = new byte[WIDTH * HEIGHT];
+        byte[] cb = new byte[WIDTH * HEIGHT / 4];
+        byte[] cr = new byte[WIDTH * HEIGHT / 4];
+        try (OutputStream output = Files.newOutputStream(file);
+                Y4mWriter writer = new Y4mWriter(output, WIDTH, HEIGHT, FRAME_RATE, 1)) {
+            for (int frame = 0; frame < FRAME_COUNT; frame++) {
+                renderFrame(frame, luma, cb, cr);
+                writer.writeFrame(luma, cb, cr);
+            }
+        }
+    }
+
+    /**
+     * Read the luma planes of a written clip, the source frames decoded copies are compared to.
+     *
+     * @param file The Y4M clip
+     * @return The luma plane of each frame, in frame order
+     * @throws IOException If the file cannot be read or is not a clip of this size
+     */
+    public static List<byte[]> readLuma(Path file) throws IOException {
+        List<byte[]> frames = new ArrayList<>(FRAME_COUNT);
+        try (InputStream input = Files.newInputStream(file);
+                Y4mReader reader = new Y4mReader(input)) {
+            if (reader.getWidth() != WIDTH || reader.getHeight() != HEIGHT) {
+                throw new IOException("Reference clip is " + reader.getWidth() + "x" + reader.getHeight()
+                        + ", expected " + WIDTH + "x" + HEIGHT);
+            }
+            byte[] luma = new byte[WIDTH * HEIGHT];
+            while (reader.readFrame(luma)) {
+                frames.add(luma.clone());
+            }
+        }
+        return frames;
+    }
+
+    /**
+     * Draw one frame of the clip.
+     *
+     * @param frame The frame index
+     * @param luma The Y plane to fill
+     * @param cb The U plane to fill
+     * @param cr The V plane to fill
+     */
+    public static void renderFrame(int frame, byte[] luma, byte[] cb, byte[] cr) {
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                luma[y * WIDTH + x] = (byte) (y < BARCODE_HEIGHT ? barcodeLuma(frame, x) : patternLuma(frame, x, y));
+            }
+        }
+        for (int y = 0; y < HEIGHT / 2; y++) {
+            for (int x = 0; x < WIDTH / 2; x++) {
+                boolean barcode = y * 2 < BARCODE_HEIGHT;
+                cb[y * (WIDTH / 2) + x] = (byte) (barcode ? CHROMA_NEUTRAL : 64 + (x + frame * 2) % 128);
+                cr[y * (WIDTH / 2) + x] = (byte) (barcode ? CHROMA_NEUTRAL : 64 + (y * 2 + frame) % 128);
+            }
+        }
+    }
+
+    /**
+     * Read the frame index from the barcode of a decoded luma plane of the clip's size.
+     *
+     * @param luma The decoded Y plane
+     * @return The frame index, or -1 if the barcode cannot be read
+     */
+    public static int readFrameIndex(byte[] luma) {
+        int white = cellLuma(luma, 0);
+        int black = cellLuma(luma, BARCODE_CELLS - 1);
+        if (white - black < MIN_MARKER_CONTRAST) {
+            return -1;
+        }
+        int threshold = (white + black) / 2;
+        int index = 0;
+        for (int bit = 0; bit < BARCODE_BITS; bit++) {
+            if (cellLuma(luma, bit + 1) > threshold) {
+                index |= 1 << bit;
+            }
+        }
+        return index < FRAME_COUNT ? index : -1;
+    }
+
+    private static int barcodeLuma(int frame, int x) {
+        int cell = x * BARCODE_CELLS / WIDTH;
+        if (cell == 0) {
+            return LUMA_WHITE;
+        }
+        if (cell == BARCODE_CELLS - 1) {
+            return LUMA_BLACK;
+        }
+        return (frame >> (cell - 1) & 1) == 1 ? LUMA_WHITE : LUMA_BLACK;
+    }
+
+    private static int patternLuma(int frame, int x, int y) {
+        // Smooth moving waves, with a fine checkerboard in a square that travels across the frame
+        double wave = Math.sin((x + frame * 4) / 23.0) * Math.cos((y - frame * 3) / 17.0);
+        int value = 126 + (int) (80 * wave);
+        int squareX = (frame * 8) % (WIDTH - 96);
+        int squareY = BARCODE_HEIGHT + 40 + (frame * 3) % (HEIGHT - BARCODE_HEIGHT - 136);
+        if (x >= squareX && x < squareX + 96 && y >= squareY && y < squareY + 96) {
+            value = ((x / 4 + y / 4) & 1) == 0 ? 200 : 50;
+        }
+        return Math.clamp(value, LUMA_BLACK, LUMA_WHITE);
+    }
+
+    /** Mean luma of the centre of one barcode cell, away from edges blurred by scaling */
+    private static int cellLuma(byte[] luma, int cell) {
+        int cellWidth = WIDTH / BARCODE_CELLS;
+        int left = cell * cellWidth + cellWidth / 4;
+        int right = (cell + 1) * cellWidth - cellWidth / 4;
+        int top = BARCODE_HEIGHT / 4;
+        int bottom = BARCODE_HEIGHT - BARCODE_HEIGHT / 4;
+        int sum = 0;
+        for (int y = top; y < bottom; y++) {
+            for (int x = left; x < right; x++) {
+                sum += luma[y * WIDTH + x] & 0xFF;
+            }
+        }
+        return sum / ((right - left) * (bottom - top));
+    }
+}
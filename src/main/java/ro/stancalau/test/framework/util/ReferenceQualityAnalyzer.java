@@ -0,0 +1,108 @@
+package ro.stancalau.test.framework.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * Compares decoded frames of a {@link ReferenceClip} recording to their source frames as they stream
+ * in. Each decoded frame is matched to its source by barcode, so dropped, repeated and re-timed frames
+ * are compared to the right source; frames without a readable barcode are counted but not compared.
+ *
+ * <p>Only the decoded frame being compared is buffered besides the source clip. Instances are not
+ * thread-safe.
+ */
+public class ReferenceQualityAnalyzer {
+
+    private final List<byte[]> referenceFrames;
+    private final byte[] frame = new byte[ReferenceClip.WIDTH * ReferenceClip.HEIGHT];
+
+    private long comparedFrames;
+    private long unmatchedFrames;
+    private double psnrSum;
+    private double ssimSum;
+    private double minPsnr = Double.MAX_VALUE;
+    private double minSsim = Double.MAX_VALUE;
+
+    /**
+     * @param referenceFrames The luma planes of the source clip, see {@link ReferenceClip#readLuma}
+     */
+    public ReferenceQualityAnalyzer(List<byte[]> referenceFrames) {
+        if (referenceFrames.isEmpty()) {
+            throw new IllegalArgumentException("The reference clip has no frames");
+        }
+        this.referenceFrames = List.copyOf(referenceFrames);
+    }
+
+    /**
+     * Read and compare every frame of a raw grayscale stream at the clip's size until it ends, e.g.
+     * the output of {@code FFmpegContainer.createLocalFrameExtractor}.
+     *
+     * @param input The raw frames
+     * @param referenceFrames The luma planes of the source clip
+     * @return The quality report
+     * @throws IOException If the stream cannot be read
+     */
+    public static ReferenceQualityReport analyze(InputStream input, List<byte[]> referenceFrames)
+            throws IOException {
+        ReferenceQualityAnalyzer analyzer = new ReferenceQualityAnalyzer(referenceFrames);
+        while (analyzer.readFrame(input)) {
+            // Each frame is compared as it is read
+        }
+        return analyzer.report();
+    }
+
+    /**
+     * Read the next decoded frame from a raw grayscale stream and compare it.
+     *
+     * @param input The raw frames
+     * @return True if a whole frame was read, false at the end of the stream
+     * @throws IOException If the stream cannot be read
+     */
+    public boolean readFrame(InputStream input) throws IOException {
+        if (input.readNBytes(frame, 0, frame.length) < frame.length) {
+            return false;
+        }
+        accept(frame);
+        return true;
+    }
+
+    /**
+     * Compare one decoded luma plane of the clip's size to its source frame.
+     *
+     * @param decoded The decoded Y plane
+     * @return The frame quality, or null if the frame has no readable barcode
+     */
+    @Nullable
+    public FrameQuality accept(byte[] decoded) {
+        int index = ReferenceClip.readFrameIndex(decoded);
+        if (index < 0 || index >= referenceFrames.size()) {
+            unmatchedFrames++;
+            return null;
+        }
+
+        FrameQuality quality = FullReferenceMetrics.compare(
+                referenceFrames.get(index), decoded, ReferenceClip.WIDTH, ReferenceClip.HEIGHT);
+        comparedFrames++;
+        psnrSum += quality.psnr();
+        ssimSum += quality.ssim();
+        minPsnr = Math.min(minPsnr, quality.psnr());
+        minSsim = Math.min(minSsim, quality.ssim());
+        return quality;
+    }
+
+    /** Summarize the frames compared so far; all metrics are zero if none could be matched */
+    public ReferenceQualityReport report() {
+        if (comparedFrames == 0) {
+            return new ReferenceQualityReport(0, unmatchedFrames, 0, 0, 0, 0);
+        }
+        return new ReferenceQualityReport(
+                comparedFrames,
+                unmatchedFrames,
+                psnrSum / comparedFrames,
+                minPsnr,
+                ssimSum / comparedFrames,
+                minSsim);
+    }
+}
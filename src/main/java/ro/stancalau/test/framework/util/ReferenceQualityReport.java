@@ -0,0 +1,52 @@
+package ro.stancalau.test.framework.util;
+
+import java.util.Locale;
+
+/**
+ * Full-reference quality of a recording of the {@link ReferenceClip}, measured by {@link
+ * ReferenceQualityAnalyzer}.
+ *
+ * @param comparedFrames The number of decoded frames matched to a source frame by their barcode
+ * @param unmatchedFrames The number of decoded frames without a readable barcode, e.g. black frames
+ *     before the first video frame
+ * @param meanPsnr The mean luma PSNR of the compared frames in dB
+ * @param minPsnr The lowest luma PSNR of a compared frame in dB
+ * @param meanSsim The mean luma SSIM of the compared frames
+ * @param minSsim The lowest luma SSIM of a compared frame
+ */
+public record ReferenceQualityReport(
+        long comparedFrames, long unmatchedFrames, double meanPsnr, double minPsnr, double meanSsim, double minSsim) {
+
+    /** One line per metric, as written next to the analyzed recording */
+    public String toSummary() {
+        return String.format(
+                Locale.ROOT,
+                """
+                comparedFrames=%d
+                unmatchedFrames=%d
+                meanPsnr=%.3f
+                minPsnr=%.3f
+                meanSsim=%.5f
+                minSsim=%.5f
+                """,
+                comparedFrames,
+                unmatchedFrames,
+                meanPsnr,
+                minPsnr,
+                meanSsim,
+                minSsim);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                Locale.ROOT,
+                "%d frames compared (%d unmatched), PSNR mean %.2f dB min %.2f dB, SSIM mean %.4f min %.4f",
+                comparedFrames,
+                unmatchedFrames,
+                meanPsnr,
+                minPsnr,
+                meanSsim,
+                minSsim);
+    }
+}
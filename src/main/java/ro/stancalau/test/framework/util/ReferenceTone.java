@@ -0,0 +1,85 @@
+package ro.stancalau.test.framework.util;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * A generated WAV sine tone for audio checks. Unlike the browser's built-in beep, which is silent most
+ * of the time, the tone is continuous, so any silence or gap in a recording of it is a defect. The
+ * clip holds a whole number of periods, so the browser loops it without a click.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ReferenceTone {
+
+    public static final int SAMPLE_RATE = 48000;
+    public static final int FREQUENCY = 440;
+    public static final int DURATION_SECONDS = 10;
+
+    /** Peak level of the tone; its RMS level is 3 dB lower */
+    public static final double PEAK_DBFS = -12.0;
+
+    private static final int WAV_HEADER_BYTES = 44;
+    private static final short PCM_FORMAT = 1;
+    private static final short CHANNELS = 1;
+    private static final short BITS_PER_SAMPLE = 16;
+
+    /**
+     * Write the tone for use as a browser's fake microphone.
+     *
+     * @param file The WAV file to create
+     * @throws IOException If the file cannot be written
+     */
+    public static void write(Path file) throws IOException {
+        int sampleCount = SAMPLE_RATE * DURATION_SECONDS;
+        int dataBytes = sampleCount * BITS_PER_SAMPLE / 8;
+        try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(file))) {
+            output.write(header(dataBytes));
+            byte[] sample = new byte[2];
+            for (int i = 0; i < sampleCount; i++) {
+                short value = sample(i);
+                sample[0] = (byte) value;
+                sample[1] = (byte) (value >> 8);
+                output.write(sample);
+            }
+        }
+    }
+
+    /**
+     * Compute one sample of the tone.
+     *
+     * @param index The sample index
+     * @return The signed 16-bit sample
+     */
+    public static short sample(int index) {
+        double amplitude = Short.MAX_VALUE * Math.pow(10, PEAK_DBFS / 20);
+        return (short) Math.round(amplitude * Math.sin(2 * Math.PI * FREQUENCY * index / SAMPLE_RATE));
+    }
+
+    private static byte[] header(int dataBytes) {
+        int blockAlign = CHANNELS * BITS_PER_SAMPLE / 8;
+        return ByteBuffer.allocate(WAV_HEADER_BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN)
+                .put("RIFF".getBytes(StandardCharsets.US_ASCII))
+                .putInt(WAV_HEADER_BYTES - 8 + dataBytes)
+                .put("WAVE".getBytes(StandardCharsets.US_ASCII))
+                .put("fmt ".getBytes(StandardCharsets.US_ASCII))
+                .putInt(16)
+                .putShort(PCM_FORMAT)
+                .putShort(CHANNELS)
+                .putInt(SAMPLE_RATE)
+                .putInt(SAMPLE_RATE * blockAlign)
+                .putShort((short) blockAlign)
+                .putShort(BITS_PER_SAMPLE)
+                .put("data".getBytes(StandardCharsets.US_ASCII))
+                .putInt(dataBytes)
+                .array();
+    }
+}
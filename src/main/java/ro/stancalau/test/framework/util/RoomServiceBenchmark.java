@@ -0,0 +1,250 @@
+package ro.stancalau.test.framework.util;
+
+import io.livekit.server.RoomServiceClient;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Drives the Room Service API with a fixed number of concurrent clients, each on its own virtual thread.
+ * Every client repeatedly runs a room lifecycle until the requested number of lifecycles is reached:
+ * create a room, update its metadata, list all rooms, list participants, update a participant and delete
+ * the room. Participants are listed and updated in a separate, already populated room, because a freshly
+ * created room has none; without one, participants are listed in the new room and never updated.
+ *
+ * <p>A call fails when it throws or answers with a status other than 2xx. Latencies are recorded for
+ * successful calls only, so a fast error does not flatter the percentiles. When a room cannot be created,
+ * the rest of its lifecycle is skipped and the lifecycle is not counted as completed.
+ */
+@Slf4j
+public class RoomServiceBenchmark {
+
+    private static final String METADATA_PREFIX = "benchmark:";
+
+    private final Api api;
+    private final int concurrency;
+
+    /**
+     * @param api The Room Service to call, usually {@link Api#of(RoomServiceClient)}
+     * @param concurrency How many clients call it at once
+     */
+    public RoomServiceBenchmark(Api api, int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be at least 1, got " + concurrency);
+        }
+        this.api = api;
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Run room lifecycles and wait until all finished or the timeout passed.
+     *
+     * @param lifecycles How many room lifecycles to run across all clients
+     * @param roomPrefix The prefix of the created rooms' names, unique per run
+     * @param participantRoom The room whose participants are listed and updated, or null for none
+     * @param identities The participants of that room to update, round robin
+     * @param timeout How long the whole run may take; lifecycles not started by then are not run
+     * @return What was measured, including how many lifecycles got past creating their room
+     */
+    public RoomServiceBenchmarkResult run(
+            int lifecycles,
+            String roomPrefix,
+            @Nullable String participantRoom,
+            List<String> identities,
+            Duration timeout) {
+        Map<RoomServiceEndpoint, EndpointCounters> counters = new EnumMap<>(RoomServiceEndpoint.class);
+        for (RoomServiceEndpoint endpoint : RoomServiceEndpoint.values()) {
+            counters.put(endpoint, new EndpointCounters());
+        }
+        boolean updateParticipants = participantRoom != null && !identities.isEmpty();
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger completed = new AtomicInteger();
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+
+        log.info(
+                "Running {} Room Service lifecycles with {} concurrent clients{}",
+                lifecycles,
+                concurrency,
+                updateParticipants ? ", updating " + identities.size() + " participants of " + participantRoom : "");
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            for (int client = 0; client < concurrency; client++) {
+                executor.submit(() -> {
+                    int lifecycle;
+                    while (System.nanoTime() < deadline && (lifecycle = next.getAndIncrement()) < lifecycles) {
+                        String room = roomPrefix + "-" + lifecycle;
+                        String target = updateParticipants ? participantRoom : room;
+                        String identity = updateParticipants ? identities.get(lifecycle % identities.size()) : null;
+                        if (runLifecycle(counters, lifecycle, room, target, identity)) {
+                            completed.incrementAndGet();
+                        }
+                    }
+                });
+            }
+            executor.shutdown();
+            if (!executor.awaitTermination(timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                log.warn("Room Service benchmark did not finish within {}, stopping its clients", timeout);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        List<RoomServiceBenchmarkResult.EndpointResult> endpoints = new ArrayList<>();
+        counters.forEach((endpoint, endpointCounters) -> {
+            if (endpoint != RoomServiceEndpoint.UPDATE_PARTICIPANT || updateParticipants) {
+                endpoints.add(endpointCounters.toResult(endpoint));
+            }
+        });
+        RoomServiceBenchmarkResult result =
+                new RoomServiceBenchmarkResult(concurrency, completed.get(), elapsed, endpoints);
+        log.info("Room Service benchmark: {}", result);
+        return result;
+    }
+
+    /** Run one room lifecycle and tell whether its room could be created */
+    private boolean runLifecycle(
+            Map<RoomServiceEndpoint, EndpointCounters> counters,
+            int lifecycle,
+            String room,
+            String participantRoom,
+            @Nullable String identity) {
+        String metadata = METADATA_PREFIX + lifecycle;
+        if (!call(counters, RoomServiceEndpoint.CREATE_ROOM, () -> api.createRoom(room))) {
+            return false;
+        }
+        call(counters, RoomServiceEndpoint.UPDATE_ROOM_METADATA, () -> api.updateRoomMetadata(room, metadata));
+        call(counters, RoomServiceEndpoint.LIST_ROOMS, api::listRooms);
+        call(counters, RoomServiceEndpoint.LIST_PARTICIPANTS, () -> api.listParticipants(participantRoom));
+        if (identity != null) {
+            call(
+                    counters,
+                    RoomServiceEndpoint.UPDATE_PARTICIPANT,
+                    () -> api.updateParticipant(participantRoom, identity, metadata));
+        }
+        call(counters, RoomServiceEndpoint.DELETE_ROOM, () -> api.deleteRoom(room));
+        return true;
+    }
+
+    private static boolean call(
+            Map<RoomServiceEndpoint, EndpointCounters> counters, RoomServiceEndpoint endpoint, StatusCall call) {
+        EndpointCounters endpointCounters = counters.get(endpoint);
+        long start = System.nanoTime();
+        try {
+            int status = call.execute();
+            if (status >= 200 && status < 300) {
+                endpointCounters.succeeded(System.nanoTime() - start);
+                return true;
+            }
+            endpointCounters.failed(String.valueOf(status));
+        } catch (IOException | RuntimeException e) {
+            log.debug("Room Service call {} failed: {}", endpoint, e.toString());
+            endpointCounters.failed(e.getClass().getSimpleName());
+        }
+        return false;
+    }
+
+    /**
+     * The Room Service calls of a benchmark, each answering with the HTTP status code.
+     * {@link #of(RoomServiceClient)} adapts the server SDK's synchronous client.
+     */
+    public interface Api {
+
+        int createRoom(String roomName) throws IOException;
+
+        int updateRoomMetadata(String roomName, String metadata) throws IOException;
+
+        int listRooms() throws IOException;
+
+        int listParticipants(String roomName) throws IOException;
+
+        int updateParticipant(String roomName, String identity, String metadata) throws IOException;
+
+        int deleteRoom(String roomName) throws IOException;
+
+        /**
+         * @param client A client of the server SDK, which is safe to share between threads
+         * @return The calls of that client
+         */
+        static Api of(RoomServiceClient client) {
+            return new Api() {
+                @Override
+                public int createRoom(String roomName) throws IOException {
+                    return client.createRoom(roomName).execute().code();
+                }
+
+                @Override
+                public int updateRoomMetadata(String roomName, String metadata) throws IOException {
+                    return client.updateRoomMetadata(roomName, metadata).execute().code();
+                }
+
+                @Override
+                public int listRooms() throws IOException {
+                    return client.listRooms().execute().code();
+                }
+
+                @Override
+                public int listParticipants(String roomName) throws IOException {
+                    return client.listParticipants(roomName).execute().code();
+                }
+
+                @Override
+                public int updateParticipant(String roomName, String identity, String metadata) throws IOException {
+                    return client.updateParticipant(roomName, identity, null, metadata, null)
+                            .execute()
+                            .code();
+                }
+
+                @Override
+                public int deleteRoom(String roomName) throws IOException {
+                    return client.deleteRoom(roomName).execute().code();
+                }
+            };
+        }
+    }
+
+    @FunctionalInterface
+    private interface StatusCall {
+        int execute() throws IOException;
+    }
+
+    private static class EndpointCounters {
+
+        private final LongAdder calls = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+        void succeeded(long nanos) {
+            latency.recordNanos(nanos);
+            calls.increment();
+        }
+
+        void failed(String cause) {
+            errors.computeIfAbsent(cause, key -> new LongAdder()).increment();
+        }
+
+        RoomServiceBenchmarkResult.EndpointResult toResult(RoomServiceEndpoint endpoint) {
+            Map<String, Long> errorsByCause = new TreeMap<>();
+            errors.forEach((cause, count) -> errorsByCause.put(cause, count.sum()));
+            long errorCount =
+                    errorsByCause.values().stream().mapToLong(Long::longValue).sum();
+            return new RoomServiceBenchmarkResult.EndpointResult(
+                    endpoint, calls.sum(), errorCount, errorsByCause, latency);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package ro.stancalau.test.framework.util;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * What a {@link RoomServiceBenchmark} measured, per endpoint. The CSV form has one row per endpoint and the
+ * LiveKit version in every row, so reports of several versions can be concatenated and compared.
+ *
+ * @param concurrency How many clients called the API at once
+ * @param lifecycles How many room lifecycles completed, not counting those whose room could not be created
+ * @param elapsed The wall-clock time of the whole run
+ * @param endpoints One result per endpoint that was called, in lifecycle order
+ */
+public record RoomServiceBenchmarkResult(
+        int concurrency, int lifecycles, Duration elapsed, List<EndpointResult> endpoints) {
+
+    public static final String CSV_HEADER = "livekitVersion,endpoint,concurrency,calls,errors,errorPercent,"
+            + "callsPerSecond,meanMs,p50Ms,p95Ms,p99Ms,maxMs";
+
+    public RoomServiceBenchmarkResult {
+        endpoints = List.copyOf(endpoints);
+    }
+
+    /**
+     * @param endpoint The endpoint
+     * @return Its result, or an empty one if it was never called
+     */
+    public EndpointResult endpoint(RoomServiceEndpoint endpoint) {
+        return endpoints.stream()
+                .filter(result -> result.endpoint() == endpoint)
+                .findFirst()
+                .orElseGet(() -> new EndpointResult(endpoint, 0, 0, Map.of(), new LatencyHistogram()));
+    }
+
+    public long totalCalls() {
+        return endpoints.stream().mapToLong(EndpointResult::calls).sum();
+    }
+
+    public long totalErrors() {
+        return endpoints.stream().mapToLong(EndpointResult::errors).sum();
+    }
+
+    /**
+     * @param endpoint The endpoint
+     * @return Its successful calls per second over the whole run
+     */
+    public double callsPerSecond(RoomServiceEndpoint endpoint) {
+        double seconds = elapsed.toNanos() / 1e9;
+        return seconds > 0 ? endpoint(endpoint).calls() / seconds : 0;
+    }
+
+    /**
+     * One line per endpoint with its call rate, error rate and latency percentiles.
+     *
+     * @param livekitVersion The LiveKit server version the benchmark ran against
+     * @return The report
+     */
+    public String toSummary(String livekitVersion) {
+        StringBuilder summary = new StringBuilder();
+        summary.append("livekitVersion=").append(livekitVersion).append('\n');
+        summary.append("concurrency=").append(concurrency).append('\n');
+        summary.append("lifecycles=").append(lifecycles).append('\n');
+        summary.append(String.format(Locale.ROOT, "elapsed=%.2f s", elapsed.toNanos() / 1e9))
+                .append('\n');
+        for (EndpointResult result : endpoints) {
+            summary.append(String.format(
+                            Locale.ROOT,
+                            "%-18s %.1f calls/s, errors %d (%.2f%%)%s, %s",
+                            result.endpoint(),
+                            callsPerSecond(result.endpoint()),
+                            result.errors(),
+                            result.errorPercent(),
+                            result.errorsByCause().isEmpty() ? "" : " " + result.errorsByCause(),
+                            result.latency().toSummary()))
+                    .append('\n');
+        }
+        return summary.toString();
+    }
+
+    /**
+     * @param livekitVersion The LiveKit server version the benchmark ran against
+     * @return {@link #CSV_HEADER} and one row per endpoint
+     */
+    public String toCsv(String livekitVersion) {
+        StringBuilder csv = new StringBuilder(CSV_HEADER).append('\n');
+        for (EndpointResult result : endpoints) {
+            LatencyHistogram latency = result.latency();
+            csv.append(String.format(
+                            Locale.ROOT,
+                            "%s,%s,%d,%d,%d,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f",
+                            livekitVersion,
+                            result.endpoint(),
+                            concurrency,
+                            result.calls(),
+                            result.errors(),
+                            result.errorPercent(),
+                            callsPerSecond(result.endpoint()),
+                            millis(latency.mean()),
+                            millis(latency.percentile(50)),
+                            millis(latency.percentile(95)),
+                            millis(latency.percentile(99)),
+                            millis(latency.max())))
+                    .append('\n');
+        }
+        return csv.toString();
+    }
+
+    @Override
+    public String toString() {
+        return lifecycles + " room lifecycles with " + concurrency + " clients: " + totalCalls() + " calls, "
+                + totalErrors() + " errors in " + elapsed.toMillis() + " ms";
+    }
+
+    private static double millis(Duration duration) {
+        return duration.toNanos() / 1_000_000.0;
+    }
+
+    /**
+     * @param endpoint The endpoint
+     * @param calls Successful calls
+     * @param errors Calls that failed with an error status or without a response
+     * @param errorsByCause Failed calls by HTTP status, or by exception type when there was no response
+     * @param latency The latencies of the successful calls
+     */
+    public record EndpointResult(
+            RoomServiceEndpoint endpoint,
+            long calls,
+            long errors,
+            Map<String, Long> errorsByCause,
+            LatencyHistogram latency) {
+
+        public EndpointResult {
+            errorsByCause = Collections.unmodifiableMap(new TreeMap<>(errorsByCause));
+        }
+
+        /** Failed calls as a percentage of all calls */
+        public double errorPercent() {
+            long attempts = calls + errors;
+            return attempts == 0 ? 0 : 100.0 * errors / attempts;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package ro.stancalau.test.framework.util;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import lombok.Getter;
+
+/** The Room Service API calls a {@link RoomServiceBenchmark} drives, in the order of a room's lifecycle */
+public enum RoomServiceEndpoint {
+    CREATE_ROOM("createRoom"),
+    UPDATE_ROOM_METADATA("updateRoomMetadata"),
+    LIST_ROOMS("listRooms"),
+    LIST_PARTICIPANTS("listParticipants"),
+    UPDATE_PARTICIPANT("updateParticipant"),
+    DELETE_ROOM("deleteRoom");
+
+    /** The method name of the server SDK's {@code RoomServiceClient} */
+    @Getter
+    private final String apiName;
+
+    RoomServiceEndpoint(String apiName) {
+        this.apiName = apiName;
+    }
+
+    /**
+     * @param apiName A method name of {@code RoomServiceClient}, e.g. {@code createRoom}
+     * @return The matching endpoint
+     */
+    public static RoomServiceEndpoint fromApiName(String apiName) {
+        return Arrays.stream(values())
+                .filter(endpoint -> endpoint.apiName.equals(apiName))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown Room Service endpoint: " + apiName
+                        + ", expected one of "
+                        + Arrays.stream(values())
+                                .map(RoomServiceEndpoint::getApiName)
+                                .collect(Collectors.joining(", "))));
+    }
+
+    @Override
+    public String toString() {
+        return apiName;
+    }
+}
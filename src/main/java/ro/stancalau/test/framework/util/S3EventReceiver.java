@@ -0,0 +1,209 @@
+package ro.stancalau.test.framework.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.testcontainers.Testcontainers;
+
+/**
+ * Receives MinIO bucket notifications in the test JVM. MinIO containers publish their events to a
+ * webhook target pointing at this receiver through {@code host.testcontainers.internal}; each
+ * container posts to its own path so concurrent scenarios using the same bucket names do not see
+ * each other's objects.
+ *
+ * <p>There is one receiver per JVM. It is started on first use, before any MinIO container that
+ * publishes to it, because the host port must be exposed to containers before they start.
+ */
+@Slf4j
+public class S3EventReceiver {
+
+    public static final String EVENTS_PATH = "/minio/events/";
+
+    /** Identifier of the MinIO webhook notification target publishing to this receiver */
+    public static final String TARGET_ID = "TESTS";
+
+    /** ARN that bucket notification configurations use to route events to the webhook target */
+    public static final String QUEUE_ARN = "arn:minio:sqs::" + TARGET_ID + ":webhook";
+
+    private static final String CONTAINER_HOST = "host.testcontainers.internal";
+    private static final String OBJECT_CREATED_PREFIX = "s3:ObjectCreated:";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static volatile S3EventReceiver instance;
+
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final HttpServer server;
+
+    @Getter
+    private final int port;
+
+    private S3EventReceiver() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.createContext(EVENTS_PATH, this::handle);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+        port = server.getAddress().getPort();
+        Testcontainers.exposeHostPorts(port);
+        log.info("S3 event receiver listening on port {}", port);
+    }
+
+    /**
+     * Get the JVM-wide receiver, starting it on first use.
+     *
+     * @return The receiver, or null if it could not be started
+     */
+    public static S3EventReceiver getInstance() {
+        S3EventReceiver receiver = instance;
+        if (receiver == null) {
+            synchronized (S3EventReceiver.class) {
+                receiver = instance;
+                if (receiver == null) {
+                    try {
+                        S3EventReceiver started = new S3EventReceiver();
+                        Thread shutdownHook = new Thread(() -> started.server.stop(0), "s3-event-receiver-shutdown");
+                        Runtime.getRuntime().addShutdownHook(shutdownHook);
+                        instance = started;
+                        receiver = started;
+                    } catch (IOException | RuntimeException e) {
+                        log.warn("Could not start S3 event receiver, object waits will poll: {}", e.getMessage());
+                        return null;
+                    }
+                }
+            }
+        }
+        return receiver;
+    }
+
+    /**
+     * Get the webhook endpoint, as seen from inside a container, that an event source should post to.
+     *
+     * @param sourceId Identifies the MinIO container publishing events
+     * @return The webhook endpoint URL
+     */
+    public String getEndpoint(String sourceId) {
+        return "http://" + CONTAINER_HOST + ":" + port + EVENTS_PATH + sourceId;
+    }
+
+    /**
+     * Call a listener for every object created in a bucket of an event source. The listener runs on the
+     * request thread and must return quickly.
+     *
+     * @param sourceId Identifies the MinIO container publishing events
+     * @param bucketName The bucket to receive events for
+     * @param listener Receives each created object
+     * @return The subscription, close it to stop receiving events
+     */
+    public Subscription subscribe(String sourceId, String bucketName, Consumer<S3ObjectSummary> listener) {
+        Subscription subscription = new Subscription(this, sourceId, bucketName, listener);
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    /**
+     * Parse the objects created by a MinIO event notification. Records other than {@code
+     * s3:ObjectCreated:*} are ignored.
+     *
+     * @param json The notification body
+     * @return The bucket and summary of each created object
+     */
+    static List<CreatedObject> parseCreatedObjects(String json) throws IOException {
+        List<CreatedObject> created = new ArrayList<>();
+        for (JsonNode record : OBJECT_MAPPER.readTree(json).path("Records")) {
+            if (!record.path("eventName").asText().startsWith(OBJECT_CREATED_PREFIX)) {
+                continue;
+            }
+            JsonNode s3 = record.path("s3");
+            JsonNode object = s3.path("object");
+            String key = URLDecoder.decode(object.path("key").asText(), StandardCharsets.UTF_8);
+            created.add(new CreatedObject(
+                    s3.path("bucket").path("name").asText(),
+                    new S3ObjectSummary(
+                            key,
+                            object.path("size").asLong(),
+                            object.path("eTag").asText(null),
+                            parseTime(record.path("eventTime").asText(null)))));
+        }
+        return created;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange;
+                InputStream body = exchange.getRequestBody()) {
+            String sourceId = exchange.getRequestURI().getPath().substring(EVENTS_PATH.length());
+            String json = new String(body.readAllBytes(), StandardCharsets.UTF_8);
+            if ("POST".equals(exchange.getRequestMethod()) && !json.isBlank()) {
+                dispatch(sourceId, json);
+            }
+            exchange.sendResponseHeaders(200, -1);
+        }
+    }
+
+    private void dispatch(String sourceId, String json) {
+        try {
+            for (CreatedObject created : parseCreatedObjects(json)) {
+                log.debug("S3 object created in {}/{}: {}", sourceId, created.bucketName(), created.object().key());
+                for (Subscription subscription : subscriptions) {
+                    if (subscription.matches(sourceId, created.bucketName())) {
+                        subscription.listener.accept(created.object());
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Failed to process S3 event from {}: {}", sourceId, e.getMessage());
+        }
+    }
+
+    private static Instant parseTime(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    record CreatedObject(String bucketName, S3ObjectSummary object) {}
+
+    /** A subscription to object creation events of a bucket */
+    public static final class Subscription implements AutoCloseable {
+
+        private final S3EventReceiver receiver;
+        private final String sourceId;
+        private final String bucketName;
+        private final Consumer<S3ObjectSummary> listener;
+
+        private Subscription(
+                S3EventReceiver receiver, String sourceId, String bucketName, Consumer<S3ObjectSummary> listener) {
+            this.receiver = receiver;
+            this.sourceId = sourceId;
+            this.bucketName = bucketName;
+            this.listener = listener;
+        }
+
+        private boolean matches(String eventSourceId, String eventBucketName) {
+            return sourceId.equals(eventSourceId) && bucketName.equals(eventBucketName);
+        }
+
+        @Override
+        public void close() {
+            receiver.subscriptions.remove(this);
+        }
+    }
+}
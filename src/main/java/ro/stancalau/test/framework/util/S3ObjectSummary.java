@@ -0,0 +1,30 @@
+package ro.stancalau.test.framework.util;
+
+import java.time.Instant;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+/**
+ * Metadata of an S3 object as returned by a bucket listing, so callers do not need a separate HEAD
+ * request per object.
+ *
+ * @param key The object key
+ * @param size The object size in bytes
+ * @param eTag The entity tag as returned by the server, including its quotes
+ * @param lastModified When the object was last written
+ */
+public record S3ObjectSummary(String key, long size, String eTag, Instant lastModified) {
+
+    public static S3ObjectSummary from(S3Object object) {
+        Long size = object.size();
+        return new S3ObjectSummary(object.key(), size != null ? size : 0, object.eTag(), object.lastModified());
+    }
+
+    public boolean hasExtension(String... extensions) {
+        for (String extension : extensions) {
+            if (key.endsWith(extension)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,386 @@
+package ro.stancalau.test.framework.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.*;
+
+/**
+ * Asynchronous S3 transfers for large objects on top of an {@link S3AsyncClient}. Uploads larger
+ * than one part use multipart uploads with parts sent in parallel, downloads of large objects are
+ * split into parallel ranged GETs written straight to their position in the target file, and ranged
+ * reads fetch only the first or last bytes of an object, e.g. to inspect MP4 or JPEG headers
+ * without downloading a whole recording.
+ *
+ * <p>At most {@code concurrency} parts are in flight per transfer, so memory use is bounded by
+ * {@code concurrency * partSize} whatever the object size.
+ */
+@Slf4j
+public class S3TransferEngine {
+
+    /** Smallest part size S3 accepts for all but the last part of a multipart upload */
+    public static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+
+    public static final int DEFAULT_PART_SIZE = 8 * 1024 * 1024;
+
+    private static final ExecutorService COORDINATOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final S3AsyncClient s3AsyncClient;
+
+    @Getter
+    private final String bucketName;
+
+    private final int partSize;
+    private final int concurrency;
+
+    /**
+     * Creates a transfer engine for a bucket. The async client is not closed by the engine.
+     *
+     * @param s3AsyncClient The shared async S3 client
+     * @param bucketName The bucket to transfer to and from
+     * @param partSize The size of multipart upload parts and download ranges, at least {@link
+     *     #MIN_PART_SIZE}
+     * @param concurrency The maximum number of parts in flight per transfer
+     */
+    public S3TransferEngine(S3AsyncClient s3AsyncClient, String bucketName, int partSize, int concurrency) {
+        if (partSize < MIN_PART_SIZE) {
+            throw new IllegalArgumentException("Part size must be at least " + MIN_PART_SIZE + " bytes: " + partSize);
+        }
+        this.s3AsyncClient = s3AsyncClient;
+        this.bucketName = bucketName;
+        this.partSize = partSize;
+        this.concurrency = Math.max(1, concurrency);
+    }
+
+    /**
+     * Creates an async S3 client configured for MinIO: path-style addressing and a fixed region.
+     *
+     * @param endpoint The MinIO server endpoint URL
+     * @param accessKey The access key for authentication
+     * @param secretKey The secret key for authentication
+     * @return A new async S3 client, to be closed by the caller
+     */
+    public static S3AsyncClient createS3AsyncClient(String endpoint, String accessKey, String secretKey) {
+        AwsBasicCredentials credentials = AwsBasicCredentials.create(accessKey, secretKey);
+
+        return S3AsyncClient.builder()
+                .endpointOverride(URI.create(endpoint))
+                .credentialsProvider(StaticCredentialsProvider.create(credentials))
+                .region(Region.US_EAST_1)
+                .forcePathStyle(true)
+                .build();
+    }
+
+    /**
+     * Upload a file, using a multipart upload when it is larger than one part. Parts are read from
+     * the file with positional reads, so the file is never loaded as a whole.
+     *
+     * @param key The object key
+     * @param file The file to upload
+     * @return Completes with the ETag of the object
+     */
+    public CompletableFuture<String> uploadFile(String key, Path file) {
+        return CompletableFuture.supplyAsync(
+                () -> {
+                    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                        long size = channel.size();
+                        if (size <= partSize) {
+                            return putObject(key, readPart(channel, 0, (int) size));
+                        }
+                        return multipartUpload(key, uploadId -> {
+                            List<CompletableFuture<CompletedPart>> parts = new ArrayList<>();
+                            Semaphore permits = new Semaphore(concurrency);
+                            int partNumber = 1;
+                            for (long position = 0; position < size; position += partSize) {
+                                int length = (int) Math.min(partSize, size - position);
+                                ByteBuffer part = readPart(channel, position, length);
+                                parts.add(uploadPart(key, uploadId, partNumber++, part, permits));
+                            }
+                            return parts;
+                        });
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                },
+                COORDINATOR);
+    }
+
+    /**
+     * Upload the contents of a stream of unknown length. The stream is read one part at a time; when
+     * it ends within the first part a single PUT is used instead of a multipart upload. The stream is
+     * not closed.
+     *
+     * @param key The object key
+     * @param in The stream to upload
+     * @return Completes with the ETag of the object
+     */
+    public CompletableFuture<String> uploadStream(String key, InputStream in) {
+        return CompletableFuture.supplyAsync(
+                () -> {
+                    try {
+                        byte[] first = in.readNBytes(partSize);
+                        if (first.length < partSize) {
+                            return putObject(key, ByteBuffer.wrap(first));
+                        }
+                        return multipartUpload(key, uploadId -> {
+                            List<CompletableFuture<CompletedPart>> parts = new ArrayList<>();
+                            Semaphore permits = new Semaphore(concurrency);
+                            byte[] chunk = first;
+                            int partNumber = 1;
+                            while (chunk.length > 0) {
+                                parts.add(uploadPart(key, uploadId, partNumber++, ByteBuffer.wrap(chunk), permits));
+                                chunk = in.readNBytes(partSize);
+                            }
+                            return parts;
+                        });
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                },
+                COORDINATOR);
+    }
+
+    /**
+     * Download an object to a file. Objects larger than one part are fetched as parallel ranged GETs,
+     * each written at its offset in the target file.
+     *
+     * @param key The object key
+     * @param target The file to write, replaced if it exists
+     * @return Completes with the number of bytes downloaded
+     */
+    public CompletableFuture<Long> downloadToFile(String key, Path target) {
+        return head(key).thenApplyAsync(head -> downloadRanges(key, head.contentLength(), target), COORDINATOR);
+    }
+
+    /**
+     * Download a whole object into memory with a single GET, for small objects such as snapshot
+     * frames. Use {@link #downloadToFile} for recordings.
+     *
+     * @param key The object key
+     * @return Completes with the object's bytes
+     */
+    public CompletableFuture<byte[]> download(String key) {
+        GetObjectRequest request =
+                GetObjectRequest.builder().bucket(bucketName).key(key).build();
+        return s3AsyncClient
+                .getObject(request, AsyncResponseTransformer.toBytes())
+                .thenApply(ResponseBytes::asByteArray);
+    }
+
+    /**
+     * Read a byte range of an object.
+     *
+     * @param key The object key
+     * @param offset The first byte to read
+     * @param length The number of bytes to read
+     * @return Completes with the bytes read, fewer than requested if the object ends first
+     */
+    public CompletableFuture<byte[]> readRange(String key, long offset, int length) {
+        if (length <= 0) {
+            return CompletableFuture.completedFuture(new byte[0]);
+        }
+        return getRange(key, "bytes=" + offset + "-" + (offset + length - 1)).thenApply(ResponseBytes::asByteArray);
+    }
+
+    /**
+     * Read the first bytes of an object, e.g. the ftyp box of an MP4 file or the SOI and frame header
+     * of a JPEG.
+     *
+     * @param key The object key
+     * @param length The number of bytes to read
+     * @return Completes with the bytes read, fewer than requested for smaller objects
+     */
+    public CompletableFuture<byte[]> readHead(String key, int length) {
+        return readRange(key, 0, length);
+    }
+
+    /**
+     * Read the last bytes of an object with a suffix range, without knowing its size, e.g. to find a
+     * trailing MP4 moov box.
+     *
+     * @param key The object key
+     * @param length The number of bytes to read
+     * @return Completes with the bytes read, fewer than requested for smaller objects
+     */
+    public CompletableFuture<byte[]> readTail(String key, int length) {
+        if (length <= 0) {
+            return CompletableFuture.completedFuture(new byte[0]);
+        }
+        return getRange(key, "bytes=-" + length).thenApply(ResponseBytes::asByteArray);
+    }
+
+    public CompletableFuture<HeadObjectResponse> head(String key) {
+        return s3AsyncClient.headObject(
+                HeadObjectRequest.builder().bucket(bucketName).key(key).build());
+    }
+
+    private String putObject(String key, ByteBuffer content) {
+        PutObjectRequest request =
+                PutObjectRequest.builder().bucket(bucketName).key(key).build();
+        String eTag = s3AsyncClient
+                .putObject(request, AsyncRequestBody.fromByteBuffer(content))
+                .join()
+                .eTag();
+        log.debug("Uploaded object {} to bucket {}", key, bucketName);
+        return eTag;
+    }
+
+    private String multipartUpload(String key, PartUploader partUploader) throws IOException {
+        String uploadId = s3AsyncClient
+                .createMultipartUpload(CreateMultipartUploadRequest.builder()
+                        .bucket(bucketName)
+                        .key(key)
+                        .build())
+                .join()
+                .uploadId();
+        try {
+            List<CompletableFuture<CompletedPart>> pending = partUploader.uploadParts(uploadId);
+            List<CompletedPart> parts = new ArrayList<>(pending.size());
+            for (CompletableFuture<CompletedPart> part : pending) {
+                parts.add(part.join());
+            }
+            parts.sort(Comparator.comparing(CompletedPart::partNumber));
+
+            String eTag = s3AsyncClient
+                    .completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                            .bucket(bucketName)
+                            .key(key)
+                            .uploadId(uploadId)
+                            .multipartUpload(
+                                    CompletedMultipartUpload.builder().parts(parts).build())
+                            .build())
+                    .join()
+                    .eTag();
+            log.debug("Uploaded object {} to bucket {} in {} parts", key, bucketName, parts.size());
+            return eTag;
+        } catch (IOException | RuntimeException e) {
+            abortQuietly(key, uploadId);
+            throw e;
+        }
+    }
+
+    private CompletableFuture<CompletedPart> uploadPart(
+            String key, String uploadId, int partNumber, ByteBuffer content, Semaphore permits) {
+        permits.acquireUninterruptibly();
+        UploadPartRequest request = UploadPartRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .uploadId(uploadId)
+                .partNumber(partNumber)
+                .build();
+        return s3AsyncClient
+                .uploadPart(request, AsyncRequestBody.fromByteBuffer(content))
+                .thenApply(response -> CompletedPart.builder()
+                        .partNumber(partNumber)
+                        .eTag(response.eTag())
+                        .build())
+                .whenComplete((part, error) -> permits.release());
+    }
+
+    private long downloadRanges(String key, long size, Path target) {
+        try {
+            Files.createDirectories(target.toAbsolutePath().getParent());
+            try (FileChannel channel = FileChannel.open(
+                    target,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                downloadRanges(key, size, channel);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.debug("Downloaded object {} ({} bytes) to {}", key, size, target);
+        return size;
+    }
+
+    private void downloadRanges(String key, long size, FileChannel channel) {
+        Semaphore permits = new Semaphore(concurrency);
+        List<CompletableFuture<Void>> ranges = new ArrayList<>();
+        for (long position = 0; position < size; position += partSize) {
+            long start = position;
+            long end = Math.min(size, position + partSize) - 1;
+            permits.acquireUninterruptibly();
+            ranges.add(getRange(key, "bytes=" + start + "-" + end)
+                    .thenAccept(bytes -> writeFully(channel, bytes.asByteBuffer(), start))
+                    .whenComplete((ignored, error) -> permits.release()));
+        }
+        try {
+            CompletableFuture.allOf(ranges.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            ranges.forEach(range -> range.cancel(true));
+            throw e;
+        }
+    }
+
+    private CompletableFuture<ResponseBytes<GetObjectResponse>> getRange(String key, String range) {
+        GetObjectRequest request = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .range(range)
+                .build();
+        return s3AsyncClient.getObject(request, AsyncResponseTransformer.toBytes());
+    }
+
+    private void abortQuietly(String key, String uploadId) {
+        try {
+            s3AsyncClient
+                    .abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                            .bucket(bucketName)
+                            .key(key)
+                            .uploadId(uploadId)
+                            .build())
+                    .join();
+        } catch (RuntimeException e) {
+            log.warn("Failed to abort multipart upload {} of {}: {}", uploadId, key, e.getMessage());
+        }
+    }
+
+    private static ByteBuffer readPart(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer part = ByteBuffer.allocate(length);
+        while (part.hasRemaining()) {
+            if (channel.read(part, position + part.position()) < 0) {
+                break;
+            }
+        }
+        return part.flip();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer bytes, long position) {
+        try {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes, position + bytes.position());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface PartUploader {
+        List<CompletableFuture<CompletedPart>> uploadParts(String uploadId) throws IOException;
+    }
+}
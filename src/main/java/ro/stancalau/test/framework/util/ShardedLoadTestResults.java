@@ -0,0 +1,139 @@
+package ro.stancalau.test.framework.util;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+
+/**
+ * The metrics of one load test split across several CLI containers: the results of every shard and
+ * their aggregate. Subscribers and tracks in the aggregate are prefixed with their shard, e.g. {@code
+ * shard-1/Sub 0 in LoadTestRoom}.
+ *
+ * @param shards The results of every shard, in start order
+ * @param aggregate The results of all shards merged into one
+ * @param startSkew The time between the first and the last shard having started
+ */
+public record ShardedLoadTestResults(
+        Map<String, LoadTestResults> shards, LoadTestResults aggregate, Duration startSkew) {
+
+    public ShardedLoadTestResults {
+        shards = Collections.unmodifiableMap(new LinkedHashMap<>(shards));
+    }
+
+    /**
+     * Merge the results of all shards. The aggregate total adds up tracks, bitrate and packet loss;
+     * latency is averaged weighted by the received tracks, and the loss percentage is recomputed from
+     * the per-track packet counts, or is the highest of any shard if the shards printed no tracks.
+     *
+     * @param shards The results of every shard, in start order
+     * @param startSkew The time between the first and the last shard having started
+     * @return The merged results
+     */
+    public static ShardedLoadTestResults merge(Map<String, LoadTestResults> shards, Duration startSkew) {
+        List<LoadTestTrackStats> tracks = new ArrayList<>();
+        List<LoadTestTesterSummary> testers = new ArrayList<>();
+        List<LoadTestTesterSummary> totals = new ArrayList<>();
+        for (Map.Entry<String, LoadTestResults> shard : shards.entrySet()) {
+            String prefix = shard.getKey() + "/";
+            for (LoadTestTrackStats track : shard.getValue().tracks()) {
+                tracks.add(new LoadTestTrackStats(
+                        prefix + track.tester(),
+                        track.track(),
+                        track.kind(),
+                        track.packets(),
+                        track.bitrateKbps(),
+                        track.latency(),
+                        track.dropped(),
+                        track.droppedPercent()));
+            }
+            for (LoadTestTesterSummary tester : shard.getValue().testers()) {
+                testers.add(new LoadTestTesterSummary(
+                        prefix + tester.tester(),
+                        tester.tracks(),
+                        tester.expectedTracks(),
+                        tester.bitrateKbps(),
+                        tester.latency(),
+                        tester.dropped(),
+                        tester.droppedPercent(),
+                        tester.error()));
+            }
+            if (shard.getValue().total() != null) {
+                totals.add(shard.getValue().total());
+            }
+        }
+        LoadTestTesterSummary total = totals.isEmpty() ? null : mergeTotals(shards, totals, tracks);
+        return new ShardedLoadTestResults(shards, new LoadTestResults(tracks, testers, total), startSkew);
+    }
+
+    /** The results of one shard, or null if there is no such shard */
+    @Nullable
+    public LoadTestResults shard(String name) {
+        return shards.get(name);
+    }
+
+    /** The per-shard results followed by the aggregate, as written to the scenario's load test report */
+    public String toSummary() {
+        StringBuilder summary = new StringBuilder();
+        summary.append("startSkewMs=").append(startSkew.toMillis()).append('\n');
+        for (Map.Entry<String, LoadTestResults> shard : shards.entrySet()) {
+            summary.append('[').append(shard.getKey()).append("]\n");
+            summary.append(shard.getValue().toSummary());
+        }
+        summary.append("[aggregate]\n").append(aggregate.toSummary());
+        return summary.toString();
+    }
+
+    @Override
+    public String toString() {
+        return shards.size() + " shards started within " + startSkew.toMillis() + "ms: " + aggregate;
+    }
+
+    private static LoadTestTesterSummary mergeTotals(
+            Map<String, LoadTestResults> shards, List<LoadTestTesterSummary> totals, List<LoadTestTrackStats> tracks) {
+        int receivedTracks = 0;
+        int expectedTracks = 0;
+        double bitrateKbps = 0;
+        long dropped = 0;
+        double maxDroppedPercent = 0;
+        double weightedLatencyNanos = 0;
+        int latencyWeight = 0;
+        for (LoadTestTesterSummary total : totals) {
+            receivedTracks += total.tracks();
+            expectedTracks += total.expectedTracks();
+            bitrateKbps += total.bitrateKbps();
+            dropped += total.dropped();
+            maxDroppedPercent = Math.max(maxDroppedPercent, total.droppedPercent());
+            if (total.latency() != null && total.tracks() > 0) {
+                weightedLatencyNanos += (double) total.latency().toNanos() * total.tracks();
+                latencyWeight += total.tracks();
+            }
+        }
+        int errors = shards.values().stream().mapToInt(LoadTestResults::errorCount).sum();
+        return new LoadTestTesterSummary(
+                LoadTestTesterSummary.TOTAL,
+                receivedTracks,
+                expectedTracks,
+                bitrateKbps,
+                latencyWeight > 0 ? Duration.ofNanos(Math.round(weightedLatencyNanos / latencyWeight)) : null,
+                dropped,
+                droppedPercent(tracks, maxDroppedPercent),
+                errors > 0 ? String.valueOf(errors) : null);
+    }
+
+    private static double droppedPercent(List<LoadTestTrackStats> tracks, double fallback) {
+        long packets = 0;
+        long dropped = 0;
+        for (LoadTestTrackStats track : tracks) {
+            packets += track.packets();
+            dropped += track.dropped();
+        }
+        if (packets + dropped == 0) {
+            return fallback;
+        }
+        return dropped * 100.0 / (packets + dropped);
+    }
+}
@@ -0,0 +1,200 @@
+package ro.stancalau.test.framework.util;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A CSV file collecting full-reference quality results across runs, one row per recording, so the
+ * numbers of one LiveKit and egress version pair can be compared with earlier runs of other versions.
+ * The file is only appended to; scenarios running in parallel in one JVM share a lock.
+ */
+@Slf4j
+public class VideoQualityHistory {
+
+    static final String HEADER = "timestamp,livekitVersion,egressVersion,scenario,recording,"
+            + "comparedFrames,meanPsnr,minPsnr,meanSsim,minSsim";
+
+    private static final Object WRITE_LOCK = new Object();
+
+    @Getter
+    private final Path file;
+
+    public VideoQualityHistory(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Append one result, creating the file with a header row if needed.
+     *
+     * @param entry The result
+     * @throws IOException If the file cannot be written
+     */
+    public void append(Entry entry) throws IOException {
+        synchronized (WRITE_LOCK) {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            StringBuilder row = new StringBuilder();
+            if (!Files.exists(file) || Files.size(file) == 0) {
+                row.append(HEADER).append('\n');
+            }
+            row.append(toRow(entry)).append('\n');
+            Files.writeString(
+                    file, row, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+    }
+
+    /**
+     * Read all results. Rows that cannot be parsed are skipped.
+     *
+     * @return The results in file order, empty if the file does not exist
+     * @throws IOException If the file cannot be read
+     */
+    public List<Entry> read() throws IOException {
+        if (!Files.exists(file)) {
+            return List.of();
+        }
+        List<Entry> entries = new ArrayList<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (line.isBlank() || line.equals(HEADER)) {
+                continue;
+            }
+            try {
+                entries.add(parseRow(line));
+            } catch (RuntimeException e) {
+                log.warn("Skipping malformed video quality history row in {}: {}", file, line);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Find the latest result of the same recording for every other version pair.
+     *
+     * @param scenario The scenario name
+     * @param recording The recording name
+     * @param livekitVersion The LiveKit version of the current run
+     * @param egressVersion The egress version of the current run
+     * @return The latest result per other version pair, oldest first
+     * @throws IOException If the file cannot be read
+     */
+    public List<Entry> latestOfOtherVersions(
+            String scenario, String recording, String livekitVersion, String egressVersion) throws IOException {
+        Map<String, Entry> latest = new LinkedHashMap<>();
+        for (Entry entry : read()) {
+            if (!entry.scenario().equals(scenario) || !entry.recording().equals(recording)) {
+                continue;
+            }
+            if (entry.livekitVersion().equals(livekitVersion) && entry.egressVersion().equals(egressVersion)) {
+                continue;
+            }
+            latest.merge(
+                    entry.livekitVersion() + "/" + entry.egressVersion(),
+                    entry,
+                    (existing, candidate) ->
+                            candidate.timestamp().isAfter(existing.timestamp()) ? candidate : existing);
+        }
+        return latest.values().stream()
+                .sorted(Comparator.comparing(Entry::timestamp))
+                .toList();
+    }
+
+    private static String toRow(Entry entry) {
+        ReferenceQualityReport report = entry.report();
+        return String.join(
+                ",",
+                entry.timestamp().toString(),
+                quote(entry.livekitVersion()),
+                quote(entry.egressVersion()),
+                quote(entry.scenario()),
+                quote(entry.recording()),
+                String.valueOf(report.comparedFrames()),
+                String.format(Locale.ROOT, "%.3f", report.meanPsnr()),
+                String.format(Locale.ROOT, "%.3f", report.minPsnr()),
+                String.format(Locale.ROOT, "%.5f", report.meanSsim()),
+                String.format(Locale.ROOT, "%.5f", report.minSsim()));
+    }
+
+    private static Entry parseRow(String line) {
+        List<String> fields = splitRow(line);
+        if (fields.size() != 10) {
+            throw new IllegalArgumentException("Expected 10 fields, got " + fields.size());
+        }
+        ReferenceQualityReport report = new ReferenceQualityReport(
+                Long.parseLong(fields.get(5)),
+                0,
+                Double.parseDouble(fields.get(6)),
+                Double.parseDouble(fields.get(7)),
+                Double.parseDouble(fields.get(8)),
+                Double.parseDouble(fields.get(9)));
+        return new Entry(
+                Instant.parse(fields.get(0)), fields.get(1), fields.get(2), fields.get(3), fields.get(4), report);
+    }
+
+    /** Quote a field that contains a separator, a quote or a line break, as RFC 4180 does */
+    private static String quote(String field) {
+        if (field.contains(",") || field.contains("\"") || field.contains("\n") || field.contains("\r")) {
+            return "\"" + field.replace("\"", "\"\"") + "\"";
+        }
+        return field;
+    }
+
+    private static List<String> splitRow(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * One recording's result.
+     *
+     * @param timestamp When the recording was analyzed
+     * @param livekitVersion The LiveKit server version
+     * @param egressVersion The egress version
+     * @param scenario The scenario name
+     * @param recording The recording name
+     * @param report The quality report; unmatched frames are not kept in the file
+     */
+    public record Entry(
+            Instant timestamp,
+            String livekitVersion,
+            String egressVersion,
+            String scenario,
+            String recording,
+            ReferenceQualityReport report) {}
+}
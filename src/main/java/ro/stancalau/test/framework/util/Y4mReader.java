@@ -0,0 +1,190 @@
+package ro.stancalau.test.framework.util;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import lombok.Getter;
+
+/**
+ * Streams frames from an 8-bit YUV4MPEG2 clip into caller-owned plane buffers, one frame at a time.
+ * Supports the 4:2:0, 4:2:2, 4:4:4 and mono colour spaces; the frame and stream parameters other than
+ * size, frame rate and colour space are ignored.
+ */
+public class Y4mReader implements AutoCloseable {
+
+    private static final String SIGNATURE = "YUV4MPEG2";
+    private static final String FRAME_MARKER = "FRAME";
+    private static final int MAX_HEADER_LENGTH = 1024;
+
+    private final InputStream input;
+
+    @Getter
+    private final int width;
+
+    @Getter
+    private final int height;
+
+    @Getter
+    private final int frameRateNumerator;
+
+    @Getter
+    private final int frameRateDenominator;
+
+    @Getter
+    private final String colorSpace;
+
+    private final int chromaPlaneSize;
+
+    /**
+     * Read the stream header.
+     *
+     * @param input The clip, closed with the reader
+     * @throws IOException If the header is missing, malformed or uses an unsupported colour space
+     */
+    public Y4mReader(InputStream input) throws IOException {
+        this.input = new BufferedInputStream(input, 1 << 16);
+
+        String header = readLine();
+        if (header == null || !header.startsWith(SIGNATURE)) {
+            throw new IOException("Not a YUV4MPEG2 stream");
+        }
+        int parsedWidth = 0;
+        int parsedHeight = 0;
+        int numerator = 30;
+        int denominator = 1;
+        String parsedColorSpace = "420jpeg";
+        for (String token : header.substring(SIGNATURE.length()).trim().split(" +")) {
+            if (token.isEmpty()) {
+                continue;
+            }
+            String value = token.substring(1);
+            switch (token.charAt(0)) {
+                case 'W' -> parsedWidth = parseInt(value, token);
+                case 'H' -> parsedHeight = parseInt(value, token);
+                case 'F' -> {
+                    String[] rate = value.split(":");
+                    numerator = parseInt(rate[0], token);
+                    denominator = rate.length > 1 ? parseInt(rate[1], token) : 1;
+                }
+                case 'C' -> parsedColorSpace = value;
+                default -> {
+                    // Interlacing, aspect ratio and extensions do not change the frame layout
+                }
+            }
+        }
+        if (parsedWidth <= 0 || parsedHeight <= 0) {
+            throw new IOException("YUV4MPEG2 header has no frame size: " + header);
+        }
+
+        this.width = parsedWidth;
+        this.height = parsedHeight;
+        this.frameRateNumerator = numerator;
+        this.frameRateDenominator = denominator;
+        this.colorSpace = parsedColorSpace;
+        this.chromaPlaneSize = chromaPlaneSize(parsedColorSpace, parsedWidth, parsedHeight);
+    }
+
+    public double getFrameRate() {
+        return frameRateDenominator == 0 ? 0 : (double) frameRateNumerator / frameRateDenominator;
+    }
+
+    /**
+     * Read the next frame's luma plane and skip its chroma planes.
+     *
+     * @param luma The buffer for the Y plane, {@code width * height} bytes
+     * @return True if a frame was read, false at the end of the stream
+     * @throws IOException If the stream is truncated mid-frame or malformed
+     */
+    public boolean readFrame(byte[] luma) throws IOException {
+        if (!readFrameHeader()) {
+            return false;
+        }
+        readPlane(luma, width * height);
+        input.skipNBytes(2L * chromaPlaneSize);
+        return true;
+    }
+
+    /**
+     * Read the next frame's planes.
+     *
+     * @param luma The buffer for the Y plane, {@code width * height} bytes
+     * @param cb The buffer for the U plane, unused for mono clips
+     * @param cr The buffer for the V plane, unused for mono clips
+     * @return True if a frame was read, false at the end of the stream
+     * @throws IOException If the stream is truncated mid-frame or malformed
+     */
+    public boolean readFrame(byte[] luma, byte[] cb, byte[] cr) throws IOException {
+        if (!readFrameHeader()) {
+            return false;
+        }
+        readPlane(luma, width * height);
+        readPlane(cb, chromaPlaneSize);
+        readPlane(cr, chromaPlaneSize);
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+
+    private boolean readFrameHeader() throws IOException {
+        String frameHeader = readLine();
+        if (frameHeader == null) {
+            return false;
+        }
+        if (!frameHeader.startsWith(FRAME_MARKER)) {
+            throw new IOException("Expected a YUV4MPEG2 frame header, got: " + frameHeader);
+        }
+        return true;
+    }
+
+    private void readPlane(byte[] plane, int size) throws IOException {
+        if (plane.length < size) {
+            throw new IllegalArgumentException("Plane buffer of " + plane.length + " bytes, need " + size);
+        }
+        if (input.readNBytes(plane, 0, size) < size) {
+            throw new EOFException("YUV4MPEG2 stream ends mid-frame");
+        }
+    }
+
+    /** Read a header line, or null at the end of the stream */
+    private String readLine() throws IOException {
+        StringBuilder line = new StringBuilder();
+        int next;
+        while ((next = input.read()) != '\n') {
+            if (next < 0) {
+                if (line.isEmpty()) {
+                    return null;
+                }
+                throw new EOFException("YUV4MPEG2 stream ends mid-header");
+            }
+            if (line.length() >= MAX_HEADER_LENGTH) {
+                throw new IOException("YUV4MPEG2 header longer than " + MAX_HEADER_LENGTH + " bytes");
+            }
+            line.append((char) next);
+        }
+        return line.toString();
+    }
+
+    private static int chromaPlaneSize(String colorSpace, int width, int height) throws IOException {
+        if (colorSpace.startsWith("420")) {
+            return ((width + 1) / 2) * ((height + 1) / 2);
+        }
+        return switch (colorSpace) {
+            case "422" -> ((width + 1) / 2) * height;
+            case "444" -> width * height;
+            case "mono" -> 0;
+            default -> throw new IOException("Unsupported YUV4MPEG2 colour space: " + colorSpace);
+        };
+    }
+
+    private static int parseInt(String value, String token) throws IOException {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IOException("Malformed YUV4MPEG2 header parameter: " + token, e);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package ro.stancalau.test.framework.util;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes 8-bit 4:2:0 YUV4MPEG2 clips, the format Chrome plays through {@code
+ * --use-file-for-fake-video-capture} and FFmpeg reads as {@code yuv4mpegpipe}.
+ */
+public class Y4mWriter implements AutoCloseable {
+
+    private static final byte[] FRAME_HEADER = "FRAME\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final OutputStream output;
+    private final int width;
+    private final int height;
+
+    /**
+     * Write the stream header.
+     *
+     * @param output The stream, closed with the writer
+     * @param width The frame width, even
+     * @param height The frame height, even
+     * @param frameRateNumerator The frame rate numerator
+     * @param frameRateDenominator The frame rate denominator
+     * @throws IOException If the header cannot be written
+     */
+    public Y4mWriter(OutputStream output, int width, int height, int frameRateNumerator, int frameRateDenominator)
+            throws IOException {
+        if (width <= 0 || height <= 0 || width % 2 != 0 || height % 2 != 0) {
+            throw new IllegalArgumentException("4:2:0 frames need a positive even size, got " + width + "x" + height);
+        }
+        this.output = new BufferedOutputStream(output, 1 << 16);
+        this.width = width;
+        this.height = height;
+        String header = String.format(
+                "YUV4MPEG2 W%d H%d F%d:%d Ip A1:1 C420jpeg\n",
+                width, height, frameRateNumerator, frameRateDenominator);
+        this.output.write(header.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Write one frame.
+     *
+     * @param luma The Y plane, {@code width * height} bytes
+     * @param cb The U plane, {@code width / 2 * height / 2} bytes
+     * @param cr The V plane, {@code width / 2 * height / 2} bytes
+     * @throws IOException If the frame cannot be written
+     */
+    public void writeFrame(byte[] luma, byte[] cb, byte[] cr) throws IOException {
+        int chromaSize = (width / 2) * (height / 2);
+        if (luma.length != width * height || cb.length != chromaSize || cr.length != chromaSize) {
+            throw new IllegalArgumentException("Plane sizes do not match a " + width + "x" + height + " 4:2:0 frame");
+        }
+        output.write(FRAME_HEADER);
+        output.write(luma);
+        output.write(cb);
+        output.write(cr);
+    }
+
+    @Override
+    public void close() throws IOException {
+        output.close();
+    }
+}
@@ -2,6 +2,7 @@ package ro.stancalau.test.framework.webhook;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
 import lombok.Data;
 
 @Data
@@ -23,14 +24,20 @@ public class EgressInfo {
     @JsonProperty("startedAt")
     private Long startedAt;
 
+    @JsonProperty("updatedAt")
+    private Long updatedAt;
+
     @JsonProperty("endedAt")
     private Long endedAt;
 
     @JsonProperty("error")
     private String error;
 
+    @JsonProperty("file")
+    private FileInfo file;
+
     @JsonProperty("fileResults")
-    private Object fileResults;
+    private List<FileInfo> fileResults;
 
     @JsonProperty("streamResults")
     private Object streamResults;
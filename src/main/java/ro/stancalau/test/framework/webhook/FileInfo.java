@@ -0,0 +1,28 @@
+package ro.stancalau.test.framework.webhook;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class FileInfo {
+
+    @JsonProperty("filename")
+    private String filename;
+
+    @JsonProperty("startedAt")
+    private Long startedAt;
+
+    @JsonProperty("endedAt")
+    private Long endedAt;
+
+    @JsonProperty("duration")
+    private Long duration;
+
+    @JsonProperty("size")
+    private Long size;
+
+    @JsonProperty("location")
+    private String location;
+}
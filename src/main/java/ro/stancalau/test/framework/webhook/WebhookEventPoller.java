@@ -90,6 +90,15 @@ public class WebhookEventPoller {
         });
     }
 
+    public Optional<WebhookEvent> waitForEventByTypeAndEgress(
+            MockServerClient mockServerClient, String eventType, String egressId) {
+        return waitForEvent(
+                mockServerClient,
+                event -> eventType.equals(event.getEvent())
+                        && event.getEgressInfo() != null
+                        && egressId.equals(event.getEgressInfo().getEgressId()));
+    }
+
     public Optional<WebhookEvent> waitForEventByTypeAndParticipant(
             MockServerClient mockServerClient, String eventType, String participantIdentity) {
         return waitForEvent(
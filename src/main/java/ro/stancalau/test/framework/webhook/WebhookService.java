@@ -63,6 +63,13 @@ public class WebhookService {
                 .collect(Collectors.toList());
     }
 
+    public List<WebhookEvent> findEventsByEgress(List<WebhookEvent> events, String egressId) {
+        return events.stream()
+                .filter(event -> event.getEgressInfo() != null
+                        && egressId.equals(event.getEgressInfo().getEgressId()))
+                .collect(Collectors.toList());
+    }
+
     private Optional<WebhookEvent> parseWebhookEvent(HttpRequest request) {
         try {
             String jsonBody = request.getBodyAsString();
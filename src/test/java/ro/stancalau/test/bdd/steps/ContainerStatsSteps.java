@@ -0,0 +1,102 @@
+package ro.stancalau.test.bdd.steps;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.cucumber.java.After;
+import io.cucumber.java.Before;
+import io.cucumber.java.Scenario;
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.ToDoubleFunction;
+import lombok.extern.slf4j.Slf4j;
+import ro.stancalau.test.framework.docker.ContainerStatsBuffer;
+import ro.stancalau.test.framework.docker.ContainerStatsSample;
+import ro.stancalau.test.framework.docker.ContainerStatsSampler;
+import ro.stancalau.test.framework.util.DateUtils;
+import ro.stancalau.test.framework.util.FileUtils;
+import ro.stancalau.test.framework.util.PathUtils;
+import ro.stancalau.test.framework.util.ScenarioNamingUtils;
+
+@Slf4j
+public class ContainerStatsSteps {
+
+    private static final double BYTES_PER_MB = 1024.0 * 1024.0;
+
+    private String currentScenarioLogPath;
+    private long measuredFromMillis;
+
+    @Before
+    public void setUpContainerStatsSteps(Scenario scenario) {
+        String featureName =
+                ScenarioNamingUtils.extractFeatureName(scenario.getUri().toString());
+        String timestamp = DateUtils.generateScenarioTimestamp();
+
+        currentScenarioLogPath = PathUtils.scenarioPath(
+                FileUtils.sanitizeFileNameStrict(featureName),
+                FileUtils.sanitizeFileNameStrict(scenario.getName()),
+                timestamp);
+        measuredFromMillis = 0;
+    }
+
+    @After
+    public void exportContainerStats() {
+        ManagerProvider.containers().exportStats(Path.of(currentScenarioLogPath, "stats"));
+    }
+
+    @When("container resource usage is measured from now")
+    public void containerResourceUsageIsMeasuredFromNow() {
+        ContainerStatsSampler sampler = ManagerProvider.containers().getStatsSampler();
+        measuredFromMillis = sampler != null ? sampler.elapsedMillis() : 0;
+    }
+
+    @Then("the {string} container CPU should stay below {double} percent")
+    public void theContainerCpuShouldStayBelow(String serviceName, double maxCpuPercent) {
+        assertPeakBelow(serviceName, "CPU", ContainerStatsSample::cpuPercent, maxCpuPercent, "%");
+    }
+
+    @Then("the {string} container memory should stay below {int} MB")
+    public void theContainerMemoryShouldStayBelow(String serviceName, int maxMemoryMb) {
+        assertPeakBelow(serviceName, "memory", sample -> sample.memoryBytes() / BYTES_PER_MB, maxMemoryMb, " MB");
+    }
+
+    private void assertPeakBelow(
+            String serviceName, String metric, ToDoubleFunction<ContainerStatsSample> value, double max, String unit) {
+        if (ManagerProvider.containers().getStatsSampler() == null) {
+            log.warn("Container stats are disabled, not checking the {} of {}", metric, serviceName);
+            return;
+        }
+        ContainerStatsBuffer stats = ManagerProvider.containers().getStats(serviceName);
+        assertNotNull(stats, "Container " + serviceName + " should have been sampled");
+        List<ContainerStatsSample> samples = stats.samplesSince(measuredFromMillis);
+        assertFalse(
+                samples.isEmpty(), "Container " + serviceName + " has no stats samples since the measurement start");
+
+        double peak = samples.stream().mapToDouble(value).max().orElse(0);
+        double mean = samples.stream().mapToDouble(value).average().orElse(0);
+        log.info(
+                "{} {} over {} samples: peak {}{}, mean {}{}",
+                serviceName,
+                metric,
+                samples.size(),
+                String.format(Locale.ROOT, "%.1f", peak),
+                unit,
+                String.format(Locale.ROOT, "%.1f", mean),
+                unit);
+        assertTrue(
+                peak < max,
+                String.format(
+                        Locale.ROOT,
+                        "The %s of container %s peaked at %.1f%s, expected below %.1f%s",
+                        metric,
+                        serviceName,
+                        peak,
+                        unit,
+                        max,
+                        unit));
+    }
+}
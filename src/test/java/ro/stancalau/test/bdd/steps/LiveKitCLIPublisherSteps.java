@@ -1,5 +1,6 @@
 package ro.stancalau.test.bdd.steps;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -10,21 +11,50 @@ import io.cucumber.java.en.Given;
 import io.cucumber.java.en.Then;
 import io.cucumber.java.en.When;
 import io.livekit.server.AccessToken;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 import lombok.extern.slf4j.Slf4j;
 import org.testcontainers.containers.Network;
+import ro.stancalau.test.framework.config.TestConfig;
 import ro.stancalau.test.framework.docker.CLIPublisherContainer;
+import ro.stancalau.test.framework.docker.CapacitySearch;
+import ro.stancalau.test.framework.docker.ContainerLogIndex;
+import ro.stancalau.test.framework.docker.ContainerLogUtils;
 import ro.stancalau.test.framework.docker.LiveKitContainer;
+import ro.stancalau.test.framework.docker.ShardedLoadTest;
+import ro.stancalau.test.framework.util.CapacitySearchResult;
 import ro.stancalau.test.framework.util.DateUtils;
 import ro.stancalau.test.framework.util.FileUtils;
+import ro.stancalau.test.framework.util.LoadTestOutputParser;
+import ro.stancalau.test.framework.util.LoadTestResults;
+import ro.stancalau.test.framework.util.LoadTestSlo;
+import ro.stancalau.test.framework.util.LoadTestTesterSummary;
 import ro.stancalau.test.framework.util.PathUtils;
 import ro.stancalau.test.framework.util.ScenarioNamingUtils;
+import ro.stancalau.test.framework.util.ShardedLoadTestResults;
 import ro.stancalau.test.framework.util.StringParsingUtils;
 
 @Slf4j
 public class LiveKitCLIPublisherSteps {
 
+    private static final Pattern JOIN_CONNECTED_PATTERN = Pattern.compile("(?i)connected to room");
+    private static final Pattern LOAD_TEST_CONNECTED_PATTERN = Pattern.compile("(?i)\\bconnected\\b|publishing");
+    private static final Duration JOIN_CONNECT_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration LOAD_TEST_CONNECT_TIMEOUT = Duration.ofSeconds(3);
+    private static final Duration LOAD_TEST_RESULTS_TIMEOUT = Duration.ofSeconds(30);
+    private static final int CAPACITY_STAGE_DURATION_SECONDS = 15;
+
+    private final Map<String, ShardedLoadTest> shardedLoadTests = new HashMap<>();
+    private final Map<String, CapacitySearchResult> capacitySearches = new HashMap<>();
+
+    private LoadTestSlo capacitySlo = LoadTestSlo.DEFAULT;
+
     private String currentScenarioLogPath;
     private int cliPublisherCount = 0;
 
@@ -42,6 +72,9 @@ public class LiveKitCLIPublisherSteps {
 
         currentScenarioLogPath = PathUtils.scenarioPath(sanitizedFeatureName, sanitizedScenarioName, timestamp);
         cliPublisherCount = 0; // Reset counter for each scenario
+        shardedLoadTests.clear();
+        capacitySearches.clear();
+        capacitySlo = LoadTestSlo.DEFAULT;
     }
 
     @After
@@ -70,41 +103,164 @@ public class LiveKitCLIPublisherSteps {
 
     @Given("a CLI load test with config {string} connects to room {string} using service {string}")
     public void aCLILoadTestWithConfigConnectsToRoom(String configString, String roomName, String serviceName) {
-        // Replace colons with equals for parsing
-        String normalizedConfig = configString.replace(":", "=");
-        Map<String, String> config = StringParsingUtils.parseKeyValuePairs(normalizedConfig);
+        startLoadTestPublisher(serviceName, roomName, parseLoadTestConfig(configString));
+    }
 
-        CLIPublisherContainer.PublisherConfig.Builder builder = CLIPublisherContainer.PublisherConfig.builder();
+    @Given(
+            "a sharded CLI load test with config {string} across {int} containers connects to room {string} using service {string}")
+    public void aShardedCLILoadTestWithConfigConnectsToRoom(
+            String configString, int shardCount, String roomName, String serviceName) {
+        LiveKitContainer liveKitContainer =
+                ManagerProvider.containers().getContainer(serviceName, LiveKitContainer.class);
+        assertNotNull(liveKitContainer, "LiveKit container " + serviceName + " should exist");
 
-        if (config.containsKey("videoPublishers")) {
-            builder.videoPublishers(Integer.parseInt(config.get("videoPublishers")));
-        }
-        if (config.containsKey("audioPublishers")) {
-            builder.audioPublishers(Integer.parseInt(config.get("audioPublishers")));
-        }
-        if (config.containsKey("subscribers")) {
-            builder.subscribers(Integer.parseInt(config.get("subscribers")));
-        }
-        if (config.containsKey("videoResolution")) {
-            builder.videoResolution(config.get("videoResolution"));
-        }
-        if (config.containsKey("simulcast")) {
-            builder.simulcast(Boolean.parseBoolean(config.get("simulcast")));
+        ShardedLoadTest loadTest = ShardedLoadTest.create(
+                "cli-load-test-" + roomName.toLowerCase(),
+                ManagerProvider.containers().getOrCreateNetwork(),
+                liveKitContainer.getNetworkUrl(),
+                LiveKitContainer.API_KEY,
+                LiveKitContainer.SECRET,
+                roomName,
+                parseLoadTestConfig(configString),
+                shardCount,
+                getScenarioLogPath());
+        loadTest.start(ManagerProvider.containers());
+        shardedLoadTests.put(roomName, loadTest);
+        log.info("Started sharded CLI load test for room {} across {} containers", roomName, shardCount);
+
+        for (Map.Entry<String, CLIPublisherContainer> shard : loadTest.getShards().entrySet()) {
+            awaitCliLog(shard.getKey(), shard.getValue(), LOAD_TEST_CONNECTED_PATTERN, LOAD_TEST_CONNECT_TIMEOUT);
         }
-        if (config.containsKey("duration")) {
-            builder.duration(Integer.parseInt(config.get("duration")));
+    }
+
+    @Given(
+            "the capacity search allows packet loss of at most {double} percent, at least {int} kbps per track and a join success of at least {int} percent")
+    public void theCapacitySearchAllows(
+            double maxDroppedPercent, int minBitrateKbpsPerTrack, int minJoinSuccessPercent) {
+        capacitySlo = new LoadTestSlo(maxDroppedPercent, minBitrateKbpsPerTrack, minJoinSuccessPercent);
+    }
+
+    @When(
+            "a capacity search with config {string} ramps from {int} to {int} participants in steps of {int} across {int} containers in room {string} using service {string}")
+    public void aCapacitySearchRamps(
+            String configString,
+            int initialParticipants,
+            int maxParticipants,
+            int rampStep,
+            int shardCount,
+            String roomName,
+            String serviceName) {
+        LiveKitContainer liveKitContainer =
+                ManagerProvider.containers().getContainer(serviceName, LiveKitContainer.class);
+        assertNotNull(liveKitContainer, "LiveKit container " + serviceName + " should exist");
+
+        CLIPublisherContainer.PublisherConfig template = parseLoadTestConfig(configString);
+        if (template.getDuration() == null) {
+            template = template.toBuilder().duration(CAPACITY_STAGE_DURATION_SECONDS).build();
         }
-        if (config.containsKey("numPerSecond")) {
-            builder.numPerSecond(Integer.parseInt(config.get("numPerSecond")));
+        Duration stageTimeout = Duration.ofSeconds(template.getDuration()).plus(LOAD_TEST_RESULTS_TIMEOUT);
+
+        CapacitySearch search = new CapacitySearch(template, capacitySlo, (stageNumber, config) -> {
+            String stageRoom = roomName + "-stage" + stageNumber;
+            ShardedLoadTest loadTest = ShardedLoadTest.create(
+                    "cli-capacity-" + stageRoom.toLowerCase(),
+                    ManagerProvider.containers().getOrCreateNetwork(),
+                    liveKitContainer.getNetworkUrl(),
+                    LiveKitContainer.API_KEY,
+                    LiveKitContainer.SECRET,
+                    stageRoom,
+                    config,
+                    shardCount,
+                    getScenarioLogPath());
+            try {
+                loadTest.start(ManagerProvider.containers());
+                ShardedLoadTestResults results = loadTest.awaitResults(stageTimeout)
+                        .orElseThrow(() -> new IllegalStateException(
+                                "not all load test shards printed their results within " + stageTimeout.toSeconds()
+                                        + " seconds"));
+                if (!liveKitContainer.isRunning()) {
+                    throw new IllegalStateException("LiveKit server " + serviceName + " stopped during the stage");
+                }
+                return results.aggregate();
+            } finally {
+                loadTest.getShards().keySet().forEach(ManagerProvider.containers()::stopContainer);
+            }
+        });
+
+        CapacitySearchResult result = search.run(
+                new CapacitySearch.Plan(initialParticipants, rampStep, maxParticipants, Math.max(1, rampStep / 4)));
+        capacitySearches.put(roomName, result);
+
+        String profile = configString + " (" + capacitySlo + ")";
+        Path report = Path.of(getScenarioLogPath(), "capacity-search-" + FileUtils.sanitizeFileName(roomName) + ".txt");
+        try {
+            Files.createDirectories(report.getParent());
+            Files.writeString(report, result.toSummary(TestConfig.getLiveKitVersion(), profile));
+        } catch (IOException e) {
+            log.warn("Could not write capacity search report {}: {}", report, e.getMessage());
         }
-        if (config.containsKey("layout")) {
-            builder.layout(config.get("layout"));
+        log.info("Capacity of LiveKit {} for profile {}: {}", TestConfig.getLiveKitVersion(), profile, result);
+        if (result.reachedCeiling()) {
+            log.warn(
+                    "Capacity search for room {} passed every stage up to its limit of {} participants",
+                    roomName,
+                    maxParticipants);
         }
-        if (config.containsKey("simulateSpeakers")) {
-            builder.simulateSpeakers(Boolean.parseBoolean(config.get("simulateSpeakers")));
+    }
+
+    @Then("the capacity search for room {string} should sustain at least {int} participants")
+    public void theCapacitySearchShouldSustainAtLeast(String roomName, int minParticipants) {
+        CapacitySearchResult result = capacitySearches.get(roomName);
+        assertNotNull(result, "No capacity search was run for room " + roomName);
+        assertTrue(
+                result.maxSustainableParticipants() >= minParticipants,
+                "The capacity search for room " + roomName + " sustained fewer than " + minParticipants
+                        + " participants: " + result);
+    }
+
+    @Then("the sharded CLI load test for room {string} should complete successfully within {int} seconds")
+    public void theShardedCLILoadTestShouldCompleteWithin(String roomName, int timeoutSeconds)
+            throws InterruptedException {
+        ShardedLoadTest loadTest = getShardedLoadTest(roomName);
+        int waited = 0;
+        while (loadTest.isRunning() && waited < timeoutSeconds) {
+            TimeUnit.SECONDS.sleep(1);
+            waited++;
         }
+        assertTrue(
+                !loadTest.isRunning(),
+                "All shards of the CLI load test should complete within " + timeoutSeconds + " seconds");
+    }
 
-        startLoadTestPublisher(serviceName, roomName, builder.build());
+    @Then("the sharded CLI load test for room {string} should receive all expected tracks")
+    public void theShardedCLILoadTestShouldReceiveAllExpectedTracks(String roomName) {
+        ShardedLoadTestResults results = getShardedLoadTestResults(roomName);
+        LoadTestTesterSummary total = results.aggregate().total();
+        assertNotNull(total, "The sharded CLI load test for room " + roomName + " printed no total");
+        assertTrue(
+                total.expectedTracks() > 0, "The sharded CLI load test for room " + roomName + " expected no tracks");
+        // Subscribers also receive the tracks of the other shards' publishers
+        assertTrue(
+                total.tracks() >= total.expectedTracks(),
+                "The sharded CLI load test for room " + roomName + " did not receive all tracks: " + results);
+    }
+
+    @Then("the sharded CLI load test for room {string} should report packet loss of at most {double} percent")
+    public void theShardedCLILoadTestShouldReportPacketLossOfAtMost(String roomName, double maxPercent) {
+        ShardedLoadTestResults results = getShardedLoadTestResults(roomName);
+        assertTrue(
+                results.aggregate().maxDroppedPercent() <= maxPercent,
+                "The sharded CLI load test for room " + roomName + " lost more than " + maxPercent + "% of packets: "
+                        + results.toSummary());
+    }
+
+    @Then("the sharded CLI load test for room {string} should report no errors")
+    public void theShardedCLILoadTestShouldReportNoErrors(String roomName) {
+        ShardedLoadTestResults results = getShardedLoadTestResults(roomName);
+        assertEquals(
+                0,
+                results.aggregate().errorCount(),
+                "The sharded CLI load test for room " + roomName + " reported errors: " + results.toSummary());
     }
 
     @When("{string} starts a CLI publisher with {string} to room {string} using service {string}")
@@ -170,6 +326,53 @@ public class LiveKitCLIPublisherSteps {
                 "CLI load test should complete within " + timeoutSeconds + " seconds");
     }
 
+    @Then("the CLI load test for room {string} should receive all expected tracks")
+    public void theCLILoadTestShouldReceiveAllExpectedTracks(String roomName) {
+        LoadTestTesterSummary total = getLoadTestTotal(roomName);
+        assertTrue(total.expectedTracks() > 0, "The CLI load test for room " + roomName + " expected no tracks");
+        assertEquals(
+                total.expectedTracks(),
+                total.tracks(),
+                "The CLI load test for room " + roomName + " did not receive all tracks");
+    }
+
+    @Then("the CLI load test for room {string} should report packet loss of at most {double} percent")
+    public void theCLILoadTestShouldReportPacketLossOfAtMost(String roomName, double maxPercent) {
+        LoadTestResults results = getLoadTestResults(roomName);
+        assertTrue(
+                results.maxDroppedPercent() <= maxPercent,
+                "The CLI load test for room " + roomName + " lost more than " + maxPercent + "% of packets: "
+                        + results.toSummary());
+    }
+
+    @Then("the CLI load test for room {string} should report a mean latency of at most {int} milliseconds")
+    public void theCLILoadTestShouldReportMeanLatencyOfAtMost(String roomName, int maxLatencyMillis) {
+        LoadTestTesterSummary total = getLoadTestTotal(roomName);
+        assertNotNull(total.latency(), "The CLI load test for room " + roomName + " did not measure latency");
+        assertTrue(
+                total.latency().toMillis() <= maxLatencyMillis,
+                "The CLI load test for room " + roomName + " had a mean latency above " + maxLatencyMillis + "ms: "
+                        + total.latency().toMillis() + "ms");
+    }
+
+    @Then("the CLI load test for room {string} should report a total bitrate of at least {int} kbps")
+    public void theCLILoadTestShouldReportTotalBitrateOfAtLeast(String roomName, int minBitrateKbps) {
+        LoadTestTesterSummary total = getLoadTestTotal(roomName);
+        assertTrue(
+                total.bitrateKbps() >= minBitrateKbps,
+                "The CLI load test for room " + roomName + " received less than " + minBitrateKbps + " kbps: "
+                        + total.bitrateKbps() + " kbps");
+    }
+
+    @Then("the CLI load test for room {string} should report no errors")
+    public void theCLILoadTestShouldReportNoErrors(String roomName) {
+        LoadTestResults results = getLoadTestResults(roomName);
+        assertEquals(
+                0,
+                results.errorCount(),
+                "The CLI load test for room " + roomName + " reported errors: " + results.toSummary());
+    }
+
     @Then("the CLI publisher {string} should be connected to room {string}")
     public void theCLIPublisherShouldBeConnectedToRoom(String identity, String roomName) {
         String containerName = "cli-publisher-" + identity.toLowerCase();
@@ -180,6 +383,44 @@ public class LiveKitCLIPublisherSteps {
         assertTrue(container.isRunning(), "CLI publisher for " + identity + " should be running");
     }
 
+    private CLIPublisherContainer.PublisherConfig parseLoadTestConfig(String configString) {
+        // Replace colons with equals for parsing
+        String normalizedConfig = configString.replace(":", "=");
+        Map<String, String> config = StringParsingUtils.parseKeyValuePairs(normalizedConfig);
+
+        CLIPublisherContainer.PublisherConfig.Builder builder = CLIPublisherContainer.PublisherConfig.builder();
+
+        if (config.containsKey("videoPublishers")) {
+            builder.videoPublishers(Integer.parseInt(config.get("videoPublishers")));
+        }
+        if (config.containsKey("audioPublishers")) {
+            builder.audioPublishers(Integer.parseInt(config.get("audioPublishers")));
+        }
+        if (config.containsKey("subscribers")) {
+            builder.subscribers(Integer.parseInt(config.get("subscribers")));
+        }
+        if (config.containsKey("videoResolution")) {
+            builder.videoResolution(config.get("videoResolution"));
+        }
+        if (config.containsKey("simulcast")) {
+            builder.simulcast(Boolean.parseBoolean(config.get("simulcast")));
+        }
+        if (config.containsKey("duration")) {
+            builder.duration(Integer.parseInt(config.get("duration")));
+        }
+        if (config.containsKey("numPerSecond")) {
+            builder.numPerSecond(Integer.parseInt(config.get("numPerSecond")));
+        }
+        if (config.containsKey("layout")) {
+            builder.layout(config.get("layout"));
+        }
+        if (config.containsKey("simulateSpeakers")) {
+            builder.simulateSpeakers(Boolean.parseBoolean(config.get("simulateSpeakers")));
+        }
+
+        return builder.build();
+    }
+
     private void startLoadTestPublisher(
             String serviceName,
             String roomName,
@@ -218,17 +459,11 @@ public class LiveKitCLIPublisherSteps {
         CLIPublisherContainer cliContainer = CLIPublisherContainer.createLoadTestContainer(
                 containerAlias, network, wsUrl, apiKey, apiSecret, roomName, config, logPath);
 
-        cliContainer.start();
+        ManagerProvider.containers().startContainer(containerAlias, cliContainer);
         log.info("Started CLI load test publisher for room {} with config: {}", roomName, config);
 
-        ManagerProvider.containers().registerContainer(containerAlias, cliContainer);
-
         // Give the CLI container time to connect and create participants
-        try {
-            Thread.sleep(3000); // Wait 3 seconds for participants to join
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+        awaitCliLog(containerAlias, cliContainer, LOAD_TEST_CONNECTED_PATTERN, LOAD_TEST_CONNECT_TIMEOUT);
     }
 
     private void startJoinPublisher(
@@ -279,7 +514,7 @@ public class LiveKitCLIPublisherSteps {
                 publishAudio,
                 logPath);
 
-        cliContainer.start();
+        ManagerProvider.containers().startContainer(containerAlias, cliContainer);
         log.info(
                 "Started CLI publisher for {} in room {} (video: {}, audio: {})",
                 identity,
@@ -287,14 +522,89 @@ public class LiveKitCLIPublisherSteps {
                 publishVideo,
                 publishAudio);
 
-        ManagerProvider.containers().registerContainer(containerAlias, cliContainer);
-
         // Give the CLI container time to connect
+        awaitCliLog(containerAlias, cliContainer, JOIN_CONNECTED_PATTERN, JOIN_CONNECT_TIMEOUT);
+    }
+
+    /**
+     * Wait for a load test to print its summary, then write the parsed results next to the container's
+     * log.
+     */
+    private LoadTestResults getLoadTestResults(String roomName) {
+        String containerAlias = "cli-load-test-" + roomName.toLowerCase();
+        CLIPublisherContainer container =
+                ManagerProvider.containers().getContainer(containerAlias, CLIPublisherContainer.class);
+        assertNotNull(container, "CLI load test container should exist");
+
+        LoadTestOutputParser loadTestOutput = container.getLoadTestOutput();
+        assertNotNull(loadTestOutput, "CLI container " + containerAlias + " does not run a load test");
+        LoadTestResults results =
+                loadTestOutput.awaitResults(LOAD_TEST_RESULTS_TIMEOUT).orElse(null);
+        assertNotNull(
+                results,
+                "The CLI load test for room " + roomName + " did not print its results within "
+                        + LOAD_TEST_RESULTS_TIMEOUT.toSeconds() + " seconds");
+
+        Path report = Path.of(
+                PathUtils.containerLogPath(getScenarioLogPath(), "docker", containerAlias), "load-test-results.txt");
         try {
-            Thread.sleep(5000); // Wait 5 seconds for connection
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+            Files.createDirectories(report.getParent());
+            Files.writeString(report, results.toSummary());
+        } catch (IOException e) {
+            log.warn("Could not write load test results {}: {}", report, e.getMessage());
+        }
+        log.info("CLI load test results for room {}: {}", roomName, results);
+        return results;
+    }
+
+    private ShardedLoadTest getShardedLoadTest(String roomName) {
+        ShardedLoadTest loadTest = shardedLoadTests.get(roomName);
+        assertNotNull(loadTest, "No sharded CLI load test was started for room " + roomName);
+        return loadTest;
+    }
+
+    /** Wait for every shard to print its summary, then write the per-shard and aggregate results */
+    private ShardedLoadTestResults getShardedLoadTestResults(String roomName) {
+        ShardedLoadTestResults results = getShardedLoadTest(roomName)
+                .awaitResults(LOAD_TEST_RESULTS_TIMEOUT)
+                .orElse(null);
+        assertNotNull(
+                results,
+                "Not all shards of the CLI load test for room " + roomName + " printed their results within "
+                        + LOAD_TEST_RESULTS_TIMEOUT.toSeconds() + " seconds");
+
+        Path report = Path.of(
+                PathUtils.containerLogPath(getScenarioLogPath(), "docker", "cli-load-test-" + roomName.toLowerCase()),
+                "sharded-load-test-results.txt");
+        try {
+            Files.createDirectories(report.getParent());
+            Files.writeString(report, results.toSummary());
+        } catch (IOException e) {
+            log.warn("Could not write sharded load test results {}: {}", report, e.getMessage());
+        }
+        log.info("Sharded CLI load test results for room {}: {}", roomName, results);
+        return results;
+    }
+
+    private LoadTestTesterSummary getLoadTestTotal(String roomName) {
+        LoadTestResults results = getLoadTestResults(roomName);
+        assertNotNull(results.total(), "The CLI load test for room " + roomName + " printed no total");
+        return results.total();
+    }
+
+    private void awaitCliLog(
+            String containerAlias, CLIPublisherContainer cliContainer, Pattern pattern, Duration timeout) {
+        ContainerLogIndex logIndex = ContainerLogUtils.logIndex(cliContainer);
+        if (logIndex == null) {
+            return;
         }
+        logIndex.awaitMatch(pattern, timeout)
+                .ifPresentOrElse(
+                        line -> log.debug("CLI publisher {} connected: {}", containerAlias, line),
+                        () -> log.info(
+                                "CLI publisher {} did not log a connection within {}s, continuing",
+                                containerAlias,
+                                timeout.toSeconds()));
     }
 
     private String getScenarioLogPath() {
@@ -10,12 +10,18 @@ import io.cucumber.java.en.Then;
 import io.cucumber.java.en.When;
 import io.livekit.server.EgressServiceClient;
 import io.livekit.server.RoomServiceClient;
+import java.awt.image.BufferedImage;
 import java.io.File;
+import java.nio.file.Files;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import javax.imageio.ImageIO;
 import livekit.LivekitEgress;
 import livekit.LivekitModels;
 import lombok.extern.slf4j.Slf4j;
@@ -27,10 +33,15 @@ import ro.stancalau.test.framework.docker.MinIOContainer;
 import ro.stancalau.test.framework.docker.RedisContainer;
 import ro.stancalau.test.framework.state.ContainerStateManager;
 import ro.stancalau.test.framework.util.DateUtils;
+import ro.stancalau.test.framework.util.FakeMediaReferences;
 import ro.stancalau.test.framework.util.FileUtils;
+import ro.stancalau.test.framework.util.ImageContentStats;
 import ro.stancalau.test.framework.util.ImageValidationUtils;
 import ro.stancalau.test.framework.util.MinioS3Client;
 import ro.stancalau.test.framework.util.PathUtils;
+import ro.stancalau.test.framework.util.PerceptualHasher;
+import ro.stancalau.test.framework.util.S3ObjectSummary;
+import ro.stancalau.test.framework.util.S3TransferEngine;
 import ro.stancalau.test.framework.util.ScenarioNamingUtils;
 
 @Slf4j
@@ -106,6 +117,11 @@ public class LiveKitImageSnapshotSteps {
         validateSnapshotImage("snapshot-", ".jpg", "Snapshot");
     }
 
+    @And("the S3 snapshot image should show the {string} fake video source")
+    public void verifyS3SnapshotShowsFakeSource(String source) throws Exception {
+        verifySnapshotShowsFakeSource("snapshot-", ".jpg", "Snapshot", source);
+    }
+
     private void captureTrackIds(String participantIdentity, String roomName, String livekitServiceName)
             throws Exception {
         RoomServiceClient roomClient = ManagerProvider.getRoomClientManager().getRoomServiceClient(livekitServiceName);
@@ -288,63 +304,47 @@ public class LiveKitImageSnapshotSteps {
         String expectedFileName = ManagerProvider.getImageSnapshotStateManager().getCapturedSnapshot(stateKey);
         assertNotNull(expectedFileName, errorMessage);
 
-        ContainerStateManager containerManager = ManagerProvider.getContainerManager();
-        MinIOContainer minioContainer = containerManager.getContainer(minioServiceName, MinIOContainer.class);
-
-        MinioS3Client s3Client = new MinioS3Client(
-                minioContainer.getS3EndpointUrl(),
-                minioContainer.getAccessKey(),
-                minioContainer.getSecretKey(),
-                "snapshots");
+        MinioS3Client s3Client = ManagerProvider.s3().getBucketClient(minioServiceName, "snapshots");
 
         File snapshotsDir = new File(getCurrentScenarioLogPath(), "snapshots");
         snapshotsDir.mkdirs();
 
         String expectedFilePrefix = expectedFileName.replace(".jpg", "_");
 
-        int maxAttempts = 20;
-        int attempt = 0;
-        File downloadedFile = null;
-
-        while (attempt < maxAttempts && downloadedFile == null) {
-            log.debug("Checking for snapshot files in S3 bucket... (attempt {}/{})", attempt + 1, maxAttempts);
-
-            List<String> objectNames = s3Client.listObjects("");
-            String bestObjectName = null;
-            long maxSize = 0;
-
-            // Find the largest file (which should contain actual content)
-            for (String objectName : objectNames) {
-                if (objectName.startsWith(expectedFilePrefix) && objectName.endsWith(".jpeg")) {
-                    long fileSize = s3Client.getObjectSize(objectName);
-                    if (fileSize > maxSize) {
-                        maxSize = fileSize;
-                        bestObjectName = objectName;
-                    }
-                }
-            }
-
-            if (bestObjectName != null) {
-                String localFileName = bestObjectName.replace(".jpeg", ".jpg");
-                File localFile = new File(snapshotsDir, localFileName);
-
-                s3Client.downloadObject(bestObjectName, localFile.getAbsolutePath());
-                downloadedFile = localFile;
-                log.info(
-                        "Downloaded best snapshot image from S3: {} -> {} (size: {} bytes)",
-                        bestObjectName,
-                        localFile.getAbsolutePath(),
-                        maxSize);
-                break;
-            }
-
-            if (downloadedFile == null && attempt < maxAttempts - 1) {
-                TimeUnit.SECONDS.sleep(2);
-            }
-            attempt++;
+        S3ObjectSummary firstSnapshot = s3Client.awaitObject(
+                        expectedFilePrefix,
+                        object -> object.hasExtension(".jpeg") && object.size() > 0,
+                        Duration.ofSeconds(40))
+                .orElse(null);
+        assertNotNull(firstSnapshot, "No snapshot image files found in S3 bucket for prefix: " + expectedFilePrefix);
+
+        List<S3ObjectSummary> frames = s3Client.listObjectSummaries(expectedFilePrefix).stream()
+                .filter(object -> object.hasExtension(".jpeg") && object.size() > 0)
+                .toList();
+        S3TransferEngine transferEngine = ManagerProvider.s3().getTransferEngine(minioServiceName, "snapshots");
+        Map<String, CompletableFuture<byte[]>> downloads = new HashMap<>();
+        for (S3ObjectSummary frame : frames) {
+            downloads.put(frame.key(), transferEngine.download(frame.key()));
         }
+        Map<String, byte[]> encodedFrames = new HashMap<>();
+        downloads.forEach((key, download) -> encodedFrames.put(key, download.join()));
+
+        Map<String, ImageContentStats> stats = ImageValidationUtils.analyzeEncodedContent(encodedFrames);
+        String bestKey = ImageValidationUtils.selectMostDetailed(stats).orElse(null);
+        if (bestKey == null || !encodedFrames.containsKey(bestKey)) {
+            log.warn("None of the {} S3 frames has content, using {}", encodedFrames.size(), firstSnapshot.key());
+            bestKey = firstSnapshot.key();
+            encodedFrames.putIfAbsent(bestKey, transferEngine.download(bestKey).join());
+        }
+
+        File downloadedFile = new File(snapshotsDir, bestKey.replace(".jpeg", ".jpg"));
+        Files.write(downloadedFile.toPath(), encodedFrames.get(bestKey));
+        log.info(
+                "Downloaded most detailed snapshot image from S3: {} -> {} ({})",
+                bestKey,
+                downloadedFile.getAbsolutePath(),
+                describeFrame(stats.get(bestKey)));
 
-        assertNotNull(downloadedFile, "No snapshot image files found in S3 bucket for prefix: " + expectedFilePrefix);
         assertTrue(
                 downloadedFile.exists(),
                 "Downloaded snapshot file does not exist: " + downloadedFile.getAbsolutePath());
@@ -419,23 +419,17 @@ public class LiveKitImageSnapshotSteps {
         int maxAttempts = 20;
         int attempt = 0;
         File bestFile = null;
-        long maxSize = 0;
 
         while (attempt < maxAttempts && bestFile == null) {
             log.debug("Checking for local snapshot files... (attempt {}/{})", attempt + 1, maxAttempts);
 
             File[] snapshotFiles = snapshotsDir.listFiles((dir, name) ->
                     name.startsWith(expectedFilePrefix.substring(expectedFilePrefix.lastIndexOf("/") + 1))
-                            && (name.endsWith(".jpeg") || name.endsWith(".jpg")));
+                            && (name.endsWith(".jpeg") || name.endsWith(".jpg"))
+                            && new File(dir, name).length() > 0);
 
-            if (snapshotFiles != null) {
-                // Find the largest file (which should contain actual content)
-                for (File file : snapshotFiles) {
-                    if (file.length() > maxSize) {
-                        maxSize = file.length();
-                        bestFile = file;
-                    }
-                }
+            if (snapshotFiles != null && snapshotFiles.length > 0) {
+                bestFile = selectMostDetailedFrame(snapshotFiles);
             }
 
             if (bestFile == null && attempt < maxAttempts - 1) {
@@ -466,7 +460,6 @@ public class LiveKitImageSnapshotSteps {
         int maxAttempts = 20;
         int attempt = 0;
         File bestFile = null;
-        long maxSize = 0;
 
         while (attempt < maxAttempts && bestFile == null) {
             log.debug(
@@ -474,16 +467,11 @@ public class LiveKitImageSnapshotSteps {
 
             File[] snapshotFiles = snapshotsDir.listFiles((dir, name) ->
                     name.startsWith(expectedFilePrefix.substring(expectedFilePrefix.lastIndexOf("/") + 1))
-                            && (name.endsWith(".jpeg") || name.endsWith(".jpg")));
+                            && (name.endsWith(".jpeg") || name.endsWith(".jpg"))
+                            && new File(dir, name).length() > 0);
 
-            if (snapshotFiles != null) {
-                // Find the largest file (which should contain actual content)
-                for (File file : snapshotFiles) {
-                    if (file.length() > maxSize) {
-                        maxSize = file.length();
-                        bestFile = file;
-                    }
-                }
+            if (snapshotFiles != null && snapshotFiles.length > 0) {
+                bestFile = selectMostDetailedFrame(snapshotFiles);
             }
 
             if (bestFile == null && attempt < maxAttempts - 1) {
@@ -511,6 +499,11 @@ public class LiveKitImageSnapshotSteps {
         validateSnapshotImage("local-snapshot-", ".jpg,.jpeg", "Local snapshot");
     }
 
+    @And("the local snapshot image should show the {string} fake video source")
+    public void verifyLocalSnapshotShowsFakeSource(String source) throws Exception {
+        verifySnapshotShowsFakeSource("local-snapshot-", ".jpg,.jpeg", "Local snapshot", source);
+    }
+
     private void cleanupLocalBlackFrames(String filePrefix) {
         try {
             String snapshotsPath = getCurrentScenarioLogPath() + "/snapshots";
@@ -530,31 +523,20 @@ public class LiveKitImageSnapshotSteps {
                 return;
             }
 
-            long largestSize = 0;
-            File largestFile = null;
-            List<File> filesToDelete = new ArrayList<>();
+            Map<File, ImageContentStats> stats = ImageValidationUtils.analyzeContent(Arrays.asList(snapshotFiles));
+            File bestFile = ImageValidationUtils.selectMostDetailed(stats).orElse(null);
+            if (bestFile == null) {
+                log.warn("All {} local frames are black, uniform or unreadable; keeping them", snapshotFiles.length);
+                return;
+            }
 
             for (File file : snapshotFiles) {
-                long fileSize = file.length();
-
-                if (fileSize > largestSize) {
-                    if (largestFile != null) {
-                        filesToDelete.add(largestFile);
-                    }
-                    largestSize = fileSize;
-                    largestFile = file;
-                } else {
-                    filesToDelete.add(file);
+                if (!file.equals(bestFile)) {
+                    log.info("Deleting local frame {} ({})", file.getName(), describeFrame(stats.get(file)));
+                    file.delete();
                 }
             }
-
-            for (File fileToDelete : filesToDelete) {
-                log.info(
-                        "Deleting smaller/duplicate local frame: {} (size: {} bytes)",
-                        fileToDelete.getName(),
-                        fileToDelete.length());
-                fileToDelete.delete();
-            }
+            log.info("Kept local frame {} ({})", bestFile.getName(), describeFrame(stats.get(bestFile)));
 
         } catch (Exception e) {
             log.warn("Failed to cleanup local black frames: {}", e.getMessage());
@@ -563,51 +545,69 @@ public class LiveKitImageSnapshotSteps {
 
     private void cleanupBlackFramesFromS3(String bucketName, String filePrefix, String minioServiceName) {
         try {
-            ContainerStateManager containerManager = ManagerProvider.getContainerManager();
-            MinIOContainer minioContainer = containerManager.getContainer(minioServiceName, MinIOContainer.class);
+            MinioS3Client s3Client = ManagerProvider.s3().getBucketClient(minioServiceName, bucketName);
 
-            MinioS3Client s3Client = new MinioS3Client(
-                    minioContainer.getS3EndpointUrl(),
-                    minioContainer.getAccessKey(),
-                    minioContainer.getSecretKey(),
-                    bucketName);
-
-            List<String> objectNames = s3Client.listObjects("");
             String expectedFilePrefix = filePrefix + "_";
 
-            long largestSize = 0;
-            String largestFile = null;
-            List<String> filesToDelete = new ArrayList<>();
-
-            for (String objectName : objectNames) {
-                if (objectName.startsWith(expectedFilePrefix)
-                        && (objectName.endsWith(".jpeg") || objectName.endsWith(".jpg"))) {
-                    long fileSize = s3Client.getObjectSize(objectName);
-
-                    if (fileSize > largestSize) {
-                        if (largestFile != null) {
-                            filesToDelete.add(largestFile);
-                        }
-                        largestSize = fileSize;
-                        largestFile = objectName;
-                    } else {
-                        filesToDelete.add(objectName);
-                    }
-                }
+            List<S3ObjectSummary> frames = s3Client.listObjectSummaries(expectedFilePrefix).stream()
+                    .filter(object -> object.hasExtension(".jpeg", ".jpg"))
+                    .toList();
+            if (frames.size() <= 1) {
+                log.info("No duplicate S3 frames to cleanup (found {} files)", frames.size());
+                return;
+            }
+
+            S3TransferEngine transferEngine = ManagerProvider.s3().getTransferEngine(minioServiceName, bucketName);
+            Map<String, CompletableFuture<byte[]>> downloads = new HashMap<>();
+            for (S3ObjectSummary frame : frames) {
+                downloads.put(frame.key(), transferEngine.download(frame.key()));
             }
+            Map<String, byte[]> encodedFrames = new HashMap<>();
+            downloads.forEach((key, download) -> encodedFrames.put(key, download.join()));
 
-            for (String objectToDelete : filesToDelete) {
-                long size = s3Client.getObjectSize(objectToDelete);
-                log.info("Deleting smaller/duplicate frame from S3: {} (size: {} bytes)", objectToDelete, size);
-                s3Client.deleteObject(objectToDelete);
+            Map<String, ImageContentStats> stats = ImageValidationUtils.analyzeEncodedContent(encodedFrames);
+            String bestKey = ImageValidationUtils.selectMostDetailed(stats).orElse(null);
+            if (bestKey == null) {
+                log.warn("All {} S3 frames are black, uniform or unreadable; keeping them", frames.size());
+                return;
             }
 
-            s3Client.close();
+            List<String> keysToDelete = new ArrayList<>();
+            for (S3ObjectSummary frame : frames) {
+                if (!frame.key().equals(bestKey)) {
+                    log.info("Deleting frame from S3: {} ({})", frame.key(), describeFrame(stats.get(frame.key())));
+                    keysToDelete.add(frame.key());
+                }
+            }
+            s3Client.deleteObjects(keysToDelete);
+            log.info("Kept S3 frame {} ({})", bestKey, describeFrame(stats.get(bestKey)));
         } catch (Exception e) {
             log.warn("Failed to cleanup black frames from S3: {}", e.getMessage());
         }
     }
 
+    /** The frame with the most detail, or the first one if none shows more than a black or flat image */
+    private static File selectMostDetailedFrame(File[] frames) {
+        Map<File, ImageContentStats> stats = ImageValidationUtils.analyzeContent(Arrays.asList(frames));
+        File bestFile = ImageValidationUtils.selectMostDetailed(stats).orElse(null);
+        if (bestFile == null) {
+            log.warn("None of the {} local frames has content, using {}", frames.length, frames[0].getName());
+            return frames[0];
+        }
+        log.info("Selected local frame {} ({})", bestFile.getName(), describeFrame(stats.get(bestFile)));
+        return bestFile;
+    }
+
+    private static String describeFrame(ImageContentStats stats) {
+        if (stats == null) {
+            return "unreadable";
+        }
+        String verdict = stats.isBlack() ? "black" : stats.isUniform() ? "uniform" : "content";
+        return String.format(
+                "%s, mean luma %.1f, std dev %.1f, edge energy %.1f",
+                verdict, stats.meanLuma(), stats.lumaStdDev(), stats.edgeEnergy());
+    }
+
     private LivekitEgress.ImageOutput createS3ImageOutput(String fileName, String minioServiceName) {
         ContainerStateManager containerManager = ManagerProvider.getContainerManager();
         MinIOContainer minioContainer = containerManager.getContainer(minioServiceName, MinIOContainer.class);
@@ -639,7 +639,39 @@ public class LiveKitImageSnapshotSteps {
                 .setDisableManifest(true);
     }
 
-    private void validateSnapshotImage(String prefix, String extensions, String type) throws Exception {
+    private void verifySnapshotShowsFakeSource(String prefix, String extensions, String type, String source)
+            throws Exception {
+        File snapshotFile = findSnapshotFile(prefix, extensions, type);
+        BufferedImage image = ImageIO.read(snapshotFile);
+        assertNotNull(image, type + " file is not a valid image: " + snapshotFile.getAbsolutePath());
+
+        long hash = new PerceptualHasher().hash(image, PerceptualHasher.Algorithm.PERCEPTUAL);
+        FakeMediaReferences references = FakeMediaReferences.getShared();
+        Integer distance = references.distanceTo(source, hash).orElse(null);
+        assertNotNull(
+                distance,
+                "No reference hashes for fake video source '" + source + "' in " + FakeMediaReferences.RESOURCE
+                        + "; observed pHash of " + snapshotFile.getName() + " is "
+                        + PerceptualHasher.toHex(hash));
+
+        log.info(
+                "{} {} pHash {} is at distance {} from fake video source '{}'",
+                type,
+                snapshotFile.getName(),
+                PerceptualHasher.toHex(hash),
+                distance,
+                source);
+        assertTrue(
+                distance <= PerceptualHasher.DEFAULT_MATCH_DISTANCE,
+                type + " " + snapshotFile.getName() + " does not show fake video source '" + source
+                        + "': pHash " + PerceptualHasher.toHex(hash) + " is " + distance
+                        + " bits from the closest reference"
+                        + references.closestMatch(hash)
+                                .map(match -> ", closest source is '" + match.source() + "' at " + match.distance())
+                                .orElse(""));
+    }
+
+    private File findSnapshotFile(String prefix, String extensions, String type) {
         File snapshotsDir = new File(getCurrentScenarioLogPath(), "snapshots");
         assertTrue(
                 snapshotsDir.exists() && snapshotsDir.isDirectory(),
@@ -661,7 +693,11 @@ public class LiveKitImageSnapshotSteps {
                 snapshotFiles.length > 0,
                 "No " + type.toLowerCase() + " image files found in directory: " + snapshotsDir.getAbsolutePath());
 
-        File snapshotFile = snapshotFiles[0];
+        return snapshotFiles[0];
+    }
+
+    private void validateSnapshotImage(String prefix, String extensions, String type) throws Exception {
+        File snapshotFile = findSnapshotFile(prefix, extensions, type);
 
         assertTrue(
                 ImageValidationUtils.isValidImage(snapshotFile),
@@ -673,6 +709,11 @@ public class LiveKitImageSnapshotSteps {
                 ImageValidationUtils.hasValidDimensions(snapshotFile, 100, 100),
                 type + " image has invalid dimensions: " + snapshotFile.getAbsolutePath());
 
+        ImageContentStats stats = ImageValidationUtils.analyzeContent(snapshotFile);
+        assertTrue(
+                stats.hasContent(),
+                type + " image is black or uniform (" + describeFrame(stats) + "): " + snapshotFile.getAbsolutePath());
+
         log.info(
                 "Verified " + type.toLowerCase() + " image file exists and is valid: {} ({} bytes)",
                 snapshotFile.getAbsolutePath(),
@@ -713,12 +754,11 @@ public class LiveKitImageSnapshotSteps {
                 serviceLogPath,
                 redisContainer.getNetworkRedisUrl());
 
-        egressContainer.start();
+        containerManager.startContainer(serviceName, egressContainer);
         assertTrue(
                 egressContainer.isRunning(),
                 containerType + " egress container with service name " + serviceName + " should be running");
 
-        containerManager.registerContainer(serviceName, egressContainer);
         log.info("{} egress service {} started and registered", containerType, serviceName);
     }
 }
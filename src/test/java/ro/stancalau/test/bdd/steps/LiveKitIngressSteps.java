@@ -77,10 +77,9 @@ public class LiveKitIngressSteps {
                 redis.getNetworkRedisUrl(),
                 serviceLogPath);
 
-        ingress.start();
+        containerManager.startContainer(serviceName, ingress);
         assertTrue(ingress.isRunning(), "Ingress container with service name " + serviceName + " should be running");
 
-        containerManager.registerContainer(serviceName, ingress);
         log.info("Ingress service {} started with RTMP URL: {}", serviceName, ingress.getRtmpUrl());
 
         try {
@@ -199,8 +198,7 @@ public class LiveKitIngressSteps {
                 durationSeconds,
                 logPath);
 
-        ffmpeg.start();
-        containerManager.registerContainer(containerAlias, ffmpeg);
+        containerManager.startContainer(containerAlias, ffmpeg);
         ManagerProvider.ingress().registerActiveStream(identity, containerAlias);
 
         log.info("Started RTMP stream for {} to {} for {} seconds", identity, ingressServiceName, durationSeconds);
@@ -236,8 +234,7 @@ public class LiveKitIngressSteps {
                 30,
                 logPath);
 
-        ffmpeg.start();
-        containerManager.registerContainer(containerAlias, ffmpeg);
+        containerManager.startContainer(containerAlias, ffmpeg);
         ManagerProvider.ingress().registerActiveStream(identity, containerAlias);
 
         log.info(
@@ -261,8 +258,7 @@ public class LiveKitIngressSteps {
                 containerAlias, containerManager.getOrCreateNetwork(), info.getUrl(), 10, logPath);
 
         try {
-            ffmpeg.start();
-            containerManager.registerContainer(containerAlias, ffmpeg);
+            containerManager.startContainer(containerAlias, ffmpeg);
             TimeUnit.SECONDS.sleep(5);
             streamFailed = !ffmpeg.isRunning();
         } catch (Exception e) {
@@ -1,15 +1,20 @@
 package ro.stancalau.test.bdd.steps;
 
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import io.cucumber.java.After;
 import io.cucumber.java.Before;
 import io.cucumber.java.Scenario;
 import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import java.time.Duration;
+import java.util.Optional;
 import javax.annotation.Nullable;
 import lombok.extern.slf4j.Slf4j;
 import org.testcontainers.containers.Network;
 import ro.stancalau.test.framework.config.TestConfig;
+import ro.stancalau.test.framework.docker.ContainerLogIndex;
 import ro.stancalau.test.framework.docker.LiveKitContainer;
 import ro.stancalau.test.framework.factory.LiveKitContainerFactory;
 import ro.stancalau.test.framework.util.DateUtils;
@@ -63,6 +68,17 @@ public class LiveKitLifecycleSteps {
         getOrCreateContainer(serviceName, configPath);
     }
 
+    @Then("the {string} container should log a line matching {string} within {int} seconds")
+    public void theContainerShouldLogALineMatchingWithinSeconds(String serviceName, String regex, int seconds) {
+        ContainerLogIndex logIndex = ManagerProvider.containers().getLogIndex(serviceName);
+        assertNotNull(logIndex, "Logs of container " + serviceName + " should be captured");
+
+        Optional<String> line = logIndex.awaitMatch(regex, Duration.ofSeconds(seconds));
+        assertTrue(
+                line.isPresent(),
+                "Container " + serviceName + " should log a line matching '" + regex + "' within " + seconds + "s");
+    }
+
     private void getOrCreateContainer(String serviceName, @Nullable String configPath) {
         Network network = ManagerProvider.containers().getOrCreateNetwork();
 
@@ -70,11 +86,9 @@ public class LiveKitLifecycleSteps {
         LiveKitContainer liveKitContainer = LiveKitContainerFactory.createBddContainerWithScenarioLogs(
                 serviceName, network, configPath, serviceLogPath);
 
-        liveKitContainer.start();
+        ManagerProvider.containers().startContainer(serviceName, liveKitContainer);
         assertTrue(
                 liveKitContainer.isRunning(),
                 "LiveKit container with service name " + serviceName + " should be running");
-
-        ManagerProvider.containers().registerContainer(serviceName, liveKitContainer);
     }
 }
@@ -0,0 +1,223 @@
+package ro.stancalau.test.bdd.steps;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.cucumber.java.After;
+import io.cucumber.java.Before;
+import io.cucumber.java.Scenario;
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import ro.stancalau.test.framework.config.TestConfig;
+import ro.stancalau.test.framework.docker.LiveKitContainer;
+import ro.stancalau.test.framework.util.DateUtils;
+import ro.stancalau.test.framework.util.FileUtils;
+import ro.stancalau.test.framework.util.PathUtils;
+import ro.stancalau.test.framework.util.PrometheusMetricStore;
+import ro.stancalau.test.framework.util.PrometheusMetricType;
+import ro.stancalau.test.framework.util.PrometheusPhase;
+import ro.stancalau.test.framework.util.PrometheusScraper;
+import ro.stancalau.test.framework.util.PrometheusTextParser;
+import ro.stancalau.test.framework.util.ScenarioNamingUtils;
+
+@Slf4j
+public class LiveKitMetricsSteps {
+
+    private final Map<String, PrometheusScraper> scrapers = new LinkedHashMap<>();
+    private String currentScenarioLogPath;
+
+    @Before
+    public void setUpLiveKitMetricsSteps(Scenario scenario) {
+        String featureName =
+                ScenarioNamingUtils.extractFeatureName(scenario.getUri().toString());
+        String timestamp = DateUtils.generateScenarioTimestamp();
+
+        currentScenarioLogPath = PathUtils.scenarioPath(
+                FileUtils.sanitizeFileNameStrict(featureName),
+                FileUtils.sanitizeFileNameStrict(scenario.getName()),
+                timestamp);
+        scrapers.clear();
+    }
+
+    @After
+    public void stopScrapingAndExportMetrics() {
+        Path directory = Path.of(currentScenarioLogPath, "metrics");
+        for (PrometheusScraper scraper : scrapers.values()) {
+            scraper.close();
+            try {
+                scraper.export(directory);
+            } catch (IOException e) {
+                log.warn(
+                        "Could not export Prometheus metrics of {} to {}: {}",
+                        scraper.getName(),
+                        directory,
+                        e.getMessage());
+            }
+        }
+        scrapers.clear();
+    }
+
+    @When("Prometheus metrics of LiveKit service {string} are scraped")
+    public void prometheusMetricsOfLiveKitServiceAreScraped(String serviceName) {
+        LiveKitContainer livekit = ManagerProvider.containers().getContainer(serviceName, LiveKitContainer.class);
+        assertNotNull(livekit, "LiveKit service " + serviceName + " should be running");
+        PrometheusScraper scraper = PrometheusScraper.start(
+                serviceName,
+                URI.create(livekit.getPrometheusUrl()),
+                Duration.ofMillis(TestConfig.getPrometheusScrapeIntervalMs()));
+        PrometheusScraper previous = scrapers.put(serviceName, scraper);
+        if (previous != null) {
+            previous.close();
+        }
+    }
+
+    @When("the metrics phase {string} begins")
+    public void theMetricsPhaseBegins(String phaseName) {
+        assertFalse(scrapers.isEmpty(), "No LiveKit service is being scraped");
+        for (PrometheusScraper scraper : scrapers.values()) {
+            scraper.markPhase(phaseName);
+        }
+    }
+
+    @Then(
+            "the LiveKit metric {string} of service {string} should increase by at least {double} during phase {string}")
+    public void theLiveKitMetricShouldIncreaseByAtLeast(
+            String selector, String serviceName, double minIncrease, String phaseName) {
+        PrometheusScraper scraper = scraper(serviceName);
+        PrometheusPhase phase = phase(scraper, phaseName);
+        MetricSelector metric = MetricSelector.parse(selector);
+        PrometheusMetricStore store = scraper.getStore();
+        assertFalse(store.series(metric.name(), metric.labels()).isEmpty(), "No series matches " + selector);
+
+        double increase = store.increase(metric.name(), metric.labels(), phase.fromMillis(), phase.toMillis());
+        log.info("{} of {} increased by {} during phase {}", selector, serviceName, increase, phaseName);
+        assertTrue(
+                increase >= minIncrease,
+                String.format(
+                        Locale.ROOT,
+                        "%s of %s increased by %s during phase %s, expected at least %s",
+                        selector,
+                        serviceName,
+                        PrometheusMetricStore.formatValue(increase),
+                        phaseName,
+                        PrometheusMetricStore.formatValue(minIncrease)));
+    }
+
+    @Then("the LiveKit gauge {string} of service {string} should reach at least {double} during phase {string}")
+    public void theLiveKitGaugeShouldReachAtLeast(String selector, String serviceName, double min, String phaseName) {
+        double peak = gaugePeak(selector, serviceName, phaseName);
+        assertTrue(
+                peak >= min,
+                String.format(
+                        Locale.ROOT,
+                        "%s of %s peaked at %s during phase %s, expected at least %s",
+                        selector,
+                        serviceName,
+                        PrometheusMetricStore.formatValue(peak),
+                        phaseName,
+                        PrometheusMetricStore.formatValue(min)));
+    }
+
+    @Then("the LiveKit gauge {string} of service {string} should stay below {double} during phase {string}")
+    public void theLiveKitGaugeShouldStayBelow(String selector, String serviceName, double limit, String phaseName) {
+        double peak = gaugePeak(selector, serviceName, phaseName);
+        assertTrue(
+                peak < limit,
+                String.format(
+                        Locale.ROOT,
+                        "%s of %s peaked at %s during phase %s, expected below %s",
+                        selector,
+                        serviceName,
+                        PrometheusMetricStore.formatValue(peak),
+                        phaseName,
+                        PrometheusMetricStore.formatValue(limit)));
+    }
+
+    @Then(
+            "the {double} quantile of LiveKit histogram {string} of service {string} should be at most {double} during phase {string}")
+    public void theQuantileOfLiveKitHistogramShouldBeAtMost(
+            double quantile, String selector, String serviceName, double max, String phaseName) {
+        PrometheusScraper scraper = scraper(serviceName);
+        PrometheusPhase phase = phase(scraper, phaseName);
+        MetricSelector metric = MetricSelector.parse(selector);
+        PrometheusMetricStore store = scraper.getStore();
+        assertTrue(
+                store.typeOf(metric.name()) == PrometheusMetricType.HISTOGRAM,
+                selector + " of " + serviceName + " is not a histogram");
+
+        double estimate = store.histogramQuantile(
+                metric.name(), metric.labels(), quantile, phase.fromMillis(), phase.toMillis());
+        assertFalse(Double.isNaN(estimate), selector + " observed nothing during phase " + phaseName);
+        log.info("{} quantile of {} of {} during phase {}: {}", quantile, selector, serviceName, phaseName, estimate);
+        assertTrue(
+                estimate <= max,
+                String.format(
+                        Locale.ROOT,
+                        "The %s quantile of %s of %s was %s during phase %s, expected at most %s",
+                        PrometheusMetricStore.formatValue(quantile),
+                        selector,
+                        serviceName,
+                        PrometheusMetricStore.formatValue(estimate),
+                        phaseName,
+                        PrometheusMetricStore.formatValue(max)));
+    }
+
+    private double gaugePeak(String selector, String serviceName, String phaseName) {
+        PrometheusScraper scraper = scraper(serviceName);
+        PrometheusPhase phase = phase(scraper, phaseName);
+        MetricSelector metric = MetricSelector.parse(selector);
+        double peak = scraper.getStore()
+                .maxTotal(metric.name(), metric.labels(), phase.fromMillis(), phase.toMillis());
+        assertFalse(Double.isNaN(peak), "No series matches " + selector + " during phase " + phaseName);
+        log.info("{} of {} peaked at {} during phase {}", selector, serviceName, peak, phaseName);
+        return peak;
+    }
+
+    private PrometheusScraper scraper(String serviceName) {
+        PrometheusScraper scraper = scrapers.get(serviceName);
+        assertNotNull(scraper, "Prometheus metrics of " + serviceName + " are not being scraped");
+        assertTrue(scraper.scrape(), "Could not scrape the Prometheus metrics of " + serviceName);
+        return scraper;
+    }
+
+    private static PrometheusPhase phase(PrometheusScraper scraper, String phaseName) {
+        PrometheusPhase phase = scraper.phase(phaseName);
+        assertNotNull(phase, "Metrics phase " + phaseName + " never began");
+        return phase;
+    }
+
+    /** A metric name with optional labels, written as in the exposition format, e.g. {@code a{b="c"}} */
+    private record MetricSelector(String name, Map<String, String> labels) {
+
+        static MetricSelector parse(String selector) {
+            List<MetricSelector> parsed = new ArrayList<>();
+            PrometheusTextParser parser = new PrometheusTextParser(new PrometheusTextParser.Listener() {
+                @Override
+                public void type(String family, PrometheusMetricType type) {}
+
+                @Override
+                public void sample(String name, Map<String, String> labels, double value) {
+                    parsed.add(new MetricSelector(name, labels));
+                }
+            });
+            char[] line = (selector + " 0").toCharArray();
+            parser.feed(line, 0, line.length);
+            parser.finish();
+            if (parsed.size() != 1) {
+                throw new IllegalArgumentException("Invalid metric selector: " + selector);
+            }
+            return parsed.getFirst();
+        }
+    }
+}
@@ -15,6 +15,7 @@ import java.util.Optional;
 import lombok.extern.slf4j.Slf4j;
 import org.mockserver.client.MockServerClient;
 import org.testcontainers.containers.Network;
+import ro.stancalau.test.framework.docker.ContainerFootprint;
 import ro.stancalau.test.framework.docker.MockHttpServerContainer;
 import ro.stancalau.test.framework.util.DateUtils;
 import ro.stancalau.test.framework.util.FileUtils;
@@ -64,6 +65,7 @@ public class LiveKitWebhookSteps {
             Network network = ManagerProvider.containers().getOrCreateNetwork();
 
             MockHttpServerContainer mockServer = new MockHttpServerContainer(currentScenarioLogPath, serviceName);
+            ManagerProvider.containers().reserve(serviceName, ContainerFootprint.MOCK_SERVER);
             mockServer.withNetworkAliasAndStart(network, serviceName);
 
             assertTrue(mockServer.isRunning(), "Mock HTTP server container should be running");
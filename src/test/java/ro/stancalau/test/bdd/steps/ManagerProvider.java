@@ -10,6 +10,7 @@ import ro.stancalau.test.framework.state.ManagerFactory;
 import ro.stancalau.test.framework.state.MeetSessionStateManager;
 import ro.stancalau.test.framework.state.MetadataStateManager;
 import ro.stancalau.test.framework.state.RoomClientStateManager;
+import ro.stancalau.test.framework.state.S3ClientStateManager;
 import ro.stancalau.test.framework.state.VideoQualityStateManager;
 import ro.stancalau.test.framework.state.WebDriverStateManager;
 
@@ -176,4 +177,16 @@ public class ManagerProvider {
     public static MetadataStateManager metadata() {
         return getMetadataManager();
     }
+
+    public static S3ClientStateManager getS3ClientManager() {
+        ManagerFactory.ManagerSet managers = managerSet.get();
+        if (managers == null) {
+            throw new IllegalStateException("Managers not initialized. Ensure BaseSteps @Before hook ran.");
+        }
+        return managers.s3ClientManager();
+    }
+
+    public static S3ClientStateManager s3() {
+        return getS3ClientManager();
+    }
 }
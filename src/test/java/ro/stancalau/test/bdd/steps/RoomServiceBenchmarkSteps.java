@@ -0,0 +1,135 @@
+package ro.stancalau.test.bdd.steps;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.cucumber.java.Before;
+import io.cucumber.java.Scenario;
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+import io.livekit.server.RoomServiceClient;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import javax.annotation.Nullable;
+import livekit.LivekitModels;
+import lombok.extern.slf4j.Slf4j;
+import ro.stancalau.test.framework.config.TestConfig;
+import ro.stancalau.test.framework.util.DateUtils;
+import ro.stancalau.test.framework.util.FileUtils;
+import ro.stancalau.test.framework.util.LatencyHistogram;
+import ro.stancalau.test.framework.util.PathUtils;
+import ro.stancalau.test.framework.util.RoomServiceBenchmark;
+import ro.stancalau.test.framework.util.RoomServiceBenchmarkResult;
+import ro.stancalau.test.framework.util.RoomServiceEndpoint;
+import ro.stancalau.test.framework.util.ScenarioNamingUtils;
+
+@Slf4j
+public class RoomServiceBenchmarkSteps {
+
+    private static final Duration BENCHMARK_TIMEOUT = Duration.ofMinutes(5);
+
+    private String currentScenarioLogPath;
+    private RoomServiceBenchmarkResult lastResult;
+
+    @Before
+    public void setUpRoomServiceBenchmarkSteps(Scenario scenario) {
+        String featureName =
+                ScenarioNamingUtils.extractFeatureName(scenario.getUri().toString());
+        String timestamp = DateUtils.generateScenarioTimestamp();
+
+        currentScenarioLogPath = PathUtils.scenarioPath(
+                FileUtils.sanitizeFileNameStrict(featureName),
+                FileUtils.sanitizeFileNameStrict(scenario.getName()),
+                timestamp);
+        lastResult = null;
+    }
+
+    @When("a Room Service benchmark runs {int} room lifecycles with {int} concurrent clients using service {string}")
+    public void roomServiceBenchmarkRuns(int lifecycles, int concurrency, String serviceName) {
+        runBenchmark(lifecycles, concurrency, serviceName, null, List.of());
+    }
+
+    @When(
+            "a Room Service benchmark runs {int} room lifecycles with {int} concurrent clients using service {string} and updates the participants of room {string}")
+    public void roomServiceBenchmarkRunsUpdatingParticipants(
+            int lifecycles, int concurrency, String serviceName, String participantRoom) throws IOException {
+        List<LivekitModels.ParticipantInfo> participants = ManagerProvider.rooms()
+                .getRoomServiceClient(serviceName)
+                .listParticipants(participantRoom)
+                .execute()
+                .body();
+        assertNotNull(participants, "Could not list the participants of room " + participantRoom);
+        List<String> identities = participants.stream()
+                .map(LivekitModels.ParticipantInfo::getIdentity)
+                .toList();
+        assertFalse(identities.isEmpty(), "Room " + participantRoom + " has no participants to update");
+        runBenchmark(lifecycles, concurrency, serviceName, participantRoom, identities);
+    }
+
+    @Then("the Room Service benchmark should have completed {int} room lifecycles")
+    public void theRoomServiceBenchmarkShouldHaveCompleted(int lifecycles) {
+        assertEquals(lifecycles, result().lifecycles(), "Completed Room Service lifecycles");
+    }
+
+    @Then("the Room Service benchmark p{int} latency of {word} should be at most {int} milliseconds")
+    public void theRoomServiceBenchmarkLatencyShouldBeAtMost(int percentile, String apiName, int maxMillis) {
+        RoomServiceEndpoint endpoint = RoomServiceEndpoint.fromApiName(apiName);
+        LatencyHistogram latency = result().endpoint(endpoint).latency();
+        assertTrue(latency.count() > 0, "No successful " + apiName + " call was measured");
+        Duration measured = latency.percentile(percentile);
+        assertTrue(
+                measured.toNanos() <= Duration.ofMillis(maxMillis).toNanos(),
+                "The p" + percentile + " latency of " + apiName + " was " + measured.toMillis()
+                        + " ms, expected at most " + maxMillis + " ms");
+    }
+
+    @Then("the Room Service benchmark error rate of every endpoint should be at most {double} percent")
+    public void theRoomServiceBenchmarkErrorRateShouldBeAtMost(double maxPercent) {
+        for (RoomServiceBenchmarkResult.EndpointResult endpoint : result().endpoints()) {
+            assertTrue(
+                    endpoint.errorPercent() <= maxPercent,
+                    String.format(
+                            Locale.ROOT,
+                            "The error rate of %s was %.2f%% %s, expected at most %.2f%%",
+                            endpoint.endpoint(),
+                            endpoint.errorPercent(),
+                            endpoint.errorsByCause(),
+                            maxPercent));
+        }
+    }
+
+    private void runBenchmark(
+            int lifecycles,
+            int concurrency,
+            String serviceName,
+            @Nullable String participantRoom,
+            List<String> identities) {
+        RoomServiceClient client = ManagerProvider.rooms().getRoomServiceClient(serviceName);
+        String roomPrefix = "benchmark-" + Long.toString(System.currentTimeMillis(), 36);
+        lastResult = new RoomServiceBenchmark(RoomServiceBenchmark.Api.of(client), concurrency)
+                .run(lifecycles, roomPrefix, participantRoom, identities, BENCHMARK_TIMEOUT);
+
+        String version = TestConfig.getLiveKitVersion();
+        log.info("Room Service benchmark against LiveKit {}:\n{}", version, lastResult.toSummary(version));
+        String reportName = "room-service-benchmark-" + FileUtils.sanitizeFileNameStrict(version);
+        try {
+            Path directory = Path.of(currentScenarioLogPath);
+            Files.createDirectories(directory);
+            Files.writeString(directory.resolve(reportName + ".txt"), lastResult.toSummary(version));
+            Files.writeString(directory.resolve(reportName + ".csv"), lastResult.toCsv(version));
+        } catch (IOException e) {
+            log.warn("Could not write Room Service benchmark report {}: {}", reportName, e.getMessage());
+        }
+    }
+
+    private RoomServiceBenchmarkResult result() {
+        assertNotNull(lastResult, "No Room Service benchmark has run in this scenario");
+        return lastResult;
+    }
+}
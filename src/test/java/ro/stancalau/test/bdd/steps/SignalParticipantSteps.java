@@ -0,0 +1,174 @@
+package ro.stancalau.test.bdd.steps;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.cucumber.java.After;
+import io.cucumber.java.Before;
+import io.cucumber.java.Scenario;
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import ro.stancalau.test.framework.docker.LiveKitContainer;
+import ro.stancalau.test.framework.signal.SignalParticipantFleet;
+import ro.stancalau.test.framework.signal.SignalStats;
+import ro.stancalau.test.framework.util.DateUtils;
+import ro.stancalau.test.framework.util.FileUtils;
+import ro.stancalau.test.framework.util.LatencyHistogram;
+import ro.stancalau.test.framework.util.PathUtils;
+import ro.stancalau.test.framework.util.ScenarioNamingUtils;
+
+@Slf4j
+public class SignalParticipantSteps {
+
+    private static final int DEFAULT_CONCURRENT_JOINS = 50;
+    private static final Duration JOIN_TIMEOUT = Duration.ofSeconds(60);
+    private static final List<String> SIGNAL_GRANTS =
+            List.of("canPublish:false", "canPublishData:false", "canUpdateOwnMetadata:true");
+
+    private final Map<String, SignalParticipantFleet> fleets = new HashMap<>();
+    private String currentScenarioLogPath;
+
+    @Before
+    public void setUpSignalParticipantSteps(Scenario scenario) {
+        String featureName =
+                ScenarioNamingUtils.extractFeatureName(scenario.getUri().toString());
+        String timestamp = DateUtils.generateScenarioTimestamp();
+
+        currentScenarioLogPath = PathUtils.scenarioPath(
+                FileUtils.sanitizeFileNameStrict(featureName),
+                FileUtils.sanitizeFileNameStrict(scenario.getName()),
+                timestamp);
+        fleets.clear();
+    }
+
+    @After
+    public void closeSignalParticipants() {
+        for (SignalParticipantFleet fleet : fleets.values()) {
+            String report = fleet.report();
+            log.info(report);
+            Path reportFile = Path.of(
+                    currentScenarioLogPath,
+                    "signal-participants-" + FileUtils.sanitizeFileNameStrict(fleet.getRoomName()) + ".txt");
+            try {
+                Files.createDirectories(reportFile.getParent());
+                Files.writeString(reportFile, report);
+            } catch (IOException e) {
+                log.warn("Could not write signal participant report {}: {}", reportFile, e.getMessage());
+            }
+            fleet.close();
+        }
+        fleets.clear();
+    }
+
+    @When("{int} signal participants join room {string} using service {string}")
+    public void signalParticipantsJoinRoom(int count, String roomName, String serviceName) {
+        signalParticipantsJoinRoomAtOnce(count, roomName, serviceName, DEFAULT_CONCURRENT_JOINS);
+    }
+
+    @When("{int} signal participants join room {string} using service {string} with at most {int} joining at once")
+    public void signalParticipantsJoinRoomAtOnce(int count, String roomName, String serviceName, int concurrentJoins) {
+        SignalParticipantFleet fleet = fleets.computeIfAbsent(roomName, room -> {
+            LiveKitContainer livekit =
+                    ManagerProvider.containers().getContainer(serviceName, LiveKitContainer.class);
+            assertNotNull(livekit, "LiveKit service " + serviceName + " should be running");
+            return new SignalParticipantFleet(livekit.getWsUrl(), room);
+        });
+
+        int first = fleet.getParticipants().size() + 1;
+        Map<String, String> tokens = new LinkedHashMap<>();
+        for (int i = first; i < first + count; i++) {
+            String identity = "signal-" + i;
+            tokens.put(
+                    identity,
+                    ManagerProvider.getAccessTokenManager()
+                            .createTokenWithDynamicGrants(identity, roomName, SIGNAL_GRANTS, Map.of())
+                            .toJwt());
+        }
+
+        int joined = fleet.join(tokens, concurrentJoins, JOIN_TIMEOUT);
+        assertEquals(count, joined, "Signal participants that joined room " + roomName);
+    }
+
+    @When("{int} signal participants leave room {string}")
+    public void signalParticipantsLeaveRoom(int count, String roomName) {
+        int left = fleet(roomName).leave(count, DEFAULT_CONCURRENT_JOINS, JOIN_TIMEOUT);
+        assertEquals(count, left, "Signal participants that left room " + roomName);
+    }
+
+    @When("signal participant {string} in room {string} updates its metadata")
+    public void signalParticipantUpdatesItsMetadata(String identity, String roomName) {
+        fleet(roomName).updateMetadata(identity);
+    }
+
+    @Then("{int} signal participants should be connected to room {string}")
+    public void signalParticipantsShouldBeConnected(int count, String roomName) {
+        assertEquals(count, fleet(roomName).connectedCount(), "Signal participants connected to room " + roomName);
+    }
+
+    @Then("all signal participants in room {string} should see each other within {int} seconds")
+    public void allSignalParticipantsShouldSeeEachOther(String roomName, int timeoutSeconds) {
+        SignalParticipantFleet fleet = fleet(roomName);
+        assertTrue(
+                fleet.awaitPresence(Duration.ofSeconds(timeoutSeconds)),
+                "Not every signal participant in room " + roomName + " sees the other "
+                        + (fleet.connectedCount() - 1) + " within " + timeoutSeconds + " seconds");
+        log.info("Presence fan-out in room {}: {}", roomName, fleet.getStats().getPresenceLatency());
+    }
+
+    @Then("all signal participants in room {string} should receive the metadata of {string} within {int} seconds")
+    public void allSignalParticipantsShouldReceiveTheMetadataOf(String roomName, String identity, int timeoutSeconds) {
+        SignalParticipantFleet fleet = fleet(roomName);
+        assertTrue(
+                fleet.awaitMetadata(identity, Duration.ofSeconds(timeoutSeconds)),
+                "Not every signal participant in room " + roomName + " received the metadata of " + identity
+                        + " within " + timeoutSeconds + " seconds");
+        log.info("Metadata fan-out in room {}: {}", roomName, fleet.getStats().getMetadataLatency());
+    }
+
+    @Then("no signal participant in room {string} should have failed to join or been disconnected")
+    public void noSignalParticipantShouldHaveFailedOrBeenDisconnected(String roomName) {
+        SignalStats stats = fleet(roomName).getStats();
+        assertEquals(0, stats.getFailedJoins(), "Failed signal joins in room " + roomName);
+        assertEquals(0, stats.getUnexpectedDisconnects(), "Unexpected signal disconnects in room " + roomName);
+    }
+
+    @Then("the p{int} signal {word} latency in room {string} should be at most {int} milliseconds")
+    public void theSignalLatencyShouldBeAtMost(int percentile, String kind, String roomName, int maxMillis) {
+        LatencyHistogram histogram = latency(fleet(roomName).getStats(), kind);
+        assertTrue(histogram.count() > 0, "No signal " + kind + " latency was measured in room " + roomName);
+        Duration latency = histogram.percentile(percentile);
+        log.info("Signal {} latency in room {}: {}", kind, roomName, histogram);
+        assertTrue(
+                latency.toNanos() <= Duration.ofMillis(maxMillis).toNanos(),
+                "The p" + percentile + " signal " + kind + " latency in room " + roomName + " was "
+                        + latency.toMillis() + " ms, expected at most " + maxMillis + " ms");
+    }
+
+    private SignalParticipantFleet fleet(String roomName) {
+        SignalParticipantFleet fleet = fleets.get(roomName);
+        assertNotNull(fleet, "No signal participants joined room " + roomName);
+        return fleet;
+    }
+
+    private static LatencyHistogram latency(SignalStats stats, String kind) {
+        return switch (kind) {
+            case "join" -> stats.getJoinLatency();
+            case "ping" -> stats.getPingRtt();
+            case "presence" -> stats.getPresenceLatency();
+            case "departure" -> stats.getDepartureLatency();
+            case "metadata" -> stats.getMetadataLatency();
+            default -> throw new IllegalArgumentException("Unknown signal latency: " + kind
+                    + ", expected join, ping, presence, departure or metadata");
+        };
+    }
+}
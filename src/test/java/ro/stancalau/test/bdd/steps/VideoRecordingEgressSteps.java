@@ -12,33 +12,94 @@ import io.cucumber.java.en.When;
 import io.livekit.server.EgressServiceClient;
 import io.livekit.server.RoomServiceClient;
 import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import javax.annotation.Nullable;
 import livekit.LivekitEgress;
 import livekit.LivekitModels;
 import lombok.extern.slf4j.Slf4j;
+import org.mockserver.client.MockServerClient;
 import ro.stancalau.test.bdd.util.EgressTestUtils;
+import ro.stancalau.test.bdd.util.RecordingFrameDecoder;
 import ro.stancalau.test.framework.config.S3Config;
 import ro.stancalau.test.framework.config.TestConfig;
 import ro.stancalau.test.framework.docker.EgressContainer;
+import ro.stancalau.test.framework.docker.FFmpegContainer;
 import ro.stancalau.test.framework.docker.LiveKitContainer;
 import ro.stancalau.test.framework.docker.MinIOContainer;
+import ro.stancalau.test.framework.docker.MockHttpServerContainer;
 import ro.stancalau.test.framework.docker.RedisContainer;
 import ro.stancalau.test.framework.state.ContainerStateManager;
+import ro.stancalau.test.framework.util.AudioQualityAnalyzer;
+import ro.stancalau.test.framework.util.AudioQualityReport;
 import ro.stancalau.test.framework.util.BrowserPollingHelper;
 import ro.stancalau.test.framework.util.DateUtils;
 import ro.stancalau.test.framework.util.FileUtils;
+import ro.stancalau.test.framework.util.HlsPlaylistTailer;
+import ro.stancalau.test.framework.util.HlsSegment;
+import ro.stancalau.test.framework.util.HlsTailReport;
+import ro.stancalau.test.framework.util.MediaContainerInfo;
+import ro.stancalau.test.framework.util.MediaContainerParser;
+import ro.stancalau.test.framework.util.MediaTrackInfo;
 import ro.stancalau.test.framework.util.MinioS3Client;
 import ro.stancalau.test.framework.util.PathUtils;
+import ro.stancalau.test.framework.util.RecordingGrowthMonitor;
+import ro.stancalau.test.framework.util.RecordingGrowthReport;
+import ro.stancalau.test.framework.util.RecordingQualityAnalyzer;
+import ro.stancalau.test.framework.util.RecordingQualityReport;
+import ro.stancalau.test.framework.util.ReferenceClip;
+import ro.stancalau.test.framework.util.ReferenceQualityAnalyzer;
+import ro.stancalau.test.framework.util.ReferenceQualityReport;
+import ro.stancalau.test.framework.util.ReferenceTone;
+import ro.stancalau.test.framework.util.S3ObjectSummary;
+import ro.stancalau.test.framework.util.S3RangeByteSource;
 import ro.stancalau.test.framework.util.ScenarioNamingUtils;
+import ro.stancalau.test.framework.util.VideoQualityHistory;
+import ro.stancalau.test.framework.webhook.EgressInfo;
+import ro.stancalau.test.framework.webhook.FileInfo;
+import ro.stancalau.test.framework.webhook.WebhookEvent;
+import ro.stancalau.test.framework.webhook.WebhookEventPoller;
+import ro.stancalau.test.framework.webhook.WebhookService;
 
 @Slf4j
 public class VideoRecordingEgressSteps {
 
-    private final Map<String, MinioS3Client> s3Clients = new HashMap<>();
+    /** Decoded frame size for quality analysis; enough to see freezes, small enough to stream cheaply */
+    private static final int QUALITY_FRAME_WIDTH = 320;
+
+    private static final int QUALITY_FRAME_HEIGHT = 180;
+    private static final double MAX_BLACK_FRAME_RATIO = 0.9;
+    private static final double MIN_EFFECTIVE_FPS = 1.0;
+    private static final Duration QUALITY_ANALYSIS_TIMEOUT = Duration.ofMinutes(2);
+    private static final int AUDIO_SAMPLE_RATE = 48000;
+    private static final double MAX_CLIPPED_SAMPLE_RATIO = 0.001;
+    private static final int SEGMENT_DURATION_SECONDS = 2;
+    private static final Duration PLAYLIST_POLL_INTERVAL = Duration.ofMillis(500);
+    private static final Duration PLAYLIST_END_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration GROWTH_STALL_THRESHOLD = Duration.ofSeconds(2);
+    private static final Duration EGRESS_END_TIMEOUT = Duration.ofSeconds(60);
+    private static final String WEBHOOK_SERVICE_NAME = "mockserver";
+
     private String currentScenarioLogPath;
+    private String currentScenarioName;
+    private File referenceClipFile;
+    private final Map<String, HlsPlaylistTailer> playlistTailers = new HashMap<>();
+    private final Map<String, RecordingGrowthMonitor> growthMonitors = new HashMap<>();
+    private final Map<String, RecordingGrowthReport> growthReports = new HashMap<>();
+    private final WebhookService webhookService = new WebhookService();
+    private final WebhookEventPoller egressEventPoller =
+            new WebhookEventPoller(webhookService, EGRESS_END_TIMEOUT, Duration.ofMillis(200));
 
     @Before
     public void setUpVideoRecordingEgressSteps(Scenario scenario) {
@@ -51,22 +112,18 @@ public class VideoRecordingEgressSteps {
         String sanitizedScenarioName = FileUtils.sanitizeFileName(scenarioName);
 
         currentScenarioLogPath = PathUtils.scenarioPath(sanitizedFeatureName, sanitizedScenarioName, timestamp);
+        currentScenarioName = featureName + "/" + scenarioName;
     }
 
     @After
     public void tearDownVideoRecordingEgressSteps() {
+        for (String stateKey : List.copyOf(growthMonitors.keySet())) {
+            finishGrowthMonitor(stateKey);
+        }
         if (currentScenarioLogPath != null) {
             String s3ExportPath = currentScenarioLogPath + "/minio-exports";
-            for (MinioS3Client client : s3Clients.values()) {
-                try {
-                    client.exportBucketContents(s3ExportPath);
-                    client.close();
-                } catch (Exception e) {
-                    log.error("Failed to export/close S3 client", e);
-                }
-            }
+            ManagerProvider.s3().exportAll(s3ExportPath);
         }
-        s3Clients.clear();
     }
 
     @Given("a Redis server is running in a container with service name {string}")
@@ -78,10 +135,9 @@ public class VideoRecordingEgressSteps {
         RedisContainer redisContainer =
                 RedisContainer.createContainer(serviceName, containerManager.getOrCreateNetwork(), serviceLogPath);
 
-        redisContainer.start();
+        containerManager.startContainer(serviceName, redisContainer);
         assertTrue(
                 redisContainer.isRunning(), "Redis container with service name " + serviceName + " should be running");
-        containerManager.registerContainer(serviceName, redisContainer);
         log.info("Redis service {} started for egress communication", serviceName);
     }
 
@@ -102,19 +158,15 @@ public class VideoRecordingEgressSteps {
         MinIOContainer minioContainer = MinIOContainer.createContainer(
                 serviceName, containerManager.getOrCreateNetwork(), accessKey, secretKey, serviceLogPath);
 
-        minioContainer.start();
+        containerManager.startContainer(serviceName, minioContainer);
         assertTrue(
                 minioContainer.isRunning(), "MinIO container with service name " + serviceName + " should be running");
-        containerManager.registerContainer(serviceName, minioContainer);
         log.info("MinIO service {} started with endpoint: {}", serviceName, minioContainer.getS3EndpointUrl());
     }
 
     @Given("a bucket {string} is created in MinIO service {string}")
     public void bucketIsCreatedInMinIO(String bucketName, String minioServiceName) {
-        ContainerStateManager containerManager = ManagerProvider.getContainerManager();
-        MinIOContainer minioContainer = containerManager.getContainer(minioServiceName, MinIOContainer.class);
-
-        MinioS3Client s3Client = getOrCreateS3Client(minioServiceName, minioContainer, bucketName);
+        MinioS3Client s3Client = ManagerProvider.s3().getBucketClient(minioServiceName, bucketName);
         s3Client.createBucket();
 
         log.info("Created bucket '{}' in MinIO service '{}'", bucketName, minioServiceName);
@@ -251,6 +303,7 @@ public class VideoRecordingEgressSteps {
     public void recordingRunsForDuration(int seconds) throws InterruptedException {
         log.info("Allowing recording to capture for {} seconds", seconds);
         TimeUnit.SECONDS.sleep(seconds);
+        growthMonitors.forEach((stateKey, monitor) -> log.info("Recording {} so far: {}", stateKey, monitor.report()));
     }
 
     @When(
@@ -349,6 +402,130 @@ public class VideoRecordingEgressSteps {
                 "track composite recording for participant " + participantIdentity);
     }
 
+    @When(
+            "the system starts audio track recording for participant {string} in room {string} using LiveKit service {string}")
+    public void startAudioTrackRecording(String participantIdentity, String roomName, String livekitServiceName)
+            throws Exception {
+        ContainerStateManager containerManager = ManagerProvider.getContainerManager();
+        LiveKitContainer liveKitContainer = containerManager.getContainer(livekitServiceName, LiveKitContainer.class);
+
+        EgressServiceClient egressClient = createEgressClient(liveKitContainer);
+
+        Map<String, String> trackIds = ManagerProvider.getEgressStateManager().getTrackIds(participantIdentity);
+        assertNotNull(trackIds, "No track IDs found for participant " + participantIdentity);
+        String audioTrackId = trackIds.get("audio");
+        assertNotNull(audioTrackId, "No audio track ID found for participant " + participantIdentity);
+
+        String timestamp = DateUtils.generateRecordingTimestamp();
+        String fileName = "audio-track-" + participantIdentity + "-" + timestamp + ".ogg";
+        LivekitEgress.DirectFileOutput fileOutput = LivekitEgress.DirectFileOutput.newBuilder()
+                .setFilepath("/out/video-recordings/" + fileName)
+                .build();
+
+        log.info(
+                "Starting audio track recording for participant: {} (audio: {}) in room: {}",
+                participantIdentity,
+                audioTrackId,
+                roomName);
+
+        LivekitEgress.EgressInfo egressInfo;
+        try {
+            egressInfo = egressClient
+                    .startTrackEgress(roomName, fileOutput, audioTrackId)
+                    .execute()
+                    .body();
+            log.info("Audio track egress API response: {}", egressInfo);
+            assertNotNull(egressInfo, "Audio track egress recording should have started");
+        } catch (Exception e) {
+            log.error("Failed to start audio track egress recording", e);
+            throw e;
+        }
+
+        String egressId = egressInfo.getEgressId();
+        ManagerProvider.getEgressStateManager().storeActiveRecording(participantIdentity + "_audio", egressId);
+
+        startLocalGrowthMonitor(participantIdentity + "_audio", fileName);
+
+        EgressTestUtils.waitForEgressToBeActive(egressClient, egressId, roomName);
+        log.info("Started audio track recording for participant {} with egress ID: {}", participantIdentity, egressId);
+    }
+
+    @When("the system stops audio track recording for participant {string} using LiveKit service {string}")
+    public void stopAudioTrackRecording(String participantIdentity, String livekitServiceName) throws Exception {
+        String egressId = ManagerProvider.getEgressStateManager().getActiveRecording(participantIdentity + "_audio");
+        assertNotNull(egressId, "No active audio track recording found for participant " + participantIdentity);
+
+        stopEgressRecording(
+                egressId,
+                livekitServiceName,
+                participantIdentity + "_audio",
+                "audio track recording for participant " + participantIdentity);
+    }
+
+    @When("the system starts segmented recording for room {string} using LiveKit service {string}")
+    public void startSegmentedRecording(String roomName, String livekitServiceName) throws Exception {
+        String directory = "hls-" + roomName + "-" + DateUtils.generateRecordingTimestamp();
+
+        LivekitEgress.SegmentedFileOutput segmentedOutput = LivekitEgress.SegmentedFileOutput.newBuilder()
+                .setProtocol(LivekitEgress.SegmentedFileProtocol.HLS_PROTOCOL)
+                .setFilenamePrefix("/out/video-recordings/" + directory + "/segment")
+                .setPlaylistName("playlist.m3u8")
+                .setSegmentDuration(SEGMENT_DURATION_SECONDS)
+                .build();
+
+        Path playlist = Path.of(getCurrentScenarioLogPath(), "video-recordings", directory, "playlist.m3u8");
+        startSegmentedEgress(roomName, livekitServiceName, segmentedOutput, HlsPlaylistTailer.fileSource(playlist));
+    }
+
+    @When(
+            "the system starts segmented recording for room {string} using LiveKit service {string} with S3 output to bucket {string}")
+    public void startSegmentedRecordingWithS3(String roomName, String livekitServiceName, String bucketName)
+            throws Exception {
+        ContainerStateManager containerManager = ManagerProvider.getContainerManager();
+        MinIOContainer minioContainer = containerManager.getContainer("minio", MinIOContainer.class);
+
+        String timestamp = DateUtils.generateRecordingTimestamp();
+        String directory = "hls-" + roomName + "-" + timestamp;
+
+        LivekitEgress.SegmentedFileOutput segmentedOutput = LivekitEgress.SegmentedFileOutput.newBuilder()
+                .setProtocol(LivekitEgress.SegmentedFileProtocol.HLS_PROTOCOL)
+                .setFilenamePrefix(directory + "/segment")
+                .setPlaylistName("playlist.m3u8")
+                .setSegmentDuration(SEGMENT_DURATION_SECONDS)
+                .setS3(createS3Upload(minioContainer, bucketName, roomName, timestamp))
+                .build();
+
+        HlsPlaylistTailer.PlaylistSource source = HlsPlaylistTailer.s3Source(
+                ManagerProvider.s3().getTransferEngine("minio", bucketName), directory + "/playlist.m3u8");
+        startSegmentedEgress(roomName, livekitServiceName, segmentedOutput, source);
+    }
+
+    @When("the segmented recording playlist for room {string} is tailed for {int} seconds")
+    public void tailSegmentedRecording(String roomName, int seconds) throws Exception {
+        HlsPlaylistTailer tailer = getPlaylistTailer(roomName);
+        Instant end = Instant.now().plusSeconds(seconds);
+        while (Instant.now().isBefore(end)) {
+            for (HlsSegment segment : tailer.poll()) {
+                log.info(
+                        "Segment {} of room {} appeared {}ms after its media end",
+                        segment.uri(),
+                        roomName,
+                        segment.arrivalLatency().toMillis());
+            }
+            TimeUnit.MILLISECONDS.sleep(PLAYLIST_POLL_INTERVAL.toMillis());
+        }
+        log.info("Tailed segmented recording of room {} for {} seconds: {}", roomName, seconds, tailer.report());
+    }
+
+    @When("the system stops segmented recording for room {string} using LiveKit service {string}")
+    public void stopSegmentedRecording(String roomName, String livekitServiceName) throws Exception {
+        String egressId = ManagerProvider.getEgressStateManager().getActiveRecording(roomName + "_segments");
+        assertNotNull(egressId, "No active segmented recording found for room " + roomName);
+
+        stopEgressRecording(
+                egressId, livekitServiceName, roomName + "_segments", "segmented recording for room " + roomName);
+    }
+
     @When("the system stops room composite recording for room {string} using LiveKit service {string}")
     public void stopRoomCompositeRecording(String roomName, String livekitServiceName) throws Exception {
         String egressId = ManagerProvider.getEgressStateManager().getActiveRecording(roomName);
@@ -358,38 +535,79 @@ public class VideoRecordingEgressSteps {
     }
 
     @Then("the recording file should exist in the output directory for room {string}")
-    public void verifyRecordingFileExists(String roomName) throws InterruptedException {
-        verifyLocalRecordingFile("recording-" + roomName, "room " + roomName);
+    public void verifyRecordingFileExists(String roomName) {
+        verifyLocalRecordingFile(roomName, "room composite recording for room " + roomName);
+    }
+
+    @Then("the recording for room {string} should have grown without stalls longer than {int} seconds")
+    public void verifyRoomCompositeGrowth(String roomName, int maxStallSeconds) {
+        assertGrowthWithoutStalls(roomName, "room composite recording for room " + roomName, maxStallSeconds);
+    }
+
+    @Then(
+            "the track composite recording for participant {string} should have grown without stalls longer than {int} seconds")
+    public void verifyTrackCompositeGrowth(String participantIdentity, int maxStallSeconds) {
+        assertGrowthWithoutStalls(
+                participantIdentity + "_track",
+                "track composite recording for participant " + participantIdentity,
+                maxStallSeconds);
     }
 
     @Then("the track composite recording file should exist for participant {string}")
-    public void verifyTrackCompositeRecordingFileExists(String participantIdentity) throws InterruptedException {
-        verifyLocalRecordingFile("track-composite-" + participantIdentity, "participant " + participantIdentity);
+    public void verifyTrackCompositeRecordingFileExists(String participantIdentity) {
+        verifyLocalRecordingFile(
+                participantIdentity + "_track", "track composite recording for participant " + participantIdentity);
+    }
+
+    @Then("the audio track recording file should exist for participant {string}")
+    public void verifyAudioTrackRecordingFileExists(String participantIdentity) {
+        verifyLocalRecordingFile(
+                participantIdentity + "_audio", "audio track recording for participant " + participantIdentity);
+    }
+
+    @Then("the segmented recording playlist for room {string} should be complete with continuous segments")
+    public void verifySegmentedRecordingPlaylist(String roomName) throws Exception {
+        HlsTailReport report = awaitPlaylistEnd(roomName);
+
+        assertTrue(report.segmentCount() > 0, "No segments appeared for room " + roomName + ": " + report);
+        assertTrue(report.ended(), "Playlist of room " + roomName + " was not ended: " + report);
+        assertEquals(0L, report.violationCount(), "Playlist of room " + roomName + " has violations: " + report);
+    }
+
+    @Then("the segmented recording segments for room {string} should have arrived within {int} seconds of real time")
+    public void verifySegmentArrivalLatency(String roomName, int maxLatencySeconds) {
+        HlsTailReport report = getPlaylistTailer(roomName).report();
+
+        assertTrue(report.segmentCount() > 0, "No segments appeared for room " + roomName);
+        assertTrue(
+                report.maxArrivalLatency().compareTo(Duration.ofSeconds(maxLatencySeconds)) <= 0,
+                "Segments of room " + roomName + " arrived later than " + maxLatencySeconds + "s: " + report);
     }
 
     @Then("the recording file should exist in MinIO bucket {string} for room {string}")
-    public void verifyRecordingFileExistsInMinIO(String bucketName, String roomName) throws InterruptedException {
+    public void verifyRecordingFileExistsInMinIO(String bucketName, String roomName) {
         verifyRecordingFileExistsInMinIOWithPrefix(bucketName, "", roomName);
     }
 
     @Then("the recording file should exist in MinIO bucket {string} with prefix {string} for room {string}")
-    public void verifyRecordingFileExistsInMinIOWithPrefix(String bucketName, String prefix, String roomName)
-            throws InterruptedException {
-        verifyS3RecordingFile(bucketName, prefix, "recording-" + roomName, "room " + roomName);
+    public void verifyRecordingFileExistsInMinIOWithPrefix(String bucketName, String prefix, String roomName) {
+        verifyS3RecordingFile(bucketName, prefix, roomName, "room composite recording for room " + roomName);
     }
 
     @Then("the track composite recording file should exist in MinIO bucket {string} for participant {string}")
-    public void verifyTrackCompositeRecordingFileExistsInMinIO(String bucketName, String participantIdentity)
-            throws InterruptedException {
+    public void verifyTrackCompositeRecordingFileExistsInMinIO(String bucketName, String participantIdentity) {
         verifyTrackCompositeRecordingFileExistsInMinIOWithPrefix(bucketName, "", participantIdentity);
     }
 
     @Then(
             "the track composite recording file should exist in MinIO bucket {string} with prefix {string} for participant {string}")
     public void verifyTrackCompositeRecordingFileExistsInMinIOWithPrefix(
-            String bucketName, String prefix, String participantIdentity) throws InterruptedException {
+            String bucketName, String prefix, String participantIdentity) {
         verifyS3RecordingFile(
-                bucketName, prefix, "track-composite-" + participantIdentity, "participant " + participantIdentity);
+                bucketName,
+                prefix,
+                participantIdentity + "_track",
+                "track composite recording for participant " + participantIdentity);
     }
 
     @And("the recording file should contain actual video content")
@@ -398,7 +616,7 @@ public class VideoRecordingEgressSteps {
     }
 
     @And("the recording file should contain actual video content from multiple participants")
-    public void verifyRecordingContainsMultipleParticipants() throws InterruptedException {
+    public void verifyRecordingContainsMultipleParticipants() {
         verifyLocalMultiParticipantContent();
     }
 
@@ -412,6 +630,61 @@ public class VideoRecordingEgressSteps {
         verifyS3MultipleRecordingsContent("recordings");
     }
 
+    @Given("new browsers publish the reference video clip as their camera")
+    public void newBrowsersPublishReferenceClip() throws IOException {
+        File clip = PathUtils.file(getCurrentScenarioLogPath(), "reference-clip", "reference.y4m");
+        Files.createDirectories(clip.toPath().getParent());
+        ReferenceClip.write(clip.toPath());
+        referenceClipFile = clip;
+        ManagerProvider.webDrivers().setFakeVideoClip(clip);
+        log.info("Generated reference clip {} ({} bytes)", clip.getAbsolutePath(), clip.length());
+    }
+
+    @Then(
+            "the recording for room {string} should match the reference clip with mean PSNR of at least {double} dB and mean SSIM of at least {double}")
+    public void verifyRoomCompositeMatchesReference(String roomName, double minPsnr, double minSsim) {
+        verifyLocalRecordingMatchesReference("recording-" + roomName, minPsnr, minSsim);
+    }
+
+    @Then(
+            "the track composite recording for participant {string} should match the reference clip with mean PSNR of at least {double} dB and mean SSIM of at least {double}")
+    public void verifyTrackCompositeMatchesReference(String participantIdentity, double minPsnr, double minSsim) {
+        verifyLocalRecordingMatchesReference("track-composite-" + participantIdentity, minPsnr, minSsim);
+    }
+
+    @Given("new browsers publish the reference tone as their microphone")
+    public void newBrowsersPublishReferenceTone() throws IOException {
+        File tone = PathUtils.file(getCurrentScenarioLogPath(), "reference-clip", "reference-tone.wav");
+        Files.createDirectories(tone.toPath().getParent());
+        ReferenceTone.write(tone.toPath());
+        ManagerProvider.webDrivers().setFakeAudioClip(tone);
+        log.info("Generated reference tone {} ({} bytes)", tone.getAbsolutePath(), tone.length());
+    }
+
+    @Then("the recording for room {string} should contain audio at a level of at least {double} dBFS")
+    public void verifyRoomCompositeAudio(String roomName, double minRmsDbfs) {
+        verifyLocalRecordingAudio("recording-" + roomName, minRmsDbfs, null);
+    }
+
+    @Then(
+            "the track composite recording for participant {string} should contain audio at a level of at least {double} dBFS")
+    public void verifyTrackCompositeAudio(String participantIdentity, double minRmsDbfs) {
+        verifyLocalRecordingAudio("track-composite-" + participantIdentity, minRmsDbfs, null);
+    }
+
+    @Then(
+            "the audio track recording for participant {string} should contain audio at a level of at least {double} dBFS without silence longer than {int} milliseconds")
+    public void verifyAudioTrackAudio(String participantIdentity, double minRmsDbfs, int maxSilenceMillis) {
+        verifyLocalRecordingAudio(
+                "audio-track-" + participantIdentity, minRmsDbfs, Duration.ofMillis(maxSilenceMillis));
+    }
+
+    @Then(
+            "the recording file in MinIO bucket {string} for room {string} should contain audio at a level of at least {double} dBFS")
+    public void verifyS3RoomCompositeAudio(String bucketName, String roomName, double minRmsDbfs) {
+        verifyS3RecordingAudio(bucketName, "recording-" + roomName, minRmsDbfs);
+    }
+
     @Then("no recording file should exist in the local output directory for room {string}")
     public void verifyNoLocalRecordingFileExists(String roomName) {
         verifyNoLocalFile("recording-" + roomName);
@@ -442,12 +715,11 @@ public class VideoRecordingEgressSteps {
                 serviceLogPath,
                 redisContainer.getNetworkRedisUrl());
 
-        egressContainer.start();
+        containerManager.startContainer(serviceName, egressContainer);
         assertTrue(
                 egressContainer.isRunning(),
                 "Egress container with service name " + serviceName + " should be running");
 
-        containerManager.registerContainer(serviceName, egressContainer);
         log.info("Egress service {} started and registered", serviceName);
     }
 
@@ -471,12 +743,11 @@ public class VideoRecordingEgressSteps {
                 redisContainer.getNetworkRedisUrl(),
                 s3Config);
 
-        egressContainer.start();
+        containerManager.startContainer(serviceName, egressContainer);
         assertTrue(
                 egressContainer.isRunning(),
                 "Egress container with service name " + serviceName + " should be running");
 
-        containerManager.registerContainer(serviceName, egressContainer);
         log.info("Egress service {} started with S3 output configured", serviceName);
     }
 
@@ -500,6 +771,7 @@ public class VideoRecordingEgressSteps {
                 liveKitContainer.getWsUrl());
 
         startEgressRecording(egressClient, roomName, fileOutput, "local");
+        startLocalGrowthMonitor(roomName, fileName);
     }
 
     private void startTrackCompositeRecordingToLocal(
@@ -549,6 +821,8 @@ public class VideoRecordingEgressSteps {
         String egressId = egressInfo.getEgressId();
         ManagerProvider.getEgressStateManager().storeActiveRecording(participantIdentity + "_track", egressId);
 
+        startLocalGrowthMonitor(participantIdentity + "_track", fileName);
+
         EgressTestUtils.waitForEgressToBeActive(egressClient, egressId, roomName);
         log.info(
                 "Started track composite recording for participant {} with egress ID: {}",
@@ -586,6 +860,69 @@ public class VideoRecordingEgressSteps {
                 outputType);
     }
 
+    private void startSegmentedEgress(
+            String roomName,
+            String livekitServiceName,
+            LivekitEgress.SegmentedFileOutput segmentedOutput,
+            HlsPlaylistTailer.PlaylistSource playlistSource)
+            throws Exception {
+        ContainerStateManager containerManager = ManagerProvider.getContainerManager();
+        LiveKitContainer liveKitContainer = containerManager.getContainer(livekitServiceName, LiveKitContainer.class);
+
+        EgressServiceClient egressClient = createEgressClient(liveKitContainer);
+
+        log.info(
+                "Starting segmented recording for room: {} with prefix: {}",
+                roomName,
+                segmentedOutput.getFilenamePrefix());
+
+        LivekitEgress.EgressInfo egressInfo;
+        try {
+            egressInfo = egressClient
+                    .startRoomCompositeEgress(roomName, segmentedOutput, "grid")
+                    .execute()
+                    .body();
+            log.info("Segmented egress API response: {}", egressInfo);
+            assertNotNull(egressInfo, "Segmented egress recording should have started");
+        } catch (Exception e) {
+            log.error("Failed to start segmented egress recording", e);
+            throw e;
+        }
+
+        String egressId = egressInfo.getEgressId();
+        ManagerProvider.getEgressStateManager().storeActiveRecording(roomName + "_segments", egressId);
+        playlistTailers.put(roomName, new HlsPlaylistTailer(playlistSource));
+
+        EgressTestUtils.waitForEgressToBeActive(egressClient, egressId, roomName);
+        log.info("Started segmented recording for room {} with egress ID: {}", roomName, egressId);
+    }
+
+    /** Keep tailing until egress ends the playlist or the timeout passes, then write the report */
+    private HlsTailReport awaitPlaylistEnd(String roomName) throws Exception {
+        HlsPlaylistTailer tailer = getPlaylistTailer(roomName);
+        Instant deadline = Instant.now().plus(PLAYLIST_END_TIMEOUT);
+        tailer.poll();
+        while (!tailer.isEnded() && Instant.now().isBefore(deadline)) {
+            TimeUnit.MILLISECONDS.sleep(PLAYLIST_POLL_INTERVAL.toMillis());
+            tailer.poll();
+        }
+
+        HlsTailReport report = tailer.report();
+        RecordingFrameDecoder.writeReport(
+                new File(PathUtils.join(getCurrentScenarioLogPath(), "video-recordings")),
+                "hls-" + roomName,
+                ".playlist.txt",
+                report.toSummary());
+        log.info("Segmented recording playlist of room {}: {}", roomName, report);
+        return report;
+    }
+
+    private HlsPlaylistTailer getPlaylistTailer(String roomName) {
+        HlsPlaylistTailer tailer = playlistTailers.get(roomName);
+        assertNotNull(tailer, "No segmented recording was started for room " + roomName);
+        return tailer;
+    }
+
     private void stopEgressRecording(String egressId, String livekitServiceName, String stateKey, String description)
             throws Exception {
         ContainerStateManager containerManager = ManagerProvider.getContainerManager();
@@ -608,48 +945,158 @@ public class VideoRecordingEgressSteps {
             log.error("Failed to stop egress recording", e);
             throw e;
         }
+        finishGrowthMonitor(stateKey);
 
         ManagerProvider.getEgressStateManager().removeActiveRecording(stateKey);
-        log.info("Stopped {} with final status: {}", description, egressInfo.getStatus());
-    }
+        log.info("Stopped {} with status: {}", description, egressInfo.getStatus());
 
-    private void verifyLocalRecordingFile(String filePattern, String description) throws InterruptedException {
-        String recordingsPath = PathUtils.join(getCurrentScenarioLogPath(), "video-recordings");
-        File recordingsDir = new File(recordingsPath);
-        assertTrue(
-                recordingsDir.exists() && recordingsDir.isDirectory(),
-                "Recordings directory does not exist: " + recordingsDir.getAbsolutePath());
+        EgressInfo endedInfo = awaitEgressEnded(egressClient, egressId, egressInfo.getRoomName());
+        ManagerProvider.getEgressStateManager().storeCompletedRecording(stateKey, endedInfo);
+        log.info(
+                "Ended {} with final status: {} and files: {}",
+                description,
+                endedInfo.getStatus(),
+                endedInfo.getFileResults());
+    }
 
-        File recordingFile = pollForFile(recordingsDir, filePattern, 10);
+    /**
+     * Block until an egress has ended. With a webhook receiver the egress is followed through its
+     * {@code egress_started}, {@code egress_updated} and {@code egress_ended} webhooks; without one its
+     * status is read from the API.
+     */
+    private EgressInfo awaitEgressEnded(EgressServiceClient egressClient, String egressId, String roomName) {
+        ContainerStateManager containerManager = ManagerProvider.getContainerManager();
+        if (!containerManager.isContainerRunning(WEBHOOK_SERVICE_NAME)) {
+            return EgressTestUtils.waitForEgressToEnd(egressClient, egressId, roomName);
+        }
 
+        MockServerClient mockServerClient = containerManager
+                .getContainer(WEBHOOK_SERVICE_NAME, MockHttpServerContainer.class)
+                .getMockServerClient();
+        WebhookEvent endedEvent = egressEventPoller
+                .waitForEventByTypeAndEgress(mockServerClient, "egress_ended", egressId)
+                .orElse(null);
+        List<String> timeline = webhookService
+                .findEventsByEgress(webhookService.getWebhookEvents(mockServerClient), egressId)
+                .stream()
+                .map(event -> event.getEvent() + " (" + event.getEgressInfo().getStatus() + ")")
+                .toList();
+        log.info("Webhooks of egress {}: {}", egressId, timeline);
         assertNotNull(
-                recordingFile,
-                "No recording files found for "
-                        + description
-                        + " after 10 attempts. Files in directory: "
-                        + String.join(", ", recordingsDir.list()));
-        assertTrue(recordingFile.exists(), "Recording file does not exist: " + recordingFile.getAbsolutePath());
-        assertTrue(recordingFile.length() > 0, "Recording file is empty: " + recordingFile.getAbsolutePath());
+                endedEvent,
+                "No egress_ended webhook for egress " + egressId + " within " + EGRESS_END_TIMEOUT.toSeconds()
+                        + " seconds, received: " + timeline);
+        return endedEvent.getEgressInfo();
+    }
 
-        log.info("Recording file found: {} (size: {} bytes)", recordingFile.getName(), recordingFile.length());
+    /**
+     * The file an ended egress reported, which must have completed successfully. Track egress may
+     * only report its file in the older single {@code file} result.
+     */
+    private FileInfo getCompletedFile(String stateKey, String description) {
+        EgressInfo egressInfo = ManagerProvider.getEgressStateManager().getCompletedRecording(stateKey);
+        assertNotNull(egressInfo, "The " + description + " was not stopped and awaited in this scenario");
+        assertEquals(
+                LivekitEgress.EgressStatus.EGRESS_COMPLETE.name(),
+                egressInfo.getStatus(),
+                "The " + description + " did not complete: " + egressInfo.getError());
+
+        List<FileInfo> fileResults = egressInfo.getFileResults();
+        FileInfo fileInfo = fileResults != null && !fileResults.isEmpty() ? fileResults.get(0) : egressInfo.getFile();
+        assertNotNull(fileInfo, "The " + description + " reported no file");
+        return fileInfo;
     }
 
-    private void verifyS3RecordingFile(String bucketName, String prefix, String filePattern, String description)
-            throws InterruptedException {
-        ContainerStateManager containerManager = ManagerProvider.getContainerManager();
-        MinIOContainer minioContainer = containerManager.getContainer("minio", MinIOContainer.class);
-        MinioS3Client s3Client = getOrCreateS3Client("minio", minioContainer, bucketName);
+    /** Sample the recording's size while egress writes it, with the time series next to the recordings */
+    private void startLocalGrowthMonitor(String stateKey, String fileName) throws IOException {
+        Path recordingsDir = Path.of(getCurrentScenarioLogPath(), "video-recordings");
+        Files.createDirectories(recordingsDir);
+        Path timeSeriesFile =
+                recordingsDir.resolve(FileUtils.sanitizeFileName(new File(fileName).getName()) + ".growth.csv");
+        growthMonitors.put(
+                stateKey,
+                RecordingGrowthMonitor.start(
+                        fileName,
+                        RecordingGrowthMonitor.localFile(recordingsDir.resolve(fileName)),
+                        recordingsDir,
+                        RecordingGrowthMonitor.DEFAULT_SAMPLE_INTERVAL,
+                        GROWTH_STALL_THRESHOLD,
+                        timeSeriesFile));
+    }
 
-        String recordingKey = pollForS3Object(s3Client, prefix, filePattern, 20);
+    /** Stop the monitor of a recording, if one runs, and write its report */
+    private void finishGrowthMonitor(String stateKey) {
+        RecordingGrowthMonitor monitor = growthMonitors.remove(stateKey);
+        if (monitor == null) {
+            return;
+        }
+        try {
+            monitor.close();
+        } catch (IOException e) {
+            log.warn("Could not close the growth time series of recording {}: {}", stateKey, e.getMessage());
+        }
+        RecordingGrowthReport report = monitor.report();
+        growthReports.put(stateKey, report);
+        RecordingFrameDecoder.writeReport(
+                new File(PathUtils.join(getCurrentScenarioLogPath(), "video-recordings")),
+                monitor.getName(),
+                ".growth.txt",
+                report.toSummary());
+        log.info("Recording {} grew: {}", stateKey, report);
+    }
 
+    private void assertGrowthWithoutStalls(String stateKey, String description, int maxStallSeconds) {
+        RecordingGrowthReport report = growthReports.get(stateKey);
         assertNotNull(
-                recordingKey,
-                "No recording files found in S3 bucket " + bucketName + " for " + description + " after 20 attempts");
+                report,
+                "The growth of the " + description + " was not monitored until it stopped; only recordings"
+                        + " written to the local output directory are, since egress uploads to S3 once it ends");
+        assertNotNull(report.firstGrowthAfter(), "The " + description + " never grew: " + report);
+        assertTrue(
+                report.longestStall().compareTo(Duration.ofSeconds(maxStallSeconds)) <= 0,
+                "The " + description + " stopped growing for longer than " + maxStallSeconds + " seconds: "
+                        + report);
+    }
+
+    /**
+     * Check the file an ended egress reported once, against its reported name and size in the local
+     * output mount.
+     */
+    private File verifyLocalRecordingFile(String stateKey, String description) {
+        FileInfo fileInfo = getCompletedFile(stateKey, description);
+        File recordingsDir = new File(PathUtils.join(getCurrentScenarioLogPath(), "video-recordings"));
+        File recordingFile = new File(recordingsDir, new File(fileInfo.getFilename()).getName());
 
-        long size = s3Client.getObjectSize(recordingKey);
-        assertTrue(size > 0, "Recording file in S3 is empty: " + recordingKey);
+        assertTrue(
+                recordingFile.exists(),
+                "The " + description + " reported " + fileInfo.getFilename() + " but "
+                        + recordingFile.getAbsolutePath() + " does not exist");
+        assertTrue(recordingFile.length() > 0, "Recording file is empty: " + recordingFile.getAbsolutePath());
+        assertEquals(
+                fileInfo.getSize(),
+                recordingFile.length(),
+                "Size of " + recordingFile.getName() + " differs from the size reported by egress");
 
-        log.info("Recording file found in S3: {} (size: {} bytes)", recordingKey, size);
+        log.info("Recording file found: {} (size: {} bytes)", recordingFile.getName(), recordingFile.length());
+        return recordingFile;
+    }
+
+    /** Check the object an ended egress reported once, against its reported key and size in MinIO */
+    private void verifyS3RecordingFile(String bucketName, String prefix, String stateKey, String description) {
+        FileInfo fileInfo = getCompletedFile(stateKey, description);
+        String key = fileInfo.getFilename();
+        assertTrue(key.startsWith(prefix), "The " + description + " was uploaded to " + key + ", not under " + prefix);
+        assertTrue(
+                fileInfo.getLocation() != null && fileInfo.getLocation().contains(bucketName),
+                "The " + description + " was uploaded to " + fileInfo.getLocation() + ", not to bucket " + bucketName);
+
+        MinioS3Client s3Client = ManagerProvider.s3().getBucketClient("minio", bucketName);
+        assertTrue(s3Client.objectExists(key), "Recording " + key + " does not exist in S3 bucket " + bucketName);
+        long size = s3Client.getObjectSize(key);
+        assertTrue(size > 0, "Recording " + key + " in S3 bucket " + bucketName + " is empty");
+        assertEquals(fileInfo.getSize(), size, "Size of " + key + " differs from the size reported by egress");
+
+        log.info("Recording file found in S3: {} (size: {} bytes)", key, size);
     }
 
     private void verifyLocalVideoContent() {
@@ -663,113 +1110,388 @@ public class VideoRecordingEgressSteps {
         assertTrue(files.length > 0, "No recording files found");
 
         File recordingFile = files[0];
+        MediaContainerInfo info = parseLocalRecording(recordingFile);
+        assertContainsVideo(recordingFile.getName(), info);
+        verifyLocalRecordingQuality(recordingFile, info);
 
-        assertTrue(
-                recordingFile.length() > 70000,
-                "Recording file too small ("
-                        + recordingFile.length()
-                        + " bytes), "
-                        + "likely does not contain actual video content. Expected > 70KB for real video.");
+        log.info(
+                "Verified recording contains actual video content: {} ({} bytes, {})",
+                recordingFile.getName(),
+                recordingFile.length(),
+                describe(info));
+    }
+
+    private void verifyLocalMultiParticipantContent() {
+        String roomName = ManagerProvider.getEgressStateManager().getCompletedRecordings().entrySet().stream()
+                .filter(entry -> isRoomCompositeRecording(entry.getValue()))
+                .map(Map.Entry::getKey)
+                .findFirst()
+                .orElse(null);
+        assertNotNull(roomName, "No room composite recording was stopped in this scenario");
+
+        File recordingFile = verifyLocalRecordingFile(roomName, "room composite recording for room " + roomName);
+        MediaContainerInfo info = parseLocalRecording(recordingFile);
+        assertContainsVideo(recordingFile.getName(), info);
+        verifyLocalRecordingQuality(recordingFile, info);
 
         log.info(
-                "Verified recording contains actual video content: {} ({} bytes)",
+                "Verified multi-participant recording: {} ({} bytes, {})",
                 recordingFile.getName(),
-                recordingFile.length());
+                recordingFile.length(),
+                describe(info));
     }
 
-    private void verifyLocalMultiParticipantContent() throws InterruptedException {
-        String recordingsPath = PathUtils.join(getCurrentScenarioLogPath(), "video-recordings");
-        File recordingsDir = new File(recordingsPath);
+    private void verifyS3VideoContent(String bucketName) {
+        MinioS3Client s3Client = ManagerProvider.s3().getBucketClient("minio", bucketName);
 
-        File recordingFile = null;
-        int maxAttempts = 10;
-        int attempt = 0;
+        S3ObjectSummary recording;
+        try (Stream<S3ObjectSummary> objects = s3Client.streamObjects("")) {
+            recording = objects.filter(this::isS3Recording).findFirst().orElse(null);
+        }
 
-        while (attempt < maxAttempts) {
-            File[] files = recordingsDir.listFiles((dir, name) -> name.startsWith("recording-")
-                    && (name.endsWith(".mp4") || name.endsWith(".webm") || name.endsWith(".mkv")));
+        assertNotNull(recording, "No recording files found in MinIO");
 
-            if (files != null && files.length > 0) {
-                File file = files[0];
-                if (file.length() > 50000) {
-                    recordingFile = file;
-                    break;
-                }
-            }
+        MediaContainerInfo info = parseS3Recording(bucketName, recording.key());
+        assertContainsVideo(recording.key(), info);
+        verifyS3RecordingQuality(bucketName, recording.key(), info);
+
+        log.info(
+                "Verified S3 recording contains actual video content: {} ({} bytes, {})",
+                recording.key(),
+                recording.size(),
+                describe(info));
+    }
+
+    private void verifyS3MultipleRecordingsContent(String bucketName) {
+        MinioS3Client s3Client = ManagerProvider.s3().getBucketClient("minio", bucketName);
+
+        int validRecordings = 0;
 
-            if (attempt < maxAttempts - 1) {
-                log.debug(
-                        "Recording file not ready yet (size check), waiting... (attempt {}/{})",
-                        attempt + 1,
-                        maxAttempts);
-                TimeUnit.MILLISECONDS.sleep(500);
+        for (S3ObjectSummary object : s3Client.listObjectSummaries("")) {
+            if (!isS3Recording(object)) {
+                continue;
+            }
+            MediaContainerInfo info = parseS3Recording(bucketName, object.key());
+            if (hasVideoContent(info)) {
+                verifyS3RecordingQuality(bucketName, object.key(), info);
+                validRecordings++;
+                log.info("Valid recording in S3: {} ({} bytes, {})", object.key(), object.size(), describe(info));
+            } else {
+                log.warn("Recording in S3 has no video samples: {} ({})", object.key(), describe(info));
             }
-            attempt++;
         }
 
-        assertNotNull(recordingFile, "No recording files found after " + maxAttempts + " attempts");
+        assertTrue(validRecordings >= 2, "Expected at least 2 valid recordings in S3, found " + validRecordings);
+    }
 
-        assertTrue(
-                recordingFile.length() > 70000,
-                "Multi-participant recording file too small ("
-                        + recordingFile.length()
-                        + " bytes), "
-                        + "expected > 70KB for composite video with multiple participants.");
+    private static MediaContainerInfo parseLocalRecording(File recordingFile) {
+        try {
+            return MediaContainerParser.parse(recordingFile.toPath());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not parse recording " + recordingFile.getName(), e);
+        }
+    }
 
-        log.info(
-                "Verified multi-participant recording: {} ({} bytes)", recordingFile.getName(), recordingFile.length());
+    private static MediaContainerInfo parseS3Recording(String bucketName, String key) {
+        S3RangeByteSource source =
+                new S3RangeByteSource(ManagerProvider.s3().getTransferEngine("minio", bucketName), key);
+        try {
+            return MediaContainerParser.parse(source);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not parse S3 recording " + key, e);
+        }
     }
 
-    private void verifyS3VideoContent(String bucketName) {
+    private void verifyLocalRecordingQuality(File recordingFile, MediaContainerInfo info) {
+        if (!TestConfig.isRecordingQualityAnalysisEnabled()) {
+            return;
+        }
         ContainerStateManager containerManager = ManagerProvider.getContainerManager();
-        MinIOContainer minioContainer = containerManager.getContainer("minio", MinIOContainer.class);
-        MinioS3Client s3Client = getOrCreateS3Client("minio", minioContainer, bucketName);
+        String alias = RecordingFrameDecoder.extractorAlias("ffmpeg-quality", recordingFile.getName());
 
-        List<String> objects = s3Client.listObjects("");
-        String recordingKey = null;
+        RecordingQualityReport report = analyzeRecordingQuality(
+                alias,
+                recordingFile.getName(),
+                info,
+                outputUrl -> FFmpegContainer.createLocalFrameExtractor(
+                        alias,
+                        containerManager.getOrCreateNetwork(),
+                        recordingFile,
+                        QUALITY_FRAME_WIDTH,
+                        QUALITY_FRAME_HEIGHT,
+                        outputUrl,
+                        PathUtils.containerLogPath(getCurrentScenarioLogPath(), "docker", alias)));
+        assertAcceptableQuality(recordingFile.getName(), report);
+    }
 
-        for (String key : objects) {
-            if ((key.contains("recording-") || key.contains("track-composite-"))
-                    && (key.endsWith(".mp4") || key.endsWith(".webm") || key.endsWith(".mkv"))) {
-                recordingKey = key;
-                break;
-            }
+    private void verifyS3RecordingQuality(String bucketName, String key, MediaContainerInfo info) {
+        if (!TestConfig.isRecordingQualityAnalysisEnabled()) {
+            return;
         }
+        ContainerStateManager containerManager = ManagerProvider.getContainerManager();
+        MinIOContainer minio = containerManager.getContainer("minio", MinIOContainer.class);
+        String alias = RecordingFrameDecoder.extractorAlias("ffmpeg-quality", key);
+        String recordingUrl = MinioS3Client.presignGetUrl(
+                minio.getNetworkS3EndpointUrl(),
+                minio.getAccessKey(),
+                minio.getSecretKey(),
+                bucketName,
+                key,
+                QUALITY_ANALYSIS_TIMEOUT);
 
-        assertNotNull(recordingKey, "No recording files found in MinIO");
+        RecordingQualityReport report = analyzeRecordingQuality(
+                alias,
+                key,
+                info,
+                outputUrl -> FFmpegContainer.createUrlFrameExtractor(
+                        alias,
+                        containerManager.getOrCreateNetwork(),
+                        recordingUrl,
+                        QUALITY_FRAME_WIDTH,
+                        QUALITY_FRAME_HEIGHT,
+                        outputUrl,
+                        PathUtils.containerLogPath(getCurrentScenarioLogPath(), "docker", alias)));
+        assertAcceptableQuality(key, report);
+    }
 
-        long size = s3Client.getObjectSize(recordingKey);
-        assertTrue(
-                size > 70000,
-                "Recording file in S3 too small ("
-                        + size
-                        + " bytes), "
-                        + "likely does not contain actual video content. Expected > 70KB for real video.");
+    /**
+     * Decode a recording in an FFmpeg container and analyze the grayscale frames as they stream in,
+     * then write the report next to the scenario's recordings.
+     */
+    private RecordingQualityReport analyzeRecordingQuality(
+            String alias, String name, MediaContainerInfo info, Function<String, FFmpegContainer> extractorFactory) {
+        RecordingQualityReport report = RecordingFrameDecoder.decode(
+                ManagerProvider.getContainerManager(),
+                alias,
+                name,
+                extractorFactory,
+                input -> RecordingQualityAnalyzer.analyze(
+                        input, QUALITY_FRAME_WIDTH, QUALITY_FRAME_HEIGHT, info.duration()),
+                QUALITY_ANALYSIS_TIMEOUT);
+
+        RecordingFrameDecoder.writeReport(
+                new File(PathUtils.join(getCurrentScenarioLogPath(), "video-recordings")),
+                name,
+                ".quality.txt",
+                report.toSummary());
+        log.info("Recording quality of {}: {}", name, report);
+        return report;
+    }
+
+    private void verifyLocalRecordingMatchesReference(String recordingPrefix, double minPsnr, double minSsim) {
+        assertNotNull(referenceClipFile, "No reference clip was published in this scenario");
+
+        File recordingsDir = new File(PathUtils.join(getCurrentScenarioLogPath(), "video-recordings"));
+        File[] files = recordingsDir.listFiles((dir, name) -> name.startsWith(recordingPrefix)
+                && (name.endsWith(".mp4") || name.endsWith(".webm") || name.endsWith(".mkv")));
+        assertNotNull(files, "No recording files found");
+        assertTrue(files.length > 0, "No recording file found for " + recordingPrefix);
+        File recordingFile = files[0];
+
+        List<byte[]> referenceFrames;
+        try {
+            referenceFrames = ReferenceClip.readLuma(referenceClipFile.toPath());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read reference clip " + referenceClipFile, e);
+        }
 
-        log.info("Verified S3 recording contains actual video content: {} ({} bytes)", recordingKey, size);
+        ContainerStateManager containerManager = ManagerProvider.getContainerManager();
+        String alias = RecordingFrameDecoder.extractorAlias("ffmpeg-reference", recordingFile.getName());
+        ReferenceQualityReport report = RecordingFrameDecoder.decode(
+                containerManager,
+                alias,
+                recordingFile.getName(),
+                outputUrl -> FFmpegContainer.createLocalFrameExtractor(
+                        alias,
+                        containerManager.getOrCreateNetwork(),
+                        recordingFile,
+                        ReferenceClip.WIDTH,
+                        ReferenceClip.HEIGHT,
+                        outputUrl,
+                        PathUtils.containerLogPath(getCurrentScenarioLogPath(), "docker", alias)),
+                input -> ReferenceQualityAnalyzer.analyze(input, referenceFrames),
+                QUALITY_ANALYSIS_TIMEOUT);
+
+        RecordingFrameDecoder.writeReport(
+                recordingsDir, recordingFile.getName(), ".reference-quality.txt", report.toSummary());
+        log.info("Reference quality of {}: {}", recordingFile.getName(), report);
+        recordQualityHistory(recordingPrefix, report);
+
+        assertTrue(report.comparedFrames() > 0, "No frame of " + recordingFile.getName() + " shows the reference clip");
+        assertTrue(
+                report.meanPsnr() >= minPsnr,
+                "Mean PSNR of " + recordingFile.getName() + " is below " + minPsnr + " dB: " + report);
+        assertTrue(
+                report.meanSsim() >= minSsim,
+                "Mean SSIM of " + recordingFile.getName() + " is below " + minSsim + ": " + report);
     }
 
-    private void verifyS3MultipleRecordingsContent(String bucketName) {
+    private void verifyLocalRecordingAudio(String recordingPrefix, double minRmsDbfs, @Nullable Duration maxSilence) {
+        File recordingsDir = new File(PathUtils.join(getCurrentScenarioLogPath(), "video-recordings"));
+        File[] files =
+                recordingsDir.listFiles((dir, name) -> name.startsWith(recordingPrefix) && isRecordingFileName(name));
+        assertNotNull(files, "No recording files found");
+        assertTrue(files.length > 0, "No recording file found for " + recordingPrefix);
+        File recordingFile = files[0];
+
         ContainerStateManager containerManager = ManagerProvider.getContainerManager();
-        MinIOContainer minioContainer = containerManager.getContainer("minio", MinIOContainer.class);
-        MinioS3Client s3Client = getOrCreateS3Client("minio", minioContainer, bucketName);
+        String alias = RecordingFrameDecoder.extractorAlias("ffmpeg-audio", recordingFile.getName());
+        AudioQualityReport report = analyzeRecordingAudio(
+                alias,
+                recordingFile.getName(),
+                outputUrl -> FFmpegContainer.createLocalAudioExtractor(
+                        alias,
+                        containerManager.getOrCreateNetwork(),
+                        recordingFile,
+                        AUDIO_SAMPLE_RATE,
+                        outputUrl,
+                        PathUtils.containerLogPath(getCurrentScenarioLogPath(), "docker", alias)));
+        assertAcceptableAudio(recordingFile.getName(), report, minRmsDbfs, maxSilence);
+    }
 
-        List<String> objects = s3Client.listObjects("");
-        int validRecordings = 0;
+    private void verifyS3RecordingAudio(String bucketName, String recordingPrefix, double minRmsDbfs) {
+        MinioS3Client s3Client = ManagerProvider.s3().getBucketClient("minio", bucketName);
+        S3ObjectSummary recording;
+        try (Stream<S3ObjectSummary> objects = s3Client.streamObjects("")) {
+            recording = objects.filter(object -> object.key().contains(recordingPrefix) && isS3Recording(object))
+                    .findFirst()
+                    .orElse(null);
+        }
+        assertNotNull(recording, "No recording found in MinIO bucket " + bucketName + " for " + recordingPrefix);
+
+        ContainerStateManager containerManager = ManagerProvider.getContainerManager();
+        MinIOContainer minio = containerManager.getContainer("minio", MinIOContainer.class);
+        String alias = RecordingFrameDecoder.extractorAlias("ffmpeg-audio", recording.key());
+        String recordingUrl = MinioS3Client.presignGetUrl(
+                minio.getNetworkS3EndpointUrl(),
+                minio.getAccessKey(),
+                minio.getSecretKey(),
+                bucketName,
+                recording.key(),
+                QUALITY_ANALYSIS_TIMEOUT);
+
+        AudioQualityReport report = analyzeRecordingAudio(
+                alias,
+                recording.key(),
+                outputUrl -> FFmpegContainer.createUrlAudioExtractor(
+                        alias,
+                        containerManager.getOrCreateNetwork(),
+                        recordingUrl,
+                        AUDIO_SAMPLE_RATE,
+                        outputUrl,
+                        PathUtils.containerLogPath(getCurrentScenarioLogPath(), "docker", alias)));
+        assertAcceptableAudio(recording.key(), report, minRmsDbfs, null);
+    }
 
-        for (String key : objects) {
-            if ((key.contains("recording-") || key.contains("track-composite-"))
-                    && (key.endsWith(".mp4") || key.endsWith(".webm") || key.endsWith(".mkv"))) {
+    /** Decode a recording's audio in an FFmpeg container, analyze it as it streams in and write the report */
+    private AudioQualityReport analyzeRecordingAudio(
+            String alias, String name, Function<String, FFmpegContainer> extractorFactory) {
+        AudioQualityReport report = RecordingFrameDecoder.decode(
+                ManagerProvider.getContainerManager(),
+                alias,
+                name,
+                extractorFactory,
+                input -> AudioQualityAnalyzer.analyze(input, AUDIO_SAMPLE_RATE),
+                QUALITY_ANALYSIS_TIMEOUT);
+
+        RecordingFrameDecoder.writeReport(
+                new File(PathUtils.join(getCurrentScenarioLogPath(), "video-recordings")),
+                name,
+                ".audio-quality.txt",
+                report.toSummary());
+        log.info("Audio quality of {}: {}", name, report);
+        return report;
+    }
 
-                long size = s3Client.getObjectSize(key);
-                if (size > 70000) {
-                    validRecordings++;
-                    log.info("Valid recording in S3: {} ({} bytes)", key, size);
-                }
+    /** Compare with the latest results of other LiveKit and egress versions, then add this run's result */
+    private void recordQualityHistory(String recordingName, ReferenceQualityReport report) {
+        String livekitVersion = TestConfig.getLiveKitVersion();
+        String egressVersion = TestConfig.getEgressVersion();
+        VideoQualityHistory history = new VideoQualityHistory(Path.of(TestConfig.getVideoQualityHistoryFile()));
+        try {
+            for (VideoQualityHistory.Entry previous :
+                    history.latestOfOtherVersions(currentScenarioName, recordingName, livekitVersion, egressVersion)) {
+                log.info(
+                        "{} on LiveKit {} / egress {} vs LiveKit {} / egress {}: PSNR {} dB, SSIM {}",
+                        recordingName,
+                        livekitVersion,
+                        egressVersion,
+                        previous.livekitVersion(),
+                        previous.egressVersion(),
+                        String.format(Locale.ROOT, "%+.2f", report.meanPsnr() - previous.report().meanPsnr()),
+                        String.format(Locale.ROOT, "%+.4f", report.meanSsim() - previous.report().meanSsim()));
             }
+            history.append(new VideoQualityHistory.Entry(
+                    Instant.now(), livekitVersion, egressVersion, currentScenarioName, recordingName, report));
+        } catch (IOException e) {
+            log.warn("Could not update video quality history {}: {}", history.getFile(), e.getMessage());
         }
+    }
 
-        assertTrue(validRecordings >= 2, "Expected at least 2 valid recordings in S3, found " + validRecordings);
+    private static void assertAcceptableQuality(String name, RecordingQualityReport report) {
+        assertTrue(report.frameCount() > 0, "No frames could be decoded from recording " + name);
+        assertTrue(
+                report.blackFrameRatio() <= MAX_BLACK_FRAME_RATIO, "Recording " + name + " is mostly black: " + report);
+        assertTrue(report.effectiveFps() >= MIN_EFFECTIVE_FPS, "Recording " + name + " is frozen: " + report);
+    }
+
+    private static void assertAcceptableAudio(
+            String name, AudioQualityReport report, double minRmsDbfs, @Nullable Duration maxSilence) {
+        assertTrue(report.sampleCount() > 0, "No audio could be decoded from recording " + name);
+        assertTrue(
+                report.rmsDbfs() >= minRmsDbfs,
+                "Audio of recording " + name + " is quieter than " + minRmsDbfs + " dBFS: " + report);
+        assertTrue(
+                report.clippedSampleRatio() <= MAX_CLIPPED_SAMPLE_RATIO,
+                "Audio of recording " + name + " is clipped: " + report);
+        if (maxSilence != null) {
+            assertTrue(
+                    report.longestSilence().compareTo(maxSilence) <= 0,
+                    "Audio of recording " + name + " has silences longer than " + maxSilence.toMillis() + "ms: "
+                            + report);
+            assertTrue(
+                    report.longestGap().compareTo(maxSilence) <= 0,
+                    "Audio of recording " + name + " has gaps longer than " + maxSilence.toMillis() + "ms: " + report);
+        }
+    }
+
+    private static void assertContainsVideo(String name, MediaContainerInfo info) {
+        MediaTrackInfo video = info.firstVideoTrack().orElse(null);
+        assertNotNull(video, "Recording " + name + " has no video track: " + describe(info));
+        assertTrue(video.width() > 0 && video.height() > 0, "Recording " + name + " has no video resolution");
+        assertTrue(video.sampleCount() > 0, "Recording " + name + " has no video frames");
+        assertTrue(video.keyframeCount() > 0, "Recording " + name + " has no video keyframes");
+        assertTrue(info.duration().compareTo(Duration.ZERO) > 0, "Recording " + name + " has no duration");
+    }
+
+    private static boolean hasVideoContent(MediaContainerInfo info) {
+        return info.videoTracks().stream().anyMatch(track -> track.sampleCount() > 0 && track.keyframeCount() > 0);
+    }
+
+    private static String describe(MediaContainerInfo info) {
+        StringBuilder description = new StringBuilder()
+                .append(info.format())
+                .append(", ")
+                .append(info.duration().toMillis())
+                .append("ms");
+        for (MediaTrackInfo track : info.tracks()) {
+            description
+                    .append(", ")
+                    .append(track.kind())
+                    .append(' ')
+                    .append(track.codec())
+                    .append(" samples=")
+                    .append(track.sampleCount())
+                    .append(" keyframes=")
+                    .append(track.keyframeCount())
+                    .append(" maxGap=")
+                    .append(track.maxSampleGap().toMillis())
+                    .append("ms");
+            if (track.isVideo()) {
+                description.append(' ').append(track.width()).append('x').append(track.height());
+            }
+        }
+        return description.toString();
     }
 
     private void verifyNoLocalFile(String filePattern) {
@@ -796,67 +1518,20 @@ public class VideoRecordingEgressSteps {
                                 : ""));
     }
 
-    private File pollForFile(File directory, String pattern, int maxAttempts) throws InterruptedException {
-        int attempt = 0;
-
-        while (attempt < maxAttempts) {
-            File[] files = directory.listFiles((dir, name) -> name.contains(pattern)
-                    && (name.endsWith(".mp4") || name.endsWith(".webm") || name.endsWith(".mkv")));
-
-            if (files != null && files.length > 0) {
-                File file = files[0];
-                if (file.length() > 0) {
-                    return file;
-                } else {
-                    log.debug(
-                            "Recording file exists but is empty: {} (attempt {}/{})",
-                            file.getName(),
-                            attempt + 1,
-                            maxAttempts);
-                }
-            }
-
-            if (attempt < maxAttempts - 1) {
-                log.debug("Recording file not ready yet, waiting... (attempt {}/{})", attempt + 1, maxAttempts);
-                TimeUnit.MILLISECONDS.sleep(500);
-            }
-            attempt++;
-        }
-
-        return null;
+    private static boolean isRecordingFileName(String name) {
+        return name.endsWith(".mp4") || name.endsWith(".webm") || name.endsWith(".mkv") || name.endsWith(".ogg");
     }
 
-    private String pollForS3Object(MinioS3Client s3Client, String prefix, String pattern, int maxAttempts)
-            throws InterruptedException {
-        int attempt = 0;
-
-        while (attempt < maxAttempts) {
-            List<String> objects = s3Client.listObjects(prefix);
-
-            for (String key : objects) {
-                if (key.contains(pattern) && (key.endsWith(".mp4") || key.endsWith(".webm") || key.endsWith(".mkv"))) {
-
-                    long size = s3Client.getObjectSize(key);
-                    if (size > 0) {
-                        return key;
-                    } else {
-                        log.debug(
-                                "Recording file exists in S3 but is empty: {} (attempt {}/{})",
-                                key,
-                                attempt + 1,
-                                maxAttempts);
-                    }
-                }
-            }
-
-            if (attempt < maxAttempts - 1) {
-                log.debug("Recording file not found in S3 yet, waiting... (attempt {}/{})", attempt + 1, maxAttempts);
-                TimeUnit.MILLISECONDS.sleep(1000);
-            }
-            attempt++;
-        }
+    private static boolean isRoomCompositeRecording(EgressInfo egressInfo) {
+        return egressInfo.getFileResults() != null
+                && egressInfo.getFileResults().stream()
+                        .anyMatch(file -> new File(file.getFilename()).getName().startsWith("recording-"));
+    }
 
-        return null;
+    private boolean isS3Recording(S3ObjectSummary object) {
+        String key = object.key();
+        return (key.contains("recording-") || key.contains("track-composite-"))
+                && object.hasExtension(".mp4", ".webm", ".mkv");
     }
 
     private EgressServiceClient createEgressClient(LiveKitContainer liveKitContainer) {
@@ -878,18 +1553,6 @@ public class VideoRecordingEgressSteps {
                 .build();
     }
 
-    private MinioS3Client getOrCreateS3Client(
-            String minioServiceName, MinIOContainer minioContainer, String bucketName) {
-        String key = minioServiceName + "-" + bucketName;
-        return s3Clients.computeIfAbsent(
-                key,
-                k -> new MinioS3Client(
-                        minioContainer.getS3EndpointUrl(),
-                        minioContainer.getAccessKey(),
-                        minioContainer.getSecretKey(),
-                        bucketName));
-    }
-
     private String getCurrentScenarioLogPath() {
         return currentScenarioLogPath != null ? currentScenarioLogPath : PathUtils.currentScenarioPath();
     }
@@ -1,12 +1,15 @@
 package ro.stancalau.test.bdd.util;
 
 import io.livekit.server.EgressServiceClient;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 import livekit.LivekitEgress;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import ro.stancalau.test.framework.util.BrowserPollingHelper;
+import ro.stancalau.test.framework.webhook.EgressInfo;
+import ro.stancalau.test.framework.webhook.FileInfo;
 
 @Slf4j
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
@@ -64,4 +67,81 @@ public class EgressTestUtils {
                     "Egress " + egressId + " did not become active after " + (POLL_TIMEOUT_MS / 1000) + " seconds");
         }
     }
+
+    /**
+     * Wait until an egress has ended, for egress services without a webhook receiver. The egress is
+     * polled through the API until it reports a final status.
+     *
+     * @return The final egress info, in the form of the {@code egress_ended} webhook
+     */
+    public static EgressInfo waitForEgressToEnd(EgressServiceClient egressClient, String egressId, String roomName) {
+        AtomicReference<LivekitEgress.EgressInfo> endedRef = new AtomicReference<>();
+
+        boolean ended = BrowserPollingHelper.pollForCondition(
+                () -> {
+                    try {
+                        LivekitEgress.EgressInfo info = egressClient.listEgress(roomName).execute().body().stream()
+                                .filter(e -> e.getEgressId().equals(egressId))
+                                .findFirst()
+                                .orElse(null);
+
+                        if (info != null && isEnded(info.getStatus())) {
+                            log.info("Egress {} ended with status {}", egressId, info.getStatus());
+                            endedRef.set(info);
+                            return true;
+                        }
+                        return false;
+                    } catch (Exception e) {
+                        log.warn("Error checking egress status: {}", e.getMessage());
+                        return false;
+                    }
+                },
+                POLL_TIMEOUT_MS,
+                POLL_INTERVAL_MS);
+
+        if (!ended) {
+            throw new IllegalStateException(
+                    "Egress " + egressId + " did not end after " + (POLL_TIMEOUT_MS / 1000) + " seconds");
+        }
+        return toWebhookEgressInfo(endedRef.get());
+    }
+
+    /** Convert the API's egress info to the form webhooks report it in */
+    public static EgressInfo toWebhookEgressInfo(LivekitEgress.EgressInfo info) {
+        EgressInfo egressInfo = new EgressInfo();
+        egressInfo.setEgressId(info.getEgressId());
+        egressInfo.setRoomId(info.getRoomId());
+        egressInfo.setRoomName(info.getRoomName());
+        egressInfo.setStatus(info.getStatus().name());
+        egressInfo.setStartedAt(info.getStartedAt());
+        egressInfo.setUpdatedAt(info.getUpdatedAt());
+        egressInfo.setEndedAt(info.getEndedAt());
+        egressInfo.setError(info.getError());
+        List<FileInfo> fileResults = info.getFileResultsList().stream()
+                .map(EgressTestUtils::toWebhookFileInfo)
+                .toList();
+        egressInfo.setFileResults(fileResults);
+        if (info.hasFile()) {
+            egressInfo.setFile(toWebhookFileInfo(info.getFile()));
+        }
+        return egressInfo;
+    }
+
+    private static FileInfo toWebhookFileInfo(LivekitEgress.FileInfo info) {
+        FileInfo fileInfo = new FileInfo();
+        fileInfo.setFilename(info.getFilename());
+        fileInfo.setStartedAt(info.getStartedAt());
+        fileInfo.setEndedAt(info.getEndedAt());
+        fileInfo.setDuration(info.getDuration());
+        fileInfo.setSize(info.getSize());
+        fileInfo.setLocation(info.getLocation());
+        return fileInfo;
+    }
+
+    private static boolean isEnded(LivekitEgress.EgressStatus status) {
+        return status == LivekitEgress.EgressStatus.EGRESS_COMPLETE
+                || status == LivekitEgress.EgressStatus.EGRESS_FAILED
+                || status == LivekitEgress.EgressStatus.EGRESS_ABORTED
+                || status == LivekitEgress.EgressStatus.EGRESS_LIMIT_REACHED;
+    }
 }
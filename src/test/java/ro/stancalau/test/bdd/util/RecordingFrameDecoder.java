@@ -0,0 +1,85 @@
+package ro.stancalau.test.bdd.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ro.stancalau.test.framework.docker.FFmpegContainer;
+import ro.stancalau.test.framework.state.ContainerStateManager;
+import ro.stancalau.test.framework.util.ContainerStreamReceiver;
+import ro.stancalau.test.framework.util.FileUtils;
+
+/**
+ * Decodes recordings in FFmpeg containers and hands the raw frames or samples to an analyzer in the
+ * test JVM while they stream in.
+ */
+@Slf4j
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class RecordingFrameDecoder {
+
+    /**
+     * Start a frame extractor writing to a fresh {@link ContainerStreamReceiver} and read its output.
+     *
+     * @param containerManager The scenario's container manager, which starts and stops the extractor
+     * @param alias The extractor's container alias
+     * @param recordingName The recording, for error messages
+     * @param extractorFactory Creates the extractor for the receiver's URL
+     * @param reader Analyzes the frames
+     * @param timeout How long decoding and analysis may take
+     * @return The result of the reader
+     */
+    public static <T> T decode(
+            ContainerStateManager containerManager,
+            String alias,
+            String recordingName,
+            Function<String, FFmpegContainer> extractorFactory,
+            ContainerStreamReceiver.StreamReader<T> reader,
+            Duration timeout) {
+        try (ContainerStreamReceiver receiver = new ContainerStreamReceiver()) {
+            CompletableFuture<T> analysis = receiver.receive(reader);
+            containerManager.startContainer(alias, extractorFactory.apply(receiver.getContainerUrl()));
+            return analysis.get(timeout.toSeconds(), TimeUnit.SECONDS);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not receive decoded frames of " + recordingName, e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new AssertionError("Could not analyze decoded frames of recording " + recordingName, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError("Interrupted while analyzing recording " + recordingName, e);
+        } finally {
+            containerManager.stopContainer(alias);
+        }
+    }
+
+    /** A container alias for decoding a recording, unique per recording name */
+    public static String extractorAlias(String prefix, String recordingName) {
+        return prefix + "-" + FileUtils.sanitizeFileName(new File(recordingName).getName());
+    }
+
+    /**
+     * Write a report next to the scenario's recordings; failures are logged, not thrown.
+     *
+     * @param directory The directory to write to
+     * @param recordingName The recording the report is about
+     * @param suffix The report file suffix, e.g. {@code .quality.txt}
+     * @param content The report
+     */
+    public static void writeReport(File directory, String recordingName, String suffix, String content) {
+        File reportFile = new File(directory, FileUtils.sanitizeFileName(new File(recordingName).getName()) + suffix);
+        try {
+            Files.createDirectories(directory.toPath());
+            Files.writeString(reportFile.toPath(), content);
+        } catch (IOException e) {
+            log.warn("Could not write report {}: {}", reportFile, e.getMessage());
+        }
+    }
+}
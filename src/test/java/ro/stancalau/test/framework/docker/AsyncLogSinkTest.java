@@ -0,0 +1,83 @@
+package ro.stancalau.test.framework.docker;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AsyncLogSinkTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void flush_afterOffer_writesAllFramesInOrder() throws Exception {
+        Path logFile = tempDir.resolve("livekit.log");
+        try (AsyncLogSink sink = new AsyncLogSink(logFile, 0)) {
+            for (int i = 0; i < 1000; i++) {
+                assertTrue(sink.offer(("line " + i + "\n").getBytes(StandardCharsets.UTF_8)));
+            }
+            assertTrue(sink.flush());
+
+            var lines = Files.readAllLines(logFile);
+            assertEquals(1000, lines.size());
+            assertEquals("line 0", lines.getFirst());
+            assertEquals("line 999", lines.getLast());
+        }
+    }
+
+    @Test
+    void close_writesRemainingFrames() throws Exception {
+        Path logFile = tempDir.resolve("egress.log");
+        AsyncLogSink sink = new AsyncLogSink(logFile, 0);
+
+        sink.offer("first\n".getBytes(StandardCharsets.UTF_8));
+        sink.offer("second\n".getBytes(StandardCharsets.UTF_8));
+        sink.close();
+
+        assertEquals("first\nsecond\n", Files.readString(logFile));
+        assertFalse(sink.offer("late\n".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void offer_beyondMaxFileSize_rollsOverFile() throws Exception {
+        Path logFile = tempDir.resolve("ingress.log");
+        byte[] line = "0123456789012345678\n".getBytes(StandardCharsets.UTF_8);
+
+        try (AsyncLogSink sink = new AsyncLogSink(logFile, 100)) {
+            for (int i = 0; i < 12; i++) {
+                sink.offer(line);
+            }
+            sink.flush();
+        }
+
+        assertTrue(Files.exists(tempDir.resolve("ingress.log.1")));
+        assertTrue(Files.size(logFile) <= 100);
+        assertTrue(Files.size(tempDir.resolve("ingress.log.1")) <= 100);
+    }
+
+    @Test
+    void offer_gzipBeyondMaxFileSize_rollsOverToCompressedName() throws Exception {
+        Path logFile = tempDir.resolve("livekit.log.gz");
+
+        try (AsyncLogSink sink = new AsyncLogSink(logFile, 200, LogCompression.GZIP)) {
+            for (int i = 0; i < 50; i++) {
+                String line = "line " + i + " " + Integer.toHexString(i * 0x9E3779B9) + "\n";
+                sink.offer(line.getBytes(StandardCharsets.UTF_8));
+                sink.flush();
+            }
+        }
+
+        Path rolled = tempDir.resolve("livekit.log.1.gz");
+        assertTrue(Files.exists(rolled));
+        assertFalse(Files.exists(tempDir.resolve("livekit.log.gz.1")));
+        assertTrue(CompressedLogReader.isCompressed(rolled));
+        try (Stream<String> lines = CompressedLogReader.lines(rolled)) {
+            assertTrue(lines.allMatch(line -> line.startsWith("line ")));
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package ro.stancalau.test.framework.docker;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import ro.stancalau.test.framework.util.CapacitySearchResult;
+import ro.stancalau.test.framework.util.LoadTestResults;
+import ro.stancalau.test.framework.util.LoadTestSlo;
+import ro.stancalau.test.framework.util.LoadTestTesterSummary;
+
+class CapacitySearchTest {
+
+    private static final CLIPublisherContainer.PublisherConfig TEMPLATE =
+            CLIPublisherContainer.PublisherConfig.builder()
+                    .videoPublishers(1)
+                    .subscribers(3)
+                    .duration(15)
+                    .build();
+
+    @Test
+    void run_rampThenBisect_findsBreakingPoint() {
+        List<Integer> sizes = new ArrayList<>();
+        CapacitySearch search = new CapacitySearch(TEMPLATE, LoadTestSlo.DEFAULT, (stage, config) -> {
+            int participants = config.getVideoPublishers() + config.getSubscribers();
+            sizes.add(participants);
+            return results(config.getSubscribers(), participants <= 13 ? 0 : 8.0);
+        });
+
+        CapacitySearchResult result = search.run(new CapacitySearch.Plan(4, 8, 40, 1));
+
+        assertEquals(List.of(4, 12, 20, 16, 14, 13), sizes);
+        assertEquals(13, result.maxSustainableParticipants());
+        assertEquals(14, result.firstFailingParticipants());
+        assertTrue(result.foundBreakingPoint());
+        assertFalse(result.reachedCeiling());
+        assertFalse(result.stages().get(2).passed());
+    }
+
+    @Test
+    void run_noFailureUpToLimit_reportsCeilingReached() {
+        List<Integer> sizes = new ArrayList<>();
+        CapacitySearch search = new CapacitySearch(TEMPLATE, LoadTestSlo.DEFAULT, (stage, config) -> {
+            sizes.add(config.getVideoPublishers() + config.getSubscribers());
+            return results(config.getSubscribers(), 0);
+        });
+
+        CapacitySearchResult result = search.run(new CapacitySearch.Plan(4, 4, 18, 1));
+
+        assertEquals(List.of(4, 8, 12, 16, 18), sizes);
+        assertEquals(18, result.maxSustainableParticipants());
+        assertNull(result.firstFailingParticipants());
+        assertTrue(result.reachedCeiling());
+        assertTrue(result.toSummary("v1.9.0", "profile").contains("reachedCeiling=true"));
+    }
+
+    @Test
+    void run_failureAtClampedLastStage_bisectsBelowLimit() {
+        CapacitySearch search = new CapacitySearch(TEMPLATE, LoadTestSlo.DEFAULT, (stage, config) -> {
+            int participants = config.getVideoPublishers() + config.getSubscribers();
+            return results(config.getSubscribers(), participants <= 17 ? 0 : 8.0);
+        });
+
+        CapacitySearchResult result = search.run(new CapacitySearch.Plan(4, 4, 18, 1));
+
+        assertEquals(17, result.maxSustainableParticipants());
+        assertEquals(18, result.firstFailingParticipants());
+        assertFalse(result.reachedCeiling());
+    }
+
+    @Test
+    void run_runnerThrows_failsStage() {
+        CapacitySearch search = new CapacitySearch(TEMPLATE, LoadTestSlo.DEFAULT, (stage, config) -> {
+            throw new IllegalStateException("LiveKit server stopped");
+        });
+
+        CapacitySearchResult result = search.run(new CapacitySearch.Plan(4, 4, 20, 2));
+
+        assertEquals(0, result.maxSustainableParticipants());
+        assertEquals(2, result.firstFailingParticipants());
+        assertTrue(result.stages().get(0).violations().get(0).contains("LiveKit server stopped"));
+    }
+
+    @Test
+    void scale_keepsMixAndEveryKind() {
+        CLIPublisherContainer.PublisherConfig template = CLIPublisherContainer.PublisherConfig.builder()
+                .videoPublishers(2)
+                .audioPublishers(1)
+                .subscribers(7)
+                .videoResolution("low")
+                .build();
+
+        CLIPublisherContainer.PublisherConfig scaled = CapacitySearch.scale(template, 25);
+        CLIPublisherContainer.PublisherConfig small = CapacitySearch.scale(template, 3);
+
+        assertEquals(5, scaled.getVideoPublishers());
+        assertEquals(3, scaled.getAudioPublishers());
+        assertEquals(17, scaled.getSubscribers());
+        assertEquals("low", scaled.getVideoResolution());
+        assertEquals(1, small.getVideoPublishers());
+        assertEquals(1, small.getAudioPublishers());
+        assertEquals(1, small.getSubscribers());
+    }
+
+    private static LoadTestResults results(int subscribers, double droppedPercent) {
+        List<LoadTestTesterSummary> testers = new ArrayList<>();
+        for (int i = 0; i < subscribers; i++) {
+            testers.add(new LoadTestTesterSummary(
+                    "Sub " + i, 1, 1, 500, Duration.ofMillis(30), droppedPercent > 0 ? 10 : 0, droppedPercent, null));
+        }
+        LoadTestTesterSummary total = new LoadTestTesterSummary(
+                LoadTestTesterSummary.TOTAL,
+                subscribers,
+                subscribers,
+                500.0 * subscribers,
+                Duration.ofMillis(30),
+                droppedPercent > 0 ? 10L * subscribers : 0,
+                droppedPercent,
+                "0");
+        return new LoadTestResults(List.of(), testers, total);
+    }
+}
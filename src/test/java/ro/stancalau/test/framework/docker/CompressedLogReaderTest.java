@@ -0,0 +1,90 @@
+package ro.stancalau.test.framework.docker;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CompressedLogReaderTest {
+
+    private static final int LINE_COUNT = 50_000;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void lines_gzipLog_readsAllLinesBack() throws Exception {
+        Path logFile = writeGzipLog("livekit.log.gz");
+
+        try (Stream<String> lines = CompressedLogReader.lines(logFile)) {
+            List<String> all = lines.toList();
+            assertEquals(LINE_COUNT, all.size());
+            assertEquals(line(0), all.getFirst());
+            assertEquals(line(LINE_COUNT - 1), all.getLast());
+        }
+        assertTrue(Files.size(logFile) < CompressedLogReader.uncompressedSize(logFile) / 5);
+    }
+
+    @Test
+    void lines_fromOffset_startsAtClosestSyncPoint() throws Exception {
+        Path logFile = writeGzipLog("egress.log.gz");
+        long offset = 0;
+        for (int i = 0; i < 40_000; i++) {
+            offset += line(i).length() + 1;
+        }
+
+        List<CompressedLogReader.SyncPoint> syncPoints = CompressedLogReader.readIndex(logFile);
+        assertTrue(syncPoints.size() > 1);
+
+        try (Stream<String> lines = CompressedLogReader.lines(logFile, offset)) {
+            assertEquals(line(40_000), lines.findFirst().orElseThrow());
+        }
+    }
+
+    @Test
+    void uncompressedSize_matchesWrittenBytes() throws Exception {
+        Path logFile = writeGzipLog("cli-publisher.log.gz");
+        long expected = 0;
+        for (int i = 0; i < LINE_COUNT; i++) {
+            expected += line(i).length() + 1;
+        }
+
+        assertEquals(expected, CompressedLogReader.uncompressedSize(logFile));
+    }
+
+    @Test
+    void containsMatch_plainLog_findsLine() throws Exception {
+        Path logFile = tempDir.resolve("mockserver.log");
+        Files.writeString(logFile, "starting\nreceived webhook room_started\n");
+
+        assertTrue(CompressedLogReader.containsMatch(logFile, Pattern.compile("room_started")));
+        assertFalse(CompressedLogReader.containsMatch(logFile, Pattern.compile("room_finished")));
+    }
+
+    @Test
+    void fromName_zstd_fallsBackToGzip() {
+        assertEquals(LogCompression.GZIP, LogCompression.fromName("zstd"));
+        assertEquals(LogCompression.NONE, LogCompression.fromName(null));
+        assertEquals(LogCompression.GZIP, LogCompression.fromName("GZIP"));
+    }
+
+    private Path writeGzipLog(String fileName) {
+        Path logFile = tempDir.resolve(fileName);
+        try (AsyncLogSink sink = new AsyncLogSink(logFile, 0, LogCompression.GZIP, LINE_COUNT)) {
+            for (int i = 0; i < LINE_COUNT; i++) {
+                sink.offer((line(i) + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return logFile;
+    }
+
+    private static String line(int index) {
+        return "2024-01-01T00:00:00Z INFO livekit room participant " + index + " published track TR_" + index;
+    }
+}
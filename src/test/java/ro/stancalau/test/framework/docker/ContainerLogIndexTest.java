@@ -0,0 +1,102 @@
+package ro.stancalau.test.framework.docker;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Test;
+
+class ContainerLogIndexTest {
+
+    @Test
+    void append_partialFrames_joinsLines() {
+        ContainerLogIndex index = new ContainerLogIndex("egress.log");
+
+        index.append(bytes("starting egress\nservice re"));
+        index.append(bytes("ady\r\n"));
+
+        assertEquals(List.of("starting egress", "service ready"), index.recentLines());
+    }
+
+    @Test
+    void append_beyondCapacity_keepsMostRecentLines() {
+        ContainerLogIndex index = new ContainerLogIndex("livekit.log", 3);
+
+        for (int i = 0; i < 5; i++) {
+            index.append(bytes("line " + i + "\n"));
+        }
+
+        assertEquals(List.of("line 2", "line 3", "line 4"), index.recentLines());
+        assertEquals(5, index.getLineCount());
+    }
+
+    @Test
+    void awaitMatch_lineAlreadyLogged_returnsImmediately() {
+        ContainerLogIndex index = new ContainerLogIndex("egress.log");
+        index.append(bytes("service ready\n"));
+
+        Optional<String> line = index.awaitMatch("service ready", Duration.ofMillis(10));
+
+        assertEquals(Optional.of("service ready"), line);
+    }
+
+    @Test
+    void awaitMatch_lineLoggedLater_wakesWaiter() throws Exception {
+        ContainerLogIndex index = new ContainerLogIndex("ingress.log");
+
+        CompletableFuture<Optional<String>> waiter = CompletableFuture.supplyAsync(
+                () -> index.awaitMatch(Pattern.compile("connection from \\S+"), Duration.ofSeconds(5)));
+        Thread.sleep(100);
+        index.append(bytes("waiting for input\n"));
+        index.append(bytes("connection from 172.18.0.5\n"));
+
+        assertEquals(Optional.of("connection from 172.18.0.5"), waiter.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void awaitMatch_fromMark_ignoresEarlierLines() {
+        ContainerLogIndex index = new ContainerLogIndex("cli-publisher.log");
+        index.append(bytes("published track 1\n"));
+        long mark = index.mark();
+
+        Optional<String> line = index.awaitMatch(Pattern.compile("published track"), mark, Duration.ofMillis(50));
+
+        assertTrue(line.isEmpty());
+    }
+
+    @Test
+    void end_wakesPendingWaiters() throws Exception {
+        ContainerLogIndex index = new ContainerLogIndex("ffmpeg.log");
+
+        CompletableFuture<Optional<String>> waiter =
+                CompletableFuture.supplyAsync(() -> index.awaitMatch("never logged", Duration.ofSeconds(30)));
+        Thread.sleep(100);
+        index.end();
+
+        assertTrue(waiter.get(5, TimeUnit.SECONDS).isEmpty());
+        assertTrue(index.isEnded());
+    }
+
+    @Test
+    void subscribe_receivesOnlyMatchingLinesUntilClosed() {
+        ContainerLogIndex index = new ContainerLogIndex("livekit.log");
+        List<String> received = new CopyOnWriteArrayList<>();
+
+        ContainerLogIndex.Subscription subscription = index.subscribe(Pattern.compile("participant"), received::add);
+        index.append(bytes("participant joined\nroom created\n"));
+        subscription.close();
+        index.append(bytes("participant left\n"));
+
+        assertEquals(List.of("participant joined"), received);
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,130 @@
+package ro.stancalau.test.framework.docker;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.junit.jupiter.api.Test;
+
+class ContainerResourceGovernorTest {
+
+    @Test
+    void acquire_withinBudget_admitsImmediately() {
+        ContainerResourceGovernor governor = new ContainerResourceGovernor(true, 4.0, 4096, Duration.ofSeconds(5));
+
+        governor.acquire("livekit", ContainerFootprint.LIVEKIT);
+        governor.acquire("egress", ContainerFootprint.EGRESS);
+
+        assertEquals(3.0, governor.getCpusInUse(), 0.001);
+        assertEquals(2048, governor.getMemoryMbInUse());
+    }
+
+    @Test
+    void acquire_overBudget_queuesUntilReleased() throws Exception {
+        ContainerResourceGovernor governor = new ContainerResourceGovernor(true, 2.0, 4096, Duration.ofSeconds(30));
+        ContainerResourceGovernor.Reservation first = governor.acquire("egress", ContainerFootprint.EGRESS);
+
+        CompletableFuture<ContainerResourceGovernor.Reservation> second =
+                CompletableFuture.supplyAsync(() -> governor.acquire("browser", ContainerFootprint.BROWSER));
+
+        assertThrows(TimeoutException.class, () -> second.get(300, TimeUnit.MILLISECONDS));
+
+        first.release();
+
+        assertNotNull(second.get(5, TimeUnit.SECONDS));
+        assertEquals(1.0, governor.getCpusInUse(), 0.001);
+    }
+
+    @Test
+    void acquire_largerThanBudgetWithNothingReserved_admits() {
+        ContainerResourceGovernor governor = new ContainerResourceGovernor(true, 1.0, 512, Duration.ofSeconds(5));
+
+        governor.acquire("egress", ContainerFootprint.EGRESS);
+
+        assertEquals(2.0, governor.getCpusInUse(), 0.001);
+    }
+
+    @Test
+    void acquire_overBudgetWithOnlyOwnReservations_admitsImmediately() {
+        ContainerResourceGovernor governor = new ContainerResourceGovernor(true, 2.0, 4096, Duration.ofSeconds(30));
+        Object scenario = new Object();
+        governor.acquire(scenario, "egress", ContainerFootprint.EGRESS);
+
+        long start = System.nanoTime();
+        governor.acquire(scenario, "browser", ContainerFootprint.BROWSER);
+
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5), "Own reservations should not queue");
+        assertEquals(3.0, governor.getCpusInUse(), 0.001);
+    }
+
+    @Test
+    void acquire_overBudgetWhileOtherTenantHolds_queuesUntilReleased() throws Exception {
+        ContainerResourceGovernor governor = new ContainerResourceGovernor(true, 3.0, 4096, Duration.ofSeconds(30));
+        Object scenario = new Object();
+        governor.acquire(scenario, "livekit", ContainerFootprint.LIVEKIT);
+        ContainerResourceGovernor.Reservation other =
+                governor.acquire(new Object(), "egress", ContainerFootprint.EGRESS);
+
+        CompletableFuture<ContainerResourceGovernor.Reservation> browser =
+                CompletableFuture.supplyAsync(() -> governor.acquire(scenario, "browser", ContainerFootprint.BROWSER));
+
+        assertThrows(TimeoutException.class, () -> browser.get(300, TimeUnit.MILLISECONDS));
+
+        other.release();
+
+        assertNotNull(browser.get(5, TimeUnit.SECONDS));
+        assertEquals(
+                ContainerFootprint.LIVEKIT.cpus() + ContainerFootprint.BROWSER.cpus(), governor.getCpusInUse(), 0.001);
+    }
+
+    @Test
+    void acquire_afterMaxWait_admitsOverBudget() {
+        ContainerResourceGovernor governor = new ContainerResourceGovernor(true, 1.0, 512, Duration.ofMillis(200));
+        governor.acquire("livekit", ContainerFootprint.LIVEKIT);
+
+        governor.acquire("browser", ContainerFootprint.BROWSER);
+
+        assertEquals(2.0, governor.getCpusInUse(), 0.001);
+    }
+
+    @Test
+    void release_calledTwice_releasesOnce() {
+        ContainerResourceGovernor governor = new ContainerResourceGovernor(true, 4.0, 4096, Duration.ofSeconds(5));
+        governor.acquire("redis", ContainerFootprint.REDIS);
+        ContainerResourceGovernor.Reservation reservation = governor.acquire("livekit", ContainerFootprint.LIVEKIT);
+
+        reservation.release();
+        reservation.release();
+
+        assertEquals(ContainerFootprint.REDIS.cpus(), governor.getCpusInUse(), 0.001);
+        assertEquals(ContainerFootprint.REDIS.memoryMb(), governor.getMemoryMbInUse());
+    }
+
+    @Test
+    void acquire_whenDisabled_doesNotTrackUsage() {
+        ContainerResourceGovernor governor = new ContainerResourceGovernor(false, 1.0, 512, Duration.ofSeconds(5));
+
+        governor.acquire("egress", ContainerFootprint.EGRESS);
+        governor.acquire("egress2", ContainerFootprint.EGRESS);
+
+        assertEquals(0.0, governor.getCpusInUse(), 0.001);
+    }
+
+    @Test
+    void forPublisherConfig_scalesWithParticipants() {
+        CLIPublisherContainer.PublisherConfig small =
+                CLIPublisherContainer.PublisherConfig.builder().videoPublishers(1).build();
+        CLIPublisherContainer.PublisherConfig large = CLIPublisherContainer.PublisherConfig.builder()
+                .videoPublishers(10)
+                .subscribers(20)
+                .build();
+
+        ContainerFootprint smallFootprint = ContainerFootprint.forPublisherConfig(small);
+        ContainerFootprint largeFootprint = ContainerFootprint.forPublisherConfig(large);
+
+        assertTrue(largeFootprint.cpus() > smallFootprint.cpus());
+        assertTrue(largeFootprint.memoryMb() > smallFootprint.memoryMb());
+    }
+}
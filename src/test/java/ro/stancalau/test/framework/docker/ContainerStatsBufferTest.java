@@ -0,0 +1,68 @@
+package ro.stancalau.test.framework.docker;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ContainerStatsBufferTest {
+
+    @Test
+    void add_belowCapacity_keepsSamplesInOrder() {
+        ContainerStatsBuffer buffer = new ContainerStatsBuffer(4);
+
+        buffer.add(sample(1000, 12.5));
+        buffer.add(sample(2000, 50));
+
+        List<ContainerStatsSample> samples = buffer.samples();
+        assertEquals(2, samples.size());
+        assertEquals(1000, samples.get(0).elapsedMillis());
+        assertEquals(12.5, samples.get(0).cpuPercent(), 0.001);
+        assertEquals(2000, samples.get(1).elapsedMillis());
+        assertEquals(0, buffer.getOverwritten());
+    }
+
+    @Test
+    void add_beyondCapacity_overwritesOldest() {
+        ContainerStatsBuffer buffer = new ContainerStatsBuffer(3);
+
+        for (int i = 1; i <= 5; i++) {
+            buffer.add(sample(i * 1000L, i));
+        }
+
+        assertEquals(3, buffer.size());
+        assertEquals(2, buffer.getOverwritten());
+        assertEquals(
+                List.of(3000L, 4000L, 5000L),
+                buffer.samples().stream().map(ContainerStatsSample::elapsedMillis).toList());
+    }
+
+    @Test
+    void samplesSince_afterWrap_filtersByTime() {
+        ContainerStatsBuffer buffer = new ContainerStatsBuffer(3);
+        for (int i = 1; i <= 4; i++) {
+            buffer.add(sample(i * 1000L, i * 10));
+        }
+
+        List<ContainerStatsSample> samples = buffer.samplesSince(3000);
+
+        assertEquals(2, samples.size());
+        assertEquals(30, samples.get(0).cpuPercent(), 0.001);
+        assertEquals(40, samples.get(1).cpuPercent(), 0.001);
+    }
+
+    @Test
+    void toCsv_samples_writesHeaderAndRows() {
+        ContainerStatsBuffer buffer = new ContainerStatsBuffer(2);
+        buffer.add(new ContainerStatsSample(500, 87.25, 104857600, 2048, 4096, 0, 8192));
+
+        String[] lines = buffer.toCsv().split("\n");
+
+        assertEquals(ContainerStatsBuffer.CSV_HEADER, lines[0]);
+        assertEquals("500,87.25,104857600,2048,4096,0,8192", lines[1]);
+    }
+
+    private static ContainerStatsSample sample(long elapsedMillis, double cpuPercent) {
+        return new ContainerStatsSample(elapsedMillis, cpuPercent, 64L * 1024 * 1024, 0, 0, 0, 0);
+    }
+}
@@ -0,0 +1,99 @@
+package ro.stancalau.test.framework.docker;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+
+class ShardedLoadTestTest {
+
+    @Test
+    void split_unevenCounts_dealsRemaindersRoundRobin() {
+        CLIPublisherContainer.PublisherConfig target = CLIPublisherContainer.PublisherConfig.builder()
+                .videoPublishers(7)
+                .audioPublishers(2)
+                .subscribers(10)
+                .numPerSecond(5)
+                .duration(30)
+                .videoResolution("low")
+                .build();
+
+        List<CLIPublisherContainer.PublisherConfig> shards = ShardedLoadTest.split(target, 3);
+
+        assertEquals(3, shards.size());
+        assertEquals(List.of(3, 2, 2), values(shards, CLIPublisherContainer.PublisherConfig::getVideoPublishers));
+        assertEquals(List.of(0, 1, 1), values(shards, CLIPublisherContainer.PublisherConfig::getAudioPublishers));
+        assertEquals(List.of(4, 3, 3), values(shards, CLIPublisherContainer.PublisherConfig::getSubscribers));
+        assertEquals(List.of(2, 2, 1), values(shards, CLIPublisherContainer.PublisherConfig::getNumPerSecond));
+        for (CLIPublisherContainer.PublisherConfig shard : shards) {
+            assertEquals(30, shard.getDuration());
+            assertEquals("low", shard.getVideoResolution());
+        }
+    }
+
+    @Test
+    void split_lowJoinRate_keepsOneJoinPerSecondPerShard() {
+        CLIPublisherContainer.PublisherConfig target = CLIPublisherContainer.PublisherConfig.builder()
+                .videoPublishers(4)
+                .numPerSecond(1)
+                .build();
+
+        List<CLIPublisherContainer.PublisherConfig> shards = ShardedLoadTest.split(target, 2);
+
+        assertEquals(1, shards.get(0).getNumPerSecond());
+        assertEquals(1, shards.get(1).getNumPerSecond());
+    }
+
+    @Test
+    void split_fewerParticipantsOfEachKindThanShards_leavesNoShardEmpty() {
+        CLIPublisherContainer.PublisherConfig single = CLIPublisherContainer.PublisherConfig.builder()
+                .videoPublishers(1)
+                .audioPublishers(1)
+                .subscribers(1)
+                .build();
+        CLIPublisherContainer.PublisherConfig pairs = CLIPublisherContainer.PublisherConfig.builder()
+                .videoPublishers(2)
+                .subscribers(2)
+                .build();
+
+        List<CLIPublisherContainer.PublisherConfig> singleShards = ShardedLoadTest.split(single, 3);
+        List<CLIPublisherContainer.PublisherConfig> pairShards = ShardedLoadTest.split(pairs, 3);
+
+        assertEquals(List.of(1, 0, 0), values(singleShards, CLIPublisherContainer.PublisherConfig::getVideoPublishers));
+        assertEquals(List.of(0, 1, 0), values(singleShards, CLIPublisherContainer.PublisherConfig::getAudioPublishers));
+        assertEquals(List.of(0, 0, 1), values(singleShards, CLIPublisherContainer.PublisherConfig::getSubscribers));
+        assertEquals(List.of(1, 1, 0), values(pairShards, CLIPublisherContainer.PublisherConfig::getVideoPublishers));
+        assertEquals(List.of(1, 0, 1), values(pairShards, CLIPublisherContainer.PublisherConfig::getSubscribers));
+        for (CLIPublisherContainer.PublisherConfig shard : pairShards) {
+            assertTrue(shard.getVideoPublishers() + shard.getAudioPublishers() + shard.getSubscribers() > 0);
+        }
+    }
+
+    @Test
+    void split_moreShardsThanParticipants_capsShardCount() {
+        CLIPublisherContainer.PublisherConfig target =
+                CLIPublisherContainer.PublisherConfig.builder().videoPublishers(2).build();
+
+        List<CLIPublisherContainer.PublisherConfig> shards = ShardedLoadTest.split(target, 5);
+
+        assertEquals(2, shards.size());
+        assertEquals(1, shards.get(0).getVideoPublishers());
+        assertEquals(1, shards.get(1).getVideoPublishers());
+        assertNull(shards.get(0).getNumPerSecond());
+    }
+
+    @Test
+    void split_noShards_throws() {
+        CLIPublisherContainer.PublisherConfig target =
+                CLIPublisherContainer.PublisherConfig.builder().videoPublishers(2).build();
+
+        assertThrows(IllegalArgumentException.class, () -> ShardedLoadTest.split(target, 0));
+    }
+
+    private static List<Integer> values(
+            List<CLIPublisherContainer.PublisherConfig> shards,
+            Function<CLIPublisherContainer.PublisherConfig, Integer> value) {
+        return shards.stream().map(value).toList();
+    }
+}
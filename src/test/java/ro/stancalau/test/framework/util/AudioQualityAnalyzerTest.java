@@ -0,0 +1,132 @@
+package ro.stancalau.test.framework.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AudioQualityAnalyzerTest {
+
+    private static final int SAMPLE_RATE = ReferenceTone.SAMPLE_RATE;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void analyze_referenceTone_isContinuousAtToneLevel() throws IOException {
+        Path tone = tempDir.resolve("tone.wav");
+        ReferenceTone.write(tone);
+
+        AudioQualityReport report;
+        try (InputStream input = Files.newInputStream(tone)) {
+            input.skipNBytes(44);
+            report = AudioQualityAnalyzer.analyze(input, SAMPLE_RATE);
+        }
+
+        assertEquals((long) SAMPLE_RATE * ReferenceTone.DURATION_SECONDS, report.sampleCount());
+        assertEquals(Duration.ofSeconds(ReferenceTone.DURATION_SECONDS), report.duration());
+        assertEquals(ReferenceTone.PEAK_DBFS - 3.01, report.rmsDbfs(), 0.05);
+        assertEquals(ReferenceTone.PEAK_DBFS, report.peakDbfs(), 0.05);
+        assertEquals(0.0, report.silenceRatio(), 0.0);
+        assertEquals(0, report.gapCount());
+        assertEquals(0.0, report.clippedSampleRatio(), 0.0);
+    }
+
+    @Test
+    void analyze_dropoutInTone_reportsSilenceAndGap() throws IOException {
+        short[] samples = tone(SAMPLE_RATE);
+        Arrays.fill(samples, SAMPLE_RATE / 4, SAMPLE_RATE / 2, (short) 0);
+
+        AudioQualityReport report = AudioQualityAnalyzer.analyze(pcm(samples), SAMPLE_RATE);
+
+        assertEquals(1, report.silenceCount());
+        assertEquals(1, report.gapCount());
+        assertEquals(250, report.longestGap().toMillis());
+        assertTrue(report.longestSilence().toMillis() >= 240 && report.longestSilence().toMillis() <= 250);
+        assertEquals(0.25, report.silenceRatio(), 0.02);
+    }
+
+    @Test
+    void analyze_shortDropout_isNeitherSilenceNorGap() throws IOException {
+        short[] samples = tone(SAMPLE_RATE);
+        Arrays.fill(samples, 1000, 1000 + SAMPLE_RATE / 100, (short) 0);
+
+        AudioQualityReport report = AudioQualityAnalyzer.analyze(pcm(samples), SAMPLE_RATE);
+
+        assertEquals(0, report.silenceCount());
+        assertEquals(0, report.gapCount());
+        assertEquals(10, report.longestGap().toMillis());
+    }
+
+    @Test
+    void analyze_quietNoise_isSilenceWithoutGap() throws IOException {
+        short[] samples = new short[SAMPLE_RATE];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = (short) (i % 2 == 0 ? 5 : -5);
+        }
+
+        AudioQualityReport report = AudioQualityAnalyzer.analyze(pcm(samples), SAMPLE_RATE);
+
+        assertEquals(1.0, report.silenceRatio(), 0.0);
+        assertEquals(1, report.silenceCount());
+        assertEquals(0, report.gapCount());
+        assertTrue(report.rmsDbfs() < AudioQualityAnalyzer.SILENCE_THRESHOLD_DBFS);
+    }
+
+    @Test
+    void analyze_fullScaleSamples_countsClipping() throws IOException {
+        short[] samples = tone(SAMPLE_RATE / 10);
+        for (int i = 0; i < 48; i++) {
+            samples[i * 100] = i % 2 == 0 ? Short.MAX_VALUE : Short.MIN_VALUE;
+        }
+
+        AudioQualityReport report = AudioQualityAnalyzer.analyze(pcm(samples), SAMPLE_RATE);
+
+        assertEquals(48.0 / samples.length, report.clippedSampleRatio(), 1e-9);
+        assertEquals(0.0, report.peakDbfs(), 0.001);
+    }
+
+    @Test
+    void analyze_trailingOddByte_isIgnored() throws IOException {
+        byte[] pcm = pcm(tone(100)).readAllBytes();
+        byte[] truncated = Arrays.copyOf(pcm, pcm.length + 1);
+
+        AudioQualityReport report = AudioQualityAnalyzer.analyze(new ByteArrayInputStream(truncated), SAMPLE_RATE);
+
+        assertEquals(100, report.sampleCount());
+    }
+
+    @Test
+    void report_noSamples_isDigitalSilence() {
+        AudioQualityReport report = new AudioQualityAnalyzer(SAMPLE_RATE).report();
+
+        assertEquals(0, report.sampleCount());
+        assertEquals(AudioQualityAnalyzer.MIN_DBFS, report.rmsDbfs(), 0.0);
+        assertEquals(Duration.ZERO, report.duration());
+    }
+
+    private static short[] tone(int length) {
+        short[] samples = new short[length];
+        for (int i = 0; i < length; i++) {
+            samples[i] = ReferenceTone.sample(i);
+        }
+        return samples;
+    }
+
+    private static InputStream pcm(short[] samples) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        for (short sample : samples) {
+            output.write(sample & 0xFF);
+            output.write((sample >> 8) & 0xFF);
+        }
+        return new ByteArrayInputStream(output.toByteArray());
+    }
+}
@@ -0,0 +1,112 @@
+package ro.stancalau.test.framework.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.Test;
+
+class FakeMediaReferencesTest {
+
+    @Test
+    void load_parsesCommaSeparatedHexHashesPerSource() throws IOException {
+        FakeMediaReferences references = load("""
+                # comment
+                chrome=00000000000000ff, 000000000000ffff
+                firefox=ffffffff00000000
+                """);
+
+        assertEquals(Set.of("chrome", "firefox"), references.getSources());
+        assertEquals(List.of(0xFFL, 0xFFFFL), references.getReferences("chrome"));
+        assertEquals(List.of(0xFFFFFFFF00000000L), references.getReferences("firefox"));
+    }
+
+    @Test
+    void distanceTo_usesClosestReferenceOfSource() throws IOException {
+        FakeMediaReferences references = load("chrome=00000000000000ff,000000000000ffff");
+
+        assertEquals(Optional.of(0), references.distanceTo("chrome", 0xFFFFL));
+        assertEquals(Optional.of(1), references.distanceTo("chrome", 0x7FL));
+        assertTrue(references.distanceTo("firefox", 0xFFL).isEmpty());
+        assertTrue(references.matches("chrome", 0x0FL, 4));
+        assertFalse(references.matches("chrome", 0x0FL, 3));
+        assertFalse(references.matches("firefox", 0x0FL, 64));
+    }
+
+    @Test
+    void closestMatch_picksSourceWithSmallestDistance() throws IOException {
+        FakeMediaReferences references = load("chrome=00000000000000ff\nfirefox=ffffffff00000000");
+
+        FakeMediaReferences.Match match = references.closestMatch(0xFFFFFFF000000000L).orElseThrow();
+
+        assertEquals("firefox", match.source());
+        assertEquals(4, match.distance());
+        assertTrue(new FakeMediaReferences().closestMatch(0L).isEmpty());
+    }
+
+    @Test
+    void toProperties_roundTripsRegisteredHashes() throws IOException {
+        FakeMediaReferences references = new FakeMediaReferences();
+        references.register("firefox", -1L);
+        references.register("chrome", 1L);
+        references.register("chrome", 2L);
+
+        FakeMediaReferences reloaded = load(references.toProperties());
+
+        assertEquals(List.of(1L, 2L), reloaded.getReferences("chrome"));
+        assertEquals(List.of(-1L), reloaded.getReferences("firefox"));
+    }
+
+    @Test
+    void getShared_referenceClipSource_matchesGeneratedClip() {
+        List<Long> expected = FakeMediaReferences.referenceClipHashes();
+
+        List<Long> stored =
+                FakeMediaReferences.getShared().getReferences(FakeMediaReferences.REFERENCE_CLIP_SOURCE);
+
+        FakeMediaReferences regenerated = new FakeMediaReferences();
+        expected.forEach(hash -> regenerated.register(FakeMediaReferences.REFERENCE_CLIP_SOURCE, hash));
+        assertEquals(
+                expected, stored, "Update " + FakeMediaReferences.RESOURCE + " with:\n" + regenerated.toProperties());
+    }
+
+    @Test
+    void matches_upscaledJpegOfReferenceClipFrame_withinDefaultDistance() throws IOException {
+        byte[] luma = new byte[ReferenceClip.WIDTH * ReferenceClip.HEIGHT];
+        ReferenceClip.renderFrame(23, luma, new byte[luma.length / 4], new byte[luma.length / 4]);
+        BufferedImage frame =
+                new BufferedImage(ReferenceClip.WIDTH, ReferenceClip.HEIGHT, BufferedImage.TYPE_BYTE_GRAY);
+        frame.getRaster().setDataElements(0, 0, ReferenceClip.WIDTH, ReferenceClip.HEIGHT, luma);
+        BufferedImage snapshot = new BufferedImage(1920, 1080, BufferedImage.TYPE_3BYTE_BGR);
+        Graphics2D graphics = snapshot.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.drawImage(frame, 0, 0, 1920, 1080, null);
+        graphics.dispose();
+        ByteArrayOutputStream jpeg = new ByteArrayOutputStream();
+        ImageIO.write(snapshot, "jpg", jpeg);
+
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(jpeg.toByteArray()));
+        long hash = new PerceptualHasher().hash(decoded, PerceptualHasher.Algorithm.PERCEPTUAL);
+
+        assertTrue(FakeMediaReferences.getShared()
+                .matches(FakeMediaReferences.REFERENCE_CLIP_SOURCE, hash, PerceptualHasher.DEFAULT_MATCH_DISTANCE));
+    }
+
+    @Test
+    void load_invalidHash_throws() {
+        assertThrows(NumberFormatException.class, () -> load("chrome=not-a-hash"));
+    }
+
+    private static FakeMediaReferences load(String properties) throws IOException {
+        return FakeMediaReferences.load(new ByteArrayInputStream(properties.getBytes(StandardCharsets.UTF_8)));
+    }
+}
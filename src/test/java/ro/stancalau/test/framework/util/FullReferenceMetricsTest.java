@@ -0,0 +1,97 @@
+package ro.stancalau.test.framework.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+
+class FullReferenceMetricsTest {
+
+    private static final int WIDTH = 640;
+    private static final int HEIGHT = 360;
+
+    @Test
+    void compare_identicalFrames_isPerfect() {
+        byte[] frame = texturedFrame();
+
+        FrameQuality quality = FullReferenceMetrics.compare(frame, frame.clone(), WIDTH, HEIGHT);
+
+        assertEquals(FullReferenceMetrics.MAX_PSNR, quality.psnr());
+        assertEquals(1.0, quality.ssim(), 1e-9);
+    }
+
+    @Test
+    void compare_constantOffset_matchesPsnrFormula() {
+        byte[] reference = texturedFrame();
+        byte[] distorted = new byte[reference.length];
+        for (int i = 0; i < reference.length; i++) {
+            distorted[i] = (byte) ((reference[i] & 0xFF) + 4);
+        }
+
+        FrameQuality quality = FullReferenceMetrics.compare(reference, distorted, WIDTH, HEIGHT);
+
+        assertEquals(10 * Math.log10(255.0 * 255.0 / 16), quality.psnr(), 1e-9);
+        assertTrue(quality.ssim() > 0.99, "A small brightness shift keeps the structure: " + quality.ssim());
+    }
+
+    @Test
+    void compare_strongerNoise_lowersPsnrAndSsim() {
+        byte[] reference = texturedFrame();
+        Random random = new Random(7);
+        byte[] noisy = new byte[reference.length];
+        for (int i = 0; i < reference.length; i++) {
+            noisy[i] = (byte) Math.clamp((reference[i] & 0xFF) + random.nextInt(81) - 40, 0, 255);
+        }
+
+        FrameQuality slightlyNoisy = FullReferenceMetrics.compare(reference, blend(reference, noisy), WIDTH, HEIGHT);
+        FrameQuality veryNoisy = FullReferenceMetrics.compare(reference, noisy, WIDTH, HEIGHT);
+
+        assertTrue(veryNoisy.psnr() < slightlyNoisy.psnr());
+        assertTrue(veryNoisy.ssim() < slightlyNoisy.ssim());
+        assertTrue(veryNoisy.ssim() < 0.9);
+    }
+
+    @Test
+    void compare_singleThreadPool_matchesCommonPool() {
+        byte[] reference = texturedFrame();
+        byte[] distorted = reference.clone();
+        for (int i = 0; i < distorted.length; i += 7) {
+            distorted[i] = (byte) (255 - (distorted[i] & 0xFF));
+        }
+
+        FrameQuality parallel = FullReferenceMetrics.compare(reference, distorted, WIDTH, HEIGHT);
+        FrameQuality sequential;
+        try (ForkJoinPool pool = new ForkJoinPool(1)) {
+            sequential = FullReferenceMetrics.compare(reference, distorted, WIDTH, HEIGHT, pool);
+        }
+
+        assertEquals(sequential.psnr(), parallel.psnr(), 1e-9);
+        assertEquals(sequential.ssim(), parallel.ssim(), 1e-9);
+    }
+
+    @Test
+    void compare_planeTooSmall_throws() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> FullReferenceMetrics.compare(new byte[100], new byte[WIDTH * HEIGHT], WIDTH, HEIGHT));
+    }
+
+    private static byte[] texturedFrame() {
+        byte[] frame = new byte[WIDTH * HEIGHT];
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                frame[y * WIDTH + x] = (byte) (60 + (x * 7 + y * 3) % 100 + ((x / 8 + y / 8) % 2) * 40);
+            }
+        }
+        return frame;
+    }
+
+    private static byte[] blend(byte[] first, byte[] second) {
+        byte[] blended = new byte[first.length];
+        for (int i = 0; i < first.length; i++) {
+            blended[i] = (byte) (((first[i] & 0xFF) * 3 + (second[i] & 0xFF)) / 4);
+        }
+        return blended;
+    }
+}
@@ -0,0 +1,212 @@
+package ro.stancalau.test.framework.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class HlsPlaylistTailerTest {
+
+    private static final Instant START = Instant.parse("2026-01-01T10:00:00Z");
+    private static final String HEADER =
+            "#EXTM3U\n#EXT-X-VERSION:3\n#EXT-X-PLAYLIST-TYPE:EVENT\n#EXT-X-TARGETDURATION:2\n#EXT-X-MEDIA-SEQUENCE:0\n";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void poll_appendedLines_returnsOnlyNewSegments() throws IOException {
+        MemorySource source = new MemorySource();
+        HlsPlaylistTailer tailer = new HlsPlaylistTailer(source, new MutableClock(START));
+
+        source.append(HEADER + segment(0) + segment(1));
+        List<HlsSegment> first = tailer.poll();
+        source.append(segment(2) + "#EXTINF:2.0");
+        List<HlsSegment> second = tailer.poll();
+        source.append("00,\nsegment_00003.ts\n");
+        List<HlsSegment> third = tailer.poll();
+
+        assertEquals(2, first.size());
+        assertEquals(1, second.size());
+        assertEquals(2, second.get(0).sequence());
+        assertEquals(1, third.size());
+        assertEquals("segment_00003.ts", third.get(0).uri());
+        assertEquals(Duration.ofSeconds(8), third.get(0).mediaEnd());
+        assertEquals(0, tailer.report().violationCount());
+    }
+
+    @Test
+    void poll_growingPlaylist_readsOnlyAppendedBytes() throws IOException {
+        MemorySource source = new MemorySource();
+        HlsPlaylistTailer tailer = new HlsPlaylistTailer(source, new MutableClock(START));
+
+        source.append(HEADER);
+        tailer.poll();
+        for (int i = 0; i < 500; i++) {
+            source.append(segment(i));
+            assertEquals(1, tailer.poll().size());
+            assertTrue(tailer.poll().isEmpty());
+        }
+
+        assertTrue(source.bytesRead <= source.size() + 1001L * 64, "Read " + source.bytesRead + " bytes");
+        assertEquals(500, tailer.report().segmentCount());
+    }
+
+    @Test
+    void poll_missingSegmentNumber_reportsViolation() throws IOException {
+        MemorySource source = new MemorySource();
+        HlsPlaylistTailer tailer = new HlsPlaylistTailer(source, new MutableClock(START));
+
+        source.append(HEADER + segment(0) + segment(2) + "#EXT-X-DISCONTINUITY\n" + segment(7));
+        tailer.poll();
+        HlsTailReport report = tailer.report();
+
+        assertEquals(1, report.violationCount());
+        assertTrue(report.violations().get(0).contains("segment_00002.ts follows segment number 0"));
+    }
+
+    @Test
+    void poll_segmentLongerThanTarget_reportsViolation() throws IOException {
+        MemorySource source = new MemorySource();
+        HlsPlaylistTailer tailer = new HlsPlaylistTailer(source, new MutableClock(START));
+
+        source.append(HEADER + "#EXTINF:2.499,\nsegment_00000.ts\n#EXTINF:2.6,\nsegment_00001.ts\n#EXT-X-ENDLIST\n");
+        tailer.poll();
+        HlsTailReport report = tailer.report();
+
+        assertEquals(1, report.violationCount());
+        assertTrue(report.violations().get(0).contains("segment_00001.ts lasts 2600ms"));
+        assertTrue(report.ended());
+        assertTrue(tailer.isEnded());
+    }
+
+    @Test
+    void poll_rewrittenPlaylist_skipsSeenSegmentsAndReportsLostOnes() throws IOException {
+        MemorySource source = new MemorySource();
+        HlsPlaylistTailer tailer = new HlsPlaylistTailer(source, new MutableClock(START));
+        source.append(HEADER + segment(0) + segment(1) + segment(2));
+        tailer.poll();
+
+        source.replace(HEADER.replace("SEQUENCE:0", "SEQUENCE:2") + segment(2) + segment(3));
+        List<HlsSegment> afterShrink = tailer.poll();
+        source.replace(HEADER.replace("SEQUENCE:0", "SEQUENCE:5") + segment(5) + segment(6));
+        List<HlsSegment> afterGap = tailer.poll();
+
+        assertEquals(1, afterShrink.size());
+        assertEquals(3, afterShrink.get(0).sequence());
+        assertEquals(2, afterGap.size());
+        HlsTailReport report = tailer.report();
+        assertEquals(2, report.rewrites());
+        assertEquals(6, report.segmentCount());
+        assertEquals(2, report.violationCount());
+        assertTrue(report.violations().get(0).contains("media sequence 5 after 3"));
+    }
+
+    @Test
+    void report_lateSegments_measuresArrivalLatencyFromFirstSegments() throws IOException {
+        MemorySource source = new MemorySource();
+        MutableClock clock = new MutableClock(START);
+        HlsPlaylistTailer tailer = new HlsPlaylistTailer(source, clock);
+
+        source.append(HEADER + segment(0) + segment(1));
+        clock.now = START.plusSeconds(30);
+        List<HlsSegment> first = tailer.poll();
+        source.append(segment(2));
+        clock.now = START.plusMillis(32_500);
+        List<HlsSegment> onTime = tailer.poll();
+        source.append(segment(3));
+        clock.now = START.plusMillis(35_500);
+        List<HlsSegment> late = tailer.poll();
+
+        assertEquals(Duration.ZERO, first.get(0).arrivalLatency());
+        assertEquals(Duration.ZERO, first.get(1).arrivalLatency());
+        assertEquals(Duration.ofMillis(500), onTime.get(0).arrivalLatency());
+        assertEquals(Duration.ofMillis(1500), late.get(0).arrivalLatency());
+        HlsTailReport report = tailer.report();
+        assertEquals(Duration.ofMillis(1500), report.maxArrivalLatency());
+        assertEquals(Duration.ofMillis(1000), report.meanArrivalLatency());
+    }
+
+    @Test
+    void fileSource_growingFile_tailsAppendedSegments() throws IOException {
+        Path playlist = tempDir.resolve("playlist.m3u8");
+        HlsPlaylistTailer tailer = new HlsPlaylistTailer(HlsPlaylistTailer.fileSource(playlist));
+
+        assertTrue(tailer.poll().isEmpty());
+        Files.writeString(playlist, HEADER + segment(0));
+        assertEquals(1, tailer.poll().size());
+        Files.writeString(playlist, segment(1) + "#EXT-X-ENDLIST\n", StandardOpenOption.APPEND);
+
+        assertEquals(1, tailer.poll().size());
+        assertTrue(tailer.isEnded());
+    }
+
+    private static String segment(int index) {
+        return String.format("#EXTINF:2.000,\nsegment_%05d.ts\n", index);
+    }
+
+    private static final class MemorySource implements HlsPlaylistTailer.PlaylistSource {
+
+        private byte[] content = new byte[0];
+        private long bytesRead;
+
+        void append(String text) {
+            byte[] appended = text.getBytes(StandardCharsets.UTF_8);
+            byte[] grown = Arrays.copyOf(content, content.length + appended.length);
+            System.arraycopy(appended, 0, grown, content.length, appended.length);
+            content = grown;
+        }
+
+        void replace(String text) {
+            content = text.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public long size() {
+            return content.length;
+        }
+
+        @Override
+        public byte[] read(long offset, int length) {
+            byte[] bytes = Arrays.copyOfRange(content, (int) offset, (int) Math.min(content.length, offset + length));
+            bytesRead += bytes.length;
+            return bytes;
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -8,6 +8,9 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import javax.imageio.ImageIO;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
@@ -99,6 +102,164 @@ class ImageValidationUtilsTest {
         assertFalse(ImageValidationUtils.hasValidDimensions(imageFile, 10, 10));
     }
 
+    @Test
+    void analyzeContent_blackFrame_isBlack() throws IOException {
+        File imageFile = createSolidJpegImage("black.jpg", new Color(16, 16, 16));
+
+        ImageContentStats stats = ImageValidationUtils.analyzeContent(imageFile);
+
+        assertTrue(stats.isBlack());
+        assertFalse(stats.hasContent());
+        assertTrue(stats.meanLuma() < 24);
+    }
+
+    @Test
+    void analyzeContent_uniformGreyFrame_isUniformButNotBlack() throws IOException {
+        File imageFile = createSolidJpegImage("grey.jpg", Color.GRAY);
+
+        ImageContentStats stats = ImageValidationUtils.analyzeContent(imageFile);
+
+        assertFalse(stats.isBlack());
+        assertTrue(stats.isUniform());
+        assertFalse(stats.hasContent());
+        assertTrue(stats.dominantBinFraction() > 0.9);
+    }
+
+    @Test
+    void analyzeContent_splitColourFrame_hasContent() throws IOException {
+        File imageFile = createTestJpegImage(tempDir, "split.jpg", 320, 240);
+
+        ImageContentStats stats = ImageValidationUtils.analyzeContent(imageFile);
+
+        assertTrue(stats.hasContent());
+        assertEquals(320, stats.width());
+        assertEquals(240, stats.height());
+        assertTrue(stats.lumaStdDev() > 10);
+    }
+
+    @Test
+    void analyzeContent_packedAndGreyRasters_matchInterleavedRaster() {
+        BufferedImage bgr = createCheckerboard(BufferedImage.TYPE_3BYTE_BGR);
+        BufferedImage rgb = createCheckerboard(BufferedImage.TYPE_INT_RGB);
+        BufferedImage grey = createCheckerboard(BufferedImage.TYPE_BYTE_GRAY);
+
+        ImageContentStats bgrStats = ImageValidationUtils.analyzeContent(bgr);
+        ImageContentStats rgbStats = ImageValidationUtils.analyzeContent(rgb);
+        ImageContentStats greyStats = ImageValidationUtils.analyzeContent(grey);
+
+        assertEquals(bgrStats.meanLuma(), rgbStats.meanLuma(), 0.001);
+        assertEquals(bgrStats.edgeEnergy(), rgbStats.edgeEnergy(), 0.001);
+        assertEquals(bgrStats.meanLuma(), greyStats.meanLuma(), 2.0);
+        assertTrue(bgrStats.edgeEnergy() > 50);
+    }
+
+    @Test
+    void analyzeContent_manyFiles_skipsUndecodableAndSelectsMostDetailed() throws IOException {
+        File black = createSolidJpegImage("frame_0.jpg", Color.BLACK);
+        File split = createTestJpegImage(tempDir, "frame_1.jpg", 320, 240);
+        File checkerboard = tempDir.resolve("frame_2.jpg").toFile();
+        ImageIO.write(createCheckerboard(BufferedImage.TYPE_INT_RGB), "jpg", checkerboard);
+        File broken = tempDir.resolve("frame_3.jpg").toFile();
+        Files.write(broken.toPath(), "Not an image".getBytes());
+
+        Map<File, ImageContentStats> stats =
+                ImageValidationUtils.analyzeContent(List.of(black, split, checkerboard, broken));
+
+        assertEquals(3, stats.size());
+        assertFalse(stats.containsKey(broken));
+        assertEquals(checkerboard, ImageValidationUtils.selectMostDetailed(stats).orElseThrow());
+    }
+
+    @Test
+    void selectMostDetailed_onlyBlackFrames_returnsEmpty() throws IOException {
+        byte[] black = Files.readAllBytes(createSolidJpegImage("black.jpg", Color.BLACK).toPath());
+
+        Map<String, ImageContentStats> stats =
+                ImageValidationUtils.analyzeEncodedContent(Map.of("a.jpg", black, "b.jpg", black));
+
+        assertEquals(2, stats.size());
+        assertTrue(ImageValidationUtils.selectMostDetailed(stats).isEmpty());
+    }
+
+    @Test
+    void inspect_jpeg_readsFormatAndDimensionsFromHeader() throws IOException {
+        File imageFile = createTestJpegImage(tempDir, "header.jpg", 640, 360);
+
+        ImageMetadata metadata = ImageValidationUtils.inspect(imageFile).orElseThrow();
+
+        assertEquals(new ImageMetadata("jpeg", 640, 360), metadata);
+    }
+
+    @Test
+    void inspect_truncatedJpeg_stillReadsHeader() throws IOException {
+        File imageFile = createTestJpegImage(tempDir, "truncated.jpg", 640, 360);
+        byte[] bytes = Files.readAllBytes(imageFile.toPath());
+        Files.write(imageFile.toPath(), Arrays.copyOf(bytes, 1024));
+
+        assertEquals(640, ImageValidationUtils.inspect(imageFile).orElseThrow().width());
+    }
+
+    @Test
+    void inspect_notAnImage_isEmpty() throws IOException {
+        File textFile = tempDir.resolve("notes.jpg").toFile();
+        Files.write(textFile.toPath(), "Not an image".getBytes());
+
+        assertTrue(ImageValidationUtils.inspect(textFile).isEmpty());
+        assertTrue(ImageValidationUtils.inspect(new File(tempDir.toFile(), "missing.jpg")).isEmpty());
+    }
+
+    @Test
+    void inspect_rewrittenFile_isReadAgain() throws IOException {
+        File imageFile = createTestJpegImage(tempDir, "rewritten.jpg", 320, 240);
+        assertEquals(320, ImageValidationUtils.inspect(imageFile).orElseThrow().width());
+
+        createTestJpegImage(tempDir, "rewritten.jpg", 640, 480);
+        imageFile.setLastModified(imageFile.lastModified() + 2000);
+
+        assertEquals(640, ImageValidationUtils.inspect(imageFile).orElseThrow().width());
+    }
+
+    @Test
+    void analyzeContent_unchangedFile_returnsCachedResult() throws IOException {
+        File imageFile = createTestJpegImage(tempDir, "cached.jpg", 320, 240);
+
+        ImageContentStats first = ImageValidationUtils.analyzeContent(imageFile);
+        ImageContentStats second = ImageValidationUtils.analyzeContent(imageFile);
+        ImageValidationUtils.clearCache();
+        ImageContentStats third = ImageValidationUtils.analyzeContent(imageFile);
+
+        assertSame(first, second);
+        assertNotSame(first, third);
+        assertEquals(first.meanLuma(), third.meanLuma());
+    }
+
+    private File createSolidJpegImage(String filename, Color color) throws IOException {
+        BufferedImage image = new BufferedImage(640, 360, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = image.createGraphics();
+        g2d.setColor(color);
+        g2d.fillRect(0, 0, image.getWidth(), image.getHeight());
+        g2d.dispose();
+
+        File imageFile = tempDir.resolve(filename).toFile();
+        ImageIO.write(image, "jpg", imageFile);
+        return imageFile;
+    }
+
+    private BufferedImage createCheckerboard(int imageType) {
+        BufferedImage image = new BufferedImage(320, 320, imageType);
+        Graphics2D g2d = image.createGraphics();
+        g2d.setColor(Color.WHITE);
+        g2d.fillRect(0, 0, image.getWidth(), image.getHeight());
+        g2d.setColor(Color.BLACK);
+        for (int y = 0; y < image.getHeight(); y += 2) {
+            for (int x = (y / 2) % 2 * 2; x < image.getWidth(); x += 4) {
+                g2d.fillRect(x, y, 2, 2);
+            }
+        }
+        g2d.dispose();
+        return image;
+    }
+
     private File createTestJpegImage(Path tempDir, String filename, int width, int height) throws IOException {
         BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
         Graphics2D g2d = image.createGraphics();
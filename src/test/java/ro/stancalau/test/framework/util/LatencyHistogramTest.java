@@ -0,0 +1,77 @@
+package ro.stancalau.test.framework.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+    @Test
+    void percentile_oneToTenThousandMicros_withinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int micros = 1; micros <= 10_000; micros++) {
+            histogram.recordNanos(micros * 1000L);
+        }
+
+        assertEquals(10_000, histogram.count());
+        assertEquals(5000, histogram.percentile(50).toNanos() / 1000.0, 5000 * 0.016);
+        assertEquals(9900, histogram.percentile(99).toNanos() / 1000.0, 9900 * 0.016);
+        assertEquals(Duration.ofMillis(10), histogram.percentile(100));
+        assertEquals(Duration.ofMillis(10), histogram.max());
+        assertEquals(Duration.ofNanos(1000), histogram.min());
+        assertEquals(Duration.ofNanos(5_000_000), histogram.mean());
+    }
+
+    @Test
+    void bucket_everyValue_fallsWithinItsBucketBounds() {
+        int previous = -1;
+        for (long micros = 0; micros < 1 << 20; micros += 1 + micros / 1000) {
+            int bucket = LatencyHistogram.bucket(micros);
+            assertTrue(bucket >= previous, "Buckets must not decrease at " + micros);
+            assertTrue(LatencyHistogram.upperBound(bucket) >= micros, "Upper bound below " + micros);
+            assertTrue(bucket == 0 || LatencyHistogram.upperBound(bucket - 1) < micros, "Gap below " + micros);
+            previous = bucket;
+        }
+    }
+
+    @Test
+    void recordNanos_concurrentVirtualThreads_countsEverySample() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        List<Runnable> tasks = new ArrayList<>();
+        for (int thread = 0; thread < 100; thread++) {
+            tasks.add(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    histogram.record(Duration.ofMillis(2));
+                }
+            });
+        }
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            tasks.forEach(executor::submit);
+        }
+
+        assertEquals(100_000, histogram.count());
+        assertEquals(Duration.ofMillis(2), histogram.percentile(99.9));
+    }
+
+    @Test
+    void add_otherHistogram_mergesCountsAndExtremes() {
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        first.record(Duration.ofMillis(1));
+        second.record(Duration.ofMillis(3));
+        second.record(Duration.ofMillis(5));
+
+        first.add(second);
+
+        assertEquals(3, first.count());
+        assertEquals(Duration.ofMillis(1), first.min());
+        assertEquals(Duration.ofMillis(5), first.max());
+        assertEquals(Duration.ofMillis(3), first.mean());
+        assertEquals(Duration.ZERO, new LatencyHistogram().percentile(50));
+    }
+}
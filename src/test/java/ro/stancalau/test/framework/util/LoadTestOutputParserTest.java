@@ -0,0 +1,154 @@
+package ro.stancalau.test.framework.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.output.OutputFrame;
+
+class LoadTestOutputParserTest {
+
+    private static final String BOX_OUTPUT = """
+            2025-01-01T10:00:00.000Z INFO  loadtester  starting load test
+            Publishing video track - Pub 0
+            Publishing video track - Pub 1
+
+            Sub 0 in LoadTestRoom
+            ╭──────────────┬───────┬──────┬──────────┬─────────┬───────────╮
+            │ Track        │ Kind  │ Pkts │ Bitrate  │ Latency │ Dropped   │
+            ├──────────────┼───────┼──────┼──────────┼─────────┼───────────┤
+            │ TR_VCabc     │ video │ 4210 │ 1.2mbps  │ 35.2ms  │ 3 (0.07%) │
+            │ TR_VCdef     │ video │ 4190 │ 987.5kbps│ 41ms    │ 0 (0%)    │
+            ╰──────────────┴───────┴──────┴──────────┴─────────┴───────────╯
+
+            Sub 1 in LoadTestRoom
+            ╭──────────────┬───────┬──────┬──────────┬─────────┬───────────╮
+            │ Track        │ Kind  │ Pkts │ Bitrate  │ Latency │ Dropped   │
+            ├──────────────┼───────┼──────┼──────────┼─────────┼───────────┤
+            │ TR_VCabc     │ video │ 4205 │ 1.1mbps  │ 1.5s    │ 12 (0.28%)│
+            │ TR_VCdef     │ video │ 4201 │ 990.1kbps│ -       │ 0 (0%)    │
+            ╰──────────────┴───────┴──────┴──────────┴─────────┴───────────╯
+
+            Summary
+            ╭──────────────────────┬────────┬─────────┬─────────┬───────────────┬───────╮
+            │ Tester               │ Tracks │ Bitrate │ Latency │ Total Dropped │ Error │
+            ├──────────────────────┼────────┼─────────┼─────────┼───────────────┼───────┤
+            │ Sub 0 in LoadTestRoom│ 2/2    │ 2.2mbps │ 38.1ms  │ 3 (0.04%)     │ -     │
+            │ Sub 1 in LoadTestRoom│ 1/2    │ 2.1mbps │ 750ms   │ 12 (0.14%)    │ timeout waiting for track │
+            │ Total                │ 3/4    │ 4.3mbps │ 394ms   │ 15 (0.09%)    │ 1     │
+            ╰──────────────────────┴────────┴─────────┴─────────┴───────────────┴───────╯
+            """;
+
+    private static final String ASCII_OUTPUT = """
+            Summary
+            +--------+--------+---------+---------+---------------+-------+
+            | Tester | Tracks | Bitrate | Latency | Total Dropped | Error |
+            +--------+--------+---------+---------+---------------+-------+
+            | Sub 0  | 1/1    | 64.0kbps| 20ms    | 0 (0%)        | -     |
+            | Total  | 1/1    | 64.0kbps| 20ms    | 0 (0%)        | 0     |
+            +--------+--------+---------+---------+---------------+-------+
+            """;
+
+    @Test
+    void acceptLine_boxTables_parsesTrackStatsAndSummary() {
+        LoadTestOutputParser parser = parse(BOX_OUTPUT);
+
+        LoadTestResults results = parser.awaitResults(Duration.ZERO).orElseThrow();
+
+        assertEquals(4, results.tracks().size());
+        LoadTestTrackStats first = results.tracks().get(0);
+        assertEquals("Sub 0 in LoadTestRoom", first.tester());
+        assertEquals("TR_VCabc", first.track());
+        assertEquals("video", first.kind());
+        assertEquals(4210, first.packets());
+        assertEquals(1200, first.bitrateKbps(), 0.001);
+        assertEquals(Duration.ofNanos(35_200_000), first.latency());
+        assertEquals(3, first.dropped());
+        assertEquals(0.07, first.droppedPercent(), 1e-9);
+        assertEquals(Duration.ofMillis(1500), results.tracks().get(2).latency());
+        assertNull(results.tracks().get(3).latency());
+
+        assertEquals(2, results.testers().size());
+        assertEquals("timeout waiting for track", results.testers().get(1).error());
+        assertNull(results.testers().get(0).error());
+
+        LoadTestTesterSummary total = results.total();
+        assertNotNull(total);
+        assertEquals(3, total.tracks());
+        assertEquals(4, total.expectedTracks());
+        assertEquals(4300, total.bitrateKbps(), 0.001);
+        assertEquals(Duration.ofMillis(394), total.latency());
+        assertEquals(15, total.dropped());
+        assertEquals(1, results.errorCount());
+        assertEquals(0.28, results.maxDroppedPercent(), 1e-9);
+    }
+
+    @Test
+    void acceptLine_asciiTables_parsesSummary() {
+        LoadTestOutputParser parser = parse(ASCII_OUTPUT);
+        assertTrue(parser.awaitResults(Duration.ZERO).isEmpty());
+        parser.end();
+
+        LoadTestResults results = parser.awaitResults(Duration.ZERO).orElseThrow();
+
+        assertEquals(1, results.testers().size());
+        assertNotNull(results.total());
+        assertEquals(64, results.total().bitrateKbps(), 0.001);
+        assertEquals(0, results.errorCount());
+        assertEquals(0, results.maxDroppedPercent(), 1e-9);
+    }
+
+    @Test
+    void awaitResults_summaryNotPrinted_isEmptyUntilEnd() {
+        LoadTestOutputParser parser = parse(BOX_OUTPUT.substring(0, BOX_OUTPUT.indexOf("Summary")));
+
+        assertTrue(parser.awaitResults(Duration.ofMillis(10)).isEmpty());
+        assertEquals(4, parser.snapshot().tracks().size());
+
+        parser.end();
+
+        LoadTestResults results = parser.awaitResults(Duration.ZERO).orElseThrow();
+        assertNull(results.total());
+        assertEquals(4, results.tracks().size());
+    }
+
+    @Test
+    void accept_framesSplitMidLine_parsesSameResults() {
+        LoadTestOutputParser parser = new LoadTestOutputParser();
+        byte[] bytes = ASCII_OUTPUT.getBytes(StandardCharsets.UTF_8);
+        for (int offset = 0; offset < bytes.length; offset += 7) {
+            byte[] chunk = Arrays.copyOfRange(bytes, offset, Math.min(bytes.length, offset + 7));
+            parser.accept(new OutputFrame(OutputFrame.OutputType.STDOUT, chunk));
+        }
+        parser.accept(OutputFrame.END);
+
+        LoadTestResults results = parser.awaitResults(Duration.ZERO).orElseThrow();
+
+        assertEquals(1, results.testers().size());
+        assertEquals("Sub 0", results.testers().get(0).tester());
+    }
+
+    @Test
+    void parseBitrateKbps_units_convertsToKbps() {
+        assertEquals(0.85, LoadTestOutputParser.parseBitrateKbps("850bps"), 1e-9);
+        assertEquals(96.3, LoadTestOutputParser.parseBitrateKbps("96.3kbps"), 1e-9);
+        assertEquals(1200, LoadTestOutputParser.parseBitrateKbps("1.2mbps"), 1e-9);
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOutputParser.parseBitrateKbps("fast"));
+    }
+
+    @Test
+    void parseLatency_goDurations_parsesAllUnits() {
+        assertEquals(Duration.ofMillis(62_500), LoadTestOutputParser.parseLatency("1m2.5s"));
+        assertEquals(Duration.ofNanos(850_000), LoadTestOutputParser.parseLatency("850µs"));
+        assertNull(LoadTestOutputParser.parseLatency("-"));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOutputParser.parseLatency("12 ms"));
+    }
+
+    private static LoadTestOutputParser parse(String output) {
+        LoadTestOutputParser parser = new LoadTestOutputParser();
+        output.lines().forEach(parser::acceptLine);
+        return parser;
+    }
+}
@@ -0,0 +1,51 @@
+package ro.stancalau.test.framework.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class LoadTestSloTest {
+
+    private static final LoadTestSlo SLO = new LoadTestSlo(1.0, 200, 90);
+
+    @Test
+    void violations_healthyResults_isEmpty() {
+        LoadTestResults results = new LoadTestResults(
+                List.of(),
+                List.of(summary("Sub 0", 2, 2, 600, 0.1, null), summary("Sub 1", 2, 2, 600, 0.2, null)),
+                summary(LoadTestTesterSummary.TOTAL, 4, 4, 1200, 0.15, "0"));
+
+        assertEquals(List.of(), SLO.violations(results));
+        assertEquals(100, LoadTestSlo.joinSuccessPercent(results), 0.001);
+    }
+
+    @Test
+    void violations_degradedResults_listsEveryMissedObjective() {
+        LoadTestResults results = new LoadTestResults(
+                List.of(),
+                List.of(summary("Sub 0", 2, 2, 300, 3.5, null), summary("Sub 1", 1, 2, 100, 0, "timeout")),
+                summary(LoadTestTesterSummary.TOTAL, 3, 4, 400, 2.0, "1"));
+
+        List<String> violations = SLO.violations(results);
+
+        assertEquals(3, violations.size());
+        assertTrue(violations.get(0).startsWith("packet loss 3.50%"));
+        assertTrue(violations.get(1).startsWith("bitrate 133.3 kbps"));
+        assertTrue(violations.get(2).startsWith("join success 50.0%"));
+    }
+
+    @Test
+    void violations_noSummary_fails() {
+        LoadTestResults results = new LoadTestResults(List.of(), List.of(), null);
+
+        assertEquals(List.of("no summary was printed"), SLO.violations(results));
+    }
+
+    private static LoadTestTesterSummary summary(
+            String tester, int tracks, int expectedTracks, double bitrateKbps, double droppedPercent, String error) {
+        return new LoadTestTesterSummary(
+                tester, tracks, expectedTracks, bitrateKbps, Duration.ofMillis(40), 0, droppedPercent, error);
+    }
+}
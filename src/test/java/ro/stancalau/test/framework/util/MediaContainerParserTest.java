@@ -0,0 +1,121 @@
+package ro.stancalau.test.framework.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MediaContainerParserTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void parse_mp4WithMoovAfterMdat_readsTracksFromSampleTables() throws Exception {
+        Path file = tempDir.resolve("recording-room.mp4");
+        MediaFixtures.writeMp4(file, 300, 60, 0, 50_000_000L);
+
+        MediaContainerInfo info = MediaContainerParser.parse(file);
+
+        assertEquals(MediaContainerInfo.Format.MP4, info.format());
+        assertEquals(Duration.ofSeconds(10), info.duration());
+        assertEquals(2, info.tracks().size());
+
+        MediaTrackInfo video = info.firstVideoTrack().orElseThrow();
+        assertEquals("avc1", video.codec());
+        assertEquals(MediaFixtures.WIDTH, video.width());
+        assertEquals(MediaFixtures.HEIGHT, video.height());
+        assertEquals(300, video.sampleCount());
+        assertEquals(5, video.keyframeCount());
+        assertEquals(Duration.ofSeconds(10), video.duration());
+        assertEquals(Duration.ofNanos(33_333_333), video.maxSampleGap());
+
+        MediaTrackInfo audio = info.audioTracks().getFirst();
+        assertEquals("mp4a", audio.codec());
+        assertEquals(500, audio.sampleCount());
+        assertEquals(audio.sampleCount(), audio.keyframeCount());
+    }
+
+    @Test
+    void parse_mp4WithMissingFrames_reportsTimestampGap() throws Exception {
+        Path file = tempDir.resolve("recording-gap.mp4");
+        MediaFixtures.writeMp4(file, 300, 30, 29, 1_000_000L);
+
+        MediaTrackInfo video = MediaContainerParser.parse(file).firstVideoTrack().orElseThrow();
+
+        assertEquals(Duration.ofSeconds(1), video.maxSampleGap());
+        assertEquals(10_966, video.duration().toMillis());
+    }
+
+    @Test
+    void parse_fragmentedMp4_countsSamplesAndKeyframesFromFragments() throws Exception {
+        Path file = tempDir.resolve("track-composite-alice.mp4");
+        MediaFixtures.writeFragmentedMp4(file, 20, 30);
+
+        MediaContainerInfo info = MediaContainerParser.parse(file);
+
+        MediaTrackInfo video = info.firstVideoTrack().orElseThrow();
+        assertEquals(600, video.sampleCount());
+        assertEquals(20, video.keyframeCount());
+        assertEquals(Duration.ofSeconds(20), video.duration());
+        assertEquals(Duration.ofSeconds(20), info.duration());
+        assertEquals(30.0, video.getSampleRate(), 0.01);
+    }
+
+    @Test
+    void parse_webm_readsBlocksWithoutLoadingPayloads() throws Exception {
+        Path file = tempDir.resolve("recording-room.webm");
+        MediaFixtures.writeWebm(file, 300, 30, 4096, false);
+
+        MediaContainerInfo info = MediaContainerParser.parse(file);
+
+        assertEquals(MediaContainerInfo.Format.WEBM, info.format());
+        assertEquals(Duration.ofSeconds(10), info.duration());
+        MediaTrackInfo video = info.firstVideoTrack().orElseThrow();
+        assertEquals("V_VP8", video.codec());
+        assertEquals(MediaFixtures.WIDTH, video.width());
+        assertEquals(MediaFixtures.HEIGHT, video.height());
+        assertEquals(300, video.sampleCount());
+        assertEquals(10, video.keyframeCount());
+        assertTrue(video.maxSampleGap().toMillis() <= 34);
+        assertEquals("A_OPUS", info.audioTracks().getFirst().codec());
+    }
+
+    @Test
+    void parse_webmWithUnknownSizes_endsClustersAtNextCluster() throws Exception {
+        Path file = tempDir.resolve("live.webm");
+        MediaFixtures.writeWebm(file, 90, 30, 512, true);
+
+        MediaTrackInfo video = MediaContainerParser.parse(file).firstVideoTrack().orElseThrow();
+
+        assertEquals(90, video.sampleCount());
+        assertEquals(3, video.keyframeCount());
+    }
+
+    @Test
+    void parse_truncatedMp4_keepsCompleteBoxes() throws Exception {
+        Path file = tempDir.resolve("partial.mp4");
+        MediaFixtures.writeFragmentedMp4(file, 10, 30);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(file) - 500);
+        }
+
+        MediaTrackInfo video = MediaContainerParser.parse(file).firstVideoTrack().orElseThrow();
+
+        assertEquals(270, video.sampleCount());
+    }
+
+    @Test
+    void parse_notAContainer_throws() throws Exception {
+        Path file = tempDir.resolve("snapshot.jpg");
+        Files.write(file, new byte[] {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0, 0, 16, 'J', 'F', 'I', 'F'});
+
+        assertThrows(IOException.class, () -> MediaContainerParser.parse(file));
+    }
+}
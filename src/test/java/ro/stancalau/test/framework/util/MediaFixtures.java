@@ -0,0 +1,350 @@
+package ro.stancalau.test.framework.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes minimal but structurally valid MP4 and WebM recordings for parser tests and benchmarks.
+ * Media payloads are zeros; large MP4 {@code mdat} boxes are written sparse.
+ */
+public final class MediaFixtures {
+
+    public static final int WIDTH = 1280;
+    public static final int HEIGHT = 720;
+    public static final int VIDEO_TIMESCALE = 90_000;
+    public static final int FRAME_DURATION = 3_000;
+    public static final int AUDIO_TIMESCALE = 48_000;
+    public static final int AUDIO_FRAME_DURATION = 960;
+
+    private static final int AUDIO_BLOCK_BYTES = 40;
+    private static final int CLUSTER_TIMESTAMP_BYTES = 1 + 8 + 4;
+    private static final int ELEMENT_HEADER_BYTES = 4 + 8;
+
+    private MediaFixtures() {}
+
+    /**
+     * Write a regular MP4 with its moov box after the media data, as an unfinalized-for-streaming
+     * recording would be.
+     *
+     * @param file The file to write
+     * @param frames The number of 30fps video frames
+     * @param keyframeInterval Every how many frames a sync sample occurs
+     * @param gapFrames Extra frame durations inserted before the middle frame, 0 for no gap
+     * @param mdatBytes The size of the sparse media data box
+     */
+    public static void writeMp4(Path file, int frames, int keyframeInterval, int gapFrames, long mdatBytes)
+            throws IOException {
+        int audioFrames = frames * AUDIO_TIMESCALE / 30 / AUDIO_FRAME_DURATION;
+        ByteBuffer moov = box(
+                "moov",
+                fullBox("mvhd", 0, ints(0, 0, 1000, frames * 1000 / 30)),
+                videoTrak(frames, keyframeInterval, gapFrames),
+                audioTrak(audioFrames));
+
+        try (FileChannel channel = open(file)) {
+            write(channel, box("ftyp", ascii("isom"), ints(512), ascii("isomiso2avc1mp41")));
+            ByteBuffer mdatHeader = ByteBuffer.allocate(16);
+            mdatHeader.putInt(1).put(ascii("mdat")).putLong(16 + mdatBytes).flip();
+            write(channel, mdatHeader);
+            channel.position(channel.position() + mdatBytes);
+            write(channel, moov);
+        }
+    }
+
+    /**
+     * Write a fragmented MP4 with one video track, as produced by segmenting muxers.
+     *
+     * @param file The file to write
+     * @param fragments The number of moof/mdat pairs
+     * @param framesPerFragment The number of frames per fragment, the first of each is a keyframe
+     */
+    public static void writeFragmentedMp4(Path file, int fragments, int framesPerFragment) throws IOException {
+        ByteBuffer trex = fullBox("trex", 0, ints(1, 1, FRAME_DURATION, 100, 0x10000));
+        ByteBuffer moov = box(
+                "moov",
+                fullBox("mvhd", 0, ints(0, 0, 1000, 0)),
+                box(
+                        "trak",
+                        tkhd(1, WIDTH, HEIGHT),
+                        box(
+                                "mdia",
+                                fullBox("mdhd", 0, ints(0, 0, VIDEO_TIMESCALE, 0)),
+                                hdlr("vide"),
+                                box(
+                                        "minf",
+                                        box(
+                                                "stbl",
+                                                videoStsd(),
+                                                fullBox("stts", 0, ints(0)),
+                                                fullBox("stsz", 0, ints(0, 0)))))),
+                box("mvex", trex));
+
+        try (FileChannel channel = open(file)) {
+            write(channel, box("ftyp", ascii("iso6"), ints(0), ascii("iso6dash")));
+            write(channel, moov);
+            for (int fragment = 0; fragment < fragments; fragment++) {
+                long baseDecodeTime = (long) fragment * framesPerFragment * FRAME_DURATION;
+                ByteBuffer tfdt = ByteBuffer.allocate(12);
+                tfdt.putInt(0x01000000).putLong(baseDecodeTime).flip();
+                ByteBuffer trun = fullBox("trun", 0x000005, ints(framesPerFragment, 0, 0x02000000));
+                write(
+                        channel,
+                        box(
+                                "moof",
+                                fullBox("mfhd", 0, ints(fragment + 1)),
+                                box("traf", fullBox("tfhd", 0x020000, ints(1)), box("tfdt", tfdt), trun)));
+                write(channel, box("mdat", new byte[framesPerFragment * 16]));
+            }
+        }
+    }
+
+    /**
+     * Write a WebM file with a VP8 video track and an Opus audio track in SimpleBlocks.
+     *
+     * @param file The file to write
+     * @param frames The number of 30fps video frames
+     * @param framesPerCluster The number of video frames per cluster, the first of each is a keyframe
+     * @param blockBytes The payload size of each video block
+     * @param unknownSizes Whether the segment and clusters use the unknown size of live recordings
+     */
+    public static void writeWebm(Path file, int frames, int framesPerCluster, int blockBytes, boolean unknownSizes)
+            throws IOException {
+        try (FileChannel channel = open(file)) {
+            write(channel, ebml(0x1A45DFA3, ebml(0x4282, ascii("webm"))));
+
+            ByteBuffer info = ebml(
+                    0x1549A966,
+                    ebml(0x2AD7B1, uint(1_000_000, 3)),
+                    ebml(0x4489, ByteBuffer.allocate(8).putDouble(frames * 1000.0 / 30).flip()));
+            ByteBuffer tracks = ebml(
+                    0x1654AE6B,
+                    ebml(
+                            0xAE,
+                            ebml(0xD7, uint(1, 1)),
+                            ebml(0x83, uint(1, 1)),
+                            ebml(0x86, ascii("V_VP8")),
+                            ebml(0xE0, ebml(0xB0, uint(WIDTH, 2)), ebml(0xBA, uint(HEIGHT, 2)))),
+                    ebml(0xAE, ebml(0xD7, uint(2, 1)), ebml(0x83, uint(2, 1)), ebml(0x86, ascii("A_OPUS"))));
+
+            long segmentSize = unknownSizes ? -1 : segmentSize(info, tracks, frames, framesPerCluster, blockBytes);
+            write(channel, ebmlHeader(0x18538067, segmentSize));
+            write(channel, info);
+            write(channel, tracks);
+
+            byte[] payload = new byte[blockBytes];
+            for (int first = 0; first < frames; first += framesPerCluster) {
+                int count = Math.min(framesPerCluster, frames - first);
+                long clusterTimestamp = first * 1000L / 30;
+                write(channel, ebmlHeader(0x1F43B675, unknownSizes ? -1 : clusterSize(count, blockBytes)));
+                write(channel, ebml(0xE7, uint(clusterTimestamp, 4)));
+                for (int i = 0; i < count; i++) {
+                    int relative = (int) ((first + i) * 1000L / 30 - clusterTimestamp);
+                    write(channel, simpleBlock(1, relative, i == 0, payload));
+                    if (i % 2 == 0) {
+                        write(channel, simpleBlock(2, relative, true, new byte[AUDIO_BLOCK_BYTES]));
+                    }
+                }
+            }
+        }
+    }
+
+    private static long segmentSize(
+            ByteBuffer info, ByteBuffer tracks, int frames, int framesPerCluster, int blockBytes) {
+        long size = info.remaining() + tracks.remaining();
+        for (int first = 0; first < frames; first += framesPerCluster) {
+            size += ELEMENT_HEADER_BYTES + clusterSize(Math.min(framesPerCluster, frames - first), blockBytes);
+        }
+        return size;
+    }
+
+    private static long clusterSize(int videoFrames, int blockBytes) {
+        long audioFrames = (videoFrames + 1) / 2;
+        return CLUSTER_TIMESTAMP_BYTES
+                + videoFrames * (long) simpleBlockSize(blockBytes)
+                + audioFrames * simpleBlockSize(AUDIO_BLOCK_BYTES);
+    }
+
+    private static int simpleBlockSize(int payloadBytes) {
+        return 1 + 8 + 4 + payloadBytes;
+    }
+
+    private static ByteBuffer simpleBlock(int track, int relativeTimestamp, boolean keyframe, byte[] payload) {
+        ByteBuffer data = ByteBuffer.allocate(4 + payload.length);
+        data.put((byte) (0x80 | track))
+                .putShort((short) relativeTimestamp)
+                .put((byte) (keyframe ? 0x80 : 0))
+                .put(payload)
+                .flip();
+        return ebml(0xA3, data);
+    }
+
+    private static ByteBuffer videoTrak(int frames, int keyframeInterval, int gapFrames) {
+        ByteArrayOutputStream stts = new ByteArrayOutputStream();
+        int entries;
+        if (gapFrames > 0) {
+            int half = frames / 2;
+            entries = 3;
+            writeInts(stts, half - 1, FRAME_DURATION);
+            writeInts(stts, 1, FRAME_DURATION * (1 + gapFrames));
+            writeInts(stts, frames - half, FRAME_DURATION);
+        } else {
+            entries = 1;
+            writeInts(stts, frames, FRAME_DURATION);
+        }
+        ByteBuffer sttsBox = fullBox("stts", 0, ints(entries), stts.toByteArray());
+
+        int keyframes = (frames + keyframeInterval - 1) / keyframeInterval;
+        ByteArrayOutputStream stss = new ByteArrayOutputStream();
+        for (int i = 0; i < keyframes; i++) {
+            writeInts(stss, i * keyframeInterval + 1);
+        }
+        ByteBuffer stssBox = fullBox("stss", 0, ints(keyframes), stss.toByteArray());
+
+        return box(
+                "trak",
+                tkhd(1, WIDTH, HEIGHT),
+                box(
+                        "mdia",
+                        fullBox("mdhd", 0, ints(0, 0, VIDEO_TIMESCALE, (frames + gapFrames) * FRAME_DURATION)),
+                        hdlr("vide"),
+                        box(
+                                "minf",
+                                box(
+                                        "stbl",
+                                        videoStsd(),
+                                        sttsBox,
+                                        stssBox,
+                                        fullBox("stsz", 0, ints(1000, frames))))));
+    }
+
+    private static ByteBuffer audioTrak(int frames) {
+        ByteBuffer entry = box("mp4a", new byte[28]);
+        return box(
+                "trak",
+                tkhd(2, 0, 0),
+                box(
+                        "mdia",
+                        fullBox("mdhd", 0, ints(0, 0, AUDIO_TIMESCALE, frames * AUDIO_FRAME_DURATION)),
+                        hdlr("soun"),
+                        box(
+                                "minf",
+                                box(
+                                        "stbl",
+                                        fullBox("stsd", 0, ints(1), toBytes(entry)),
+                                        fullBox("stts", 0, ints(1, frames, AUDIO_FRAME_DURATION)),
+                                        fullBox("stsz", 0, ints(200, frames))))));
+    }
+
+    private static ByteBuffer videoStsd() {
+        ByteBuffer visual = ByteBuffer.allocate(78);
+        visual.position(24);
+        visual.putShort((short) WIDTH).putShort((short) HEIGHT);
+        visual.position(78).flip();
+        return fullBox("stsd", 0, ints(1), toBytes(box("avc1", toBytes(visual))));
+    }
+
+    private static ByteBuffer tkhd(int trackId, int width, int height) {
+        ByteBuffer payload = ByteBuffer.allocate(80);
+        payload.putInt(0).putInt(0).putInt(trackId);
+        payload.putInt(72, width << 16).putInt(76, height << 16);
+        payload.position(80).flip();
+        return fullBox("tkhd", 3, toBytes(payload));
+    }
+
+    private static ByteBuffer hdlr(String handler) {
+        return fullBox("hdlr", 0, ints(0), ascii(handler), new byte[12], ascii("handler\0"));
+    }
+
+    private static ByteBuffer box(String type, Object... parts) {
+        byte[] payload = concat(parts);
+        ByteBuffer box = ByteBuffer.allocate(8 + payload.length);
+        box.putInt(8 + payload.length).put(ascii(type)).put(payload).flip();
+        return box;
+    }
+
+    private static ByteBuffer fullBox(String type, int flags, Object... parts) {
+        Object[] withHeader = new Object[parts.length + 1];
+        withHeader[0] = ints(flags);
+        System.arraycopy(parts, 0, withHeader, 1, parts.length);
+        return box(type, withHeader);
+    }
+
+    private static ByteBuffer ebml(int id, Object... parts) {
+        byte[] payload = concat(parts);
+        ByteBuffer header = ebmlHeader(id, payload.length);
+        ByteBuffer element = ByteBuffer.allocate(header.remaining() + payload.length);
+        element.put(header).put(payload).flip();
+        return element;
+    }
+
+    private static ByteBuffer ebmlHeader(int id, long size) {
+        ByteBuffer header = ByteBuffer.allocate(12);
+        byte[] idBytes = ByteBuffer.allocate(4).putInt(id).array();
+        int start = 0;
+        while (idBytes[start] == 0) {
+            start++;
+        }
+        header.put(idBytes, start, 4 - start);
+        header.put((byte) 0x01);
+        long value = size < 0 ? 0x00FFFFFFFFFFFFFFL : size;
+        for (int shift = 48; shift >= 0; shift -= 8) {
+            header.put((byte) (value >>> shift));
+        }
+        return header.flip();
+    }
+
+    private static byte[] uint(long value, int length) {
+        byte[] bytes = new byte[length];
+        for (int i = length - 1; i >= 0; i--) {
+            bytes[i] = (byte) value;
+            value >>>= 8;
+        }
+        return bytes;
+    }
+
+    private static byte[] ints(int... values) {
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * 4);
+        for (int value : values) {
+            buffer.putInt(value);
+        }
+        return buffer.array();
+    }
+
+    private static void writeInts(ByteArrayOutputStream out, int... values) {
+        out.writeBytes(ints(values));
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static byte[] toBytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
+    private static byte[] concat(Object... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (Object part : parts) {
+            out.writeBytes(part instanceof ByteBuffer buffer ? toBytes(buffer) : (byte[]) part);
+        }
+        return out.toByteArray();
+    }
+
+    private static FileChannel open(Path file) throws IOException {
+        return FileChannel.open(
+                file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    private static void write(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package ro.stancalau.test.framework.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.Test;
+
+class PerceptualHasherTest {
+
+    private final PerceptualHasher hasher = new PerceptualHasher();
+
+    @Test
+    void hash_rescaledAndRecompressedFrame_staysWithinMatchDistance() throws IOException {
+        BufferedImage original = createScene(1280, 720, 0);
+        BufferedImage recompressed = jpegRoundTrip(scale(original, 640, 360));
+
+        for (PerceptualHasher.Algorithm algorithm : PerceptualHasher.Algorithm.values()) {
+            int distance = PerceptualHasher.distance(
+                    hasher.hash(original, algorithm), hasher.hash(recompressed, algorithm));
+            assertTrue(
+                    distance <= PerceptualHasher.DEFAULT_MATCH_DISTANCE,
+                    algorithm + " distance " + distance + " is above the match distance");
+        }
+    }
+
+    @Test
+    void hash_differentScenes_areFarApart() {
+        BufferedImage first = createScene(1280, 720, 0);
+        BufferedImage second = createScene(1280, 720, 1);
+
+        for (PerceptualHasher.Algorithm algorithm : PerceptualHasher.Algorithm.values()) {
+            int distance =
+                    PerceptualHasher.distance(hasher.hash(first, algorithm), hasher.hash(second, algorithm));
+            assertTrue(distance > 2 * PerceptualHasher.DEFAULT_MATCH_DISTANCE, algorithm + " distance " + distance);
+        }
+    }
+
+    @Test
+    void hash_rawGrayFrame_matchesGrayImage() {
+        BufferedImage gray = new BufferedImage(640, 360, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D g2d = gray.createGraphics();
+        g2d.drawImage(createScene(640, 360, 0), 0, 0, null);
+        g2d.dispose();
+        byte[] luma = ((DataBufferByte) gray.getRaster().getDataBuffer()).getData();
+
+        for (PerceptualHasher.Algorithm algorithm : PerceptualHasher.Algorithm.values()) {
+            assertEquals(hasher.hash(gray, algorithm), hasher.hash(luma, 640, 360, algorithm));
+        }
+    }
+
+    @Test
+    void hashAll_matchesSequentialHashesInFrameOrder() {
+        List<BufferedImage> frames = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            frames.add(createScene(320, 180, i % 2));
+        }
+
+        long[] hashes = PerceptualHasher.hashAll(frames, PerceptualHasher.Algorithm.PERCEPTUAL);
+
+        assertEquals(frames.size(), hashes.length);
+        for (int i = 0; i < frames.size(); i++) {
+            assertEquals(hasher.hash(frames.get(i), PerceptualHasher.Algorithm.PERCEPTUAL), hashes[i]);
+        }
+    }
+
+    @Test
+    void toHex_roundTripsUnsignedHashes() {
+        long hash = 0xF0E1D2C3B4A59687L;
+
+        assertEquals("f0e1d2c3b4a59687", PerceptualHasher.toHex(hash));
+        assertEquals(hash, PerceptualHasher.fromHex("f0e1d2c3b4a59687"));
+        assertEquals(64, PerceptualHasher.distance(0L, -1L));
+    }
+
+    static BufferedImage createScene(int width, int height, int variant) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_3BYTE_BGR);
+        Graphics2D g2d = image.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        if (variant == 0) {
+            g2d.setPaint(new GradientPaint(0, 0, Color.BLUE, width, 0, Color.ORANGE));
+            g2d.fillRect(0, 0, width, height);
+            g2d.setColor(Color.WHITE);
+            g2d.fillOval(width / 8, height / 6, width / 3, height / 2);
+            g2d.setColor(Color.DARK_GRAY);
+            g2d.fillRect(width * 5 / 8, height * 3 / 5, width / 4, height / 5);
+        } else {
+            g2d.setPaint(new GradientPaint(0, 0, Color.GREEN, 0, height, Color.DARK_GRAY));
+            g2d.fillRect(0, 0, width, height);
+            g2d.setColor(Color.BLACK);
+            g2d.fillRect(width / 2, height / 8, width / 3, height * 3 / 4);
+        }
+        g2d.dispose();
+        return image;
+    }
+
+    private static BufferedImage scale(BufferedImage image, int width, int height) {
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = scaled.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g2d.drawImage(image, 0, 0, width, height, null);
+        g2d.dispose();
+        return scaled;
+    }
+
+    private static BufferedImage jpegRoundTrip(BufferedImage image) throws IOException {
+        ByteArrayOutputStream jpeg = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpg", jpeg);
+        return ImageIO.read(new ByteArrayInputStream(jpeg.toByteArray()));
+    }
+}
@@ -0,0 +1,102 @@
+package ro.stancalau.test.framework.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class PrometheusMetricStoreTest {
+
+    private static final Map<String, String> INCOMING = Map.of("direction", "incoming");
+    private static final Map<String, String> OUTGOING = Map.of("direction", "outgoing");
+
+    @Test
+    void increase_counterReset_countsFromZeroAfterReset() {
+        PrometheusMetricStore store = new PrometheusMetricStore();
+        store.type("livekit_packet_total", PrometheusMetricType.COUNTER);
+        double[] incoming = {100, 150, 30, 80};
+        for (int i = 0; i < incoming.length; i++) {
+            store.beginScrape(i * 1000L);
+            store.sample("livekit_packet_total", INCOMING, incoming[i]);
+            store.sample("livekit_packet_total", OUTGOING, 10.0 * i);
+        }
+
+        assertEquals(50 + 30 + 50, store.increase("livekit_packet_total", INCOMING, 0, 3000), 1e-9);
+        assertEquals(50, store.increase("livekit_packet_total", INCOMING, 0, 1500), 1e-9);
+        assertEquals(50 + 30 + 50 + 30, store.increase("livekit_packet_total", Map.of(), 0, 3000), 1e-9);
+    }
+
+    @Test
+    void increase_counterAppearingLater_startsFromZero() {
+        PrometheusMetricStore store = new PrometheusMetricStore();
+        store.type("livekit_track_published_total", PrometheusMetricType.COUNTER);
+        store.type("livekit_participant_total", PrometheusMetricType.GAUGE);
+        store.beginScrape(0);
+        store.beginScrape(1000);
+        store.sample("livekit_track_published_total", Map.of(), 4);
+        store.sample("livekit_participant_total", Map.of(), 2);
+
+        assertEquals(4, store.increase("livekit_track_published_total", Map.of(), 0, 1000), 1e-9);
+        assertEquals(1, store.series("livekit_participant_total", Map.of()).getFirst().size());
+    }
+
+    @Test
+    void maxTotal_gaugesPerRoom_sumsEachScrape() {
+        PrometheusMetricStore store = new PrometheusMetricStore();
+        store.type("livekit_participant_total", PrometheusMetricType.GAUGE);
+        store.beginScrape(0);
+        store.sample("livekit_participant_total", Map.of("room", "a"), 3);
+        store.sample("livekit_participant_total", Map.of("room", "b"), 1);
+        store.beginScrape(1000);
+        store.sample("livekit_participant_total", Map.of("room", "a"), 2);
+        store.beginScrape(2000);
+        store.sample("livekit_participant_total", Map.of("room", "a"), 1);
+        store.sample("livekit_participant_total", Map.of("room", "b"), 5);
+
+        assertEquals(6, store.maxTotal("livekit_participant_total", Map.of(), 0, 2000), 1e-9);
+        assertEquals(2, store.minTotal("livekit_participant_total", Map.of(), 0, 2000), 1e-9);
+        assertEquals(4, store.maxTotal("livekit_participant_total", Map.of(), 0, 1000), 1e-9);
+        assertTrue(Double.isNaN(store.maxTotal("livekit_room_total", Map.of(), 0, 2000)));
+    }
+
+    @Test
+    void histogramQuantile_bucketIncreases_interpolatesWithinBucket() {
+        PrometheusMetricStore store = new PrometheusMetricStore();
+        store.type("rtt_seconds", PrometheusMetricType.HISTOGRAM);
+        store.beginScrape(0);
+        bucket(store, "0.1", 10);
+        bucket(store, "0.5", 10);
+        bucket(store, "+Inf", 10);
+        store.beginScrape(1000);
+        bucket(store, "0.1", 60);
+        bucket(store, "0.5", 100);
+        bucket(store, "+Inf", 110);
+
+        assertEquals(PrometheusMetricType.HISTOGRAM, store.typeOf("rtt_seconds_bucket"));
+        assertEquals("rtt_seconds", store.family("rtt_seconds_bucket"));
+        assertEquals(0.1, store.histogramQuantile("rtt_seconds", Map.of(), 0.5, 0, 1000), 1e-9);
+        assertEquals(0.35, store.histogramQuantile("rtt_seconds", Map.of(), 0.75, 0, 1000), 1e-9);
+        assertEquals(0.5, store.histogramQuantile("rtt_seconds", Map.of(), 0.99, 0, 1000), 1e-9);
+        assertTrue(Double.isNaN(store.histogramQuantile("rtt_seconds", Map.of(), 0.5, 1000, 2000)));
+    }
+
+    @Test
+    void toCsv_labelledSeries_quotesSeriesKeys() {
+        PrometheusMetricStore store = new PrometheusMetricStore();
+        store.beginScrape(250);
+        store.sample("go_goroutines", Map.of(), 42);
+        store.sample("livekit_packet_total", INCOMING, 0.5);
+
+        assertEquals(
+                """
+                elapsedMs,series,value
+                250,"go_goroutines",42
+                250,"livekit_packet_total{direction=""incoming""}",0.5
+                """,
+                store.toCsv());
+    }
+
+    private static void bucket(PrometheusMetricStore store, String upperBound, double count) {
+        store.sample("rtt_seconds_bucket", Map.of("le", upperBound), count);
+    }
+}
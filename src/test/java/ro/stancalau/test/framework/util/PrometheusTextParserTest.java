@@ -0,0 +1,98 @@
+package ro.stancalau.test.framework.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class PrometheusTextParserTest {
+
+    private static final String EXPOSITION = """
+            # HELP livekit_packet_total packets sent and received
+            # TYPE livekit_packet_total counter
+            livekit_packet_total{type="video",direction="incoming"} 1027
+            livekit_packet_total{direction="outgoing",type="video"} 3.5e3 1700000000000
+            # TYPE go_goroutines gauge
+            go_goroutines 42
+            # TYPE rtt_seconds histogram
+            rtt_seconds_bucket{le="0.1"} 3
+            rtt_seconds_bucket{le="+Inf"} 4
+            rtt_seconds_count 4
+            not a sample
+            room_info{name="say \\"hi\\"\\nthere",} NaN
+            """;
+
+    @Test
+    void parse_exposition_reportsTypesAndSamplesWithSortedLabels() throws IOException {
+        Recorder recorder = new Recorder();
+
+        PrometheusTextParser parser = PrometheusTextParser.parse(new StringReader(EXPOSITION), recorder);
+
+        assertEquals(PrometheusMetricType.COUNTER, recorder.types.get("livekit_packet_total"));
+        assertEquals(PrometheusMetricType.GAUGE, recorder.types.get("go_goroutines"));
+        assertEquals(PrometheusMetricType.HISTOGRAM, recorder.types.get("rtt_seconds"));
+        assertEquals(7, parser.getSamples());
+        assertEquals(1, parser.getMalformedLines());
+        assertEquals(
+                List.of(
+                        "livekit_packet_total{direction=\"incoming\",type=\"video\"}=1027.0",
+                        "livekit_packet_total{direction=\"outgoing\",type=\"video\"}=3500.0",
+                        "go_goroutines=42.0",
+                        "rtt_seconds_bucket{le=\"0.1\"}=3.0",
+                        "rtt_seconds_bucket{le=\"+Inf\"}=4.0",
+                        "rtt_seconds_count=4.0",
+                        "room_info{name=\"say \\\"hi\\\"\\nthere\"}=NaN"),
+                recorder.samples);
+    }
+
+    @Test
+    void feed_chunksSplitInsideLines_matchesWholeParse() throws IOException {
+        Recorder whole = new Recorder();
+        PrometheusTextParser.parse(new StringReader(EXPOSITION), whole);
+
+        Recorder chunked = new Recorder();
+        PrometheusTextParser parser = new PrometheusTextParser(chunked);
+        char[] chars = EXPOSITION.replace("\n", "\r\n").toCharArray();
+        for (int offset = 0; offset < chars.length; offset += 7) {
+            parser.feed(chars, offset, Math.min(7, chars.length - offset));
+        }
+        parser.finish();
+
+        assertEquals(whole.types, chunked.types);
+        assertEquals(whole.samples, chunked.samples);
+    }
+
+    @Test
+    void finish_lastLineWithoutBreak_isParsed() {
+        Recorder recorder = new Recorder();
+        PrometheusTextParser parser = new PrometheusTextParser(recorder);
+        char[] chars = "up 1\nprocess_open_fds -Inf".toCharArray();
+
+        parser.feed(chars, 0, chars.length);
+        assertEquals(List.of("up=1.0"), recorder.samples);
+
+        parser.finish();
+        assertEquals(List.of("up=1.0", "process_open_fds=-Infinity"), recorder.samples);
+    }
+
+    private static class Recorder implements PrometheusTextParser.Listener {
+
+        private final Map<String, PrometheusMetricType> types = new LinkedHashMap<>();
+        private final List<String> samples = new ArrayList<>();
+
+        @Override
+        public void type(String family, PrometheusMetricType type) {
+            types.put(family, type);
+        }
+
+        @Override
+        public void sample(String name, Map<String, String> labels, double value) {
+            samples.add(PrometheusSeries.key(name, labels) + "=" + value);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package ro.stancalau.test.framework.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RecordingGrowthMonitorTest {
+
+    private static final Duration STALL_THRESHOLD = Duration.ofSeconds(2);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void report_steadyGrowth_measuresBitrateWithoutStalls() throws IOException {
+        RecordingGrowthMonitor monitor = new RecordingGrowthMonitor("steady", STALL_THRESHOLD, null);
+        for (int second = 0; second <= 10; second++) {
+            monitor.record(Duration.ofSeconds(second), second * 125_000L);
+        }
+
+        RecordingGrowthReport report = monitor.report();
+
+        assertEquals(11, report.sampleCount());
+        assertEquals(1_250_000, report.finalBytes());
+        assertEquals(Duration.ofSeconds(1), report.firstGrowthAfter());
+        assertEquals(1000, report.peakBitrateKbps(), 0.01);
+        assertEquals(1000, report.meanBitrateKbps(), 0.01);
+        assertEquals(0, report.stallCount());
+        assertEquals(Duration.ZERO, report.longestStall());
+    }
+
+    @Test
+    void report_noBytesYet_hasNoFirstGrowthAndNoStalls() throws IOException {
+        RecordingGrowthMonitor monitor = new RecordingGrowthMonitor("waiting", STALL_THRESHOLD, null);
+        for (int second = 0; second <= 5; second++) {
+            monitor.record(Duration.ofSeconds(second), 0);
+        }
+
+        RecordingGrowthReport report = monitor.report();
+
+        assertNull(report.firstGrowthAfter());
+        assertEquals(0, report.stallCount());
+        assertEquals(0.0, report.meanBitrateKbps());
+    }
+
+    @Test
+    void report_growthPausesLongerThanThreshold_countsOneStall() throws IOException {
+        RecordingGrowthMonitor monitor = new RecordingGrowthMonitor("stalling", STALL_THRESHOLD, null);
+        monitor.record(Duration.ofSeconds(0), 0);
+        monitor.record(Duration.ofSeconds(1), 1000);
+        monitor.record(Duration.ofSeconds(2), 1000);
+        monitor.record(Duration.ofSeconds(3), 1000);
+        monitor.record(Duration.ofSeconds(4), 1000);
+        monitor.record(Duration.ofSeconds(5), 2000);
+        monitor.record(Duration.ofSeconds(6), 2000);
+        monitor.record(Duration.ofSeconds(7), 3000);
+
+        RecordingGrowthReport report = monitor.report();
+
+        assertEquals(1, report.stallCount());
+        assertEquals(Duration.ofSeconds(3), report.longestStall());
+    }
+
+    @Test
+    void report_shortPauses_areNotStalls() throws IOException {
+        RecordingGrowthMonitor monitor = new RecordingGrowthMonitor("bursty", STALL_THRESHOLD, null);
+        for (int second = 0; second <= 10; second++) {
+            monitor.record(Duration.ofSeconds(second), (second / 2) * 1000L);
+        }
+
+        RecordingGrowthReport report = monitor.report();
+
+        assertEquals(0, report.stallCount());
+        assertEquals(Duration.ofSeconds(1), report.longestStall());
+    }
+
+    @Test
+    void record_timeSeries_writesOneRowPerSample() throws IOException {
+        StringWriter timeSeries = new StringWriter();
+        RecordingGrowthMonitor monitor = new RecordingGrowthMonitor("series", STALL_THRESHOLD, timeSeries);
+        monitor.record(Duration.ZERO, 0);
+        monitor.record(Duration.ofMillis(500), 62_500);
+
+        String[] rows = timeSeries.toString().split("\n");
+
+        assertEquals(3, rows.length);
+        assertEquals(RecordingGrowthMonitor.TIME_SERIES_HEADER, rows[0]);
+        assertEquals("0,0,0.0", rows[1].strip());
+        assertEquals("500,62500,1000.0", rows[2].strip());
+    }
+
+    @Test
+    void start_localFile_samplesUntilClosed() throws Exception {
+        Path recording = tempDir.resolve("recording.mp4");
+        Path timeSeriesFile = tempDir.resolve("recording.mp4.growth.csv");
+        RecordingGrowthMonitor monitor = RecordingGrowthMonitor.start(
+                "recording.mp4",
+                RecordingGrowthMonitor.localFile(recording),
+                tempDir,
+                Duration.ofMillis(50),
+                STALL_THRESHOLD,
+                timeSeriesFile);
+        Thread.sleep(150);
+        Files.write(recording, new byte[4096]);
+        Thread.sleep(300);
+        monitor.close();
+
+        RecordingGrowthReport report = monitor.report();
+
+        assertEquals(4096, report.finalBytes());
+        assertNotNull(report.firstGrowthAfter());
+        assertTrue(report.sampleCount() >= 2);
+        assertEquals(report.sampleCount() + 1, Files.readAllLines(timeSeriesFile).size());
+    }
+
+    @Test
+    void localFile_missingFile_hasSizeZero() throws IOException {
+        assertEquals(0, RecordingGrowthMonitor.localFile(tempDir.resolve("missing.mp4")).size());
+    }
+}
@@ -0,0 +1,152 @@
+package ro.stancalau.test.framework.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+class RecordingQualityAnalyzerTest {
+
+    private static final int WIDTH = 320;
+    private static final int HEIGHT = 180;
+
+    @Test
+    void report_movingFrames_haveFullEffectiveFrameRate() {
+        RecordingQualityAnalyzer analyzer = new RecordingQualityAnalyzer(WIDTH, HEIGHT);
+        for (int i = 0; i < 90; i++) {
+            analyzer.accept(movingFrame(i));
+        }
+
+        RecordingQualityReport report = analyzer.report(Duration.ofSeconds(3));
+
+        assertEquals(90, report.frameCount());
+        assertEquals(30.0, report.decodedFps(), 0.001);
+        assertEquals(30.0, report.effectiveFps(), 0.001);
+        assertEquals(0.0, report.blackFrameRatio());
+        assertEquals(0.0, report.frozenFrameRatio());
+        assertEquals(0, report.freezeCount());
+        assertEquals(Duration.ZERO, report.longestFreeze());
+    }
+
+    @Test
+    void report_blackFrames_areBlackAndFrozen() {
+        byte[] black = solidFrame(16);
+        RecordingQualityAnalyzer analyzer = new RecordingQualityAnalyzer(WIDTH, HEIGHT);
+        for (int i = 0; i < 30; i++) {
+            analyzer.accept(black);
+        }
+
+        RecordingQualityReport report = analyzer.report(Duration.ofSeconds(1));
+
+        assertEquals(1.0, report.blackFrameRatio());
+        assertEquals(29.0 / 30, report.frozenFrameRatio(), 0.001);
+        assertEquals(1.0, report.effectiveFps(), 0.001);
+        assertEquals(1, report.freezeCount());
+    }
+
+    @Test
+    void report_repeatedFramesInTheMiddle_countAsOneFreeze() {
+        RecordingQualityAnalyzer analyzer = new RecordingQualityAnalyzer(WIDTH, HEIGHT);
+        for (int i = 0; i < 30; i++) {
+            analyzer.accept(movingFrame(i));
+        }
+        for (int i = 0; i < 30; i++) {
+            analyzer.accept(movingFrame(29));
+        }
+        for (int i = 30; i < 60; i++) {
+            analyzer.accept(movingFrame(i));
+        }
+
+        RecordingQualityReport report = analyzer.report(Duration.ofSeconds(3));
+
+        assertEquals(1, report.freezeCount());
+        assertEquals(Duration.ofSeconds(1), report.longestFreeze());
+        assertEquals(20.0, report.effectiveFps(), 0.001);
+        assertEquals(1.0 / 3, report.frozenFrameRatio(), 0.001);
+    }
+
+    @Test
+    void report_shortRepeats_areFrozenFramesButNotFreezes() {
+        RecordingQualityAnalyzer analyzer = new RecordingQualityAnalyzer(WIDTH, HEIGHT);
+        for (int i = 0; i < 60; i++) {
+            analyzer.accept(movingFrame(i / 2));
+        }
+
+        RecordingQualityReport report = analyzer.report(Duration.ofSeconds(2));
+
+        assertEquals(0.5, report.frozenFrameRatio(), 0.001);
+        assertEquals(0, report.freezeCount());
+        assertEquals(15.0, report.effectiveFps(), 0.001);
+    }
+
+    @Test
+    void report_smallMovingDetailOnStaticBackground_isNotFrozen() {
+        RecordingQualityAnalyzer analyzer = new RecordingQualityAnalyzer(WIDTH, HEIGHT);
+        for (int i = 0; i < 30; i++) {
+            byte[] frame = solidFrame(120);
+            for (int y = 80; y < 90; y++) {
+                Arrays.fill(frame, y * WIDTH + i * 10, y * WIDTH + i * 10 + 10, (byte) 240);
+            }
+            analyzer.accept(frame);
+        }
+
+        RecordingQualityReport report = analyzer.report(Duration.ofSeconds(1));
+
+        assertEquals(0.0, report.frozenFrameRatio());
+        assertEquals(0.0, report.blackFrameRatio());
+    }
+
+    @Test
+    void analyze_stream_ignoresTrailingPartialFrame() throws IOException {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        for (int i = 0; i < 3; i++) {
+            stream.write(movingFrame(i));
+        }
+        stream.write(new byte[WIDTH * HEIGHT / 2]);
+
+        RecordingQualityReport report = RecordingQualityAnalyzer.analyze(
+                new ByteArrayInputStream(stream.toByteArray()), WIDTH, HEIGHT, Duration.ofMillis(100));
+
+        assertEquals(3, report.frameCount());
+        assertEquals(30.0, report.effectiveFps(), 0.001);
+    }
+
+    @Test
+    void report_unknownDuration_hasZeroRates() {
+        RecordingQualityAnalyzer analyzer = new RecordingQualityAnalyzer(WIDTH, HEIGHT);
+        analyzer.accept(movingFrame(0));
+
+        RecordingQualityReport report = analyzer.report(Duration.ZERO);
+
+        assertEquals(1, report.frameCount());
+        assertEquals(0.0, report.decodedFps());
+        assertEquals(0.0, report.effectiveFps());
+    }
+
+    @Test
+    void accept_wrongFrameSize_throws() {
+        RecordingQualityAnalyzer analyzer = new RecordingQualityAnalyzer(WIDTH, HEIGHT);
+
+        assertThrows(IllegalArgumentException.class, () -> analyzer.accept(new byte[WIDTH * HEIGHT - 1]));
+    }
+
+    private static byte[] movingFrame(int index) {
+        byte[] frame = new byte[WIDTH * HEIGHT];
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                frame[y * WIDTH + x] = (byte) (30 + (x * 3 + y + index * 37) % 200);
+            }
+        }
+        return frame;
+    }
+
+    private static byte[] solidFrame(int luma) {
+        byte[] frame = new byte[WIDTH * HEIGHT];
+        Arrays.fill(frame, (byte) luma);
+        return frame;
+    }
+}
@@ -0,0 +1,102 @@
+package ro.stancalau.test.framework.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ReferenceQualityAnalyzerTest {
+
+    private static final int FRAME_SIZE = ReferenceClip.WIDTH * ReferenceClip.HEIGHT;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void readFrameIndex_everyFrame_readsOwnIndex() {
+        for (int frame = 0; frame < ReferenceClip.FRAME_COUNT; frame++) {
+            assertEquals(frame, ReferenceClip.readFrameIndex(render(frame)));
+        }
+    }
+
+    @Test
+    void readFrameIndex_blackFrame_isUnreadable() {
+        byte[] black = new byte[FRAME_SIZE];
+
+        assertEquals(-1, ReferenceClip.readFrameIndex(black));
+    }
+
+    @Test
+    void readLuma_writtenClip_matchesRenderedFrames() throws IOException {
+        Path clip = tempDir.resolve("reference.y4m");
+
+        ReferenceClip.write(clip);
+        List<byte[]> frames = ReferenceClip.readLuma(clip);
+
+        assertEquals(ReferenceClip.FRAME_COUNT, frames.size());
+        assertArrayEquals(render(17), frames.get(17));
+        assertTrue(Files.size(clip) > (long) ReferenceClip.FRAME_COUNT * FRAME_SIZE * 3 / 2);
+    }
+
+    @Test
+    void analyze_loopedAndDegradedFrames_matchesByBarcode() throws IOException {
+        List<byte[]> reference = references();
+        ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+        decoded.write(render(ReferenceClip.FRAME_COUNT - 1));
+        decoded.write(smoothed(render(0)));
+        decoded.write(new byte[FRAME_SIZE]);
+        decoded.write(render(5));
+
+        ReferenceQualityReport report =
+                ReferenceQualityAnalyzer.analyze(new ByteArrayInputStream(decoded.toByteArray()), reference);
+
+        assertEquals(3, report.comparedFrames());
+        assertEquals(1, report.unmatchedFrames());
+        assertTrue(report.minPsnr() < FullReferenceMetrics.MAX_PSNR);
+        assertTrue(report.minSsim() < 1.0);
+        assertTrue(report.meanPsnr() > report.minPsnr());
+    }
+
+    @Test
+    void report_noMatchedFrames_isZero() {
+        ReferenceQualityAnalyzer analyzer = new ReferenceQualityAnalyzer(references());
+
+        assertNull(analyzer.accept(new byte[FRAME_SIZE]));
+        ReferenceQualityReport report = analyzer.report();
+
+        assertEquals(0, report.comparedFrames());
+        assertEquals(1, report.unmatchedFrames());
+        assertEquals(0.0, report.meanSsim(), 0.0);
+    }
+
+    private static List<byte[]> references() {
+        List<byte[]> frames = new ArrayList<>();
+        for (int frame = 0; frame < ReferenceClip.FRAME_COUNT; frame++) {
+            frames.add(render(frame));
+        }
+        return frames;
+    }
+
+    private static byte[] render(int frame) {
+        byte[] luma = new byte[FRAME_SIZE];
+        byte[] chroma = new byte[FRAME_SIZE / 4];
+        ReferenceClip.renderFrame(frame, luma, chroma, chroma.clone());
+        return luma;
+    }
+
+    /** A horizontal 3-tap blur, roughly what scaling and encoding do to edges */
+    private static byte[] smoothed(byte[] luma) {
+        byte[] result = luma.clone();
+        for (int i = 1; i < luma.length - 1; i++) {
+            result[i] = (byte) (((luma[i - 1] & 0xFF) + 2 * (luma[i] & 0xFF) + (luma[i + 1] & 0xFF)) / 4);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,174 @@
+package ro.stancalau.test.framework.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class RoomServiceBenchmarkTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    @Test
+    void run_everyLifecycle_callsEachEndpointOncePerRoom() {
+        FakeApi api = new FakeApi(Duration.ZERO);
+
+        RoomServiceBenchmarkResult result =
+                new RoomServiceBenchmark(api, 8).run(100, "bench", "participants", List.of("a", "b"), TIMEOUT);
+
+        assertEquals(100, result.lifecycles());
+        assertEquals(6, result.endpoints().size());
+        for (RoomServiceEndpoint endpoint : RoomServiceEndpoint.values()) {
+            assertEquals(100, result.endpoint(endpoint).calls(), endpoint.getApiName());
+            assertEquals(0, result.endpoint(endpoint).errors(), endpoint.getApiName());
+            assertEquals(100, result.endpoint(endpoint).latency().count(), endpoint.getApiName());
+        }
+        assertEquals(100, api.createdRooms.size());
+        assertTrue(api.rooms.isEmpty(), "Every created room should be deleted");
+        assertEquals(Set.of("participants"), api.listedParticipantRooms);
+    }
+
+    @Test
+    void run_slowCalls_neverExceedConcurrency() {
+        FakeApi api = new FakeApi(Duration.ofMillis(2));
+
+        new RoomServiceBenchmark(api, 4).run(40, "bench", null, List.of(), TIMEOUT);
+
+        assertTrue(api.maxInFlight.get() <= 4, "At most 4 calls in flight, saw " + api.maxInFlight.get());
+        assertTrue(api.maxInFlight.get() > 1, "Calls should overlap");
+    }
+
+    @Test
+    void run_withoutParticipantRoom_skipsParticipantUpdates() {
+        FakeApi api = new FakeApi(Duration.ZERO);
+
+        RoomServiceBenchmarkResult result = new RoomServiceBenchmark(api, 2).run(10, "bench", null, List.of(), TIMEOUT);
+
+        assertEquals(5, result.endpoints().size());
+        assertEquals(0, result.endpoint(RoomServiceEndpoint.UPDATE_PARTICIPANT).calls());
+        assertEquals(10, result.endpoint(RoomServiceEndpoint.LIST_PARTICIPANTS).calls());
+        assertEquals(api.createdRooms, api.listedParticipantRooms);
+    }
+
+    @Test
+    void run_failedCalls_countedByCauseWithoutLatencyOrLifecycle() {
+        FakeApi api = new FakeApi(Duration.ZERO);
+        api.failCreateEvery = 4;
+        api.listRoomsStatus = 503;
+
+        RoomServiceBenchmarkResult result = new RoomServiceBenchmark(api, 3).run(20, "bench", null, List.of(), TIMEOUT);
+
+        assertEquals(15, result.lifecycles());
+        RoomServiceBenchmarkResult.EndpointResult create = result.endpoint(RoomServiceEndpoint.CREATE_ROOM);
+        assertEquals(15, create.calls());
+        assertEquals(5, create.errors());
+        assertEquals(Map.of("IOException", 5L), create.errorsByCause());
+        assertEquals(25.0, create.errorPercent(), 1e-9);
+        assertEquals(15, result.endpoint(RoomServiceEndpoint.DELETE_ROOM).calls());
+
+        RoomServiceBenchmarkResult.EndpointResult list = result.endpoint(RoomServiceEndpoint.LIST_ROOMS);
+        assertEquals(0, list.calls());
+        assertEquals(Map.of("503", 15L), list.errorsByCause());
+        assertEquals(0, list.latency().count());
+        assertEquals(20, result.totalErrors());
+    }
+
+    @Test
+    void toCsv_oneRowPerEndpoint_withVersion() {
+        FakeApi api = new FakeApi(Duration.ZERO);
+
+        String csv = new RoomServiceBenchmark(api, 2)
+                .run(4, "bench", "participants", List.of("a"), TIMEOUT)
+                .toCsv("v1.8.4");
+
+        String[] lines = csv.split("\n");
+        assertEquals(RoomServiceBenchmarkResult.CSV_HEADER, lines[0]);
+        assertEquals(7, lines.length);
+        assertTrue(lines[1].startsWith("v1.8.4,createRoom,2,4,0,0.000,"), lines[1]);
+        assertTrue(lines[6].startsWith("v1.8.4,deleteRoom,2,4,0,0.000,"), lines[6]);
+    }
+
+    private static class FakeApi implements RoomServiceBenchmark.Api {
+
+        private final Duration delay;
+        private final Set<String> rooms = ConcurrentHashMap.newKeySet();
+        private final Set<String> createdRooms = ConcurrentHashMap.newKeySet();
+        private final Set<String> listedParticipantRooms = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger creates = new AtomicInteger();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+        private volatile int failCreateEvery;
+        private volatile int listRoomsStatus = 200;
+
+        FakeApi(Duration delay) {
+            this.delay = delay;
+        }
+
+        @Override
+        public int createRoom(String roomName) throws IOException {
+            int create = creates.incrementAndGet();
+            return call(() -> {
+                if (failCreateEvery > 0 && create % failCreateEvery == 0) {
+                    throw new IOException("connection reset");
+                }
+                rooms.add(roomName);
+                createdRooms.add(roomName);
+                return 200;
+            });
+        }
+
+        @Override
+        public int updateRoomMetadata(String roomName, String metadata) throws IOException {
+            return call(() -> rooms.contains(roomName) ? 200 : 404);
+        }
+
+        @Override
+        public int listRooms() throws IOException {
+            return call(() -> listRoomsStatus);
+        }
+
+        @Override
+        public int listParticipants(String roomName) throws IOException {
+            return call(() -> {
+                listedParticipantRooms.add(roomName);
+                return 200;
+            });
+        }
+
+        @Override
+        public int updateParticipant(String roomName, String identity, String metadata) throws IOException {
+            return call(() -> "participants".equals(roomName) ? 200 : 404);
+        }
+
+        @Override
+        public int deleteRoom(String roomName) throws IOException {
+            return call(() -> rooms.remove(roomName) ? 200 : 404);
+        }
+
+        private int call(Status status) throws IOException {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                if (!delay.isZero()) {
+                    Thread.sleep(delay);
+                }
+                return status.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Status {
+        int get() throws IOException;
+    }
+}
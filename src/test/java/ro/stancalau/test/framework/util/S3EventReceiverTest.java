@@ -0,0 +1,56 @@
+package ro.stancalau.test.framework.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class S3EventReceiverTest {
+
+    @Test
+    void parseCreatedObjects_putEvent_decodesKeyAndMetadata() throws Exception {
+        String json = """
+                {"EventName":"s3:ObjectCreated:Put","Key":"recordings/recording-room%201.mp4","Records":[{
+                  "eventName":"s3:ObjectCreated:Put","eventTime":"2024-05-01T10:15:30.123Z",
+                  "s3":{"bucket":{"name":"recordings"},
+                        "object":{"key":"egress%2Frecording-room+1.mp4","size":734003,
+                                  "eTag":"9b2cf535f27731c974343645a3985328"}}
+                }]}
+                """;
+
+        List<S3EventReceiver.CreatedObject> created = S3EventReceiver.parseCreatedObjects(json);
+
+        assertEquals(1, created.size());
+        assertEquals("recordings", created.getFirst().bucketName());
+        S3ObjectSummary object = created.getFirst().object();
+        assertEquals("egress/recording-room 1.mp4", object.key());
+        assertEquals(734003, object.size());
+        assertEquals("9b2cf535f27731c974343645a3985328", object.eTag());
+        assertEquals(Instant.parse("2024-05-01T10:15:30.123Z"), object.lastModified());
+    }
+
+    @Test
+    void parseCreatedObjects_removeEvent_isIgnored() throws Exception {
+        String json = """
+                {"Records":[{"eventName":"s3:ObjectRemoved:Delete",
+                  "s3":{"bucket":{"name":"snapshots"},"object":{"key":"snapshot.jpeg"}}}]}
+                """;
+
+        assertTrue(S3EventReceiver.parseCreatedObjects(json).isEmpty());
+    }
+
+    @Test
+    void parseCreatedObjects_multipartUpload_isCreated() throws Exception {
+        String json = """
+                {"Records":[{"eventName":"s3:ObjectCreated:CompleteMultipartUpload",
+                  "s3":{"bucket":{"name":"recordings"},"object":{"key":"track-composite-alice.mp4","size":5242880}}}]}
+                """;
+
+        List<S3EventReceiver.CreatedObject> created = S3EventReceiver.parseCreatedObjects(json);
+
+        assertEquals(1, created.size());
+        assertEquals("track-composite-alice.mp4", created.getFirst().object().key());
+        assertNull(created.getFirst().object().lastModified());
+    }
+}
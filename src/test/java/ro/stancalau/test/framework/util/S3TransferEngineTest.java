@@ -0,0 +1,299 @@
+package ro.stancalau.test.framework.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.*;
+
+class S3TransferEngineTest {
+
+    private static final int PART_SIZE = S3TransferEngine.MIN_PART_SIZE;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void uploadFile_largerThanOnePart_uploadsPartsOfPartSizeInOrder() throws Exception {
+        FakeS3 s3 = new FakeS3();
+        byte[] content = randomBytes(2 * PART_SIZE + PART_SIZE / 2);
+        Path file = Files.write(tempDir.resolve("recording.mp4"), content);
+
+        new S3TransferEngine(s3.client(), "bucket", PART_SIZE, 2)
+                .uploadFile("recording.mp4", file)
+                .join();
+
+        assertEquals(List.of(PART_SIZE, PART_SIZE, PART_SIZE / 2), s3.partSizes());
+        assertEquals(List.of(1, 2, 3), s3.completedPartNumbers);
+        assertArrayEquals(content, s3.objects.get("recording.mp4"));
+        assertEquals(0, s3.puts.get());
+        assertTrue(s3.abortedUploads.isEmpty());
+    }
+
+    @Test
+    void uploadFile_notLargerThanOnePart_usesSinglePut() throws Exception {
+        FakeS3 s3 = new FakeS3();
+        byte[] content = randomBytes(PART_SIZE);
+        Path file = Files.write(tempDir.resolve("snapshot.jpg"), content);
+
+        new S3TransferEngine(s3.client(), "bucket", PART_SIZE, 2)
+                .uploadFile("snapshot.jpg", file)
+                .join();
+
+        assertEquals(1, s3.puts.get());
+        assertTrue(s3.parts.isEmpty());
+        assertArrayEquals(content, s3.objects.get("snapshot.jpg"));
+    }
+
+    @Test
+    void uploadStream_failingPart_abortsUploadAndFails() {
+        FakeS3 s3 = new FakeS3();
+        s3.failPart = 2;
+        byte[] content = randomBytes(3 * PART_SIZE);
+
+        CompletableFuture<String> upload = new S3TransferEngine(s3.client(), "bucket", PART_SIZE, 1)
+                .uploadStream("stream.ts", new ByteArrayInputStream(content));
+
+        assertThrows(CompletionException.class, upload::join);
+        assertEquals(List.of("upload-1"), s3.abortedUploads);
+        assertFalse(s3.objects.containsKey("stream.ts"));
+    }
+
+    @Test
+    void downloadToFile_largerThanOnePart_writesEveryRangeInPlace() throws Exception {
+        FakeS3 s3 = new FakeS3();
+        byte[] content = randomBytes(2 * PART_SIZE + 1000);
+        s3.objects.put("recording.mp4", content);
+        Path target = tempDir.resolve("out/recording.mp4");
+
+        long size = new S3TransferEngine(s3.client(), "bucket", PART_SIZE, 3)
+                .downloadToFile("recording.mp4", target)
+                .join();
+
+        assertEquals(content.length, size);
+        assertArrayEquals(content, Files.readAllBytes(target));
+        assertEquals(
+                List.of(
+                        "bytes=0-" + (PART_SIZE - 1),
+                        "bytes=" + PART_SIZE + "-" + (2 * PART_SIZE - 1),
+                        "bytes=" + 2 * PART_SIZE + "-" + (content.length - 1)),
+                s3.sortedRanges());
+    }
+
+    @Test
+    void readRange_pastEndOfObject_returnsRemainingBytes() {
+        FakeS3 s3 = new FakeS3();
+        byte[] content = randomBytes(100);
+        s3.objects.put("object", content);
+        S3TransferEngine engine = new S3TransferEngine(s3.client(), "bucket", PART_SIZE, 1);
+
+        byte[] head = engine.readHead("object", 10).join();
+        byte[] tail = engine.readTail("object", 30).join();
+        byte[] past = engine.readRange("object", 90, 50).join();
+
+        assertArrayEquals(slice(content, 0, 10), head);
+        assertArrayEquals(slice(content, 70, 100), tail);
+        assertArrayEquals(slice(content, 90, 100), past);
+        assertEquals(List.of("bytes=0-9", "bytes=-30", "bytes=90-139"), s3.ranges);
+    }
+
+    @Test
+    void download_wholeObject_usesSingleUnrangedGet() {
+        FakeS3 s3 = new FakeS3();
+        byte[] content = randomBytes(70_000);
+        s3.objects.put("frame_001.jpeg", content);
+
+        byte[] downloaded = new S3TransferEngine(s3.client(), "bucket", PART_SIZE, 1)
+                .download("frame_001.jpeg")
+                .join();
+
+        assertArrayEquals(content, downloaded);
+        assertTrue(s3.ranges.isEmpty());
+        assertEquals(1, s3.gets.get());
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        new Random(length).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static byte[] slice(byte[] bytes, int from, int to) {
+        byte[] slice = new byte[to - from];
+        System.arraycopy(bytes, from, slice, 0, slice.length);
+        return slice;
+    }
+
+    /**
+     * An in-memory bucket behind an {@link S3AsyncClient} proxy that answers the calls the transfer engine
+     * makes and rejects all others.
+     */
+    private static class FakeS3 {
+
+        private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+        private final Map<Integer, byte[]> parts = new ConcurrentHashMap<>();
+        private final List<String> ranges = Collections.synchronizedList(new ArrayList<>());
+        private final List<String> abortedUploads = Collections.synchronizedList(new ArrayList<>());
+        private final AtomicInteger uploads = new AtomicInteger();
+        private final AtomicInteger puts = new AtomicInteger();
+        private final AtomicInteger gets = new AtomicInteger();
+        private volatile List<Integer> completedPartNumbers = List.of();
+        private volatile int failPart;
+
+        S3AsyncClient client() {
+            return (S3AsyncClient) Proxy.newProxyInstance(
+                    S3AsyncClient.class.getClassLoader(),
+                    new Class<?>[] {S3AsyncClient.class},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "putObject" -> putObject((PutObjectRequest) args[0], (AsyncRequestBody) args[1]);
+                        case "createMultipartUpload" -> createMultipartUpload();
+                        case "uploadPart" -> uploadPart((UploadPartRequest) args[0], (AsyncRequestBody) args[1]);
+                        case "completeMultipartUpload" -> completeMultipartUpload(
+                                (CompleteMultipartUploadRequest) args[0]);
+                        case "abortMultipartUpload" -> abortMultipartUpload((AbortMultipartUploadRequest) args[0]);
+                        case "headObject" -> headObject((HeadObjectRequest) args[0]);
+                        case "getObject" -> getObject(
+                                (GetObjectRequest) args[0], (AsyncResponseTransformer<?, ?>) args[1]);
+                        case "close" -> null;
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    });
+        }
+
+        List<Integer> partSizes() {
+            return parts.keySet().stream()
+                    .sorted()
+                    .map(partNumber -> parts.get(partNumber).length)
+                    .toList();
+        }
+
+        List<String> sortedRanges() {
+            synchronized (ranges) {
+                return ranges.stream()
+                        .sorted((a, b) -> Long.compare(rangeStart(a), rangeStart(b)))
+                        .toList();
+            }
+        }
+
+        private CompletableFuture<PutObjectResponse> putObject(PutObjectRequest request, AsyncRequestBody body) {
+            puts.incrementAndGet();
+            objects.put(request.key(), read(body));
+            return CompletableFuture.completedFuture(
+                    PutObjectResponse.builder().eTag("put").build());
+        }
+
+        private CompletableFuture<CreateMultipartUploadResponse> createMultipartUpload() {
+            return CompletableFuture.completedFuture(CreateMultipartUploadResponse.builder()
+                    .uploadId("upload-" + uploads.incrementAndGet())
+                    .build());
+        }
+
+        private CompletableFuture<UploadPartResponse> uploadPart(UploadPartRequest request, AsyncRequestBody body) {
+            if (request.partNumber() == failPart) {
+                return CompletableFuture.failedFuture(new IllegalStateException("part rejected"));
+            }
+            parts.put(request.partNumber(), read(body));
+            return CompletableFuture.supplyAsync(() -> UploadPartResponse.builder()
+                    .eTag("part-" + request.partNumber())
+                    .build());
+        }
+
+        private CompletableFuture<CompleteMultipartUploadResponse> completeMultipartUpload(
+                CompleteMultipartUploadRequest request) {
+            completedPartNumbers = request.multipartUpload().parts().stream()
+                    .map(CompletedPart::partNumber)
+                    .toList();
+            ByteArrayOutputStream object = new ByteArrayOutputStream();
+            completedPartNumbers.forEach(partNumber -> object.writeBytes(parts.get(partNumber)));
+            objects.put(request.key(), object.toByteArray());
+            return CompletableFuture.completedFuture(
+                    CompleteMultipartUploadResponse.builder().eTag("multipart").build());
+        }
+
+        private CompletableFuture<AbortMultipartUploadResponse> abortMultipartUpload(
+                AbortMultipartUploadRequest request) {
+            abortedUploads.add(request.uploadId());
+            return CompletableFuture.completedFuture(
+                    AbortMultipartUploadResponse.builder().build());
+        }
+
+        private CompletableFuture<HeadObjectResponse> headObject(HeadObjectRequest request) {
+            byte[] object = objects.get(request.key());
+            if (object == null) {
+                return CompletableFuture.failedFuture(
+                        NoSuchKeyException.builder().message(request.key()).build());
+            }
+            return CompletableFuture.completedFuture(HeadObjectResponse.builder()
+                    .contentLength((long) object.length)
+                    .build());
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> CompletableFuture<T> getObject(GetObjectRequest request, AsyncResponseTransformer<?, ?> raw) {
+            AsyncResponseTransformer<GetObjectResponse, T> transformer =
+                    (AsyncResponseTransformer<GetObjectResponse, T>) raw;
+            byte[] object = objects.get(request.key());
+            if (object == null) {
+                return CompletableFuture.failedFuture(
+                        NoSuchKeyException.builder().message(request.key()).build());
+            }
+            gets.incrementAndGet();
+            byte[] bytes = object;
+            if (request.range() != null) {
+                ranges.add(request.range());
+                bytes = range(object, request.range());
+            }
+            CompletableFuture<T> result = transformer.prepare();
+            transformer.onResponse(GetObjectResponse.builder()
+                    .contentLength((long) bytes.length)
+                    .build());
+            transformer.onStream(AsyncRequestBody.fromBytes(bytes));
+            return result;
+        }
+
+        private static byte[] range(byte[] object, String range) {
+            String spec = range.substring("bytes=".length());
+            if (spec.startsWith("-")) {
+                int length = Math.min(object.length, Integer.parseInt(spec.substring(1)));
+                return slice(object, object.length - length, object.length);
+            }
+            int separator = spec.indexOf('-');
+            int from = Integer.parseInt(spec.substring(0, separator));
+            int to = Math.min(object.length - 1, Integer.parseInt(spec.substring(separator + 1)));
+            return slice(object, from, to + 1);
+        }
+
+        private static long rangeStart(String range) {
+            String spec = range.substring("bytes=".length());
+            return spec.startsWith("-") ? -1 : Long.parseLong(spec.substring(0, spec.indexOf('-')));
+        }
+
+        private static byte[] read(AsyncRequestBody body) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            body.subscribe((ByteBuffer buffer) -> {
+                        byte[] bytes = new byte[buffer.remaining()];
+                        buffer.get(bytes);
+                        out.writeBytes(bytes);
+                    })
+                    .join();
+            return out.toByteArray();
+        }
+    }
+}
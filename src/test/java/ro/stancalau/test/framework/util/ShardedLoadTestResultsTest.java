@@ -0,0 +1,119 @@
+package ro.stancalau.test.framework.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class ShardedLoadTestResultsTest {
+
+    @Test
+    void merge_twoShards_sumsTotalsAndPrefixesTesters() {
+        Map<String, LoadTestResults> shards = new LinkedHashMap<>();
+        shards.put(
+                "shard-1",
+                new LoadTestResults(
+                        List.of(track("Sub 0", 990, 10, 20)),
+                        List.of(summary("Sub 0", 1, 1, 1000, 20, 10, 1.0, null)),
+                        total(1, 1, 1000, 20, 10, 1.0, "0")));
+        shards.put(
+                "shard-2",
+                new LoadTestResults(
+                        List.of(track("Sub 0", 3000, 0, 60), track("Sub 1", 3000, 0, 60)),
+                        List.of(
+                                summary("Sub 0", 1, 1, 500, 60, 0, 0, null),
+                                summary("Sub 1", 2, 1, 500, 60, 0, 0, "x")),
+                        total(3, 2, 1000, 60, 0, 0, "1")));
+
+        ShardedLoadTestResults results = ShardedLoadTestResults.merge(shards, Duration.ofMillis(120));
+
+        LoadTestTesterSummary total = results.aggregate().total();
+        assertNotNull(total);
+        assertEquals(4, total.tracks());
+        assertEquals(3, total.expectedTracks());
+        assertEquals(2000, total.bitrateKbps(), 0.001);
+        assertEquals(10, total.dropped());
+        assertEquals(Duration.ofMillis(50), total.latency());
+        assertEquals(10 * 100.0 / 7000, total.droppedPercent(), 0.0001);
+        assertEquals(1, results.aggregate().errorCount());
+        assertEquals(
+                List.of("shard-1/Sub 0", "shard-2/Sub 0", "shard-2/Sub 1"),
+                results.aggregate().testers().stream()
+                        .map(LoadTestTesterSummary::tester)
+                        .toList());
+        assertEquals("shard-2/Sub 1", results.aggregate().tracks().get(2).tester());
+        assertSame(shards.get("shard-2"), results.shard("shard-2"));
+    }
+
+    @Test
+    void merge_noTrackStats_usesHighestShardLoss() {
+        Map<String, LoadTestResults> shards = new LinkedHashMap<>();
+        shards.put("shard-1", new LoadTestResults(List.of(), List.of(), total(1, 1, 100, 10, 1, 0.5, "0")));
+        shards.put("shard-2", new LoadTestResults(List.of(), List.of(), total(1, 1, 100, 10, 4, 2.5, "0")));
+
+        ShardedLoadTestResults results = ShardedLoadTestResults.merge(shards, Duration.ZERO);
+
+        assertEquals(2.5, results.aggregate().total().droppedPercent(), 0.0001);
+        assertNull(results.aggregate().total().error());
+    }
+
+    @Test
+    void merge_shardWithoutTotal_keepsOtherTotals() {
+        Map<String, LoadTestResults> shards = new LinkedHashMap<>();
+        shards.put("shard-1", new LoadTestResults(List.of(), List.of(), null));
+        shards.put("shard-2", new LoadTestResults(List.of(), List.of(), total(2, 2, 300, 10, 0, 0, "0")));
+
+        ShardedLoadTestResults results = ShardedLoadTestResults.merge(shards, Duration.ZERO);
+
+        assertEquals(2, results.aggregate().total().tracks());
+        assertTrue(results.toSummary().contains("[shard-1]"));
+        assertTrue(results.toSummary().contains("[aggregate]"));
+    }
+
+    private static LoadTestTrackStats track(String tester, long packets, long dropped, long latencyMillis) {
+        return new LoadTestTrackStats(
+                tester, "TR_" + tester, "video", packets, 500, Duration.ofMillis(latencyMillis), dropped, 0);
+    }
+
+    private static LoadTestTesterSummary total(
+            int tracks,
+            int expectedTracks,
+            double bitrateKbps,
+            long latencyMillis,
+            long dropped,
+            double droppedPercent,
+            String error) {
+        return summary(
+                LoadTestTesterSummary.TOTAL,
+                tracks,
+                expectedTracks,
+                bitrateKbps,
+                latencyMillis,
+                dropped,
+                droppedPercent,
+                error);
+    }
+
+    private static LoadTestTesterSummary summary(
+            String tester,
+            int tracks,
+            int expectedTracks,
+            double bitrateKbps,
+            long latencyMillis,
+            long dropped,
+            double droppedPercent,
+            String error) {
+        return new LoadTestTesterSummary(
+                tester,
+                tracks,
+                expectedTracks,
+                bitrateKbps,
+                Duration.ofMillis(latencyMillis),
+                dropped,
+                droppedPercent,
+                error);
+    }
+}
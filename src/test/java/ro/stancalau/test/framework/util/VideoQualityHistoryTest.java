@@ -0,0 +1,78 @@
+package ro.stancalau.test.framework.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class VideoQualityHistoryTest {
+
+    private static final String SCENARIO = "Egress recording/Reference clip, \"track\" composite";
+    private static final String RECORDING = "room.mp4";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void read_appendedEntries_roundTripsQuotedFields() throws IOException {
+        VideoQualityHistory history = new VideoQualityHistory(tempDir.resolve("nested/history.csv"));
+        VideoQualityHistory.Entry entry = entry("2026-01-01T10:00:00Z", "v1.8.0", "v1.9.0", 38.5);
+
+        history.append(entry);
+        history.append(entry("2026-01-02T10:00:00Z", "v1.8.0", "v1.10.0", 36.25));
+        List<VideoQualityHistory.Entry> entries = history.read();
+
+        assertEquals(2, entries.size());
+        assertEquals(entry, entries.get(0));
+        assertEquals(VideoQualityHistory.HEADER, Files.readAllLines(history.getFile()).get(0));
+        assertEquals(3, Files.readAllLines(history.getFile()).size());
+    }
+
+    @Test
+    void read_malformedRow_isSkipped() throws IOException {
+        Path file = tempDir.resolve("history.csv");
+        Files.writeString(file, VideoQualityHistory.HEADER + "\nnot,a,row\n");
+        VideoQualityHistory history = new VideoQualityHistory(file);
+
+        history.append(entry("2026-01-01T10:00:00Z", "v1.8.0", "v1.9.0", 38.5));
+
+        assertEquals(1, history.read().size());
+    }
+
+    @Test
+    void read_missingFile_isEmpty() throws IOException {
+        assertTrue(new VideoQualityHistory(tempDir.resolve("missing.csv")).read().isEmpty());
+    }
+
+    @Test
+    void latestOfOtherVersions_multipleRuns_returnsLatestPerOtherVersion() throws IOException {
+        VideoQualityHistory history = new VideoQualityHistory(tempDir.resolve("history.csv"));
+        history.append(entry("2026-01-03T10:00:00Z", "v1.8.0", "v1.9.0", 37.0));
+        history.append(entry("2026-01-01T10:00:00Z", "v1.8.0", "v1.9.0", 38.5));
+        history.append(entry("2026-01-02T10:00:00Z", "v1.7.0", "v1.9.0", 35.0));
+        history.append(entry("2026-01-04T10:00:00Z", "v1.9.0", "v1.10.0", 40.0));
+
+        List<VideoQualityHistory.Entry> others =
+                history.latestOfOtherVersions(SCENARIO, RECORDING, "v1.9.0", "v1.10.0");
+
+        assertEquals(2, others.size());
+        assertEquals("v1.7.0", others.get(0).livekitVersion());
+        assertEquals(37.0, others.get(1).report().meanPsnr(), 0.001);
+    }
+
+    private static VideoQualityHistory.Entry entry(
+            String timestamp, String livekitVersion, String egressVersion, double meanPsnr) {
+        return new VideoQualityHistory.Entry(
+                Instant.parse(timestamp),
+                livekitVersion,
+                egressVersion,
+                SCENARIO,
+                RECORDING,
+                new ReferenceQualityReport(240, 0, meanPsnr, meanPsnr - 4, 0.95, 0.9));
+    }
+}
@@ -0,0 +1,83 @@
+package ro.stancalau.test.framework.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+class Y4mReaderTest {
+
+    @Test
+    void readFrame_writtenClip_roundTripsPlanes() throws IOException {
+        ByteArrayOutputStream clip = new ByteArrayOutputStream();
+        try (Y4mWriter writer = new Y4mWriter(clip, 8, 4, 30000, 1001)) {
+            writer.writeFrame(filled(32, 1), filled(8, 2), filled(8, 3));
+            writer.writeFrame(filled(32, 4), filled(8, 5), filled(8, 6));
+        }
+
+        byte[] luma = new byte[32];
+        byte[] cb = new byte[8];
+        byte[] cr = new byte[8];
+        try (Y4mReader reader = new Y4mReader(new ByteArrayInputStream(clip.toByteArray()))) {
+            assertEquals(8, reader.getWidth());
+            assertEquals(4, reader.getHeight());
+            assertEquals(29.97, reader.getFrameRate(), 0.01);
+            assertEquals("420jpeg", reader.getColorSpace());
+
+            assertTrue(reader.readFrame(luma, cb, cr));
+            assertArrayEquals(filled(32, 1), luma);
+            assertArrayEquals(filled(8, 3), cr);
+
+            assertTrue(reader.readFrame(luma));
+            assertArrayEquals(filled(32, 4), luma);
+
+            assertFalse(reader.readFrame(luma));
+        }
+    }
+
+    @Test
+    void readFrame_monoClipWithFrameParameters_readsLuma() throws IOException {
+        ByteArrayOutputStream clip = new ByteArrayOutputStream();
+        clip.write("YUV4MPEG2 W4 H2 F25:1 Ip A0:0 Cmono XYSCSS=MONO\n".getBytes(StandardCharsets.US_ASCII));
+        clip.write("FRAME Ixyz\n".getBytes(StandardCharsets.US_ASCII));
+        clip.write(filled(8, 9));
+
+        byte[] luma = new byte[8];
+        try (Y4mReader reader = new Y4mReader(new ByteArrayInputStream(clip.toByteArray()))) {
+            assertTrue(reader.readFrame(luma));
+            assertArrayEquals(filled(8, 9), luma);
+            assertFalse(reader.readFrame(luma));
+        }
+    }
+
+    @Test
+    void readFrame_truncatedFrame_throws() throws IOException {
+        ByteArrayOutputStream clip = new ByteArrayOutputStream();
+        try (Y4mWriter writer = new Y4mWriter(clip, 8, 4, 30, 1)) {
+            writer.writeFrame(filled(32, 1), filled(8, 2), filled(8, 3));
+        }
+        byte[] truncated = Arrays.copyOf(clip.toByteArray(), clip.size() - 4);
+
+        try (Y4mReader reader = new Y4mReader(new ByteArrayInputStream(truncated))) {
+            assertThrows(EOFException.class, () -> reader.readFrame(new byte[32]));
+        }
+    }
+
+    @Test
+    void constructor_notY4m_throws() {
+        byte[] notY4m = "RIFF....WAVEfmt \n".getBytes(StandardCharsets.US_ASCII);
+
+        assertThrows(IOException.class, () -> new Y4mReader(new ByteArrayInputStream(notY4m)));
+    }
+
+    private static byte[] filled(int length, int value) {
+        byte[] plane = new byte[length];
+        Arrays.fill(plane, (byte) value);
+        return plane;
+    }
+}
@@ -0,0 +1,73 @@
+package ro.stancalau.test.framework.webhook;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+class WebhookEventTest {
+
+    private static final String EGRESS_ENDED = """
+            {
+              "event": "egress_ended",
+              "egressInfo": {
+                "egressId": "EG_abc",
+                "roomName": "EgressRecordingRoom",
+                "status": "EGRESS_COMPLETE",
+                "startedAt": "1729330000000000000",
+                "updatedAt": "1729330012000000000",
+                "endedAt": "1729330012000000000",
+                "fileResults": [{
+                  "filename": "/out/video-recordings/recording-EgressRecordingRoom.mp4",
+                  "startedAt": "1729330001000000000",
+                  "endedAt": "1729330011000000000",
+                  "duration": "10000000000",
+                  "size": "1048576",
+                  "location": ""
+                }]
+              },
+              "id": "EV_1",
+              "createdAt": "1729330012"
+            }
+            """;
+
+    private static final String TRACK_EGRESS_ENDED = """
+            {
+              "event": "egress_ended",
+              "egressInfo": {
+                "egressId": "EG_def",
+                "status": "EGRESS_COMPLETE",
+                "file": {"filename": "/out/video-recordings/audio-track-Paula.ogg", "size": "4096"}
+              }
+            }
+            """;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void readValue_egressEnded_parsesTypedFileResults() throws Exception {
+        WebhookEvent event = objectMapper.readValue(EGRESS_ENDED, WebhookEvent.class);
+
+        EgressInfo egressInfo = event.getEgressInfo();
+        assertEquals("EG_abc", egressInfo.getEgressId());
+        assertEquals("EGRESS_COMPLETE", egressInfo.getStatus());
+        assertEquals(1729330012000000000L, egressInfo.getUpdatedAt());
+        assertEquals(1, egressInfo.getFileResults().size());
+
+        FileInfo fileInfo = egressInfo.getFileResults().get(0);
+        assertEquals("/out/video-recordings/recording-EgressRecordingRoom.mp4", fileInfo.getFilename());
+        assertEquals(1048576L, fileInfo.getSize());
+        assertEquals(10000000000L, fileInfo.getDuration());
+        assertEquals("", fileInfo.getLocation());
+    }
+
+    @Test
+    void readValue_trackEgressEnded_parsesSingleFileResult() throws Exception {
+        WebhookEvent event = objectMapper.readValue(TRACK_EGRESS_ENDED, WebhookEvent.class);
+
+        EgressInfo egressInfo = event.getEgressInfo();
+        assertNull(egressInfo.getFileResults());
+        assertEquals("/out/video-recordings/audio-track-Paula.ogg", egressInfo.getFile().getFilename());
+        assertEquals(4096L, egressInfo.getFile().getSize());
+    }
+}
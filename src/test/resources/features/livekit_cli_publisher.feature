@@ -8,6 +8,7 @@ Feature: LiveKit CLI Publisher Integration
     And a Redis server is running in a container with service name "redis"
     And a LiveKit server is running in a container with service name "livekit"
     And a LiveKit snapshot egress service is running in a container with service name "egress" connected to LiveKit service "livekit"
+    And the "egress" container should log a line matching "service ready" within 10 seconds
 
   Scenario: CLI load test with video publishers
     Given room "LoadTestRoom" is created using service "livekit"
@@ -90,6 +91,37 @@ Feature: LiveKit CLI Publisher Integration
     When a CLI load test with config "videoPublishers:10,numPerSecond:2,duration:5" connects to room "ProgressiveRoom" using service "livekit"
     Then the CLI load test for room "ProgressiveRoom" should complete successfully within 10 seconds
 
+  Scenario: Load test with subscribers meets its performance thresholds
+    Given room "GatedLoadRoom" is created using service "livekit"
+    And container resource usage is measured from now
+    And Prometheus metrics of LiveKit service "livekit" are scraped
+    And the metrics phase "load" begins
+    When a CLI load test with config "videoPublishers:2,subscribers:2,videoResolution:low,duration:10" connects to room "GatedLoadRoom" using service "livekit"
+    Then the CLI load test for room "GatedLoadRoom" should complete successfully within 20 seconds
+    And the CLI load test for room "GatedLoadRoom" should receive all expected tracks
+    And the CLI load test for room "GatedLoadRoom" should report no errors
+    And the CLI load test for room "GatedLoadRoom" should report packet loss of at most 2.0 percent
+    And the CLI load test for room "GatedLoadRoom" should report a mean latency of at most 500 milliseconds
+    And the CLI load test for room "GatedLoadRoom" should report a total bitrate of at least 100 kbps
+    And the "livekit" container CPU should stay below 400.0 percent
+    And the "livekit" container memory should stay below 1024 MB
+    And the LiveKit gauge "livekit_participant_total" of service "livekit" should reach at least 4.0 during phase "load"
+    And the LiveKit metric 'livekit_packet_total{direction="incoming"}' of service "livekit" should increase by at least 1000.0 during phase "load"
+    And the LiveKit gauge "go_goroutines" of service "livekit" should stay below 10000.0 during phase "load"
+
+  Scenario: Load test sharded across several CLI containers
+    Given room "ShardedLoadRoom" is created using service "livekit"
+    When a sharded CLI load test with config "videoPublishers:4,subscribers:3,videoResolution:low,numPerSecond:2,duration:10" across 2 containers connects to room "ShardedLoadRoom" using service "livekit"
+    Then the sharded CLI load test for room "ShardedLoadRoom" should complete successfully within 25 seconds
+    And the sharded CLI load test for room "ShardedLoadRoom" should receive all expected tracks
+    And the sharded CLI load test for room "ShardedLoadRoom" should report no errors
+    And the sharded CLI load test for room "ShardedLoadRoom" should report packet loss of at most 2.0 percent
+
+  Scenario: Capacity search finds the largest sustainable room
+    Given the capacity search allows packet loss of at most 2.0 percent, at least 50 kbps per track and a join success of at least 100 percent
+    When a capacity search with config "videoPublishers:1,subscribers:3,videoResolution:low,duration:10" ramps from 4 to 16 participants in steps of 4 across 1 containers in room "CapacityRoom" using service "livekit"
+    Then the capacity search for room "CapacityRoom" should sustain at least 4 participants
+
   Scenario: Load test with speaker simulation
     Given room "SpeakerRoom" is created using service "livekit"
     When a CLI load test with config "audioPublishers:5,simulateSpeakers:true,duration:10" connects to room "SpeakerRoom" using service "livekit"
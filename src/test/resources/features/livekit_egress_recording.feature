@@ -35,6 +35,7 @@ Feature: LiveKit Egress Recording
     
     And the recording file should exist in the output directory for room "EgressRecordingRoom"
     And the recording file should contain actual video content
+    And the recording for room "EgressRecordingRoom" should have grown without stalls longer than 4 seconds
 
   Scenario: Record specific participant tracks using track composite egress
     Given the system creates room "TrackCompositeRoom" using service "livekit"
@@ -62,6 +63,7 @@ Feature: LiveKit Egress Recording
     
     And the track composite recording file should exist for participant "Thomas"
     And the recording file should contain actual video content
+    And the track composite recording for participant "Thomas" should have grown without stalls longer than 4 seconds
 
   Scenario: Record multiple participants in the same room using egress
     Given the system creates room "MultiParticipantRecording" using service "livekit"
@@ -119,4 +121,88 @@ Feature: LiveKit Egress Recording
     
     And the track composite recording file should exist for participant "Alice"
     And the track composite recording file should exist for participant "Bob"
-    And the recording file should contain actual video content
\ No newline at end of file
+    And the recording file should contain actual video content
+
+  Scenario: Track composite recording preserves the quality of a known reference clip
+    Given the system creates room "ReferenceQualityRoom" using service "livekit"
+    And an access token is created with identity "Olivia" and room "ReferenceQualityRoom" with grants "canPublish:true,canSubscribe:true" that expires in 5 minutes
+    And new browsers publish the reference video clip as their camera
+
+    When "Olivia" opens a "Chrome" browser with LiveKit Meet page
+    And "Olivia" connects to room "ReferenceQualityRoom" using the access token
+    And connection is established successfully for "Olivia"
+
+    Then participant "Olivia" should be publishing video in room "ReferenceQualityRoom" using service "livekit"
+
+    When track IDs are captured for participant "Olivia" in room "ReferenceQualityRoom" using LiveKit service "livekit"
+    And the system starts track composite recording for participant "Olivia" in room "ReferenceQualityRoom" using LiveKit service "livekit"
+    Then "mockserver" should have received an "egress_started" event for room "ReferenceQualityRoom"
+
+    When the recording runs for 8 seconds
+    And the system stops track composite recording for participant "Olivia" using LiveKit service "livekit"
+    Then "mockserver" should have received an "egress_ended" event for room "ReferenceQualityRoom"
+
+    And the track composite recording file should exist for participant "Olivia"
+    And the track composite recording for participant "Olivia" should match the reference clip with mean PSNR of at least 20 dB and mean SSIM of at least 0.6
+
+  Scenario: Audio-only track and track composite recordings keep a continuous reference tone
+    Given the system creates room "ReferenceAudioRoom" using service "livekit"
+    And an access token is created with identity "Paula" and room "ReferenceAudioRoom" with grants "canPublish:true,canSubscribe:true" that expires in 5 minutes
+    And new browsers publish the reference tone as their microphone
+
+    When "Paula" opens a "Chrome" browser with LiveKit Meet page
+    And "Paula" connects to room "ReferenceAudioRoom" using the access token
+    And connection is established successfully for "Paula"
+
+    Then participant "Paula" should have published audio track in room "ReferenceAudioRoom" using service "livekit"
+
+    When track IDs are captured for participant "Paula" in room "ReferenceAudioRoom" using LiveKit service "livekit"
+    And the system starts audio track recording for participant "Paula" in room "ReferenceAudioRoom" using LiveKit service "livekit"
+    And the system starts track composite recording for participant "Paula" in room "ReferenceAudioRoom" using LiveKit service "livekit"
+
+    When the recording runs for 8 seconds
+    And the system stops audio track recording for participant "Paula" using LiveKit service "livekit"
+    And the system stops track composite recording for participant "Paula" using LiveKit service "livekit"
+
+    Then the audio track recording file should exist for participant "Paula"
+    And the track composite recording file should exist for participant "Paula"
+    And the audio track recording for participant "Paula" should contain audio at a level of at least -24 dBFS without silence longer than 500 milliseconds
+    And the track composite recording for participant "Paula" should contain audio at a level of at least -30 dBFS
+
+  Scenario: Room composite recording keeps the reference tone
+    Given the system creates room "CompositeAudioRoom" using service "livekit"
+    And an access token is created with identity "Quentin" and room "CompositeAudioRoom" with grants "canPublish:true,canSubscribe:true" that expires in 5 minutes
+    And new browsers publish the reference tone as their microphone
+
+    When "Quentin" opens a "Chrome" browser with LiveKit Meet page
+    And "Quentin" connects to room "CompositeAudioRoom" using the access token
+    And connection is established successfully for "Quentin"
+
+    Then participant "Quentin" should have published audio track in room "CompositeAudioRoom" using service "livekit"
+
+    When the system starts room composite recording for room "CompositeAudioRoom" using LiveKit service "livekit"
+    And the recording runs for 8 seconds
+    And the system stops room composite recording for room "CompositeAudioRoom" using LiveKit service "livekit"
+
+    Then the recording file should exist in the output directory for room "CompositeAudioRoom"
+    And the recording for room "CompositeAudioRoom" should contain audio at a level of at least -30 dBFS
+
+  Scenario: Segmented HLS recording is written continuously while the room is live
+    Given the system creates room "SegmentedRecordingRoom" using service "livekit"
+    And an access token is created with identity "Hana" and room "SegmentedRecordingRoom" with grants "canPublish:true,canSubscribe:true" that expires in 5 minutes
+
+    When "Hana" opens a "Chrome" browser with LiveKit Meet page
+    And "Hana" connects to room "SegmentedRecordingRoom" using the access token
+    And connection is established successfully for "Hana"
+
+    Then participant "Hana" should be publishing video in room "SegmentedRecordingRoom" using service "livekit"
+
+    When the system starts segmented recording for room "SegmentedRecordingRoom" using LiveKit service "livekit"
+    Then "mockserver" should have received an "egress_started" event for room "SegmentedRecordingRoom"
+
+    When the segmented recording playlist for room "SegmentedRecordingRoom" is tailed for 12 seconds
+    And the system stops segmented recording for room "SegmentedRecordingRoom" using LiveKit service "livekit"
+    Then "mockserver" should have received an "egress_ended" event for room "SegmentedRecordingRoom"
+
+    And the segmented recording playlist for room "SegmentedRecordingRoom" should be complete with continuous segments
+    And the segmented recording segments for room "SegmentedRecordingRoom" should have arrived within 10 seconds of real time
@@ -55,4 +55,26 @@ Feature: LiveKit Image Snapshots
     Then the S3 snapshot image file exists for participant "Bob" using MinIO service "minio"
     And the S3 snapshot image is valid and contains actual image data
     And the local snapshot image file exists for participant "Bob"
-    And the local snapshot image is valid and contains actual image data
\ No newline at end of file
+    And the local snapshot image is valid and contains actual image data
+
+  Scenario: Participant track snapshots show the reference clip published as the camera
+    Given a MinIO server is running in a container with service name "minio"
+    And a bucket "snapshots" is created in MinIO service "minio"
+    And a LiveKit S3 snapshot egress service is running in a container with service name "egress" connected to LiveKit service "livekit"
+    And room "ReferenceSnapshotRoom" is created using service "livekit"
+    And an access token is created with identity "Dana" and room "ReferenceSnapshotRoom" with grants "canPublish:true,canSubscribe:true" that expires in 5 minutes
+    And new browsers publish the reference video clip as their camera
+
+    When "Dana" opens a "Chrome" browser with LiveKit Meet page
+    And "Dana" connects to room "ReferenceSnapshotRoom" using the access token
+    And connection is established successfully for "Dana"
+
+    Then participant "Dana" should be publishing video in room "ReferenceSnapshotRoom" using service "livekit"
+
+    When an on-demand snapshot is captured to S3 for participant "Dana" video track in room "ReferenceSnapshotRoom" using LiveKit service "livekit" and MinIO service "minio"
+    And an on-demand snapshot is captured to local filesystem for participant "Dana" video track in room "ReferenceSnapshotRoom" using LiveKit service "livekit"
+
+    Then the S3 snapshot image file exists for participant "Dana" using MinIO service "minio"
+    And the S3 snapshot image should show the "reference-clip" fake video source
+    And the local snapshot image file exists for participant "Dana"
+    And the local snapshot image should show the "reference-clip" fake video source
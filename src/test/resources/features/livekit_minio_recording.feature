@@ -85,4 +85,39 @@ Feature: LiveKit MinIO Recording
     
     Then the track composite recording file should exist in MinIO bucket "recordings" with prefix "alice/" for participant "Alice"
     And the track composite recording file should exist in MinIO bucket "recordings" with prefix "bob/" for participant "Bob"
-    And the recording files in MinIO should contain actual video content
\ No newline at end of file
+    And the recording files in MinIO should contain actual video content
+
+  Scenario: Room composite recording in MinIO keeps the reference tone
+    Given the system creates room "S3CompositeAudioRoom" using service "livekit"
+    And an access token is created with identity "Rosa" and room "S3CompositeAudioRoom" with grants "canPublish:true,canSubscribe:true" that expires in 5 minutes
+    And new browsers publish the reference tone as their microphone
+
+    When "Rosa" opens a "Chrome" browser with LiveKit Meet page
+    And "Rosa" connects to room "S3CompositeAudioRoom" using the access token
+    And connection is established successfully for "Rosa"
+
+    Then participant "Rosa" should have published audio track in room "S3CompositeAudioRoom" using service "livekit"
+
+    When the system starts room composite recording for room "S3CompositeAudioRoom" using LiveKit service "livekit" with S3 output to bucket "recordings"
+    And the recording runs for 8 seconds
+    And the system stops room composite recording for room "S3CompositeAudioRoom" using LiveKit service "livekit"
+
+    Then the recording file should exist in MinIO bucket "recordings" for room "S3CompositeAudioRoom"
+    And the recording file in MinIO bucket "recordings" for room "S3CompositeAudioRoom" should contain audio at a level of at least -30 dBFS
+
+  Scenario: Segmented HLS recording is uploaded to MinIO continuously while the room is live
+    Given the system creates room "S3SegmentedRoom" using service "livekit"
+    And an access token is created with identity "Mateo" and room "S3SegmentedRoom" with grants "canPublish:true,canSubscribe:true" that expires in 5 minutes
+
+    When "Mateo" opens a "Chrome" browser with LiveKit Meet page
+    And "Mateo" connects to room "S3SegmentedRoom" using the access token
+    And connection is established successfully for "Mateo"
+
+    Then participant "Mateo" should be publishing video in room "S3SegmentedRoom" using service "livekit"
+
+    When the system starts segmented recording for room "S3SegmentedRoom" using LiveKit service "livekit" with S3 output to bucket "recordings"
+    And the segmented recording playlist for room "S3SegmentedRoom" is tailed for 12 seconds
+    And the system stops segmented recording for room "S3SegmentedRoom" using LiveKit service "livekit"
+
+    Then the segmented recording playlist for room "S3SegmentedRoom" should be complete with continuous segments
+    And the segmented recording segments for room "S3SegmentedRoom" should have arrived within 15 seconds of real time
@@ -0,0 +1,25 @@
+Feature: LiveKit Room Service Benchmark
+  As a developer
+  I want to drive the Room Service API from many concurrent clients
+  So that I can compare its throughput, latency and error rate across LiveKit versions
+
+  Background:
+    Given the LiveKit config is set to "basic"
+    And a LiveKit server is running in a container with service name "livekit"
+
+  Scenario: Room lifecycles from concurrent clients succeed within latency objectives
+    When a Room Service benchmark runs 500 room lifecycles with 25 concurrent clients using service "livekit"
+    Then the Room Service benchmark should have completed 500 room lifecycles
+    And the Room Service benchmark error rate of every endpoint should be at most 0.0 percent
+    And the Room Service benchmark p95 latency of createRoom should be at most 500 milliseconds
+    And the Room Service benchmark p95 latency of listRooms should be at most 500 milliseconds
+    And the Room Service benchmark p95 latency of deleteRoom should be at most 500 milliseconds
+
+  Scenario: Participant updates in a populated room while rooms are created and deleted
+    When 50 signal participants join room "BenchmarkParticipantsRoom" using service "livekit"
+    And a Room Service benchmark runs 300 room lifecycles with 20 concurrent clients using service "livekit" and updates the participants of room "BenchmarkParticipantsRoom"
+    Then the Room Service benchmark should have completed 300 room lifecycles
+    And the Room Service benchmark error rate of every endpoint should be at most 1.0 percent
+    And the Room Service benchmark p95 latency of listParticipants should be at most 500 milliseconds
+    And the Room Service benchmark p95 latency of updateParticipant should be at most 1000 milliseconds
+    And 50 signal participants should be connected to room "BenchmarkParticipantsRoom"
@@ -0,0 +1,30 @@
+Feature: LiveKit Signal-Only Participants
+  As a developer
+  I want to connect many lightweight participants over the signal protocol only
+  So that I can test join storms and metadata fan-out without browsers or CLI containers
+
+  Background:
+    Given the LiveKit config is set to "basic"
+    And a LiveKit server is running in a container with service name "livekit"
+
+  Scenario: Join storm converges and every participant sees the others
+    When 200 signal participants join room "SignalStormRoom" using service "livekit" with at most 100 joining at once
+    Then 200 signal participants should be connected to room "SignalStormRoom"
+    And all signal participants in room "SignalStormRoom" should see each other within 30 seconds
+    And the p95 signal join latency in room "SignalStormRoom" should be at most 2000 milliseconds
+    And the p95 signal presence latency in room "SignalStormRoom" should be at most 5000 milliseconds
+
+  Scenario: Metadata update fans out to every participant
+    When 50 signal participants join room "SignalMetadataRoom" using service "livekit"
+    And all signal participants in room "SignalMetadataRoom" should see each other within 15 seconds
+    And signal participant "signal-1" in room "SignalMetadataRoom" updates its metadata
+    Then all signal participants in room "SignalMetadataRoom" should receive the metadata of "signal-1" within 10 seconds
+    And the p99 signal metadata latency in room "SignalMetadataRoom" should be at most 1000 milliseconds
+
+  Scenario: Leave storm is reported to the remaining participants
+    When 60 signal participants join room "SignalLeaveRoom" using service "livekit"
+    And 30 signal participants leave room "SignalLeaveRoom"
+    Then 30 signal participants should be connected to room "SignalLeaveRoom"
+    And all signal participants in room "SignalLeaveRoom" should see each other within 15 seconds
+    And the p95 signal departure latency in room "SignalLeaveRoom" should be at most 2000 milliseconds
+    And no signal participant in room "SignalLeaveRoom" should have failed to join or been disconnected